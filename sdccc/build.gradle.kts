@@ -76,6 +76,15 @@ tasks.test {
     maxParallelForks = (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1)
 }
 
+// throughput measurements of the message storage, not part of the test suite as the results depend on the machine
+val benchmark by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Measures the insert throughput of the message storage."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("com.draeger.medical.sdccc.messages.MessageStorageBenchmark")
+    maxHeapSize = "3g"
+}
+
 val testsJar by tasks.registering(Jar::class) {
     archiveClassifier.set("tests")
     from(sourceSets["test"].output)
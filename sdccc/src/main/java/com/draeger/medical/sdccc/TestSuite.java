@@ -21,12 +21,19 @@ import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.guice.TomlConfigParser;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionRegistry;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.CaptureArchive;
+import com.draeger.medical.sdccc.messages.ExistingDatabaseHibernateConfig;
+import com.draeger.medical.sdccc.messages.HibernateConfig;
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.messages.SegmentLogStore;
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.util.PreconditionFilter;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.draeger.medical.sdccc.tests.util.TestDescriptionFilter;
 import com.draeger.medical.sdccc.tests.util.TestEnabledFilter;
+import com.draeger.medical.sdccc.tests.util.UnmarshalledMessageCache;
 import com.draeger.medical.sdccc.util.LoggingConfigurator;
 import com.draeger.medical.sdccc.util.LoggingOutputStream;
 import com.draeger.medical.sdccc.util.MessageGeneratingUtil;
@@ -42,6 +49,8 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 import com.google.inject.name.Names;
 import com.google.inject.util.Modules;
@@ -51,6 +60,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -99,6 +109,9 @@ public class TestSuite {
     private static final Duration MAX_WAIT = Duration.ofSeconds(10);
     private static final String SUFFIX_DIRECT = ".direct";
     private static final String SUFFIX_INVARIANT = ".invariant";
+    private static final String CAPTURE_ARCHIVE_FILE_NAME = "Capture.sdcccarchive";
+    // the test client is not started while re-evaluating, any existing adapter satisfies it
+    private static final String REEVALUATION_ADAPTER_ADDRESS = "127.0.0.1";
 
     private final Injector injector;
     private final String[] sdcTestDirectories;
@@ -211,15 +224,76 @@ public class TestSuite {
         return totalTestFailures;
     }
 
+    /**
+     * Run only the invariant tests against the messages and manipulations stored by a previous test run.
+     *
+     * <p>
+     * Neither the test client is started nor are the direct tests and preconditions executed, i.e. phases 1 to 3
+     * are skipped and the invariant tests evaluate the stored data as is.
+     *
+     * @return number of failed tests during the run
+     */
+    public long reevaluateInvariantTests() {
+        final var invariantTests =
+                collectEnabledTests(SUFFIX_INVARIANT, injector.getInstance(PreconditionFilter.class));
+
+        final OutputStream consoleOutput = new LoggingOutputStream(LOG, Level.INFO, StandardCharsets.UTF_8);
+        final PrintWriter outWriter = new PrintWriter(consoleOutput, false, StandardCharsets.UTF_8);
+
+        final var invariantTestLauncher = createLauncher(this.testRunDir, "SDCcc_invariant");
+        final var invariantTestPlan = invariantTestLauncher.discover(invariantTests);
+
+        final SummaryGeneratingListener invariantSummary = new SummaryGeneratingListener();
+        invariantTestLauncher.registerTestExecutionListeners(invariantSummary);
+
+        LOG.info("Re-evaluating invariant tests against stored data, skipping phases 1 to 3");
+        injector.getInstance(SharedMdibReplay.class).registerChecks(invariantTestPlan);
+        final long totalTestFailures =
+                phase2(0L, outWriter, invariantTestLauncher, invariantTestPlan, invariantSummary);
+
+        injector.getInstance(TestClient.class)
+                .getInjector()
+                .getInstance(UnmarshalledMessageCache.class)
+                .logStatistics();
+        closeMessageStore();
+
+        final TestRunObserver observer = injector.getInstance(TestRunObserver.class);
+        observer.setTotalNumberOfTestsRun(invariantSummary.getSummary().getTestsStartedCount());
+
+        return totalTestFailures;
+    }
+
     private void postProcessing() {
+        final var client = injector.getInstance(TestClient.class);
+        client.getInjector().getInstance(UnmarshalledMessageCache.class).logStatistics();
+
         LOG.info("Stopping SDCri");
         try {
-            injector.getInstance(TestClient.class).stopService(MAX_WAIT);
+            client.stopService(MAX_WAIT);
         } catch (final TimeoutException e) {
             testRunObserver.invalidateTestRun("Could not stop the test client", e);
         }
 
-        injector.getInstance(MessageStorage.class).close();
+        if (injector.getInstance(Key.get(Boolean.class, Names.named(TestSuiteConfig.COMMLOG_EXPORT_ARCHIVE)))) {
+            exportCaptureArchive();
+        }
+        closeMessageStore();
+    }
+
+    private void exportCaptureArchive() {
+        final var messageStorage = injector.getInstance(MessageStore.class);
+        messageStorage.flush();
+        final var archive = this.testRunDir.toPath().resolve(CAPTURE_ARCHIVE_FILE_NAME);
+        LOG.info("Exporting collected messages to {}", archive);
+        try {
+            CaptureArchive.export(messageStorage, archive);
+        } catch (final IOException e) {
+            LOG.warn("Could not export the collected messages to {}", archive, e);
+        }
+    }
+
+    private void closeMessageStore() {
+        injector.getInstance(MessageStore.class).close();
 
         if (testRunObserver.isInvalid()) {
             LOG.info("This test run has been deemed invalid, because of:");
@@ -241,7 +315,10 @@ public class TestSuite {
         }
 
         // flush all data so invariant tests run on most current data
-        injector.getInstance(MessageStorage.class).flush();
+        injector.getInstance(MessageStore.class).flush();
+
+        // replay the mdib histories once for all invariant tests instead of once per test
+        injector.getInstance(SharedMdibReplay.class).registerChecks(invariantTestPlan);
 
         final long result =
                 phase2(totalTestFailures, outWriter, invariantTestLauncher, invariantTestPlan, invariantSummary);
@@ -251,7 +328,10 @@ public class TestSuite {
 
     private void phase3() {
         // flush all data so preconditions evaluate most current data
-        injector.getInstance(MessageStorage.class).flush();
+        final var messageStorage = injector.getInstance(MessageStore.class);
+        messageStorage.flush();
+        // the bulk of the data has been collected, from now on the collected data is mostly queried
+        messageStorage.createIndexes();
 
         final var preconditions = injector.getInstance(PreconditionRegistry.class);
         try {
@@ -528,6 +608,19 @@ public class TestSuite {
                     LOG.info("Using adapter ip from cli: {}", ip);
                     bind(TestSuiteConfig.NETWORK_INTERFACE_ADDRESS, String.class, ip);
                 });
+
+                if (cmdLine.getReevaluationPath().isPresent()) {
+                    if (cmdLine.getReevaluationPath().get().toFile().isDirectory()) {
+                        // only the database of a previous test run can be opened again
+                        bind(
+                                TestSuiteConfig.COMMLOG_STORAGE_ENGINE,
+                                String.class,
+                                TestSuiteConfig.COMMLOG_STORAGE_ENGINE_DATABASE);
+                    }
+                    if (cmdLine.getIpAddress().isEmpty()) {
+                        bind(TestSuiteConfig.NETWORK_INTERFACE_ADDRESS, String.class, REEVALUATION_ADAPTER_ADDRESS);
+                    }
+                }
             }
         };
 
@@ -563,12 +656,38 @@ public class TestSuite {
                 .with(Modules.override(configModule, testConfigModule, testParameterModule)
                         .with(cliOverrideModule));
 
+        final List<Module> overrideModules = new ArrayList<>();
+        overrideModules.add(configurationModule);
+        overrideModules.add(new TestRunConfig(testRunDir));
+        final var reevaluationPath = cmdLine.getReevaluationPath();
+        if (reevaluationPath.isPresent() && reevaluationPath.get().toFile().isDirectory()) {
+            final File reevaluationDirectory = reevaluationPath.get().toFile();
+            final Path storageDirectory = ExistingDatabaseHibernateConfig.databasePath(reevaluationDirectory);
+            if (SegmentLogStore.containsSegments(storageDirectory)) {
+                // the segment log keeps its indexes on the heap only, they are rebuilt from the segments
+                overrideModules.add(new AbstractModule() {
+                    @Provides
+                    @Singleton
+                    MessageStore reopenSegmentLogStore(
+                            final MessageFactory messageFactory, final TestRunObserver testRunObserver)
+                            throws IOException {
+                        return SegmentLogStore.reopen(storageDirectory, messageFactory, testRunObserver);
+                    }
+                });
+            } else {
+                overrideModules.add(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(HibernateConfig.class)
+                                .toInstance(new ExistingDatabaseHibernateConfig(reevaluationDirectory));
+                    }
+                });
+            }
+        }
         if (overrides != null) {
-            return createInjector(
-                    defaultConfigurationModules, configurationModule, new TestRunConfig(testRunDir), overrides);
-        } else {
-            return createInjector(defaultConfigurationModules, configurationModule, new TestRunConfig(testRunDir));
+            overrideModules.add(overrides);
         }
+        return createInjector(defaultConfigurationModules, overrideModules.toArray(new Module[0]));
     }
 
     private static void exit(
@@ -579,7 +698,7 @@ public class TestSuite {
             LOG.info("Stopping SDCcc");
             printVerdict(numberOfTestFailures, testRunDir, injector);
 
-            injector.getInstance(MessageStorage.class).close();
+            injector.getInstance(MessageStore.class).close();
         } catch (final RuntimeException | Error e) {
 
             LOG.error("Unchecked exception during cleanup", e);
@@ -600,7 +719,7 @@ public class TestSuite {
         final TestRunObserver testRunObserver = injector.getInstance(TestRunObserver.class);
         final Boolean summarizeMessageEncodingErrors = injector.getInstance(
                 Key.get(Boolean.class, Names.named(TestSuiteConfig.SUMMARIZE_MESSAGE_ENCODING_ERRORS)));
-        final MessageStorage messageStorage = injector.getInstance(MessageStorage.class);
+        final MessageStore messageStorage = injector.getInstance(MessageStore.class);
 
         if (summarizeMessageEncodingErrors) {
             final long messageEncodingErrorCount = messageStorage.getMessageEncodingErrorCount();
@@ -757,6 +876,18 @@ public class TestSuite {
                         testRunDir));
             }
         }
+        final var reevaluationPath = cmdLine.getReevaluationPath();
+        // capture archives are imported into a new storage, directories have to contain the database to reopen
+        if (reevaluationPath.isPresent() && !reevaluationPath.get().toFile().isFile()) {
+            final var database = ExistingDatabaseHibernateConfig.databasePath(
+                    reevaluationPath.get().toFile());
+            if (!database.toFile().isDirectory()) {
+                throw new RuntimeException(String.format(
+                        "The test run directory %s specified with --reevaluate does not contain a database. Please"
+                                + " make sure that it is the directory of a previous test run.",
+                        reevaluationPath.get()));
+            }
+        }
         final var logConfig = LoggingConfigurator.loggerConfig(testRunDir, cmdLine.getFileLogLevel());
         checkLogConfig(logConfig);
 
@@ -817,7 +948,15 @@ public class TestSuite {
 
                 InjectorTestBase.setInjector(injector);
                 final var testSuite = injector.getInstance(TestSuite.class);
-                TestSuite.exit(testSuite.runTestSuite(), false, injector, testRunDir);
+                if (reevaluationPath.isPresent()) {
+                    LOG.info("Re-evaluating the test run stored in {}", reevaluationPath.get());
+                    if (reevaluationPath.get().toFile().isFile()) {
+                        importCaptureArchive(reevaluationPath.get(), injector);
+                    }
+                    TestSuite.exit(testSuite.reevaluateInvariantTests(), false, injector, testRunDir);
+                } else {
+                    TestSuite.exit(testSuite.runTestSuite(), false, injector, testRunDir);
+                }
             } catch (final RuntimeException | Error e) {
 
                 LOG.error("Unchecked exception while setting up or running the TestSuite", e);
@@ -826,6 +965,14 @@ public class TestSuite {
         }
     }
 
+    private static void importCaptureArchive(final Path archive, final Injector injector) {
+        try (final var captureArchive = CaptureArchive.open(archive)) {
+            captureArchive.importInto(injector.getInstance(MessageStore.class));
+        } catch (final IOException e) {
+            throw new RuntimeException(String.format("Could not import the capture archive %s", archive), e);
+        }
+    }
+
     private static void setSystemProperties() {
         System.setProperty(
                 "javax.xml.xpath.XPathFactory:http://java.sun.com/jaxp/xpath/dom",
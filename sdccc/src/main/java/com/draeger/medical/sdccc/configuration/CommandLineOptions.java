@@ -49,6 +49,7 @@ public class CommandLineOptions {
     private static final String TEST_RUN_DIRECTORY = "test_run_directory";
     private static final String NO_SUBDIRECTORIES = "no_subdirectories";
     private static final String FILE_LOG_LEVEL = "file_log_level";
+    private static final String REEVALUATE = "reevaluate";
     private static final String VERSION = "version";
     private final Path configPath;
     private final Path testConfigPath;
@@ -64,6 +65,7 @@ public class CommandLineOptions {
     private final String testRunDirectory;
     private final Boolean noSubdirectories;
     private final Level fileLogLevel;
+    private final Path reevaluationPath;
 
     /**
      * Parse the command line options passed.
@@ -116,6 +118,8 @@ public class CommandLineOptions {
         this.testRunDirectory = cmd.getOptionValue(TEST_RUN_DIRECTORY);
         this.noSubdirectories = Boolean.parseBoolean(cmd.getOptionValue(NO_SUBDIRECTORIES));
         this.fileLogLevel = Level.toLevel(cmd.getOptionValue(FILE_LOG_LEVEL), Level.INFO);
+        final var reevaluate = cmd.getOptionValue(REEVALUATE);
+        this.reevaluationPath = reevaluate != null ? Path.of(reevaluate) : null;
     }
 
     private void printVersion() {
@@ -252,6 +256,14 @@ public class CommandLineOptions {
             fileLogLevelOpt.setRequired(false);
             options.addOption(fileLogLevelOpt);
         }
+        {
+            final String description = "Directory of a previous test run or a capture archive exported by it. Instead"
+                    + " of connecting to a device, only the invariant tests are run against the messages and"
+                    + " manipulations stored by that run.";
+            final var reevaluateOpt = new Option("re", REEVALUATE, true, description);
+            reevaluateOpt.setRequired(false);
+            options.addOption(reevaluateOpt);
+        }
         return options;
     }
 
@@ -325,6 +337,14 @@ public class CommandLineOptions {
         return this.fileLogLevel;
     }
 
+    /**
+     * @return directory or capture archive of a previous test run to re-evaluate the invariant tests for, provided
+     *         via cli, empty if not set
+     */
+    public Optional<Path> getReevaluationPath() {
+        return Optional.ofNullable(reevaluationPath);
+    }
+
     private static void printNetworkAdapterInformation() throws SocketException {
         System.out.println("%nAvailable network adapters are:%n");
         final Iterator<NetworkInterface> networkInterfaceIterator =
@@ -14,6 +14,9 @@ import com.draeger.medical.sdccc.manipulation.Manipulations;
 import com.draeger.medical.sdccc.manipulation.guice.InteractionFactory;
 import com.draeger.medical.sdccc.messages.HibernateConfig;
 import com.draeger.medical.sdccc.messages.HibernateConfigImpl;
+import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.messages.SegmentLogStore;
 import com.draeger.medical.sdccc.messages.guice.ManipulationInfoFactory;
 import com.draeger.medical.sdccc.messages.guice.MessageFactory;
 import com.draeger.medical.sdccc.sdcri.CustomCryptoSettings;
@@ -24,8 +27,11 @@ import com.draeger.medical.sdccc.util.junit.guice.XmlReportFactory;
 import com.draeger.medical.sdccc.util.junit.util.ClassUtil;
 import com.draeger.medical.sdccc.util.junit.util.ClassUtilImpl;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import com.google.inject.name.Named;
 import org.somda.sdc.dpws.crypto.CryptoSettings;
 import org.somda.sdc.dpws.network.LocalAddressResolver;
 
@@ -51,4 +57,21 @@ public class DefaultTestSuiteModule extends AbstractModule {
         bind(LocalAddressResolver.class).to(LocalAddressResolverImpl.class).in(Singleton.class);
         bind(ManipulationSerializer.class).to(GsonManipulationSerializer.class).in(Singleton.class);
     }
+
+    @Provides
+    @Singleton
+    MessageStore getMessageStore(
+            @Named(TestSuiteConfig.COMMLOG_STORAGE_ENGINE) final String storageEngine,
+            final Provider<MessageStorage> messageStorage,
+            final Provider<SegmentLogStore> segmentLogStore) {
+        return switch (storageEngine) {
+            case TestSuiteConfig.COMMLOG_STORAGE_ENGINE_DATABASE -> messageStorage.get();
+            case TestSuiteConfig.COMMLOG_STORAGE_ENGINE_SEGMENT_LOG -> segmentLogStore.get();
+            default -> throw new IllegalArgumentException(String.format(
+                    "Unknown storage engine %s, expected %s or %s",
+                    storageEngine,
+                    TestSuiteConfig.COMMLOG_STORAGE_ENGINE_DATABASE,
+                    TestSuiteConfig.COMMLOG_STORAGE_ENGINE_SEGMENT_LOG));
+        };
+    }
 }
@@ -69,8 +69,29 @@ public final class TestSuiteConfig {
      * Commlog configuration
      */
     private static final String COMMLOG = "Commlog.";
-    // note, that the actual size will be (this * (thread count + 1))
+    // capacity of the ring buffer between collecting and storing messages, rounded up to the next power of two.
+    // note, that each insert thread holds up to this many converted messages on top of the ring buffer, so the
+    // actual number of messages held in memory is up to (ring buffer capacity + insert threads * this)
     public static final String COMMLOG_MESSAGE_BUFFER_SIZE = SDCCC + COMMLOG + "BufferSize";
+    // number of threads converting collected messages for storage, 0 uses one thread per logical processor
+    public static final String COMMLOG_CONVERSION_THREADS = SDCCC + COMMLOG + "ConversionThreads";
+    // number of threads inserting converted messages into the database, 0 uses one per two logical processors
+    public static final String COMMLOG_INSERT_THREADS = SDCCC + COMMLOG + "InsertThreads";
+    // number of rows sent to the database in a single jdbc batch
+    public static final String COMMLOG_INSERT_BATCH_SIZE = SDCCC + COMMLOG + "InsertBatchSize";
+    // spill collected messages to a file in the test run directory instead of blocking while the ring buffer is full,
+    // experimental and therefore disabled by default
+    public static final String COMMLOG_SPILL_TO_DISK = SDCCC + COMMLOG + "SpillToDisk";
+    // engine storing collected messages, either COMMLOG_STORAGE_ENGINE_DATABASE or COMMLOG_STORAGE_ENGINE_SEGMENT_LOG
+    public static final String COMMLOG_STORAGE_ENGINE = SDCCC + COMMLOG + "StorageEngine";
+    public static final String COMMLOG_STORAGE_ENGINE_DATABASE = "Database";
+    public static final String COMMLOG_STORAGE_ENGINE_SEGMENT_LOG = "SegmentLog";
+    // compress stored message bodies with a dictionary trained on the first collected bodies
+    public static final String COMMLOG_COMPRESS_BODIES = SDCCC + COMMLOG + "CompressBodies";
+    // number of message bodies the compression dictionary is trained on
+    public static final String COMMLOG_COMPRESSION_TRAINING_SAMPLES = SDCCC + COMMLOG + "CompressionTrainingSamples";
+    // write all collected messages and manipulations into a compressed capture archive after the test run
+    public static final String COMMLOG_EXPORT_ARCHIVE = SDCCC + COMMLOG + "ExportArchive";
 
     /*
      * Internal settings which should not be overwritten by a user
@@ -6,7 +6,7 @@
  */
 package com.draeger.medical.sdccc.manipulation.precondition
 
-import com.draeger.medical.sdccc.messages.MessageStorage
+import com.draeger.medical.sdccc.messages.MessageStore
 import com.google.inject.Inject
 import com.google.inject.Injector
 import com.google.inject.Singleton
@@ -78,7 +78,7 @@ class PreconditionRegistry @Inject internal constructor(private val injector: In
             logger.info { "Running precondition ${precondition.javaClass.simpleName}" }
             precondition.verifyPrecondition(injector)
             // flush data after each precondition to ensure that each precondition has most current data
-            injector.getInstance(MessageStorage::class.java).flush()
+            injector.getInstance(MessageStore::class.java).flush()
         }
     }
 
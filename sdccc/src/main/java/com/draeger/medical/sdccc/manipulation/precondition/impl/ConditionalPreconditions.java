@@ -10,17 +10,15 @@ package com.draeger.medical.sdccc.manipulation.precondition.impl;
 import com.draeger.medical.sdccc.manipulation.Manipulations;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.manipulation.precondition.SimplePrecondition;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.UnmarshalledMessageCache;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.t2iapi.ResponseTypes;
 import com.google.inject.Injector;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -60,8 +58,6 @@ import org.somda.sdc.biceps.model.participant.PatientContextDescriptor;
 import org.somda.sdc.biceps.model.participant.PatientContextState;
 import org.somda.sdc.biceps.model.participant.WorkflowContextDescriptor;
 import org.somda.sdc.biceps.model.participant.WorkflowContextState;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
 import org.somda.sdc.glue.consumer.SdcRemoteDevice;
 
@@ -74,27 +70,24 @@ public class ConditionalPreconditions {
             final Injector injector, final DescriptionModificationType... modificationTypes)
             throws PreconditionException {
         final var modificationTypesList = List.of(modificationTypes);
-        final var messageStorage = injector.getInstance(MessageStorage.class);
+        final var messageStorage = injector.getInstance(MessageStore.class);
         final var testClient = injector.getInstance(TestClient.class);
         final var clientInjector = testClient.getInjector();
-        final var marshalling = clientInjector.getInstance(MarshallingService.class);
-        final var soapUtil = clientInjector.getInstance(SoapUtil.class);
+        final var unmarshalledMessageCache = clientInjector.getInstance(UnmarshalledMessageCache.class);
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             // determine if there were any description insertions or deletions
             return messages.getStream()
-                    .map(MessageContent::getBody)
-                    .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                    .map(body -> {
+                    .map(messageContent -> {
                         try {
-                            return marshalling.unmarshal(body);
+                            return unmarshalledMessageCache.getBody(
+                                    messageContent, DescriptionModificationReport.class);
                         } catch (MarshallingException e) {
                             throw new RuntimeException(e);
                         }
                     })
-                    .map(message -> soapUtil.getBody(message, DescriptionModificationReport.class)
-                            .orElseThrow(() -> new RuntimeException(
-                                    "Could not retrieve description modification report body from message")))
+                    .map(body -> body.orElseThrow(() -> new RuntimeException(
+                            "Could not retrieve description modification report body from message")))
                     .anyMatch(message -> message.getReportPart().stream()
                             .map(ImpliedValueUtil::getModificationType)
                             .anyMatch(modificationTypesList::contains));
@@ -190,8 +183,8 @@ public class ConditionalPreconditions {
 
     private static boolean triggerReportPreconditionCheck(
             final Injector injector, final Logger log, final QName... reportType) throws PreconditionException {
-        final var messageStorage = injector.getInstance(MessageStorage.class);
-        try (final var messages = messageStorage.getInboundMessagesByBodyType(reportType)) {
+        final var messageStorage = injector.getInstance(MessageStore.class);
+        try (final var messages = messageStorage.getInboundMessageViewsByBodyType(reportType)) {
             // determine if there were any reports with the specified type
             final var areReportsPresent = messages.areObjectsPresent();
             log.info("Reports of types {} are present: {}", reportType, areReportsPresent);
@@ -228,8 +221,9 @@ public class ConditionalPreconditions {
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
-            final var messageStorage = injector.getInstance(MessageStorage.class);
-            try (final var messages = messageStorage.getInboundMessagesByBodyType(false, Constants.WSD_HELLO_BODY)) {
+            final var messageStorage = injector.getInstance(MessageStore.class);
+            try (final var messages =
+                    messageStorage.getInboundMessageViewsByBodyType(false, Constants.WSD_HELLO_BODY)) {
                 return messages.areObjectsPresent();
             } catch (final IOException e) {
                 throw new PreconditionException(
@@ -357,30 +351,27 @@ public class ConditionalPreconditions {
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
-            final var messageStorage = injector.getInstance(MessageStorage.class);
+            final var messageStorage = injector.getInstance(MessageStore.class);
             final var testClient = injector.getInstance(TestClient.class);
             final var clientInjector = testClient.getInjector();
-            final var marshalling = clientInjector.getInstance(MarshallingService.class);
-            final var soapUtil = clientInjector.getInstance(SoapUtil.class);
+            final var unmarshalledMessageCache = clientInjector.getInstance(UnmarshalledMessageCache.class);
             final var crtSeen = new AtomicBoolean(false);
             final var uptSeen = new AtomicBoolean(false);
             final var delSeen = new AtomicBoolean(false);
             try (final var messages =
-                    messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                    messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
                 // determine if there were a description insertion, update and deletion for an mds descriptor
                 final var reportParts = messages.getStream()
-                        .map(MessageContent::getBody)
-                        .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                        .map(body -> {
+                        .map(messageContent -> {
                             try {
-                                return marshalling.unmarshal(body);
+                                return unmarshalledMessageCache.getBody(
+                                        messageContent, DescriptionModificationReport.class);
                             } catch (MarshallingException e) {
                                 throw new RuntimeException(e);
                             }
                         })
-                        .map(message -> soapUtil.getBody(message, DescriptionModificationReport.class)
-                                .orElseThrow(() -> new RuntimeException(
-                                        "Could not retrieve description modification report body from message")))
+                        .map(body -> body.orElseThrow(() -> new RuntimeException(
+                                "Could not retrieve description modification report body from message")))
                         .map(DescriptionModificationReport::getReportPart)
                         .flatMap(Collection::stream)
                         .toList();
@@ -730,29 +721,25 @@ public class ConditionalPreconditions {
         }
 
         static boolean preconditionCheck(final Injector injector) throws PreconditionException {
-            final var messageStorage = injector.getInstance(MessageStorage.class);
+            final var messageStorage = injector.getInstance(MessageStore.class);
             final var testClient = injector.getInstance(TestClient.class);
             final var clientInjector = testClient.getInjector();
-            final var marshalling = clientInjector.getInstance(MarshallingService.class);
-            final var soapUtil = clientInjector.getInstance(SoapUtil.class);
+            final var unmarshalledMessageCache = clientInjector.getInstance(UnmarshalledMessageCache.class);
             final var contextStates = new ArrayList<AbstractContextState>();
             ALREADY_ASSOCIATED_CONTEXTS.values().forEach(Set::clear);
             try (final var messages =
-                    messageStorage.getInboundMessagesByBodyType(Constants.MSG_EPISODIC_CONTEXT_REPORT)) {
+                    messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_EPISODIC_CONTEXT_REPORT)) {
                 // determine if there were any context state changes
                 messages.getStream()
-                        .map(MessageContent::getBody)
-                        .map(body -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))
-                        .map(body -> {
+                        .map(messageContent -> {
                             try {
-                                return marshalling.unmarshal(body);
+                                return unmarshalledMessageCache.getBody(messageContent, EpisodicContextReport.class);
                             } catch (MarshallingException e) {
                                 throw new RuntimeException(e);
                             }
                         })
-                        .map(message -> soapUtil.getBody(message, EpisodicContextReport.class)
-                                .orElseThrow(() -> new RuntimeException(
-                                        "Could not retrieve episodic context report body from message")))
+                        .map(body -> body.orElseThrow(() -> new RuntimeException(
+                                "Could not retrieve episodic context report body from message")))
                         .forEach(message -> message.getReportPart().stream()
                                 .map(AbstractContextReport.ReportPart::getContextState)
                                 .toList()
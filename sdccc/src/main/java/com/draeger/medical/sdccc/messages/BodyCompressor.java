@@ -0,0 +1,290 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.BodyDictionaryEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+/**
+ * Compresses stored message bodies with a preset dictionary trained on the first bodies of a test run.
+ *
+ * <p>
+ * The envelopes sent by a device repeat the same namespace declarations, headers and handles over and over. Until
+ * the configured number of bodies has been sampled, bodies are stored as they are. Afterwards a dictionary holding
+ * the segments recurring most often in the samples is persisted, and every following body is deflated with it,
+ * unless that would not make it smaller. Sampling never blocks, the thread adding the last sample trains and persists
+ * the dictionary while all other threads keep storing bodies as they are until it has been published. Compressed bodies reference the dictionary and are decompressed
+ * transparently by their accessors.
+ */
+final class BodyCompressor {
+    private static final Logger LOG = LogManager.getLogger(BodyCompressor.class);
+
+    // deflate only refers back 32 KiB, a larger dictionary could not be used
+    static final int MAXIMUM_DICTIONARY_SIZE = 32 * 1024;
+    // segments are split after each tag, longer segments are cut so that single large values do not dominate
+    private static final int MAXIMUM_SEGMENT_LENGTH = 256;
+    private static final int MINIMUM_SEGMENT_LENGTH = 4;
+    private static final double BYTES_PER_MEBIBYTE = 1024.0 * 1024.0;
+
+    private final SessionFactory sessionFactory;
+    private final int trainingSampleCount;
+    private final ThreadLocal<Deflater> deflaters;
+    private final Map<String, BodyDictionaryEntity> dictionaries;
+
+    // each sampling thread claims a slot, the thread filling the last one trains the dictionary
+    private final AtomicReferenceArray<byte[]> samples;
+    private final AtomicInteger claimedSamples;
+    private final AtomicInteger filledSamples;
+
+    @Nullable
+    private volatile BodyDictionaryEntity dictionary;
+
+    private final AtomicLong compressedCount;
+    private final AtomicLong uncompressedLength;
+    private final AtomicLong compressedLength;
+    private final AtomicLong compressionNanos;
+
+    /**
+     * Creates a compressor which trains its dictionary on the given number of bodies. Dictionaries of stored bodies
+     * can be looked up even if the compressor is never used to compress bodies.
+     *
+     * @param sessionFactory      to persist the dictionary with and to load dictionaries of stored bodies
+     * @param trainingSampleCount number of bodies to train the dictionary on, at least one
+     */
+    BodyCompressor(final SessionFactory sessionFactory, final int trainingSampleCount) {
+        this.sessionFactory = sessionFactory;
+        this.trainingSampleCount = trainingSampleCount;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION));
+        this.dictionaries = new ConcurrentHashMap<>();
+        this.samples = new AtomicReferenceArray<>(trainingSampleCount);
+        this.claimedSamples = new AtomicInteger();
+        this.filledSamples = new AtomicInteger();
+        this.compressedCount = new AtomicLong();
+        this.uncompressedLength = new AtomicLong();
+        this.compressedLength = new AtomicLong();
+        this.compressionNanos = new AtomicLong();
+    }
+
+    /**
+     * Compresses the body of a converted message, or samples it while the dictionary has not been trained yet.
+     *
+     * @param messageContent to compress the body of
+     */
+    void compress(final MessageContent messageContent) {
+        final BodyDictionaryEntity currentDictionary = this.dictionary;
+        if (currentDictionary == null) {
+            sample(messageContent.getRawBody());
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final byte[] body = messageContent.getRawBody();
+        final byte[] compressed = currentDictionary.deflate(this.deflaters.get(), body);
+        if (compressed != null) {
+            messageContent.setCompressedBody(compressed, currentDictionary);
+        }
+        this.compressionNanos.addAndGet(System.nanoTime() - start);
+        this.compressedCount.incrementAndGet();
+        this.uncompressedLength.addAndGet(body.length);
+        this.compressedLength.addAndGet(compressed != null ? compressed.length : body.length);
+    }
+
+    /**
+     * Provides the dictionary with the given fingerprint, loading it from the database if it is not known yet, e.g.
+     * because the database of a previous test run has been opened.
+     *
+     * @param fingerprint of the dictionary
+     * @return the dictionary
+     */
+    BodyDictionaryEntity getDictionary(final String fingerprint) {
+        return this.dictionaries.computeIfAbsent(fingerprint, this::loadDictionary);
+    }
+
+    /**
+     * Logs the achieved compression ratio and throughput.
+     */
+    void logStatistics() {
+        final long count = this.compressedCount.get();
+        if (count == 0) {
+            LOG.info("No message bodies have been compressed, {} bodies were needed for training", trainingSampleCount);
+            return;
+        }
+        final long uncompressed = this.uncompressedLength.get();
+        final long compressed = this.compressedLength.get();
+        final long nanos = Math.max(1, this.compressionNanos.get());
+        final double ratio = (double) uncompressed / Math.max(1, compressed);
+        final double throughput = uncompressed / BYTES_PER_MEBIBYTE / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        LOG.info(
+                "Compressed {} message bodies from {} to {} bytes, ratio {}, at {} MiB/s per thread."
+                        + " Compression took {} ms in total.",
+                count,
+                uncompressed,
+                compressed,
+                String.format("%.2f", ratio),
+                String.format("%.1f", throughput),
+                TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private void sample(final byte[] body) {
+        final int slot = this.claimedSamples.getAndIncrement();
+        if (slot >= this.trainingSampleCount) {
+            // enough samples, the dictionary is being trained and the body is stored as it is
+            return;
+        }
+        this.samples.set(slot, body);
+        if (this.filledSamples.incrementAndGet() < this.trainingSampleCount) {
+            return;
+        }
+
+        // exactly one thread fills the last slot, it trains the dictionary without holding any lock
+        final long start = System.nanoTime();
+        final List<byte[]> trainingSamples = new ArrayList<>(this.trainingSampleCount);
+        for (int i = 0; i < this.trainingSampleCount; i++) {
+            trainingSamples.add(this.samples.getAndSet(i, null));
+        }
+        final byte[] trained = train(trainingSamples, MAXIMUM_DICTIONARY_SIZE);
+        if (trained.length == 0) {
+            LOG.warn("The sampled message bodies have nothing in common, message bodies are stored uncompressed");
+            return;
+        }
+        final BodyDictionaryEntity trainedDictionary = new BodyDictionaryEntity(trained, this.trainingSampleCount);
+        final StatelessSession session = this.sessionFactory.openStatelessSession();
+        try {
+            session.beginTransaction();
+            session.insert(trainedDictionary);
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+        // only committed dictionaries are referenced by compressed bodies
+        this.dictionaries.put(trainedDictionary.getFingerprint(), trainedDictionary);
+        this.dictionary = trainedDictionary;
+        LOG.info(
+                "Trained a {} byte dictionary on {} message bodies in {} ms",
+                trained.length,
+                this.trainingSampleCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private BodyDictionaryEntity loadDictionary(final String fingerprint) {
+        try (final Session session = this.sessionFactory.openSession()) {
+            final BodyDictionaryEntity loaded = session.get(BodyDictionaryEntity.class, fingerprint);
+            if (loaded == null) {
+                throw new IllegalStateException("Unknown body dictionary " + fingerprint);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Builds a preset dictionary from the segments recurring in most of the samples.
+     *
+     * <p>
+     * Each sample is split into segments ending with a tag. Segments are weighted by the number of samples containing
+     * them times their length, unique segments such as message ids are dropped. Deflate encodes nearer references
+     * more cheaply, hence the segments are placed with the highest weighted ones at the end of the dictionary.
+     *
+     * @param samples bodies to train on
+     * @param size    maximum size of the dictionary
+     * @return the dictionary, empty if no segment recurs
+     */
+    static byte[] train(final List<byte[]> samples, final int size) {
+        final Map<Segment, Integer> occurrences = new HashMap<>();
+        for (final byte[] sample : samples) {
+            final Set<Segment> segments = new HashSet<>();
+            int segmentStart = 0;
+            for (int i = 0; i < sample.length; i++) {
+                if (sample[i] == '>' || i - segmentStart + 1 == MAXIMUM_SEGMENT_LENGTH || i == sample.length - 1) {
+                    if (i - segmentStart + 1 >= MINIMUM_SEGMENT_LENGTH) {
+                        segments.add(new Segment(sample, segmentStart, i + 1));
+                    }
+                    segmentStart = i + 1;
+                }
+            }
+            for (final Segment segment : segments) {
+                occurrences.merge(segment, 1, Integer::sum);
+            }
+        }
+
+        final List<Map.Entry<Segment, Integer>> recurring = new ArrayList<>();
+        for (final Map.Entry<Segment, Integer> entry : occurrences.entrySet()) {
+            if (entry.getValue() > 1) {
+                recurring.add(entry);
+            }
+        }
+        final Comparator<Map.Entry<Segment, Integer>> byWeight =
+                Comparator.comparingLong(entry -> (long) entry.getValue() * entry.getKey().length());
+        recurring.sort(byWeight.reversed());
+
+        final List<Segment> selected = new ArrayList<>();
+        int selectedLength = 0;
+        for (final Map.Entry<Segment, Integer> entry : recurring) {
+            if (selectedLength + entry.getKey().length() <= size) {
+                selected.add(entry.getKey());
+                selectedLength += entry.getKey().length();
+            }
+        }
+
+        final ByteArrayOutputStream dictionary = new ByteArrayOutputStream(selectedLength);
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            final Segment segment = selected.get(i);
+            dictionary.write(segment.bytes(), segment.start(), segment.length());
+        }
+        return dictionary.toByteArray();
+    }
+
+    /**
+     * Range of a sample, compared by content.
+     */
+    private record Segment(byte[] bytes, int start, int end) {
+        private int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof final Segment segment
+                    && Arrays.equals(this.bytes, this.start, this.end, segment.bytes, segment.start, segment.end);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (int i = this.start; i < this.end; i++) {
+                hash = 31 * hash + this.bytes[i];
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Segment[" + this.start + ", " + this.end + "]";
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+/**
+ * Inserts converted messages and manipulations into the database without a persistence context.
+ *
+ * <p>
+ * Entities are inserted using a {@linkplain StatelessSession}, which neither tracks nor cascades them. Therefore
+ * related entities are inserted explicitly, grouped by table with parents first, so that consecutive inserts into the
+ * same table are sent in the jdbc batches configured by hibernate.jdbc.batch_size and hibernate.order_inserts.
+ *
+ * <p>
+ * Stateless sessions do not write collections. The rows of the actions and certificate tables of
+ * {@linkplain MessageContent} are inserted using batched prepared statements in a second transaction, as committing
+ * the first one is what sends the pending batches of the messages these rows reference. A failure in between leaves
+ * messages without their actions, which is acceptable as every failed insert invalidates the test run.
+ *
+ * <p>
+ * Certificates and header key and value pairs are interned by an {@linkplain EntityDictionary} before the messages
+ * referencing them are inserted, hence only values which have not been stored before are written.
+ */
+final class BulkInsertWriter {
+    private static final String ACTIONS_INSERT =
+            insertStatement(MessageContent.ACTIONS_TABLE, MessageContent.ACTIONS_COLUMN);
+    private static final String CERTS_INSERT =
+            insertStatement(MessageContent.CERTS_TABLE, MessageContent.CERTS_COLUMN);
+
+    private final SessionFactory sessionFactory;
+    private final int batchSize;
+    private final EntityDictionary dictionary;
+
+    /**
+     * Creates a writer for the entities mapped by the given session factory.
+     *
+     * @param sessionFactory to open sessions with
+     * @param batchSize      maximum number of collection rows sent to the database in a single jdbc batch
+     */
+    BulkInsertWriter(final SessionFactory sessionFactory, final int batchSize) {
+        this.sessionFactory = sessionFactory;
+        this.batchSize = batchSize;
+        this.dictionary = new EntityDictionary(sessionFactory);
+    }
+
+    /**
+     * Inserts the given entities and all entities related to them.
+     *
+     * @param entities {@linkplain MessageContent} and {@linkplain ManipulationData} entities to insert
+     */
+    void insert(final List<Object> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        final List<MessageContent> messageContents = new ArrayList<>(entities.size());
+        final List<ManipulationData> manipulations = new ArrayList<>();
+        for (final Object entity : entities) {
+            if (entity instanceof final MessageContent messageContent) {
+                messageContents.add(messageContent);
+            } else if (entity instanceof final ManipulationData manipulationData) {
+                manipulations.add(manipulationData);
+            } else {
+                throw new IllegalArgumentException("Unsupported entity " + entity.getClass());
+            }
+        }
+
+        // referenced values are committed separately, the messages can only be inserted afterwards
+        this.dictionary.intern(messageContents);
+
+        final StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            final List<CollectionRow> actionRows = new ArrayList<>();
+            final List<CollectionRow> certRows = new ArrayList<>();
+
+            final Transaction entityTransaction = session.beginTransaction();
+            for (final MessageContent messageContent : messageContents) {
+                final long id = (Long) session.insert(messageContent);
+                for (final String action : messageContent.getActions()) {
+                    actionRows.add(new CollectionRow(id, action));
+                }
+                for (final CertificateEntity certificate : messageContent.getCertificateEntities()) {
+                    certRows.add(new CollectionRow(id, certificate.getFingerprint()));
+                }
+            }
+            for (final MessageContent messageContent : messageContents) {
+                for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+                    session.insert(header);
+                }
+            }
+            for (final MessageContent messageContent : messageContents) {
+                for (final MdibVersionGroupEntity mdibVersionGroup : messageContent.getMdibVersionGroups()) {
+                    session.insert(mdibVersionGroup);
+                }
+            }
+            for (final ManipulationData manipulationData : manipulations) {
+                session.insert(manipulationData);
+            }
+            for (final ManipulationData manipulationData : manipulations) {
+                for (final ManipulationParameter parameter : manipulationData.getParameters()) {
+                    session.insert(parameter);
+                }
+            }
+            entityTransaction.commit();
+
+            if (actionRows.isEmpty() && certRows.isEmpty()) {
+                return;
+            }
+            final Transaction collectionTransaction = session.beginTransaction();
+            session.doWork(connection -> {
+                insertRows(connection, ACTIONS_INSERT, actionRows);
+                insertRows(connection, CERTS_INSERT, certRows);
+            });
+            collectionTransaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static String insertStatement(final String table, final String column) {
+        return String.format("insert into %s (%s, %s) values (?, ?)", table, MessageContent.OWNER_COLUMN, column);
+    }
+
+    private void insertRows(final Connection connection, final String insertStatement, final List<CollectionRow> rows)
+            throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (final PreparedStatement statement = connection.prepareStatement(insertStatement)) {
+            int batched = 0;
+            for (final CollectionRow row : rows) {
+                statement.setLong(1, row.owner());
+                statement.setString(2, row.value());
+                statement.addBatch();
+                batched++;
+                if (batched == batchSize) {
+                    statement.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private record CollectionRow(long owner, String value) {}
+}
@@ -0,0 +1,444 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Read access to a capture archive, a single compressed file holding the messages and manipulations of a test run.
+ *
+ * <p>
+ * Archives are written by {@linkplain CaptureArchiveWriter}, e.g. through {@linkplain #export(MessageStore, Path)}.
+ * Only the index and the certificates are read when an archive is opened, queries decompress just the blocks which
+ * can contain matching records, e.g. the blocks containing reports of a single sequence. Archives can also be
+ * streamed back into a {@linkplain MessageStore} using {@linkplain #importInto(MessageStore)}.
+ */
+public final class CaptureArchive implements AutoCloseable {
+    private static final Logger LOG = LogManager.getLogger(CaptureArchive.class);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<BlockIndex> blocks;
+    private final Map<String, X509Certificate> certificates;
+
+    private CaptureArchive(
+            final Path file,
+            final FileChannel channel,
+            final List<BlockIndex> blocks,
+            final Map<String, X509Certificate> certificates) {
+        this.file = file;
+        this.channel = channel;
+        this.blocks = blocks;
+        this.certificates = certificates;
+    }
+
+    /**
+     * Opens an archive, reading its index and certificates.
+     *
+     * @param file of the archive
+     * @return the opened archive
+     * @throws IOException if the file cannot be read or is not a capture archive
+     */
+    public static CaptureArchive open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final long size = channel.size();
+            if (size < CaptureArchiveWriter.HEADER_LENGTH + CaptureArchiveWriter.TRAILER_LENGTH) {
+                throw new IOException(String.format("%s is too short to be a capture archive", file));
+            }
+            final ByteBuffer header = readFully(channel, 0, CaptureArchiveWriter.HEADER_LENGTH);
+            checkMagic(file, header);
+            final int version = header.getInt();
+            if (version != CaptureArchiveWriter.FORMAT_VERSION) {
+                throw new IOException(String.format(
+                        "%s has format version %s, only version %s is supported",
+                        file, version, CaptureArchiveWriter.FORMAT_VERSION));
+            }
+            final ByteBuffer trailer = readFully(
+                    channel, size - CaptureArchiveWriter.TRAILER_LENGTH, CaptureArchiveWriter.TRAILER_LENGTH);
+            final long footerOffset = trailer.getLong();
+            final int footerLength = trailer.getInt();
+            checkMagic(file, trailer);
+
+            final ByteBuffer footer = readFully(channel, footerOffset, footerLength);
+            final int blockCount = footer.getInt();
+            final List<BlockIndex> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                final byte kind = footer.get();
+                final long offset = footer.getLong();
+                final int compressedLength = footer.getInt();
+                final int uncompressedLength = footer.getInt();
+                final int recordCount = footer.getInt();
+                final long minTimestamp = footer.getLong();
+                final long maxTimestamp = footer.getLong();
+                final int groupCount = footer.getInt();
+                final Set<GroupKey> groups = new HashSet<>(groupCount);
+                for (int j = 0; j < groupCount; j++) {
+                    final String bodyElement = MessageRecordCodec.readString(footer);
+                    groups.add(new GroupKey(bodyElement, MessageRecordCodec.readString(footer)));
+                }
+                blocks.add(new BlockIndex(
+                        kind,
+                        offset,
+                        compressedLength,
+                        uncompressedLength,
+                        recordCount,
+                        minTimestamp,
+                        maxTimestamp,
+                        groups));
+            }
+            final CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            final int certificateCount = footer.getInt();
+            final Map<String, X509Certificate> certificates = new HashMap<>(certificateCount);
+            for (int i = 0; i < certificateCount; i++) {
+                final Pair<String, X509Certificate> certificate =
+                        MessageRecordCodec.readCertificate(footer, certificateFactory);
+                certificates.put(certificate.getKey(), certificate.getValue());
+            }
+            LOG.debug("Opened capture archive {} with {} blocks", file, blocks.size());
+            return new CaptureArchive(file, channel, blocks, certificates);
+        } catch (final IOException | CertificateException | RuntimeException e) {
+            channel.close();
+            if (e instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(String.format("%s is not a valid capture archive", file), e);
+        }
+    }
+
+    /**
+     * Writes all messages and manipulations of a storage into a new archive.
+     *
+     * @param messageStore to export, should have been flushed
+     * @param file         to write the archive to, an existing file is replaced
+     * @throws IOException if the storage cannot be queried or the archive cannot be written
+     */
+    public static void export(final MessageStore messageStore, final Path file) throws IOException {
+        long messageCount = 0;
+        long manipulationCount = 0;
+        try (final CaptureArchiveWriter writer = new CaptureArchiveWriter(file)) {
+            for (final MessageStore.GetterResult<MessageContent> messages :
+                    List.of(messageStore.getInboundMessages(), messageStore.getOutboundMessages())) {
+                try (messages) {
+                    final Iterator<MessageContent> iterator = messages.getStream().iterator();
+                    while (iterator.hasNext()) {
+                        writer.addMessage(iterator.next());
+                        messageCount++;
+                    }
+                }
+            }
+            try (final MessageStore.GetterResult<ManipulationData> manipulations = messageStore.getManipulationData()) {
+                final Iterator<ManipulationData> iterator = manipulations.getStream().iterator();
+                while (iterator.hasNext()) {
+                    writer.addManipulation(iterator.next());
+                    manipulationCount++;
+                }
+            }
+        }
+        LOG.info("Exported {} messages and {} manipulations to {}", messageCount, manipulationCount, file);
+    }
+
+    /**
+     * Adds all messages and manipulations of this archive to a storage, as if they had just been collected.
+     *
+     * <p>
+     * Messages keep their uuid and timestamps and are converted by the storage again, the storage is flushed
+     * afterwards.
+     *
+     * @param messageStore to add the messages and manipulations to
+     */
+    public void importInto(final MessageStore messageStore) {
+        long messageCount = 0;
+        try (final Stream<MessageContent> messages = getMessages()) {
+            final Iterator<MessageContent> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                messageStore.addMessage(toMessage(iterator.next(), messageStore));
+                messageCount++;
+            }
+        }
+        long manipulationCount = 0;
+        try (final Stream<ManipulationData> manipulations = getManipulationData()) {
+            final Iterator<ManipulationData> iterator = manipulations.iterator();
+            while (iterator.hasNext()) {
+                final ManipulationData manipulation = iterator.next();
+                messageStore.createManipulationInfo(
+                        manipulation.getStartTimestamp(),
+                        manipulation.getFinishTimestamp(),
+                        manipulation.getResult(),
+                        manipulation.getResponse(),
+                        manipulation.getMethodName(),
+                        new ManipulationParameterUtil.ManipulationParameterData(manipulation.getParameters().stream()
+                                .map(parameter -> Pair.of(parameter.getParameterName(), parameter.getParameterValue()))
+                                .toList()));
+                manipulationCount++;
+            }
+        }
+        messageStore.flush();
+        LOG.info("Imported {} messages and {} manipulations from {}", messageCount, manipulationCount, this.file);
+    }
+
+    /**
+     * @return all SequenceId values of messages in the archive, in no particular order
+     */
+    public Set<String> getSequenceIds() {
+        final Set<String> sequenceIds = new LinkedHashSet<>();
+        for (final BlockIndex block : this.blocks) {
+            for (final GroupKey group : block.groups()) {
+                if (group.sequenceId() != null) {
+                    sequenceIds.add(group.sequenceId());
+                }
+            }
+        }
+        return sequenceIds;
+    }
+
+    /**
+     * Reads all messages, in the order they have been exported.
+     *
+     * @return stream of the messages, decompressing one block at a time
+     */
+    public Stream<MessageContent> getMessages() {
+        return messages(block -> true, entry -> true);
+    }
+
+    /**
+     * Reads the messages of a sequence with the given body types, in the order they have been exported.
+     *
+     * <p>
+     * Only blocks which contain a message of the sequence with one of the body types are decompressed.
+     *
+     * @param sequenceId SequenceId of the messages
+     * @param bodyTypes  body types of the messages
+     * @return stream of the matching messages
+     */
+    public Stream<MessageContent> getMessagesBySequenceIdAndBodyType(
+            final String sequenceId, final QName... bodyTypes) {
+        final Set<GroupKey> groups = new HashSet<>();
+        for (final QName bodyType : bodyTypes) {
+            groups.add(new GroupKey(bodyType.toString(), sequenceId));
+        }
+        return messages(
+                block -> block.groups().stream().anyMatch(groups::contains),
+                index -> index.mdibVersionGroups().stream()
+                        .anyMatch(group -> groups.contains(new GroupKey(group.bodyElement(), group.sequenceId()))));
+    }
+
+    /**
+     * Reads the messages with a nanoTimestamp within an interval, in the order they have been exported.
+     *
+     * <p>
+     * Only blocks whose time range overlaps the interval are decompressed.
+     *
+     * @param startTimestamp  lower bound of the nanoTimestamp, inclusive
+     * @param finishTimestamp upper bound of the nanoTimestamp, inclusive
+     * @return stream of the matching messages
+     */
+    public Stream<MessageContent> getMessagesByTimeInterval(final long startTimestamp, final long finishTimestamp) {
+        return messages(
+                block -> block.minTimestamp() <= finishTimestamp && block.maxTimestamp() >= startTimestamp,
+                index -> index.nanoTimestamp() >= startTimestamp && index.nanoTimestamp() <= finishTimestamp);
+    }
+
+    /**
+     * Reads all manipulations, in the order they have been exported.
+     *
+     * @return stream of the manipulations
+     */
+    public Stream<ManipulationData> getManipulationData() {
+        return this.blocks.stream()
+                .filter(block -> block.kind() == CaptureArchiveWriter.MANIPULATION_BLOCK)
+                .flatMap(block -> records(block).stream())
+                .map(MessageRecordCodec::readManipulationData);
+    }
+
+    /**
+     * @return number of compressed blocks in the archive
+     */
+    int getBlockCount() {
+        return this.blocks.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private Stream<MessageContent> messages(
+            final Predicate<BlockIndex> blockFilter, final Predicate<MessageRecordCodec.MessageIndex> filter) {
+        return this.blocks.stream()
+                .filter(block -> block.kind() == CaptureArchiveWriter.MESSAGE_BLOCK && blockFilter.test(block))
+                .flatMap(block -> records(block).stream())
+                // the index is decoded without copying the body, only matching messages are decoded completely
+                .filter(record -> filter.test(MessageRecordCodec.readMessageIndex(record)))
+                .map(record -> MessageRecordCodec.readMessageContent(record, this::certificate));
+    }
+
+    /**
+     * Decompresses a block.
+     *
+     * @param block to decompress
+     * @return the records of the block, each limited to the record
+     */
+    private List<ByteBuffer> records(final BlockIndex block) {
+        final byte[] uncompressed = new byte[block.uncompressedLength()];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(readFully(this.channel, block.offset(), block.compressedLength()));
+            int length = 0;
+            while (length < uncompressed.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != uncompressed.length) {
+                throw new IOException(String.format(
+                        "Block at offset %s of %s is truncated, expected %s bytes but got %s",
+                        block.offset(), this.file, uncompressed.length, length));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final DataFormatException e) {
+            throw new UncheckedIOException(new IOException(
+                    String.format("Block at offset %s of %s is corrupt", block.offset(), this.file), e));
+        } finally {
+            inflater.end();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(uncompressed);
+        final List<ByteBuffer> records = new ArrayList<>(block.recordCount());
+        while (buffer.hasRemaining()) {
+            final int length = buffer.getInt();
+            records.add(buffer.slice(buffer.position(), length));
+            buffer.position(buffer.position() + length);
+        }
+        return records;
+    }
+
+    private X509Certificate certificate(final String fingerprint) {
+        return Objects.requireNonNull(this.certificates.get(fingerprint), fingerprint);
+    }
+
+    private static Message toMessage(final MessageContent messageContent, final MessageStore messageStore) {
+        final String sender = messageContent.getSender();
+        final boolean inbound = messageContent.getDirection() == CommunicationLog.Direction.INBOUND;
+        // the sender is derived from the transport info again while the message is converted
+        final TransportInfo transportInfo = new TransportInfo(
+                messageContent.getScheme(),
+                inbound ? null : sender,
+                null,
+                inbound ? sender : null,
+                null,
+                messageContent.getCertificateEntities().stream()
+                        .map(CertificateEntity::getCertificate)
+                        .toList());
+
+        final ApplicationInfo applicationInfo;
+        if (messageContent.getTransactionId() != null || !messageContent.getHeaderEntities().isEmpty()) {
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+                headers.put(header.getHeaderKey(), header.getHeaderValue());
+            }
+            applicationInfo =
+                    new HttpApplicationInfo(headers, messageContent.getTransactionId(), messageContent.getRequestUri());
+        } else {
+            applicationInfo = new ApplicationInfo();
+        }
+
+        return new Message(
+                messageContent.getDirection(),
+                messageContent.getMessageType(),
+                new CommunicationContext(applicationInfo, transportInfo, null),
+                messageStore,
+                messageContent.getTimestamp(),
+                messageContent.getNanoTimestamp(),
+                messageContent.getUuid(),
+                messageContent.getRawBody(),
+                messageContent.getRawMessageHash());
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int length)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of capture archive");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void checkMagic(final Path file, final ByteBuffer buffer) throws IOException {
+        final byte[] magic = new byte[CaptureArchiveWriter.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, CaptureArchiveWriter.MAGIC)) {
+            throw new IOException(String.format("%s is not a capture archive", file));
+        }
+    }
+
+    /**
+     * Body type and SequenceId of an MdibVersion group, as indexed per block.
+     *
+     * @param bodyElement qualified name of the body element
+     * @param sequenceId  SequenceId, null if the body has none
+     */
+    record GroupKey(String bodyElement, @Nullable String sequenceId) {}
+
+    /**
+     * Location and content summary of a compressed block.
+     */
+    record BlockIndex(
+            byte kind,
+            long offset,
+            int compressedLength,
+            int uncompressedLength,
+            int recordCount,
+            long minTimestamp,
+            long maxTimestamp,
+            Set<GroupKey> groups) {}
+}
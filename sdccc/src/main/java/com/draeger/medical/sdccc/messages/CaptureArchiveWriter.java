@@ -0,0 +1,249 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes stored messages and manipulations into a single, compressed {@linkplain CaptureArchive} file.
+ *
+ * <p>
+ * Records are collected into blocks which are compressed individually once they reach the block size. The index
+ * of all blocks, i.e. their location, time range and the body types and SequenceIds of the messages they contain,
+ * is written into a footer together with the certificates, so that readers only decompress the blocks they need.
+ */
+public final class CaptureArchiveWriter implements AutoCloseable {
+    static final byte[] MAGIC = "SDCccArc".getBytes(StandardCharsets.US_ASCII);
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + Integer.BYTES;
+    static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES + MAGIC.length;
+    static final byte MESSAGE_BLOCK = 1;
+    static final byte MANIPULATION_BLOCK = 2;
+
+    private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final Deflater deflater;
+    private final BlockBuilder messages;
+    private final BlockBuilder manipulations;
+    private final List<CaptureArchive.BlockIndex> blocks;
+    private final Map<String, CertificateEntity> certificates;
+    private boolean closed;
+
+    /**
+     * Creates a new archive, an existing file is replaced.
+     *
+     * @param file to write the archive to
+     * @throws IOException if the file could not be created
+     */
+    public CaptureArchiveWriter(final Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    CaptureArchiveWriter(final Path file, final int blockSize) throws IOException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive, but is " + blockSize);
+        }
+        this.channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.blockSize = blockSize;
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.messages = new BlockBuilder(MESSAGE_BLOCK);
+        this.manipulations = new BlockBuilder(MANIPULATION_BLOCK);
+        this.blocks = new ArrayList<>();
+        this.certificates = new LinkedHashMap<>();
+
+        writeFully(ByteBuffer.allocate(HEADER_LENGTH).put(MAGIC).putInt(FORMAT_VERSION).flip());
+    }
+
+    /**
+     * Adds a stored message to the archive.
+     *
+     * @param messageContent to add
+     * @throws IOException if a completed block could not be written
+     */
+    public void addMessage(final MessageContent messageContent) throws IOException {
+        for (final CertificateEntity certificate : messageContent.getCertificateEntities()) {
+            this.certificates.putIfAbsent(certificate.getFingerprint(), certificate);
+        }
+        // only messages received via http carry a transaction id or headers
+        final boolean http =
+                messageContent.getTransactionId() != null || !messageContent.getHeaderEntities().isEmpty();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(messageContent.getBodyLength() + 1024);
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            MessageRecordCodec.writeMessage(out, messageContent, messageContent.getRawMessageHash(), http);
+        }
+        this.messages.add(bytes, messageContent.getNanoTimestamp());
+        for (final MdibVersionGroupEntity group : messageContent.getMdibVersionGroups()) {
+            this.messages.groups.add(new CaptureArchive.GroupKey(group.getBodyElement(), group.getSequenceId()));
+        }
+        if (this.messages.size() >= this.blockSize) {
+            writeBlock(this.messages);
+        }
+    }
+
+    /**
+     * Adds a stored manipulation to the archive.
+     *
+     * @param manipulationData to add
+     * @throws IOException if a completed block could not be written
+     */
+    public void addManipulation(final ManipulationData manipulationData) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            MessageRecordCodec.writeManipulation(out, manipulationData);
+        }
+        this.manipulations.add(bytes, manipulationData.getStartTimestamp());
+        if (this.manipulations.size() >= this.blockSize) {
+            writeBlock(this.manipulations);
+        }
+    }
+
+    /**
+     * Writes the remaining records, the index and the certificates and closes the file.
+     *
+     * @throws IOException if the archive could not be completed
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            writeBlock(this.messages);
+            writeBlock(this.manipulations);
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(this.blocks.size());
+                for (final CaptureArchive.BlockIndex block : this.blocks) {
+                    out.writeByte(block.kind());
+                    out.writeLong(block.offset());
+                    out.writeInt(block.compressedLength());
+                    out.writeInt(block.uncompressedLength());
+                    out.writeInt(block.recordCount());
+                    out.writeLong(block.minTimestamp());
+                    out.writeLong(block.maxTimestamp());
+                    out.writeInt(block.groups().size());
+                    for (final CaptureArchive.GroupKey group : block.groups()) {
+                        MessageRecordCodec.writeString(out, group.bodyElement());
+                        MessageRecordCodec.writeString(out, group.sequenceId());
+                    }
+                }
+                out.writeInt(this.certificates.size());
+                for (final CertificateEntity certificate : this.certificates.values()) {
+                    MessageRecordCodec.writeCertificate(out, certificate);
+                }
+            }
+            final long footerOffset = this.channel.position();
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+            writeFully(ByteBuffer.allocate(TRAILER_LENGTH)
+                    .putLong(footerOffset)
+                    .putInt(bytes.size())
+                    .put(MAGIC)
+                    .flip());
+            this.channel.force(false);
+        } finally {
+            this.deflater.end();
+            this.channel.close();
+        }
+    }
+
+    private void writeBlock(final BlockBuilder block) throws IOException {
+        if (block.recordCount == 0) {
+            return;
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(block.size() / 4);
+        this.deflater.reset();
+        // closing the stream finishes the deflater, but does not end it
+        try (final DeflaterOutputStream out = new DeflaterOutputStream(compressed, this.deflater)) {
+            block.bytes.writeTo(out);
+        }
+        final long offset = this.channel.position();
+        writeFully(ByteBuffer.wrap(compressed.toByteArray()));
+        this.blocks.add(new CaptureArchive.BlockIndex(
+                block.kind,
+                offset,
+                compressed.size(),
+                block.size(),
+                block.recordCount,
+                block.minTimestamp,
+                block.maxTimestamp,
+                Set.copyOf(block.groups)));
+        block.clear();
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+
+    /**
+     * Uncompressed records of the block currently being filled, each prefixed by its length.
+     */
+    private static final class BlockBuilder {
+        private final byte kind;
+        private final ByteArrayOutputStream bytes;
+        private final DataOutputStream out;
+        private final Set<CaptureArchive.GroupKey> groups;
+        private int recordCount;
+        private long minTimestamp;
+        private long maxTimestamp;
+
+        private BlockBuilder(final byte kind) {
+            this.kind = kind;
+            this.bytes = new ByteArrayOutputStream();
+            this.out = new DataOutputStream(this.bytes);
+            this.groups = new LinkedHashSet<>();
+            clear();
+        }
+
+        private void add(final ByteArrayOutputStream record, final long timestamp) throws IOException {
+            this.out.writeInt(record.size());
+            record.writeTo(this.out);
+            this.recordCount++;
+            this.minTimestamp = Math.min(this.minTimestamp, timestamp);
+            this.maxTimestamp = Math.max(this.maxTimestamp, timestamp);
+        }
+
+        private int size() {
+            return this.bytes.size();
+        }
+
+        private void clear() {
+            this.bytes.reset();
+            this.groups.clear();
+            this.recordCount = 0;
+            this.minTimestamp = Long.MAX_VALUE;
+            this.maxTimestamp = Long.MIN_VALUE;
+        }
+    }
+}
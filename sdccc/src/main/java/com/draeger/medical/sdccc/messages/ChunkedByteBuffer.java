@@ -0,0 +1,127 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Growable byte buffer made up of chunks, the full size ones are taken from and returned to a shared pool.
+ *
+ * <p>
+ * Most messages are small, hence the first chunk is small as well, unless the expected length is known, and each
+ * further chunk doubles in size up to {@linkplain #CHUNK_SIZE}. Growing the buffer never copies already written
+ * data, the content is copied at most once into an array of the final size when the buffer is released.
+ */
+final class ChunkedByteBuffer {
+    static final int FIRST_CHUNK_SIZE = 1024;
+    static final int CHUNK_SIZE = 16 * 1024;
+    static final int MAX_POOLED_CHUNKS = 256;
+
+    private static final ArrayBlockingQueue<byte[]> CHUNK_POOL = new ArrayBlockingQueue<>(MAX_POOLED_CHUNKS);
+
+    private final List<byte[]> chunks;
+    private final int expectedLength;
+    private byte[] currentChunk;
+    private int currentChunkCount;
+    private int size;
+
+    ChunkedByteBuffer() {
+        this(0);
+    }
+
+    /**
+     * Creates a buffer whose first chunk fits the expected length, up to {@linkplain #CHUNK_SIZE}.
+     *
+     * @param expectedLength expected length of the content, e.g. from a Content-Length header, 0 if unknown
+     */
+    ChunkedByteBuffer(final int expectedLength) {
+        this.chunks = new ArrayList<>();
+        this.expectedLength = expectedLength;
+        this.currentChunk = null;
+        this.currentChunkCount = 0;
+        this.size = 0;
+    }
+
+    void write(final int b) {
+        if (currentChunk == null || currentChunkCount == currentChunk.length) {
+            nextChunk();
+        }
+        currentChunk[currentChunkCount++] = (byte) b;
+        size++;
+    }
+
+    void write(final byte[] b, final int off, final int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (currentChunk == null || currentChunkCount == currentChunk.length) {
+                nextChunk();
+            }
+            final int toCopy = Math.min(remaining, currentChunk.length - currentChunkCount);
+            System.arraycopy(b, offset, currentChunk, currentChunkCount, toCopy);
+            currentChunkCount += toCopy;
+            offset += toCopy;
+            remaining -= toCopy;
+        }
+        size += len;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the content into an array of the exact size and returns all full size chunks to the pool. Content
+     * filling a single chunk exactly, e.g. because its length was known, is returned without copying it.
+     *
+     * <p>
+     * The buffer must not be used afterwards.
+     *
+     * @return the written content
+     */
+    byte[] toByteArrayAndRelease() {
+        final byte[] result;
+        if (chunks.size() == 1 && currentChunkCount == currentChunk.length) {
+            result = currentChunk;
+        } else {
+            result = new byte[size];
+            int position = 0;
+            for (final byte[] chunk : chunks) {
+                final int length = Math.min(chunk.length, size - position);
+                System.arraycopy(chunk, 0, result, position, length);
+                position += length;
+                if (chunk.length == CHUNK_SIZE) {
+                    // the pool is bounded, surplus chunks are left to the garbage collector
+                    CHUNK_POOL.offer(chunk);
+                }
+            }
+        }
+        chunks.clear();
+        currentChunk = null;
+        currentChunkCount = 0;
+        size = 0;
+        return result;
+    }
+
+    private void nextChunk() {
+        final int chunkSize;
+        if (currentChunk == null) {
+            chunkSize = expectedLength > 0 ? Math.min(expectedLength, CHUNK_SIZE) : FIRST_CHUNK_SIZE;
+        } else {
+            chunkSize = Math.min(Math.max(currentChunk.length * 2, FIRST_CHUNK_SIZE), CHUNK_SIZE);
+        }
+        final byte[] pooled = chunkSize == CHUNK_SIZE ? CHUNK_POOL.poll() : null;
+        currentChunk = pooled != null ? pooled : new byte[chunkSize];
+        currentChunkCount = 0;
+        chunks.add(currentChunk);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.util.List;
+
+/**
+ * Indexes supporting the queries of the {@linkplain MessageStorage}.
+ *
+ * <p>
+ * Most indexes are not part of the generated schema, as maintaining them while messages are collected slows down
+ * inserts. They are created by {@linkplain MessageStorage#createIndexes()} once the bulk of the data has been stored.
+ * The unique indexes on the identifiers are created together with the schema instead, as nothing else prevents an
+ * entry from being stored twice while messages are collected.
+ */
+enum DatabaseIndex {
+    /**
+     * Guarantees that message identifiers are unique and supports looking up messages by their identifier.
+     */
+    MESSAGE_CONTENT_UUID("message_content_uuid_idx", "message_content", true, true, List.of("uuid")),
+    /**
+     * Used by all direction based queries, which are also ordered by their arrival.
+     */
+    MESSAGE_CONTENT_DIRECTION(
+            "message_content_direction_idx", "message_content", false, false, List.of("direction", "nanoTimestamp")),
+    /**
+     * Used by queries for the reports of a sequence, ordered by their MdibVersion.
+     */
+    MDIB_VERSION_GROUPS_SEQUENCE(
+            "mdib_version_groups_sequence_idx",
+            "mdib_version_groups",
+            false,
+            false,
+            List.of("sequenceId", "bodyElement", "mdibVersion")),
+    /**
+     * Used by the correlated body type subqueries, which match a body element for a given message.
+     */
+    MDIB_VERSION_GROUPS_BODY_ELEMENT(
+            "mdib_version_groups_body_idx",
+            "mdib_version_groups",
+            false,
+            false,
+            List.of("bodyElement", "messageContent_incId")),
+    /**
+     * Guarantees that manipulation identifiers are unique.
+     */
+    MANIPULATION_DATA_UUID("manipulation_data_uuid_idx", "manipulation_data", true, true, List.of("uuid")),
+    /**
+     * Used by queries for manipulations by name, ordered by their start.
+     */
+    MANIPULATION_DATA_METHOD(
+            "manipulation_data_method_idx", "manipulation_data", false, false, List.of("methodName", "startTimestamp")),
+    /**
+     * Used by queries for manipulations with specific parameters.
+     */
+    MANIPULATION_PARAMETER_NAME(
+            "manipulation_parameter_name_idx",
+            "manipulation_parameter",
+            false,
+            false,
+            List.of("parameterName", "manipulationData_incId"));
+
+    private final String indexName;
+    private final String tableName;
+    private final boolean unique;
+    private final boolean createdWithSchema;
+    private final List<String> columns;
+
+    DatabaseIndex(
+            final String indexName,
+            final String tableName,
+            final boolean unique,
+            final boolean createdWithSchema,
+            final List<String> columns) {
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.unique = unique;
+        this.createdWithSchema = createdWithSchema;
+        this.columns = columns;
+    }
+
+    String getIndexName() {
+        return indexName;
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return true if the index is created together with the schema, false if it is created after collection
+     */
+    boolean isCreatedWithSchema() {
+        return createdWithSchema;
+    }
+
+    /**
+     * @return statement creating the index
+     */
+    String createStatement() {
+        return String.format(
+                "CREATE %sINDEX %s ON %s (%s)",
+                unique ? "UNIQUE " : "", indexName, tableName, String.join(", ", columns));
+    }
+}
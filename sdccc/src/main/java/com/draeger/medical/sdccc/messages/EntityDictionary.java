@@ -0,0 +1,152 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderFieldEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageBodyEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+/**
+ * Interns the values many messages have in common, i.e. bodies, certificates and header key and value pairs, so that
+ * each distinct value is stored only once and referenced by the messages.
+ *
+ * <p>
+ * Known values are looked up without locking. Values seen for the first time are persisted and committed in a
+ * separate transaction before the messages referencing them are inserted, so that concurrently inserting threads
+ * only ever reference committed rows.
+ */
+final class EntityDictionary {
+    private final SessionFactory sessionFactory;
+    private final Map<HeaderField, HTTPHeaderFieldEntity> headerFields;
+    private final Set<String> certificateFingerprints;
+    private final Set<ByteBuffer> messageBodyHashes;
+
+    /**
+     * Creates an empty dictionary, the database must not contain any interned values yet.
+     *
+     * @param sessionFactory to persist new values with
+     */
+    EntityDictionary(final SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+        this.headerFields = new ConcurrentHashMap<>();
+        this.certificateFingerprints = ConcurrentHashMap.newKeySet();
+        this.messageBodyHashes = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Persists all values of the given messages which have not been seen before and replaces the header key and
+     * value pairs of the messages by the persisted ones. Bodies and certificates are referenced by their hash, messages
+     * whose body has been persisted before reference the persisted row without storing the body again.
+     *
+     * @param messageContents to intern the values of
+     */
+    void intern(final List<MessageContent> messageContents) {
+        final Map<HeaderField, HTTPHeaderFieldEntity> newHeaderFields = new LinkedHashMap<>();
+        final Map<String, CertificateEntity> newCertificates = new LinkedHashMap<>();
+        final Map<ByteBuffer, MessageBodyEntity> newMessageBodies = new LinkedHashMap<>();
+        for (final MessageContent messageContent : messageContents) {
+            final MessageBodyEntity messageBody = messageContent.getMessageBody();
+            // wrapping compares the hashes by content without copying them
+            final ByteBuffer hash = ByteBuffer.wrap(messageBody.getHash());
+            if (!this.messageBodyHashes.contains(hash)) {
+                newMessageBodies.putIfAbsent(hash, messageBody);
+            }
+            for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+                final HeaderField key = new HeaderField(header.getHeaderKey(), header.getHeaderValue());
+                if (!this.headerFields.containsKey(key)) {
+                    newHeaderFields.putIfAbsent(key, header.getHeaderField());
+                }
+            }
+            for (final CertificateEntity certificate : messageContent.getCertificateEntities()) {
+                if (!this.certificateFingerprints.contains(certificate.getFingerprint())) {
+                    newCertificates.putIfAbsent(certificate.getFingerprint(), certificate);
+                }
+            }
+        }
+
+        if (!newHeaderFields.isEmpty() || !newCertificates.isEmpty() || !newMessageBodies.isEmpty()) {
+            persist(newHeaderFields, newCertificates, newMessageBodies);
+        }
+
+        for (final MessageContent messageContent : messageContents) {
+            for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+                header.setHeaderField(
+                        this.headerFields.get(new HeaderField(header.getHeaderKey(), header.getHeaderValue())));
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct header key and value pairs
+     */
+    int getHeaderFieldCount() {
+        return this.headerFields.size();
+    }
+
+    /**
+     * @return the number of distinct certificates
+     */
+    int getCertificateCount() {
+        return this.certificateFingerprints.size();
+    }
+
+    /**
+     * @return the number of distinct message bodies
+     */
+    int getMessageBodyCount() {
+        return this.messageBodyHashes.size();
+    }
+
+    // values are only added while holding the lock, so that no value is persisted twice
+    private synchronized void persist(
+            final Map<HeaderField, HTTPHeaderFieldEntity> newHeaderFields,
+            final Map<String, CertificateEntity> newCertificates,
+            final Map<ByteBuffer, MessageBodyEntity> newMessageBodies) {
+        final StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.beginTransaction();
+            final Map<HeaderField, HTTPHeaderFieldEntity> persistedHeaderFields = new LinkedHashMap<>();
+            for (final Map.Entry<HeaderField, HTTPHeaderFieldEntity> entry : newHeaderFields.entrySet()) {
+                if (!this.headerFields.containsKey(entry.getKey())) {
+                    session.insert(entry.getValue());
+                    persistedHeaderFields.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (final CertificateEntity certificate : newCertificates.values()) {
+                if (!this.certificateFingerprints.contains(certificate.getFingerprint())) {
+                    session.insert(certificate);
+                }
+            }
+            for (final Map.Entry<ByteBuffer, MessageBodyEntity> entry : newMessageBodies.entrySet()) {
+                if (!this.messageBodyHashes.contains(entry.getKey())) {
+                    session.insert(entry.getValue());
+                }
+            }
+            session.getTransaction().commit();
+
+            // only committed values are handed out
+            this.headerFields.putAll(persistedHeaderFields);
+            this.certificateFingerprints.addAll(newCertificates.keySet());
+            this.messageBodyHashes.addAll(newMessageBodies.keySet());
+        } finally {
+            session.close();
+        }
+    }
+
+    private record HeaderField(String key, String value) {}
+}
@@ -0,0 +1,73 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+/**
+ * Hibernate configuration using the database of a previous test run, without creating or altering its schema.
+ *
+ * <p>
+ * All connections to the database are read-only, Derby rejects any statement modifying it.
+ */
+public class ExistingDatabaseHibernateConfig extends HibernateConfigBase {
+
+    /**
+     * @param testRunDir directory of the previous test run containing the database
+     */
+    public ExistingDatabaseHibernateConfig(final File testRunDir) {
+        // nothing is inserted into the database of a previous test run, batching is irrelevant
+        super(databasePath(testRunDir).toString(), 1, false);
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final var config = super.getConfiguration();
+        config.setProperty(Environment.CONNECTION_PROVIDER, ReadOnlyConnectionProvider.class.getName());
+        return config;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * @param testRunDir directory of a test run
+     * @return location of the database of the test run
+     */
+    public static Path databasePath(final File testRunDir) {
+        return Path.of(testRunDir.getAbsolutePath(), "Database");
+    }
+
+    /**
+     * Connection provider handing out read-only connections only.
+     *
+     * <p>
+     * Derby has no connection url attribute for read-only access, the read-only connection mode would have to be
+     * stored in the database itself, hence every connection is switched to read-only before it is used.
+     */
+    public static class ReadOnlyConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final Connection connection = super.getConnection();
+            // derby refuses to switch connections with an active transaction, pooled connections stay read-only
+            if (!connection.isReadOnly()) {
+                connection.setReadOnly(true);
+            }
+            return connection;
+        }
+    }
+}
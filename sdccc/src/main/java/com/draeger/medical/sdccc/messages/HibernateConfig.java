@@ -25,6 +25,13 @@ public interface HibernateConfig extends AutoCloseable {
      */
     int getInsertBatchSize();
 
+    /**
+     * @return true if the database must not be modified, e.g. because it belongs to a previous test run
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
     @Override
     void close() throws HibernateException;
 }
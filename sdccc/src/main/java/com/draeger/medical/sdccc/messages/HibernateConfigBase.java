@@ -7,10 +7,14 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import com.draeger.medical.sdccc.messages.mapping.BodyDictionaryEntity;
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
 import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderFieldEntity;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
 import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageBodyEntity;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.google.inject.Singleton;
 import java.sql.Connection;
@@ -36,6 +40,8 @@ public class HibernateConfigBase implements HibernateConfig {
     private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 10;
 
     private final String baseUrl;
+    private final int insertBatchSize;
+    private final boolean createDatabase;
 
     /**
      * Creates a hibernate configuration storing the database at the specified location.
@@ -43,13 +49,40 @@ public class HibernateConfigBase implements HibernateConfig {
      * @param derbyUrl location to store the database at
      */
     public HibernateConfigBase(final String derbyUrl) {
+        this(derbyUrl, INSERT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a hibernate configuration storing the database at the specified location.
+     *
+     * @param derbyUrl        location to store the database at
+     * @param insertBatchSize size of jdbc batches for insertion into the database
+     */
+    public HibernateConfigBase(final String derbyUrl, final int insertBatchSize) {
+        this(derbyUrl, insertBatchSize, true);
+    }
+
+    /**
+     * Creates a hibernate configuration for a database at the specified location.
+     *
+     * @param derbyUrl        location of the database
+     * @param insertBatchSize size of jdbc batches for insertion into the database
+     * @param createDatabase  true to create the database and its schema, dropping existing tables,
+     *                        false to use an existing database as is
+     */
+    protected HibernateConfigBase(final String derbyUrl, final int insertBatchSize, final boolean createDatabase) {
+        if (insertBatchSize < 1) {
+            throw new IllegalArgumentException("Insert batch size must be positive, but is " + insertBatchSize);
+        }
         this.baseUrl = "jdbc:derby:" + derbyUrl;
+        this.insertBatchSize = insertBatchSize;
+        this.createDatabase = createDatabase;
         Configurator.setLevel("org.hibernate", Level.ERROR);
     }
 
     @Override
     public int getInsertBatchSize() {
-        return INSERT_BATCH_SIZE;
+        return this.insertBatchSize;
     }
 
     @Override
@@ -57,11 +90,17 @@ public class HibernateConfigBase implements HibernateConfig {
         final var config = new Configuration();
 
         config.setProperty(Environment.POOL_SIZE, String.valueOf(POOL_SIZE));
-        config.setProperty(Environment.DIALECT, "org.hibernate.dialect.DerbyTenFiveDialect");
+        config.setProperty(Environment.DIALECT, "org.hibernate.dialect.DerbyTenSevenDialect");
         config.setProperty(Environment.SHOW_SQL, FALSE_SETTING_VALUE);
-        config.setProperty(Environment.HBM2DDL_AUTO, "create");
+        if (this.createDatabase) {
+            config.setProperty(Environment.HBM2DDL_AUTO, "create");
+            config.setProperty(Environment.URL, this.baseUrl + ";create=True");
+        } else {
+            // the schema of an existing database must neither be dropped nor altered
+            config.setProperty(Environment.HBM2DDL_AUTO, "none");
+            config.setProperty(Environment.URL, this.baseUrl);
+        }
         config.setProperty(Environment.USE_NEW_ID_GENERATOR_MAPPINGS, FALSE_SETTING_VALUE);
-        config.setProperty(Environment.URL, this.baseUrl + ";create=True");
 
         config.setProperty(Environment.STATEMENT_BATCH_SIZE, String.valueOf(this.getInsertBatchSize()));
         config.setProperty(Environment.ORDER_UPDATES, TRUE_SETTING_VALUE);
@@ -70,7 +109,11 @@ public class HibernateConfigBase implements HibernateConfig {
         config.setProperty(Environment.AUTOCOMMIT, FALSE_SETTING_VALUE);
 
         config.addAnnotatedClass(HTTPHeaderEntity.class);
+        config.addAnnotatedClass(HTTPHeaderFieldEntity.class);
+        config.addAnnotatedClass(CertificateEntity.class);
         config.addAnnotatedClass(MdibVersionGroupEntity.class);
+        config.addAnnotatedClass(BodyDictionaryEntity.class);
+        config.addAnnotatedClass(MessageBodyEntity.class);
         config.addAnnotatedClass(MessageContent.class);
         config.addAnnotatedClass(ManipulationParameter.class);
         config.addAnnotatedClass(ManipulationData.class);
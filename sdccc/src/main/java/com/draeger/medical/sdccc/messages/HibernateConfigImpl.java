@@ -8,6 +8,7 @@
 package com.draeger.medical.sdccc.messages;
 
 import com.draeger.medical.sdccc.configuration.TestRunConfig;
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -19,8 +20,14 @@ import java.nio.file.Path;
  */
 @Singleton
 public class HibernateConfigImpl extends HibernateConfigBase {
-    @Inject
-    HibernateConfigImpl(@Named(TestRunConfig.TEST_RUN_DIR) final File dir) {
+    HibernateConfigImpl(final File dir) {
         super(Path.of(dir.getAbsolutePath(), "Database").toString());
     }
+
+    @Inject
+    HibernateConfigImpl(
+            @Named(TestRunConfig.TEST_RUN_DIR) final File dir,
+            @Named(TestSuiteConfig.COMMLOG_INSERT_BATCH_SIZE) final long insertBatchSize) {
+        super(Path.of(dir.getAbsolutePath(), "Database").toString(), Math.toIntExact(insertBatchSize));
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * Spliterator which can peek at the first element of the wrapped spliterator, the peeked element is still
+ * provided to the consumer of the stream.
+ *
+ * @param <T> type of the elements
+ */
+final class LookaheadSpliterator<T> implements Spliterator<T> {
+    private final Spliterator<T> source;
+    private T buffered;
+    private boolean hasBuffered;
+    private boolean anyPresent;
+    private boolean peeked;
+
+    LookaheadSpliterator(final Spliterator<T> source) {
+        this.source = source;
+    }
+
+    boolean isAnyPresent() {
+        if (!this.anyPresent && !this.peeked) {
+            this.peeked = true;
+            this.hasBuffered = this.source.tryAdvance(element -> this.buffered = element);
+            this.anyPresent = this.hasBuffered;
+        }
+        return this.anyPresent;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        if (this.hasBuffered) {
+            final T element = this.buffered;
+            this.buffered = null;
+            this.hasBuffered = false;
+            action.accept(element);
+            return true;
+        }
+        final boolean advanced = this.source.tryAdvance(action);
+        if (advanced) {
+            this.anyPresent = true;
+        } else {
+            this.peeked = true;
+        }
+        return advanced;
+    }
+
+    @Override
+    @Nullable
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return this.source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+}
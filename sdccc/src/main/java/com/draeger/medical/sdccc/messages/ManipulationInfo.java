@@ -25,7 +25,7 @@ public class ManipulationInfo implements DatabaseEntry {
     private final String response;
     private final String methodName;
     private final List<Pair<String, String>> parameters;
-    private final MessageStorage storage;
+    private final MessageStore storage;
     private UUID id;
 
     @Inject
@@ -36,7 +36,7 @@ public class ManipulationInfo implements DatabaseEntry {
             @Assisted final String response,
             @Assisted(value = "methodName") final String methodName,
             @Assisted final ManipulationParameterUtil.ManipulationParameterData parameters,
-            final MessageStorage messageStorage) {
+            final MessageStore messageStorage) {
 
         this.startTimestamp = startTimestamp;
         this.finishTimestamp = finishTimestamp;
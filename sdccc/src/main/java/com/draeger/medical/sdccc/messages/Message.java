@@ -7,18 +7,22 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
+import org.apache.http.HttpHeaders;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
 
 /**
  * Message object used for storage purposes.
@@ -28,7 +32,7 @@ public class Message extends OutputStream implements DatabaseEntry {
 
     private static final Logger LOG = LogManager.getLogger(Message.class);
 
-    private final MessageStorage messageStorage;
+    private final MessageStore messageStorage;
     private final CommunicationLog.Direction direction;
     private final CommunicationLog.MessageType messageType;
 
@@ -38,10 +42,15 @@ public class Message extends OutputStream implements DatabaseEntry {
 
     private final CommunicationContext communicationContext;
 
-    private ByteArrayOutputStream memory;
+    private ChunkedByteBuffer memory;
 
     private byte[] finalMemory;
 
+    // hashes the message while it is written, so that the body does not have to be read again for hashing
+    private MessageDigest digest;
+
+    private byte[] hash;
+
     private UUID id;
 
     @Inject
@@ -49,7 +58,7 @@ public class Message extends OutputStream implements DatabaseEntry {
             @Assisted final CommunicationLog.Direction direction,
             @Assisted final CommunicationLog.MessageType messageType,
             @Assisted final CommunicationContext communicationContext,
-            final MessageStorage messageStorage) {
+            final MessageStore messageStorage) {
         this.messageStorage = messageStorage;
 
         this.direction = direction;
@@ -58,7 +67,34 @@ public class Message extends OutputStream implements DatabaseEntry {
 
         this.timestamp = Instant.now().toEpochMilli();
         this.nanoTimestamp = System.nanoTime();
-        this.memory = new ByteArrayOutputStream();
+        this.memory = new ChunkedByteBuffer(getContentLength(communicationContext));
+        this.digest = MessageUtil.newDigest();
+    }
+
+    /**
+     * Restores an already closed message, e.g. a message which has been spilled to disk.
+     */
+    Message(
+            final CommunicationLog.Direction direction,
+            final CommunicationLog.MessageType messageType,
+            final CommunicationContext communicationContext,
+            final MessageStore messageStorage,
+            final long timestamp,
+            final long nanoTimestamp,
+            final String id,
+            final byte[] finalMemory,
+            final byte[] hash) {
+        this.messageStorage = messageStorage;
+
+        this.direction = direction;
+        this.messageType = messageType;
+        this.communicationContext = communicationContext;
+
+        this.timestamp = timestamp;
+        this.nanoTimestamp = nanoTimestamp;
+        this.id = UUID.fromString(id);
+        this.finalMemory = finalMemory;
+        this.hash = hash;
     }
 
     @Override
@@ -69,14 +105,28 @@ public class Message extends OutputStream implements DatabaseEntry {
         }
 
         memory.write(b);
+        digest.update((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (this.memory == null) {
+            LOG.warn(MESSAGE_WRITE_CALLED_ON_CLOSED_MESSAGE);
+            throw new IOException(MESSAGE_WRITE_CALLED_ON_CLOSED_MESSAGE);
+        }
+
+        memory.write(b, off, len);
+        digest.update(b, off, len);
     }
 
     @Override
     public void close() throws IOException {
         if (this.memory != null) {
-            this.finalMemory = memory.toByteArray();
-            this.memory.close();
+            // the final memory is handed to the storage as is, it is not copied again
+            this.finalMemory = memory.toByteArrayAndRelease();
             this.memory = null;
+            this.hash = digest.digest();
+            this.digest = null;
 
             this.messageStorage.addMessage(this);
         } else {
@@ -84,6 +134,22 @@ public class Message extends OutputStream implements DatabaseEntry {
         }
     }
 
+    // the announced length of an http message, used to size the buffer, 0 if it is unknown
+    private static int getContentLength(final CommunicationContext communicationContext) {
+        if (communicationContext.getApplicationInfo() instanceof final HttpApplicationInfo httpAppInfo) {
+            for (final Map.Entry<String, String> header : httpAppInfo.getHeaders().entries()) {
+                if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                    try {
+                        return Math.max(0, Integer.parseInt(header.getValue().trim()));
+                    } catch (final NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
     /**
      * @return is this {@linkplain OutputStream} closed
      */
@@ -107,6 +173,16 @@ public class Message extends OutputStream implements DatabaseEntry {
         return finalMemory;
     }
 
+    /**
+     * @return the SHA-256 hash of the final memory, null as long as the message has not been closed
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "it doesn't matter, the field might as well be public.")
+    public byte[] getHash() {
+        return hash;
+    }
+
     public CommunicationLog.Direction getDirection() {
         return direction;
     }
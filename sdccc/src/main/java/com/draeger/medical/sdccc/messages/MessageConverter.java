@@ -0,0 +1,809 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.io.ByteOrderMark;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.SoapConstants;
+import org.somda.sdc.dpws.soap.TransportInfo;
+import org.somda.sdc.dpws.soap.wsaddressing.WsAddressingConstants;
+
+/**
+ * Converts collected messages and manipulations into the entities stored by a {@linkplain MessageStore}.
+ *
+ * <p>
+ * Conversion determines the charset of a message, checks its encoding and extracts the metadata queried by the tests,
+ * i.e. the ws addressing actions and the MdibVersion group of the body. Encoding problems either invalidate the test
+ * run right away or are counted, so that they can be summarized at the end of the test run.
+ * Instances are safe to use from multiple threads.
+ */
+final class MessageConverter {
+    static final String HTTP_HEADER_NAME_CONTENT_TYPE = "content-type";
+
+    private static final Logger LOG = LogManager.getLogger(MessageConverter.class);
+
+    // Prefixes of XML declarations according to Appendix F.1 of the XML Standard
+    private static final int XML_DECLARATION_PREFIX_LENGTH = 4;
+    private static final Map<byte[], Charset> XML_DECLARATION_PREFIXES = Map.of(
+            new byte[] {0x00, 0x00, 0x00, 0x3C},
+            Charset.forName("UTF-32BE"),
+            new byte[] {0x3C, 0x00, 0x00, 0x00},
+            Charset.forName("UTF-32LE"),
+            new byte[] {0x00, 0x3C, 0x00, 0x3F},
+            StandardCharsets.UTF_16BE,
+            new byte[] {0x3C, 0x00, 0x3F, 0x00},
+            StandardCharsets.UTF_16LE,
+            new byte[] {0x3C, 0x3F, 0x78, 0x6D},
+            StandardCharsets.US_ASCII, // any ASCII-compatible charset
+            // AFAIK, all charsets of the EBCDIC family have common bit-patterns for the characters used
+            // in the XML declaration. Hence, any of them could be used to decode the declaration. However,
+            // only 'ebcdic-international-500+euro' was tested in this respect and hence it is used as a
+            // placeholder for 'any EBCDIC charset'.
+            new byte[] {0x4C, 0x6F, (byte) 0xA7, (byte) 0x94},
+            Charset.forName("ebcdic-international-500+euro"));
+    private static final List<String> SDC_MIME_TYPES = List.of("application/soap+xml", "application/xml");
+
+    private static final String INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS =
+            "MessageID=%s: Inconsistent charset" + " declaration: %s, but %s";
+    private static final String HTTP_HEADER_ORIGIN = "HTTP Header states '%s'";
+    private static final String BOM_ORIGIN = "Unicode Byte Order Mark for %s found";
+    private static final String XML_DECLARATION_ORIGIN = "XML Declaration states '%s'";
+    private static final String XML_DECLARATION_PREFIX_ORIGIN = "XML Declaration is encoded in %s";
+
+    private final Pattern charsetPattern = Pattern.compile(".*;\\s*charset\\s*=\\s*([^;]*).*");
+
+    private final XMLInputFactory xmlInputFactory;
+    private final TestRunObserver testRunObserver;
+    private final boolean summarizeMessageEncodingErrors;
+    private final boolean enableEncodingCheck;
+    private final AtomicLong messageEncodingErrorCount;
+    private final AtomicLong invalidMimeTypeCount;
+
+    /**
+     * Creates a converter reporting encoding problems to the given observer.
+     *
+     * @param summarizeMessageEncodingErrors count encoding problems instead of invalidating the test run right away
+     * @param enableEncodingCheck            check the declared charsets and whether messages can be decoded
+     * @param testRunObserver                to report problems to
+     */
+    MessageConverter(
+            final boolean summarizeMessageEncodingErrors,
+            final boolean enableEncodingCheck,
+            final TestRunObserver testRunObserver) {
+        this.summarizeMessageEncodingErrors = summarizeMessageEncodingErrors;
+        this.enableEncodingCheck = enableEncodingCheck;
+        this.testRunObserver = testRunObserver;
+        this.messageEncodingErrorCount = new AtomicLong(0);
+        this.invalidMimeTypeCount = new AtomicLong(0);
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+    }
+
+    XMLInputFactory getXmlInputFactory() {
+        return this.xmlInputFactory;
+    }
+
+    /**
+     * @return the number of messages whose encoding could not be determined or which could not be decoded
+     */
+    long getMessageEncodingErrorCount() {
+        return this.messageEncodingErrorCount.get();
+    }
+
+    /**
+     * @return the number of messages declaring a mime type which is not used by SDC
+     */
+    long getInvalidMimeTypeErrorCount() {
+        return this.invalidMimeTypeCount.get();
+    }
+
+    /**
+     * Converts a collected message into the entity to store, extracting the metadata queried by the tests.
+     *
+     * @param message to convert
+     * @return the entity to store
+     */
+    MessageContent convert(final Message message) {
+        boolean isSOAP = false;
+        final Set<String> actions = new HashSet<>();
+        final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups = new LinkedList<>();
+        final byte[] bodyBytes = message.getFinalMemory();
+        Charset messageCharset = StandardCharsets.UTF_8;
+        if (bodyBytes.length > 0) {
+            if (this.enableEncodingCheck) {
+                messageCharset = determineCharsetFromMessage(message);
+                // the message is decoded only to detect encoding problems, the content is parsed from the bytes
+                final CharsetDecoder charsetDecoder = messageCharset.newDecoder();
+                charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+                charsetDecoder.onMalformedInput(CodingErrorAction.REPORT);
+                try {
+                    charsetDecoder.decode(ByteBuffer.wrap(bodyBytes));
+                } catch (CharacterCodingException e) {
+                    if (this.summarizeMessageEncodingErrors) {
+                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                        this.messageEncodingErrorCount.incrementAndGet();
+                    } else {
+                        this.testRunObserver.invalidateTestRun(String.format(
+                                "Encountered message encoding problem: charset %s was specified, but message "
+                                        + "cannot be decoded using this charset. The specified charset is incorrect, "
+                                        + "or the message contains invalid characters (Message UID='%s').",
+                                messageCharset, message.getID()));
+                    }
+                }
+            }
+            isSOAP = processMessageBody(bodyBytes, messageCharset, actions, mdibVersionGroups);
+        }
+        // the hash is computed while the message is written, only messages not written through a stream lack it
+        final byte[] messageHash = message.getHash() != null ? message.getHash() : MessageUtil.digestMessage(bodyBytes);
+        return new MessageContent(
+                bodyBytes,
+                messageHash,
+                messageCharset,
+                message.getCommunicationContext(),
+                message.getDirection(),
+                message.getMessageType(),
+                message.getTimestamp(),
+                message.getNanoTimestamp(),
+                mdibVersionGroups,
+                actions,
+                message.getID(),
+                isSOAP,
+                getSender(message));
+    }
+
+    private String getSender(final Message message) {
+        final CommunicationContext communicationContext = message.getCommunicationContext();
+        if (communicationContext == null) {
+            // NOTE: this should never happen. If it does, this should be considered a bug.
+            LOG.trace("Encountered message (uuid={}) without a CommunicationContext.", message.getID());
+            testRunObserver.invalidateTestRun("Encountered message without a CommunicationContext.");
+            return null;
+        }
+        final TransportInfo transportInfo = communicationContext.getTransportInfo();
+        if (transportInfo == null) {
+            // NOTE: this should never happen. If it does, this should be considered a bug.
+            LOG.trace("Encountered message (uuid={}) without a TransportInfo.", message.getID());
+            testRunObserver.invalidateTestRun("Encountered message without a TransportInfo.");
+            return null;
+        }
+        if (message.getDirection() == CommunicationLog.Direction.INBOUND) {
+            final Optional<String> remoteAddress = transportInfo.getRemoteAddress();
+            if (remoteAddress.isEmpty()) {
+                // NOTE: this should never happen. If it does, this should be considered a bug.
+                LOG.trace("Encountered inbound message (uuid={}) without a remoteAddress.", message.getID());
+                testRunObserver.invalidateTestRun("Encountered inbound message without a remoteAddress.");
+                return null;
+            } else {
+                return remoteAddress.orElseThrow();
+            }
+        } else if (message.getDirection() == CommunicationLog.Direction.OUTBOUND) {
+            final Optional<String> localAddress = transportInfo.getLocalAddress();
+            if (localAddress.isEmpty()) {
+                // TODO: Fix: outbound messages often have a localAddress of 0.0.0.0 or null. After this is fixed,
+                //            invalidate the TestRun in this case as well.
+                return null;
+            } else {
+                return localAddress.orElseThrow();
+            }
+        } else {
+            testRunObserver.invalidateTestRun("Encountered unknown direction in message.");
+            LOG.trace(
+                    "Encountered unknown direction {} in message with uuid={}",
+                    message.getDirection(),
+                    message.getID());
+            return null;
+        }
+    }
+
+    private boolean processMessageBody(
+            final byte[] body,
+            final Charset charset,
+            final Set<String> actions,
+            final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups) {
+        var isSOAP = false;
+        XMLStreamReader reader = null;
+        try {
+            // the parser rejects byte order marks when the charset is given explicitly
+            final BOMInputStream bodyWithoutByteOrderMark = new BOMInputStream(
+                    new ByteArrayInputStream(body),
+                    ByteOrderMark.UTF_8,
+                    ByteOrderMark.UTF_16LE,
+                    ByteOrderMark.UTF_16BE,
+                    ByteOrderMark.UTF_32LE,
+                    ByteOrderMark.UTF_32BE);
+            reader = this.xmlInputFactory.createXMLStreamReader(bodyWithoutByteOrderMark, charset.name());
+
+            // a single pass up to the end of the SOAP body, the depth tells the children of the body apart from the
+            // payload of its first child, which is only tokenized
+            int depth = 0;
+            int bodyDepth = -1;
+            int bodyChildren = 0;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == bodyDepth) {
+                        break;
+                    }
+                    depth--;
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                depth++;
+                if (bodyDepth >= 0) {
+                    if (depth == bodyDepth + 1) {
+                        bodyChildren++;
+                        if (bodyChildren > 1) {
+                            this.testRunObserver.invalidateTestRun(
+                                    "Encountered multiple elements in soap body, but more than one are not allowed.");
+                            break;
+                        }
+                        handleSoapBodyChild(mdibVersionGroups, reader);
+                    }
+                    continue;
+                }
+                final QName name = reader.getName();
+                if (name.getLocalPart().equals("Action")
+                        && name.getNamespaceURI().equals(WsAddressingConstants.NAMESPACE)) {
+                    handleActionElement(actions, reader);
+                    // an empty action element has been read up to its end tag
+                    if (reader.isEndElement()) {
+                        depth--;
+                    }
+                } else if (name.getLocalPart().equals("Body")
+                        && name.getNamespaceURI().equals(SoapConstants.NAMESPACE)) {
+                    bodyDepth = depth;
+                } else if (name.getLocalPart().equals("Envelope")
+                        && name.getNamespaceURI().equals(SoapConstants.NAMESPACE)) {
+                    isSOAP = true;
+                }
+            }
+        } catch (final XMLStreamException e) {
+            LOG.trace(
+                    "unable to extract action or body from message content, " + "this is expected for invalid messages",
+                    e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    LOG.trace("unable to close reader of message content", e);
+                }
+            }
+        }
+        return isSOAP;
+    }
+
+    /**
+     * Converts a performed manipulation into the entity to store.
+     *
+     * @param manipulationInfo to convert
+     * @return the entity to store
+     */
+    static ManipulationData convert(final ManipulationInfo manipulationInfo) {
+        return new ManipulationData(
+                manipulationInfo.getStartTimestamp(),
+                manipulationInfo.getFinishTimestamp(),
+                manipulationInfo.getResult(),
+                manipulationInfo.getResponse(),
+                manipulationInfo.getMethodName(),
+                manipulationInfo.getParameter(),
+                manipulationInfo.getID());
+    }
+
+    Charset determineCharsetFromMessage(final Message message) {
+        // Note: charset can be determined from (in the order of precedence)
+        //       1. HTTP Header
+        //       2. Unicode Byte Order Mark
+        //       3. XML Declaration
+        try {
+
+            // 1. check HTTP Header
+            final Charset charsetFromHttpHeader = determineCharsetFromHttpHeader(message);
+            // 2. check Unicode Byte Order Mark
+            final Charset charsetFromUnicodeByteOrderMark = determineCharsetFromUnicodeByteOrderMark(message);
+            // 3. check XML Declaration
+            final Charset charsetFromXmlDeclaration = determineCharsetFromXmlDeclaration(message);
+
+            checkFullCharsetConsistency(
+                    charsetFromHttpHeader,
+                    charsetFromUnicodeByteOrderMark,
+                    charsetFromXmlDeclaration,
+                    (String originA, String valueA, String originB, String valueB) -> {
+                        if (this.summarizeMessageEncodingErrors) {
+                            // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                            this.messageEncodingErrorCount.incrementAndGet();
+                        } else {
+                            this.testRunObserver.invalidateTestRun(String.format(
+                                    INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS,
+                                    message.getID(),
+                                    String.format(originA, valueA),
+                                    String.format(originB, valueB)));
+                        }
+                    });
+
+            final Charset charset = chooseMessageCharset(
+                    message, charsetFromHttpHeader, charsetFromUnicodeByteOrderMark, charsetFromXmlDeclaration);
+
+            checkMimeType(message);
+
+            if (!charset.equals(StandardCharsets.UTF_8)) {
+                String charsetWithOrigin = String.format("'%s' in Unicode Byte Order Mark", charset);
+                if (charset.equals(charsetFromHttpHeader)) {
+                    charsetWithOrigin = String.format("'%s' in HTTP Header", charset);
+                } else if (charset.equals(charsetFromXmlDeclaration)) {
+                    charsetWithOrigin = String.format("'%s' in XML Declaration", charset);
+                }
+                if (this.summarizeMessageEncodingErrors) {
+                    // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                    this.messageEncodingErrorCount.incrementAndGet();
+                } else {
+                    this.testRunObserver.invalidateTestRun(String.format(
+                            "Encountered a message whose encoding is declared to be %s. This violates"
+                                    + " MDPWS:R0007_0 - SOAP ENVELOPEs SHALL be encoded by using UTF-8. (Message UID='%s')",
+                            charsetWithOrigin, message.getID()));
+                }
+            }
+
+            return charset;
+
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private Charset chooseMessageCharset(
+            final Message message,
+            @Nullable final Charset charsetFromHttpHeader,
+            @Nullable final Charset charsetFromUnicodeByteOrderMark,
+            @Nullable final Charset charsetFromXmlDeclaration) {
+        final Charset charset;
+        if (charsetFromHttpHeader != null) {
+            charset = charsetFromHttpHeader;
+        } else {
+            if (charsetFromUnicodeByteOrderMark != null) {
+                // consistency between BOM and XMLDeclaration has already been checked in
+                // determineCharsetFromXMLDeclaration(). No need to do it again.
+                charset = charsetFromUnicodeByteOrderMark;
+            } else {
+                if (charsetFromXmlDeclaration != null) {
+                    charset = charsetFromXmlDeclaration;
+                } else {
+                    if (this.summarizeMessageEncodingErrors) {
+                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                        this.messageEncodingErrorCount.incrementAndGet();
+                    } else {
+                        this.testRunObserver.invalidateTestRun(
+                                "Message encoding could not be determined for message with ID '" + message.getID()
+                                        + "'."
+                                        + " Please ensure that all Messages send by the Device under Test declare their encoding"
+                                        + " either in the HTTP Header, in the Unicode Byte Order Mark, or in the XML Declaration"
+                                        + " as mandated by the XML Standard.");
+                    }
+                    charset = StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return charset;
+    }
+
+    private void checkFullCharsetConsistency(
+            @Nullable final Charset charsetFromHttpHeader,
+            @Nullable final Charset charsetFromUnicodeByteOrderMark,
+            @Nullable final Charset charsetFromXmlDeclaration,
+            final InconsistencyReport report) {
+
+        if (charsetFromHttpHeader != null) {
+            if (charsetFromUnicodeByteOrderMark != null
+                    && !charsetFromUnicodeByteOrderMark.equals(charsetFromHttpHeader)) {
+                report.report(
+                        HTTP_HEADER_ORIGIN,
+                        charsetFromHttpHeader.toString(),
+                        BOM_ORIGIN,
+                        charsetFromUnicodeByteOrderMark.toString());
+            } else if (charsetFromXmlDeclaration != null && !charsetFromXmlDeclaration.equals(charsetFromHttpHeader)) {
+                report.report(
+                        HTTP_HEADER_ORIGIN,
+                        charsetFromHttpHeader.toString(),
+                        XML_DECLARATION_ORIGIN,
+                        charsetFromXmlDeclaration.toString());
+            }
+        } else {
+            if (charsetFromXmlDeclaration != null
+                    && charsetFromUnicodeByteOrderMark != null
+                    && !charsetFromUnicodeByteOrderMark.equals(charsetFromXmlDeclaration)) {
+                report.report(
+                        BOM_ORIGIN,
+                        charsetFromUnicodeByteOrderMark.toString(),
+                        XML_DECLARATION_ORIGIN,
+                        charsetFromXmlDeclaration.toString());
+            }
+        }
+    }
+
+    private void checkMimeType(final Message message) {
+        final ApplicationInfo applicationInfo =
+                message.getCommunicationContext().getApplicationInfo();
+        if (applicationInfo instanceof HttpApplicationInfo) {
+            final List<String> contentTypeHeaderValues =
+                    ((HttpApplicationInfo) applicationInfo).getHeaders().get(HTTP_HEADER_NAME_CONTENT_TYPE);
+            for (final String value : contentTypeHeaderValues) {
+                final int index = value.indexOf(";");
+                final String mimeType;
+                if (index >= 0) {
+                    mimeType = value.substring(0, index);
+                } else {
+                    mimeType = value;
+                }
+                if (!SDC_MIME_TYPES.contains(mimeType)) {
+                    if (summarizeMessageEncodingErrors) {
+                        // TestRun will be invalidated in TestSuite if invalidMimeTypeCount > 0
+                        this.invalidMimeTypeCount.incrementAndGet();
+                    } else {
+                        this.testRunObserver.invalidateTestRun(String.format(
+                                "encountered a SOAP Envelope whose mimeType '%s' (declared in its "
+                                        + "HTTP Header) indicates that it was not serialized as 'application/soap+xml' and "
+                                        + "that hence violates the definition of a SOAP TEXT ENVELOPE in MDPWS Section 3.1. (Message UUID='%s')",
+                                mimeType, message.getID()));
+                    }
+                }
+            }
+        }
+    }
+
+    private Charset determineCharsetFromUnicodeByteOrderMark(final Message message) {
+        Charset charsetFromUnicodeByteOrderMark = null;
+        try {
+            final ByteArrayInputStream in = new ByteArrayInputStream(message.getFinalMemory());
+            final BOMInputStream bomIn = new BOMInputStream(
+                    in,
+                    ByteOrderMark.UTF_8,
+                    ByteOrderMark.UTF_16LE,
+                    ByteOrderMark.UTF_16BE,
+                    ByteOrderMark.UTF_32LE,
+                    ByteOrderMark.UTF_32BE);
+            if (!bomIn.hasBOM()) {
+                LOG.trace("Unable to determine charset from byte order mark for message with ID '" + message.getID()
+                        + "'. Will use another option.");
+            } else if (bomIn.hasBOM(ByteOrderMark.UTF_8)) {
+                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_8;
+            } else if (bomIn.hasBOM(ByteOrderMark.UTF_16LE)) {
+                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_16LE;
+            } else if (bomIn.hasBOM(ByteOrderMark.UTF_16BE)) {
+                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_16BE;
+            } else if (bomIn.hasBOM(ByteOrderMark.UTF_32LE)) {
+                charsetFromUnicodeByteOrderMark = Charset.forName("UTF_32LE");
+            } else if (bomIn.hasBOM(ByteOrderMark.UTF_32BE)) {
+                charsetFromUnicodeByteOrderMark = Charset.forName("UTF_32BE");
+            }
+        } catch (IOException e) {
+            if (this.summarizeMessageEncodingErrors) {
+                // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                this.messageEncodingErrorCount.incrementAndGet();
+            } else {
+                this.testRunObserver.invalidateTestRun(
+                        "Unable to read message contents of message with ID '" + message.getID() + "'", e);
+            }
+        }
+        return charsetFromUnicodeByteOrderMark;
+    }
+
+    private Charset determineCharsetFromXmlDeclaration(final Message message) {
+        final Charset charsetFromBOM = determineCharsetFromUnicodeByteOrderMark(message);
+        final Charset charsetFromPrefix = determineCharsetFromXmlDeclarationPrefix(message);
+
+        Charset result = null;
+        if (charsetFromBOM != null) {
+            result = determineCharsetFromXmlDeclarationInternal(message, charsetFromBOM);
+        } else {
+            if (charsetFromPrefix != null) {
+                result = determineCharsetFromXmlDeclarationInternal(message, charsetFromPrefix);
+            }
+        }
+
+        checkCharsetConsistency(
+                charsetFromBOM,
+                charsetFromPrefix,
+                result,
+                (String originA, String valueA, String originB, String valueB) -> {
+                    if (this.summarizeMessageEncodingErrors) {
+                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                        this.messageEncodingErrorCount.incrementAndGet();
+                    } else {
+                        this.testRunObserver.invalidateTestRun(String.format(
+                                INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS,
+                                message.getID(),
+                                String.format(originA, valueA),
+                                String.format(originB, valueB)));
+                    }
+                });
+
+        return result;
+    }
+
+    private void checkCharsetConsistency(
+            final @javax.annotation.Nullable Charset charsetFromBOM,
+            final @javax.annotation.Nullable Charset charsetFromPrefix,
+            final @javax.annotation.Nullable Charset charsetFromDeclaration,
+            final InconsistencyReport report) {
+        if (charsetFromDeclaration == null) {
+            if (charsetFromBOM != null
+                    && charsetFromPrefix != null
+                    && !bomAndPrefixAreCompatible(charsetFromBOM, charsetFromPrefix)) {
+                report.report(
+                        XML_DECLARATION_PREFIX_ORIGIN,
+                        charsetFromPrefix.toString(),
+                        BOM_ORIGIN,
+                        charsetFromBOM.toString());
+            }
+        } else {
+            if (charsetFromBOM != null && !charsetFromBOM.equals(charsetFromDeclaration)) {
+                report.report(
+                        XML_DECLARATION_ORIGIN,
+                        charsetFromDeclaration.toString(),
+                        BOM_ORIGIN,
+                        charsetFromBOM.toString());
+            }
+
+            final boolean charset_declaration_inconsistent =
+                    charsetFromPrefix != null && !charsetFromPrefix.equals(charsetFromDeclaration);
+            // EBCDIC Prefix is consistent with any charset from the EBCDIC family.
+            final boolean special_case_EBCDIC_family = charsetFromPrefix != null
+                    && charsetFromPrefix.equals(Charset.forName("ebcdic-international-500+euro"))
+                    && isEBCDIC(charsetFromDeclaration);
+            // UTF-8 Prefix is consistent with any charset using the same bit pattern for the ASCII characters
+            // as UTF-8. Since we were able to read the XML Declaration successfully we can assume this is the
+            // case.
+            final boolean special_case_ASCII_compatible =
+                    charsetFromPrefix != null && charsetFromPrefix.equals(StandardCharsets.US_ASCII);
+
+            if (charset_declaration_inconsistent && !special_case_EBCDIC_family && !special_case_ASCII_compatible) {
+                report.report(
+                        XML_DECLARATION_ORIGIN,
+                        charsetFromDeclaration.toString(),
+                        XML_DECLARATION_PREFIX_ORIGIN,
+                        charsetFromPrefix.toString());
+            }
+        }
+    }
+
+    private boolean bomAndPrefixAreCompatible(final Charset charsetFromBOM, final Charset charsetFromPrefix) {
+        if (StandardCharsets.US_ASCII.equals(charsetFromPrefix) && StandardCharsets.UTF_8.equals(charsetFromBOM)) {
+            return true;
+        }
+        return charsetFromPrefix.equals(charsetFromBOM);
+    }
+
+    private boolean isEBCDIC(final Charset charset) {
+        boolean result = false;
+        for (String alias : charset.aliases()) {
+            if (alias.toLowerCase().startsWith("ebcdic")) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Charset determineCharsetFromXmlDeclarationPrefix(final Message message) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(message.getFinalMemory());
+        final BOMInputStream bomIn = new BOMInputStream(in, ByteOrderMark.UTF_8);
+        try {
+            Charset result = null;
+            final byte[] msg = bomIn.readNBytes(XML_DECLARATION_PREFIX_LENGTH);
+            for (Map.Entry<byte[], Charset> e : XML_DECLARATION_PREFIXES.entrySet()) {
+                if (startsWith(msg, e.getKey())) {
+                    result = e.getValue();
+                    break;
+                }
+            }
+            return result;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Utility method to check if one byte array starts with a specified sequence of bytes.
+     *
+     * @param array  The array to check
+     * @param prefix The prefix bytes to test for
+     * @return true if the array starts with the bytes from the prefix
+     */
+    private static boolean startsWith(final byte[] array, final byte[] prefix) {
+        if (array == prefix) {
+            return true;
+        }
+        return startsWithInternal1(array, prefix);
+    }
+
+    private static boolean startsWithInternal1(final byte[] array, final byte[] prefix) {
+        if (prefix.length > array.length) {
+            return false;
+        }
+        return startsWithInternal2(array, prefix);
+    }
+
+    private static boolean startsWithInternal2(final byte[] array, final byte[] prefix) {
+        final int prefixLength = prefix.length;
+        for (int i = 0; i < prefixLength; i++) {
+            if (array[i] != prefix[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Charset determineCharsetFromXmlDeclarationInternal(final Message message, final Charset encoding) {
+        Charset charsetFromXmlDeclaration = null;
+
+        final String declaredEncoding = XmlDeclarationScanner.findEncoding(message.getFinalMemory(), encoding);
+        if (declaredEncoding != null) {
+            charsetFromXmlDeclaration = Charset.forName(declaredEncoding);
+        }
+        return charsetFromXmlDeclaration;
+    }
+
+    private Charset determineCharsetFromHttpHeader(final Message message) {
+        Charset charsetFromHttpHeader = null;
+        final ApplicationInfo applicationInfo =
+                message.getCommunicationContext().getApplicationInfo();
+        if (applicationInfo instanceof HttpApplicationInfo) {
+            final List<String> contentTypeHeaderValues =
+                    ((HttpApplicationInfo) applicationInfo).getHeaders().get(HTTP_HEADER_NAME_CONTENT_TYPE);
+            for (final String value : contentTypeHeaderValues) {
+                final Matcher matcher = charsetPattern.matcher(value);
+                if (matcher.matches()) {
+                    final String charsetName =
+                            stripQuotes(matcher.group(1).trim()).trim();
+                    try {
+                        charsetFromHttpHeader = Charset.forName(charsetName);
+                    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                        // in this case the message contained a Content-Type Header with a charset directive,
+                        // but the encoding given in that directive was invalid - which is a finding the user should
+                        // be notified about.
+                        // NOTE: returning null in this case is ok as determineCharsetFromMessage() will then try to
+                        //       use other clues to determine the charset and hopefully succeed in correctly decoding
+                        //       the Message before storing it in the DB.
+                        if (this.summarizeMessageEncodingErrors) {
+                            // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
+                            this.messageEncodingErrorCount.incrementAndGet();
+                        } else {
+                            this.testRunObserver.invalidateTestRun(
+                                    String.format(
+                                            "Encountered invalid/unknown charset '%s' in HTTP Header", charsetName),
+                                    e);
+                        }
+                    }
+                }
+            }
+        }
+        return charsetFromHttpHeader;
+    }
+
+    private String stripQuotes(final String str) {
+        if ((str.startsWith("\"") && str.endsWith("\"")) || (str.startsWith("'") && str.endsWith("'"))) {
+            return str.substring(1, str.length() - 1);
+        } else {
+            return str;
+        }
+    }
+
+    private void handleActionElement(final Set<String> actions, final XMLStreamReader reader)
+            throws XMLStreamException {
+        reader.next();
+        if (reader.isCharacters()) {
+            actions.add(reader.getText());
+        } else {
+            LOG.warn("empty action element encountered");
+            actions.add("");
+        }
+    }
+
+    /**
+     * Determines whether the MdibVersion group of a body element is extracted, which is required to filter and sort
+     * messages by it.
+     *
+     * @param name of the body element
+     * @return true if the MdibVersion group of the element is extracted
+     */
+    static boolean supportsMdibVersionSorting(final QName name) {
+        return Constants.RELEVANT_REPORT_BODIES.contains(name) || Constants.MSG_GET_MDIB_RESPONSE.equals(name);
+    }
+
+    /**
+     * Extracts the MdibVersion group of a child of the SOAP body.
+     *
+     * @param mdibVersionGroups to add the MdibVersion group to
+     * @param reader            positioned at the start tag of the child
+     */
+    private void handleSoapBodyChild(
+            final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups, final XMLStreamReader reader) {
+        final QName bodyElementName = reader.getName();
+        long mdibVersion = -3L;
+        String sequenceId = null;
+
+        if (supportsMdibVersionSorting(bodyElementName)) {
+
+            final String mdibVersionValue = getAttributeValue(reader, Constants.MDIB_VERSION);
+
+            if (mdibVersionValue == null) {
+                mdibVersion = 0L;
+            } else if (mdibVersionValue.equals("")) {
+                mdibVersion = -1L;
+                this.testRunObserver.invalidateTestRun(
+                        "Encountered MdibVersion attribute that has an empty string as its value"
+                                + "and saved -1L as a replacement value.");
+            } else {
+                try {
+                    mdibVersion = Long.parseLong(mdibVersionValue);
+                } catch (NumberFormatException e) {
+                    this.testRunObserver.invalidateTestRun(e);
+                }
+            }
+
+            sequenceId = getAttributeValue(reader, Constants.SEQUENCE_ID);
+
+            if (sequenceId == null) {
+                this.testRunObserver.invalidateTestRun(String.format(
+                        "Encountered body with the QName %s " + "without a SequenceId attribute.",
+                        bodyElementName));
+            }
+        }
+        mdibVersionGroups.add(new MdibVersionGroupEntity.MdibVersionGroup(
+                mdibVersion, sequenceId, bodyElementName.toString()));
+    }
+
+    @Nullable
+    private static String getAttributeValue(final XMLStreamReader reader, final QName attributeName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (attributeName.equals(reader.getAttributeName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+}
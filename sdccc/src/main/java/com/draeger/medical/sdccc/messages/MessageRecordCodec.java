@@ -0,0 +1,418 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Binary encoding of stored messages, certificates and manipulations, shared by the storage engines and archives
+ * which keep them outside of the database.
+ *
+ * <p>
+ * Strings and byte arrays are prefixed by their length. Messages are encoded with their metadata first and the body
+ * last, so that everything but the body can be decoded without touching the bytes holding the body. Certificates are
+ * referenced by their fingerprint and have to be encoded separately.
+ */
+final class MessageRecordCodec {
+    static final int NULL_LENGTH = -1;
+
+    private MessageRecordCodec() {}
+
+    /**
+     * Encodes a message, without its certificates.
+     *
+     * @param out            to write to
+     * @param messageContent to encode
+     * @param messageHash    SHA-256 hash of the raw body
+     * @param http           whether the message has been exchanged via http and has http application info
+     * @throws IOException if writing fails
+     */
+    static void writeMessage(
+            final DataOutputStream out,
+            final MessageContent messageContent,
+            final byte[] messageHash,
+            final boolean http)
+            throws IOException {
+        out.writeByte(messageContent.getDirection().ordinal());
+        out.writeByte(messageContent.getMessageType().ordinal());
+        out.writeLong(messageContent.getTimestamp());
+        out.writeLong(messageContent.getNanoTimestamp());
+        writeString(out, messageContent.getUuid());
+        writeBytes(out, messageHash);
+        writeString(out, messageContent.getBodyCharset().name());
+        writeString(out, messageContent.getScheme());
+        writeString(out, messageContent.getSender());
+        out.writeBoolean(messageContent.getIsSOAP());
+
+        out.writeBoolean(http);
+        if (http) {
+            writeString(out, messageContent.getTransactionId());
+            writeString(out, messageContent.getRequestUri());
+        }
+        final List<HTTPHeaderEntity> headers = messageContent.getHeaderEntities();
+        out.writeInt(headers.size());
+        for (final HTTPHeaderEntity header : headers) {
+            writeString(out, header.getHeaderKey());
+            writeString(out, header.getHeaderValue());
+        }
+        final List<CertificateEntity> certs = messageContent.getCertificateEntities();
+        out.writeInt(certs.size());
+        for (final CertificateEntity certificate : certs) {
+            writeString(out, certificate.getFingerprint());
+        }
+        out.writeInt(messageContent.getActions().size());
+        for (final String action : messageContent.getActions()) {
+            writeString(out, action);
+        }
+        final List<MdibVersionGroupEntity> mdibVersionGroups = messageContent.getMdibVersionGroups();
+        out.writeInt(mdibVersionGroups.size());
+        for (final MdibVersionGroupEntity group : mdibVersionGroups) {
+            out.writeLong(group.getMdibVersion());
+            writeString(out, group.getSequenceId());
+            writeString(out, group.getBodyElement());
+        }
+
+        writeBytes(out, messageContent.getRawBody());
+    }
+
+    /**
+     * Decodes a message encoded by {@linkplain #writeMessage(DataOutputStream, MessageContent, byte[], boolean)}.
+     *
+     * @param record       positioned at the start of the message, positioned after it afterwards
+     * @param certificates resolves the certificates referenced by their fingerprint
+     * @return the decoded message
+     */
+    static MessageContent readMessageContent(
+            final ByteBuffer record, final Function<String, X509Certificate> certificates) {
+        final var direction = CommunicationLog.Direction.values()[record.get()];
+        final var messageType = CommunicationLog.MessageType.values()[record.get()];
+        final long timestamp = record.getLong();
+        final long nanoTimestamp = record.getLong();
+        final String uuid = readString(record);
+        final byte[] messageHash = readBytes(record);
+        final Charset bodyCharset = Charset.forName(readString(record));
+        final String scheme = readString(record);
+        final String sender = readString(record);
+        final boolean isSOAP = record.get() != 0;
+
+        final boolean http = record.get() != 0;
+        final String transactionId = http ? readString(record) : null;
+        final String requestUri = http ? readString(record) : null;
+        final int headerCount = record.getInt();
+        final ListMultimap<String, String> headers = ArrayListMultimap.create();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(readString(record), readString(record));
+        }
+        final int certificateCount = record.getInt();
+        final List<X509Certificate> certs = new ArrayList<>(certificateCount);
+        for (int i = 0; i < certificateCount; i++) {
+            certs.add(certificates.apply(readString(record)));
+        }
+        final int actionCount = record.getInt();
+        final Set<String> actions = new HashSet<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            actions.add(readString(record));
+        }
+        final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups = readMdibVersionGroups(record);
+        final byte[] rawBody = readBytes(record);
+
+        final ApplicationInfo applicationInfo =
+                http ? new HttpApplicationInfo(headers, transactionId, requestUri) : new ApplicationInfo();
+        final TransportInfo transportInfo = new TransportInfo(scheme, null, null, null, null, certs);
+        return new MessageContent(
+                rawBody,
+                messageHash,
+                bodyCharset,
+                new CommunicationContext(applicationInfo, transportInfo, null),
+                direction,
+                messageType,
+                timestamp,
+                nanoTimestamp,
+                mdibVersionGroups,
+                actions,
+                uuid,
+                isSOAP,
+                sender);
+    }
+
+    /**
+     * Decodes the columns of a message which are part of a {@linkplain MessageView}.
+     *
+     * @param record positioned at the start of the message, positioned after it afterwards
+     * @return the decoded view
+     */
+    static MessageView readMessageView(final ByteBuffer record) {
+        final var direction = CommunicationLog.Direction.values()[record.get()];
+        final var messageType = CommunicationLog.MessageType.values()[record.get()];
+        final long timestamp = record.getLong();
+        final long nanoTimestamp = record.getLong();
+        final String uuid = readString(record);
+        final byte[] messageHash = readBytes(record);
+        final Charset bodyCharset = Charset.forName(readString(record));
+        final String scheme = readString(record);
+        // sender
+        skip(record);
+        // isSOAP
+        record.get();
+
+        if (record.get() != 0) {
+            skip(record);
+            skip(record);
+        }
+        final int headerCount = record.getInt();
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.computeIfAbsent(readString(record), key -> new ArrayList<>())
+                    .add(readString(record));
+        }
+        // certificates, actions and MdibVersion groups are not part of a view
+        skipStrings(record, record.getInt());
+        skipStrings(record, record.getInt());
+        final int groupCount = record.getInt();
+        for (int i = 0; i < groupCount; i++) {
+            record.getLong();
+            skip(record);
+            skip(record);
+        }
+        final byte[] rawBody = readBytes(record);
+
+        return new MessageView(
+                uuid,
+                messageHash,
+                rawBody,
+                null,
+                rawBody.length,
+                bodyCharset,
+                direction,
+                messageType,
+                timestamp,
+                nanoTimestamp,
+                scheme,
+                headers);
+    }
+
+    /**
+     * Decodes only the nanoTimestamp and the MdibVersion groups of a message, without copying its body.
+     *
+     * @param record positioned at the start of the message, the position is left unchanged
+     * @return the nanoTimestamp and the MdibVersion groups of the message
+     */
+    static MessageIndex readMessageIndex(final ByteBuffer record) {
+        final ByteBuffer message = record.slice();
+        // direction, message type and timestamp
+        message.position(Byte.BYTES + Byte.BYTES + Long.BYTES);
+        final long nanoTimestamp = message.getLong();
+        // uuid, hash, charset, scheme and sender
+        skipStrings(message, 5);
+        // isSOAP
+        message.get();
+        if (message.get() != 0) {
+            skip(message);
+            skip(message);
+        }
+        skipStrings(message, 2 * message.getInt());
+        skipStrings(message, message.getInt());
+        skipStrings(message, message.getInt());
+        return new MessageIndex(nanoTimestamp, readMdibVersionGroups(message));
+    }
+
+    /**
+     * Encodes a manipulation.
+     *
+     * @param out              to write to
+     * @param manipulationData to encode
+     * @throws IOException if writing fails
+     */
+    static void writeManipulation(final DataOutputStream out, final ManipulationData manipulationData)
+            throws IOException {
+        out.writeLong(manipulationData.getStartTimestamp());
+        out.writeLong(manipulationData.getFinishTimestamp());
+        writeString(
+                out,
+                manipulationData.getResult() == null
+                        ? null
+                        : manipulationData.getResult().name());
+        writeString(out, manipulationData.getResponse());
+        writeString(out, manipulationData.getMethodName());
+        writeString(out, manipulationData.getUuid());
+        out.writeInt(manipulationData.getParameters().size());
+        for (final ManipulationParameter parameter : manipulationData.getParameters()) {
+            writeString(out, parameter.getParameterName());
+            writeString(out, parameter.getParameterValue());
+        }
+    }
+
+    /**
+     * Decodes a manipulation encoded by {@linkplain #writeManipulation(DataOutputStream, ManipulationData)}.
+     *
+     * @param record positioned at the start of the manipulation, positioned after it afterwards
+     * @return the decoded manipulation
+     */
+    static ManipulationData readManipulationData(final ByteBuffer record) {
+        final long startTimestamp = record.getLong();
+        final long finishTimestamp = record.getLong();
+        final String result = readString(record);
+        final String response = readString(record);
+        final String methodName = readString(record);
+        final String uuid = readString(record);
+        final int parameterCount = record.getInt();
+        final List<Pair<String, String>> parameters = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            parameters.add(new ImmutablePair<>(readString(record), readString(record)));
+        }
+        return new ManipulationData(
+                startTimestamp,
+                finishTimestamp,
+                result == null ? null : ResponseTypes.Result.valueOf(result),
+                response,
+                methodName,
+                parameters,
+                uuid);
+    }
+
+    /**
+     * Encodes a certificate together with its fingerprint.
+     *
+     * @param out         to write to
+     * @param certificate to encode
+     * @throws IOException if writing or encoding the certificate fails
+     */
+    static void writeCertificate(final DataOutputStream out, final CertificateEntity certificate) throws IOException {
+        writeString(out, certificate.getFingerprint());
+        try {
+            writeBytes(out, certificate.getCertificate().getEncoded());
+        } catch (final CertificateEncodingException e) {
+            throw new IOException("unable to encode certificate " + certificate.getFingerprint(), e);
+        }
+    }
+
+    /**
+     * Decodes a certificate encoded by {@linkplain #writeCertificate(DataOutputStream, CertificateEntity)}.
+     *
+     * @param record             positioned at the start of the certificate, positioned after it afterwards
+     * @param certificateFactory to decode the certificate with
+     * @return the fingerprint and the decoded certificate
+     * @throws IOException if the certificate cannot be decoded
+     */
+    static Pair<String, X509Certificate> readCertificate(
+            final ByteBuffer record, final CertificateFactory certificateFactory) throws IOException {
+        final String fingerprint = readString(record);
+        try {
+            return new ImmutablePair<>(
+                    fingerprint,
+                    (X509Certificate) certificateFactory.generateCertificate(
+                            new ByteArrayInputStream(readBytes(record))));
+        } catch (final CertificateException e) {
+            throw new IOException("unable to decode certificate " + fingerprint, e);
+        }
+    }
+
+    static void writeString(final DataOutputStream out, @Nullable final String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void writeBytes(final DataOutputStream out, @Nullable final byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    @Nullable
+    static String readString(final ByteBuffer record) {
+        final int length = record.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        // decoded straight from the buffer, without an intermediate array
+        final String value = StandardCharsets.UTF_8
+                .decode(record.slice(record.position(), length))
+                .toString();
+        record.position(record.position() + length);
+        return value;
+    }
+
+    @Nullable
+    static byte[] readBytes(final ByteBuffer record) {
+        final int length = record.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        record.get(value);
+        return value;
+    }
+
+    private static List<MdibVersionGroupEntity.MdibVersionGroup> readMdibVersionGroups(final ByteBuffer record) {
+        final int groupCount = record.getInt();
+        final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            final long mdibVersion = record.getLong();
+            final String sequenceId = readString(record);
+            final String bodyElement = readString(record);
+            mdibVersionGroups.add(new MdibVersionGroupEntity.MdibVersionGroup(mdibVersion, sequenceId, bodyElement));
+        }
+        return mdibVersionGroups;
+    }
+
+    private static void skip(final ByteBuffer record) {
+        final int length = record.getInt();
+        if (length != NULL_LENGTH) {
+            record.position(record.position() + length);
+        }
+    }
+
+    private static void skipStrings(final ByteBuffer record, final int count) {
+        for (int i = 0; i < count; i++) {
+            skip(record);
+        }
+    }
+
+    /**
+     * Metadata of an encoded message which is needed to select it.
+     *
+     * @param nanoTimestamp     of the message
+     * @param mdibVersionGroups of the message
+     */
+    record MessageIndex(long nanoTimestamp, List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups) {}
+}
@@ -0,0 +1,433 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Sequential file holding collected messages which could not be handed to the database right away.
+ *
+ * <p>
+ * The threads collecting messages only hand them over to a queue, a dedicated writer thread appends them to the file
+ * in batches and flushes once per batch. Messages are read back in the same order by a single replaying thread,
+ * which only reads messages counted as flushed. As long as spilled messages have not been replayed, all further
+ * messages are spilled as well, so that messages are never stored out of order.
+ */
+final class MessageSpill implements AutoCloseable {
+    private static final Logger LOG = LogManager.getLogger(MessageSpill.class);
+
+    private static final int NULL_LENGTH = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // maximum number of messages written before the file is flushed
+    private static final int MAXIMUM_BATCH_SIZE = 256;
+
+    private final Path file;
+    private final MessageStorage messageStorage;
+    private final CertificateFactory certificateFactory;
+
+    // messages handed over by the collecting threads, which are never blocked by writing the file
+    private final BlockingQueue<Message> handoff;
+    private final Thread writerThread;
+    // number of handed over messages which have not been replayed yet
+    private final AtomicLong outstanding;
+    private final AtomicLong spilledCount;
+    private volatile boolean closed;
+    private volatile boolean writeFailed;
+
+    // the streams and all following fields are guarded by this
+    private DataOutputStream output;
+    private DataInputStream input;
+    // number of messages flushed to the file and number of those read back
+    private long written;
+    private long read;
+    // messages which could not be written to the file, replayed from memory after those in the file
+    private final Deque<Message> unwritten;
+
+    /**
+     * Creates an empty spill file, replacing any existing file, and starts the thread writing it.
+     *
+     * @param file           to spill messages to
+     * @param messageStorage the replayed messages belong to
+     * @throws IOException if the file could not be created
+     */
+    MessageSpill(final Path file, final MessageStorage messageStorage) throws IOException {
+        this.file = file;
+        this.messageStorage = messageStorage;
+        try {
+            this.certificateFactory = CertificateFactory.getInstance("X.509");
+        } catch (final CertificateException e) {
+            throw new IOException("X.509 certificates are not supported", e);
+        }
+        this.handoff = new LinkedBlockingQueue<>();
+        this.outstanding = new AtomicLong();
+        this.spilledCount = new AtomicLong();
+        this.unwritten = new ArrayDeque<>();
+        openStreams();
+        this.writerThread = new ThreadFactoryBuilder()
+                .setNameFormat("MessageSpill-writer")
+                .setDaemon(true)
+                .build()
+                .newThread(this::writeMessages);
+        this.writerThread.start();
+    }
+
+    /**
+     * Appends a message, but only if there are spilled messages which have not been replayed yet.
+     *
+     * @param message to append
+     * @return true if the message has been appended
+     * @throws IOException if no further messages can be spilled
+     */
+    boolean appendIfActive(final Message message) throws IOException {
+        if (this.outstanding.get() == 0) {
+            return false;
+        }
+        append(message);
+        return true;
+    }
+
+    /**
+     * Appends a message without waiting for it to be written.
+     *
+     * @param message to append
+     * @throws IOException if no further messages can be spilled
+     */
+    void append(final Message message) throws IOException {
+        if (this.closed || this.writeFailed) {
+            throw new IOException("spill has already been closed");
+        }
+        this.outstanding.incrementAndGet();
+        this.spilledCount.incrementAndGet();
+        this.handoff.add(message);
+    }
+
+    /**
+     * Waits until there is a spilled message to replay.
+     *
+     * @return true if there is a message to read, false if the spill has been closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized boolean awaitMessage() throws InterruptedException {
+        while (!hasMessageToRead() && !this.closed) {
+            wait();
+        }
+        return hasMessageToRead();
+    }
+
+    /**
+     * Reads the next spilled message, must only be called by the replaying thread after
+     * {@linkplain #awaitMessage()} returned true.
+     *
+     * @return the next spilled message
+     * @throws IOException if the message could not be read
+     */
+    Message read() throws IOException {
+        synchronized (this) {
+            if (this.read == this.written) {
+                return this.unwritten.removeFirst();
+            }
+            this.read++;
+        }
+        // only the replaying thread reads and replaces the input stream, the writer is not blocked while reading
+        return readMessage(this.input);
+    }
+
+    /**
+     * Marks the message read last as replayed, must only be called by the replaying thread.
+     *
+     * @throws IOException if the drained spill file could not be reset
+     */
+    synchronized void markReplayed() throws IOException {
+        if (this.outstanding.decrementAndGet() == 0) {
+            // nothing left to replay, start over with an empty file
+            reset();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Discards all messages in the file which have not been replayed yet, e.g. because they could not be read.
+     *
+     * @return the number of discarded messages
+     * @throws IOException if the spill file could not be reset
+     */
+    synchronized long discard() throws IOException {
+        // the message which could not be read has already been counted as read
+        final long discarded = this.written - this.read + 1;
+        this.outstanding.addAndGet(-discarded);
+        reset();
+        notifyAll();
+        return discarded;
+    }
+
+    /**
+     * Waits until all spilled messages have been replayed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void awaitDrained() throws InterruptedException {
+        while (this.outstanding.get() > 0 && !this.closed) {
+            wait();
+        }
+    }
+
+    /**
+     * @return the number of messages spilled in total
+     */
+    long getSpilledCount() {
+        return this.spilledCount.get();
+    }
+
+    /**
+     * Stops the writer thread, closes and deletes the spill file, messages which have not been replayed are lost.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.writerThread.interrupt();
+        synchronized (this) {
+            notifyAll();
+            closeStreams();
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    private boolean hasMessageToRead() {
+        return this.read < this.written || !this.unwritten.isEmpty();
+    }
+
+    private void writeMessages() {
+        final List<Message> batch = new ArrayList<>(MAXIMUM_BATCH_SIZE);
+        try {
+            while (!this.closed) {
+                batch.add(this.handoff.take());
+                this.handoff.drainTo(batch, MAXIMUM_BATCH_SIZE - 1);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (final InterruptedException e) {
+            // the spill has been closed
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void writeBatch(final List<Message> batch) {
+        if (this.closed) {
+            return;
+        }
+        if (!this.writeFailed) {
+            try {
+                for (final Message message : batch) {
+                    writeMessage(this.output, message);
+                }
+                // the replaying thread reads from a separate stream, messages are only counted once in the file
+                this.output.flush();
+                this.written += batch.size();
+                notifyAll();
+                return;
+            } catch (final IOException e) {
+                LOG.error("Could not write spilled messages, further messages wait for space in the buffer", e);
+                this.writeFailed = true;
+            }
+        }
+        // messages of a partially written batch are not counted, all of them are replayed from memory instead
+        this.unwritten.addAll(batch);
+        notifyAll();
+    }
+
+    private void reset() throws IOException {
+        this.written = 0;
+        this.read = 0;
+        if (this.closed) {
+            // the file has been deleted and must not be created again
+            return;
+        }
+        try {
+            closeStreams();
+            openStreams();
+        } catch (final IOException e) {
+            // no further messages can be spilled, collecting threads wait for space in the ring buffer instead
+            this.writeFailed = true;
+            throw e;
+        }
+    }
+
+    private void openStreams() throws IOException {
+        this.output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(this.file.toFile(), false), BUFFER_SIZE));
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file.toFile()), BUFFER_SIZE));
+    }
+
+    private void closeStreams() throws IOException {
+        try {
+            this.output.close();
+        } finally {
+            this.input.close();
+        }
+    }
+
+    private static void writeMessage(final DataOutputStream out, final Message message) throws IOException {
+        out.writeByte(message.getDirection().ordinal());
+        out.writeByte(message.getMessageType().ordinal());
+        out.writeLong(message.getTimestamp());
+        out.writeLong(message.getNanoTimestamp());
+        writeString(out, message.getID());
+
+        final CommunicationContext communicationContext = message.getCommunicationContext();
+        final TransportInfo transportInfo = communicationContext.getTransportInfo();
+        writeString(out, transportInfo.getScheme());
+        writeString(out, transportInfo.getLocalAddress().orElse(null));
+        out.writeInt(transportInfo.getLocalPort().orElse(NULL_LENGTH));
+        writeString(out, transportInfo.getRemoteAddress().orElse(null));
+        out.writeInt(transportInfo.getRemotePort().orElse(NULL_LENGTH));
+        final List<X509Certificate> certificates = transportInfo.getX509Certificates();
+        out.writeInt(certificates.size());
+        for (final X509Certificate certificate : certificates) {
+            try {
+                writeBytes(out, certificate.getEncoded());
+            } catch (final CertificateEncodingException e) {
+                throw new IOException("unable to encode certificate of message " + message.getID(), e);
+            }
+        }
+
+        if (communicationContext.getApplicationInfo() instanceof final HttpApplicationInfo httpApplicationInfo) {
+            out.writeBoolean(true);
+            writeString(out, httpApplicationInfo.getTransactionId());
+            writeString(out, httpApplicationInfo.getRequestUri().orElse(null));
+            out.writeInt(httpApplicationInfo.getHeaders().size());
+            for (final Map.Entry<String, String> header : httpApplicationInfo.getHeaders().entries()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+        } else {
+            out.writeBoolean(false);
+        }
+
+        writeBytes(out, message.getFinalMemory());
+        writeBytes(out, message.getHash());
+    }
+
+    private Message readMessage(final DataInputStream in) throws IOException {
+        final CommunicationLog.Direction direction = CommunicationLog.Direction.values()[in.readByte()];
+        final CommunicationLog.MessageType messageType = CommunicationLog.MessageType.values()[in.readByte()];
+        final long timestamp = in.readLong();
+        final long nanoTimestamp = in.readLong();
+        final String id = readString(in);
+
+        final String scheme = readString(in);
+        final String localAddress = readString(in);
+        final int localPort = in.readInt();
+        final String remoteAddress = readString(in);
+        final int remotePort = in.readInt();
+        final int certificateCount = in.readInt();
+        final List<X509Certificate> certificates = new ArrayList<>(certificateCount);
+        for (int i = 0; i < certificateCount; i++) {
+            try {
+                certificates.add((X509Certificate)
+                        this.certificateFactory.generateCertificate(new ByteArrayInputStream(readBytes(in))));
+            } catch (final CertificateException e) {
+                throw new IOException("unable to decode certificate of message " + id, e);
+            }
+        }
+        final TransportInfo transportInfo = new TransportInfo(
+                scheme,
+                localAddress,
+                localPort == NULL_LENGTH ? null : localPort,
+                remoteAddress,
+                remotePort == NULL_LENGTH ? null : remotePort,
+                certificates);
+
+        final ApplicationInfo applicationInfo;
+        if (in.readBoolean()) {
+            final String transactionId = readString(in);
+            final String requestUri = readString(in);
+            final int headerCount = in.readInt();
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(readString(in), readString(in));
+            }
+            applicationInfo = new HttpApplicationInfo(headers, transactionId, requestUri);
+        } else {
+            applicationInfo = new ApplicationInfo();
+        }
+
+        return new Message(
+                direction,
+                messageType,
+                new CommunicationContext(applicationInfo, transportInfo, null),
+                this.messageStorage,
+                timestamp,
+                nanoTimestamp,
+                id,
+                readBytes(in),
+                readBytes(in));
+    }
+
+    private static void writeString(final DataOutputStream out, @Nullable final String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(final DataOutputStream out, @Nullable final byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    @Nullable
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
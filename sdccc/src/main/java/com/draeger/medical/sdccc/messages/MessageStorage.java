@@ -7,16 +7,23 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import com.draeger.medical.sdccc.configuration.TestRunConfig;
 import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
 import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.BodyDictionaryEntity;
+import com.draeger.medical.sdccc.messages.mapping.BodyDictionaryEntity_;
 import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
 import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity_;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderFieldEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderFieldEntity_;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationData_;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter_;
 import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
 import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity_;
+import com.draeger.medical.sdccc.messages.mapping.MessageBodyEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageBodyEntity_;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent_;
 import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
@@ -24,103 +31,87 @@ import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.sdccc.util.XPathExtractor;
 import com.draeger.medical.t2iapi.ResponseTypes;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
-import java.nio.ByteBuffer;
-import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
-import java.nio.charset.IllegalCharsetNameException;
-import java.nio.charset.StandardCharsets;
-import java.nio.charset.UnsupportedCharsetException;
+import java.sql.Statement;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
 import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
-import org.apache.commons.io.ByteOrderMark;
-import org.apache.commons.io.input.BOMInputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
 import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.spi.ScrollableResultsImplementor;
 import org.hibernate.query.spi.StreamDecorator;
 import org.somda.sdc.dpws.CommunicationLog;
-import org.somda.sdc.dpws.soap.ApplicationInfo;
 import org.somda.sdc.dpws.soap.CommunicationContext;
-import org.somda.sdc.dpws.soap.HttpApplicationInfo;
-import org.somda.sdc.dpws.soap.SoapConstants;
-import org.somda.sdc.dpws.soap.TransportInfo;
 import org.somda.sdc.dpws.soap.wsaddressing.WsAddressingConstants;
 
 /**
- * Storage for incoming and outgoing messages.
+ * Storage for incoming and outgoing messages, backed by a Derby database accessed through hibernate.
  */
 @Singleton
-public class MessageStorage implements AutoCloseable {
+public class MessageStorage implements MessageStore {
+
+    static final String SPILL_FILE_NAME = "message-spill.bin";
 
     private static final Logger LOG = LogManager.getLogger(MessageStorage.class);
 
-    private static final int FETCH_SIZE = 10;
-
-    // Prefixes of XML declarations according to Appendix F.1 of the XML Standard
-    private static final int XML_DECLARATION_PREFIX_LENGTH = 4;
-    private static final Map<byte[], Charset> XML_DECLARATION_PREFIXES = Map.of(
-            new byte[] {0x00, 0x00, 0x00, 0x3C},
-            Charset.forName("UTF-32BE"),
-            new byte[] {0x3C, 0x00, 0x00, 0x00},
-            Charset.forName("UTF-32LE"),
-            new byte[] {0x00, 0x3C, 0x00, 0x3F},
-            StandardCharsets.UTF_16BE,
-            new byte[] {0x3C, 0x00, 0x3F, 0x00},
-            StandardCharsets.UTF_16LE,
-            new byte[] {0x3C, 0x3F, 0x78, 0x6D},
-            StandardCharsets.US_ASCII, // any ASCII-compatible charset
-            // AFAIK, all charsets of the EBCDIC family have common bit-patterns for the characters used
-            // in the XML declaration. Hence, any of them could be used to decode the declaration. However,
-            // only 'ebcdic-international-500+euro' was tested in this respect and hence it is used as a
-            // placeholder for 'any EBCDIC charset'.
-            new byte[] {0x4C, 0x6F, (byte) 0xA7, (byte) 0x94},
-            Charset.forName("ebcdic-international-500+euro"));
-    private static final List<String> SDC_MIME_TYPES = List.of("application/soap+xml", "application/xml");
+    // bounds of the number of rows fetched per database round trip, see getFetchSize
+    private static final int MINIMUM_FETCH_SIZE = 10;
+    private static final int MAXIMUM_FETCH_SIZE = 500;
+    private static final long FETCH_SIZE_BUDGET_BYTES = 4L * 1024 * 1024;
+
+    // time close waits for messages currently being published before closing the storage regardless
+    private static final long PUBLISHING_TIMEOUT_SECONDS = 30;
 
     private static final String HTTP_HEADER_NAME_CONTENT_TYPE = "content-type";
     private static final String CREATE_MESSAGE_STREAM_CALLED_ON_CLOSED_STORAGE =
@@ -144,111 +135,208 @@ public class MessageStorage implements AutoCloseable {
     private static final String FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED =
             "Filtering for the given element name is not supported due to MdibVersionGroups "
                     + "not being parsed for elements with the name %s .";
-    private static final String INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS =
-            "MessageID=%s: Inconsistent charset" + " declaration: %s, but %s";
-    private static final String HTTP_HEADER_ORIGIN = "HTTP Header states '%s'";
-    private static final String BOM_ORIGIN = "Unicode Byte Order Mark for %s found";
-    private static final String XML_DECLARATION_ORIGIN = "XML Declaration states '%s'";
-    private static final String XML_DECLARATION_PREFIX_ORIGIN = "XML Declaration is encoded in %s";
-
-    private final Pattern charsetPattern = Pattern.compile(".*;\\s*charset\\s*=\\s*([^;]*).*");
-    private final Pattern encodingFromXmlDeclarationPatternDoubleQuotes =
-            Pattern.compile(".*<\\?.*encoding\\s*=\\s*\"([^\"]*)\".*\\?>.*", Pattern.DOTALL);
-    private final Pattern encodingFromXmlDeclarationPatternSingleQuotes =
-            Pattern.compile(".*<\\?.*encoding\\s*=\\s*'([^']*)'.*\\?>.*", Pattern.DOTALL);
 
     private final MessageFactory messageFactory;
 
     private final AtomicBoolean closed;
+    private final AtomicBoolean indexesCreated;
 
     private final XPathExtractor actionExtractor;
-    private final XMLInputFactory xmlInputFactory;
 
     // the containing class has to be singleton, because we want only one SessionFactory
     private final SessionFactory sessionFactory;
 
     private final HibernateConfig configuration;
-
-    private final ArrayBlockingQueue<DatabaseEntry> messageQueue;
-    private final List<DatabaseInteractionThread> databaseInteractionThreads;
-    private final ReentrantLock queueExitLock;
+    private final BulkInsertWriter bulkInsertWriter;
+    // a read-only storage only answers queries, neither the ingest pipeline nor the spill exist
+    private final boolean readOnly;
+
+    @Nullable
+    private final Disruptor<IngestEvent> ingestDisruptor;
+
+    @Nullable
+    private final RingBuffer<IngestEvent> ingestRingBuffer;
+    private final int conversionHandlerCount;
+    private final int insertHandlerCount;
+    // highest number of published entries observed not yet handled by each stage of the ingest pipeline
+    private final AtomicLong conversionQueueDepthPeak;
+    private final AtomicLong insertQueueDepthPeak;
+    private final AtomicBoolean ingestRunning;
+    // summed length and count of all converted message bodies, used to size the fetches of readers
+    private final AtomicLong storedBodyLength;
+    private final AtomicLong storedBodyCount;
+    // threads currently publishing to the ring buffer are registered with the phaser, close waits for them instead
+    // of locking them out. The threads themselves are only tracked to report them if they do not finish in time
+    private final Phaser publishers;
+    private final Set<Thread> publishingThreads;
     private final ReentrantLock closeLock;
+    // holds collected messages while the ring buffer is full, null if spilling is disabled
+    @Nullable
+    private final MessageSpill messageSpill;
 
-    private final int blockingQueueSize;
+    @Nullable
+    private final Thread spillReplayThread;
 
-    private final CyclicBarrier flushBarrier;
+    private final int blockingQueueSize;
 
     private final TestRunObserver testRunObserver;
-    private final boolean summarizeMessageEncodingErrors;
-    private final AtomicLong messageEncodingErrorCount;
-    private int invalidMimeTypeCount;
-    private final boolean enableEncodingCheck;
+    private final MessageConverter converter;
+    // compresses bodies if enabled, always used to look up the dictionaries of compressed bodies
+    private final BodyCompressor bodyCompressor;
+    private final boolean compressBodies;
+
+    /**
+     * Creates a storage converting and inserting messages with the default number of threads, which blocks collecting
+     * threads while the ring buffer is full.
+     */
+    MessageStorage(
+            final int blockingQueueSize,
+            final boolean summarizeMessageEncodingErrors,
+            final boolean enableEncodingCheck,
+            final MessageFactory messageFactory,
+            final HibernateConfig configuration,
+            final TestRunObserver testRunObserver) {
+        this(
+                blockingQueueSize,
+                summarizeMessageEncodingErrors,
+                enableEncodingCheck,
+                0L,
+                0L,
+                false,
+                false,
+                0L,
+                null,
+                messageFactory,
+                configuration,
+                testRunObserver);
+    }
 
     @Inject
     MessageStorage(
             @Named(TestSuiteConfig.COMMLOG_MESSAGE_BUFFER_SIZE) final int blockingQueueSize,
             @Named(TestSuiteConfig.SUMMARIZE_MESSAGE_ENCODING_ERRORS) final boolean summarizeMessageEncodingErrors,
             @Named(TestSuiteConfig.ENABLE_MESSAGE_ENCODING_CHECK) final boolean enableEncodingCheck,
+            @Named(TestSuiteConfig.COMMLOG_CONVERSION_THREADS) final long conversionThreads,
+            @Named(TestSuiteConfig.COMMLOG_INSERT_THREADS) final long insertThreads,
+            @Named(TestSuiteConfig.COMMLOG_SPILL_TO_DISK) final boolean spillToDisk,
+            @Named(TestSuiteConfig.COMMLOG_COMPRESS_BODIES) final boolean compressBodies,
+            @Named(TestSuiteConfig.COMMLOG_COMPRESSION_TRAINING_SAMPLES) final long compressionTrainingSamples,
+            @Named(TestRunConfig.TEST_RUN_DIR) @Nullable final File testRunDir,
             final MessageFactory messageFactory,
             final HibernateConfig configuration,
             final TestRunObserver testRunObserver) {
         this.messageFactory = messageFactory;
         this.testRunObserver = testRunObserver;
         this.closed = new AtomicBoolean();
+        this.indexesCreated = new AtomicBoolean();
         this.blockingQueueSize = blockingQueueSize;
-        this.summarizeMessageEncodingErrors = summarizeMessageEncodingErrors;
-        this.enableEncodingCheck = enableEncodingCheck;
-        this.messageEncodingErrorCount = new AtomicLong(0);
-        this.invalidMimeTypeCount = 0;
+        this.converter =
+                new MessageConverter(summarizeMessageEncodingErrors, enableEncodingCheck, testRunObserver);
 
         this.actionExtractor = new XPathExtractor(String.format("//%s:Action", WsAddressingConstants.NAMESPACE_PREFIX));
 
         this.configuration = configuration;
         this.sessionFactory = this.configuration.getConfiguration().buildSessionFactory();
+        this.bulkInsertWriter = new BulkInsertWriter(this.sessionFactory, this.configuration.getInsertBatchSize());
+        this.readOnly = this.configuration.isReadOnly();
+        if (!this.readOnly) {
+            // the unique identifier indexes reject duplicate entries while messages are collected
+            try {
+                executeIndexStatements(Arrays.stream(DatabaseIndex.values())
+                        .filter(DatabaseIndex::isCreatedWithSchema)
+                        .toList());
+            } catch (final HibernateException e) {
+                LOG.error("Unable to create the unique database indexes, duplicate entries cannot be detected", e);
+                testRunObserver.invalidateTestRun(e);
+            }
+        }
+        if (compressBodies && compressionTrainingSamples < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "%s has to be at least 1, but is %s",
+                    TestSuiteConfig.COMMLOG_COMPRESSION_TRAINING_SAMPLES, compressionTrainingSamples));
+        }
+        this.compressBodies = compressBodies && !this.readOnly;
+        this.bodyCompressor = new BodyCompressor(this.sessionFactory, Math.toIntExact(compressionTrainingSamples));
 
-        this.messageQueue = new ArrayBlockingQueue<>(this.blockingQueueSize);
-        this.queueExitLock = new ReentrantLock();
+        // the single initial party is the closing thread
+        this.publishers = new Phaser(1);
+        this.publishingThreads = ConcurrentHashMap.newKeySet();
         this.closeLock = new ReentrantLock();
 
         final int logicalProcessorCount = Runtime.getRuntime().availableProcessors();
-        final int logicalProcessorsToUse;
-
-        if (logicalProcessorCount > 2) {
-            logicalProcessorsToUse = logicalProcessorCount / 2;
+        // message conversion is cpu bound, inserts are limited by the write concurrency of the database
+        this.conversionHandlerCount =
+                conversionThreads > 0 ? Math.toIntExact(conversionThreads) : logicalProcessorCount;
+        if (insertThreads > 0) {
+            this.insertHandlerCount = Math.toIntExact(insertThreads);
+        } else if (logicalProcessorCount > 2) {
+            this.insertHandlerCount = logicalProcessorCount / 2;
         } else {
-            logicalProcessorsToUse = 1;
+            this.insertHandlerCount = 1;
         }
 
         LOG.info(
-                "Logical processor count is {}. Will use {} database interaction threads.",
+                "Logical processor count is {}. Will use {} message conversion and {} database insert threads.",
                 logicalProcessorCount,
-                logicalProcessorsToUse);
-
-        // database interaction threads plus the main flush functions caller thread
-        this.flushBarrier = new CyclicBarrier(logicalProcessorsToUse + 1);
-
-        this.databaseInteractionThreads = new ArrayList<>(logicalProcessorsToUse);
-        for (int i = 0; i < logicalProcessorsToUse; i++) {
-            final DatabaseInteractionThread databaseInteractionThread = new DatabaseInteractionThread();
-            databaseInteractionThread.setDaemon(true);
-            databaseInteractionThread.start();
-            this.databaseInteractionThreads.add(databaseInteractionThread);
+                this.conversionHandlerCount,
+                this.insertHandlerCount);
+
+        this.conversionQueueDepthPeak = new AtomicLong();
+        this.insertQueueDepthPeak = new AtomicLong();
+        this.storedBodyLength = new AtomicLong();
+        this.storedBodyCount = new AtomicLong();
+        if (this.readOnly) {
+            this.ingestDisruptor = null;
+            this.ingestRingBuffer = null;
+        } else {
+            this.ingestDisruptor = new Disruptor<>(
+                    IngestEvent::new,
+                    ringBufferSizeFor(this.blockingQueueSize),
+                    new ThreadFactoryBuilder().setNameFormat("MessageStorage-ingest-%d").setDaemon(true).build(),
+                    ProducerType.MULTI,
+                    new BlockingWaitStrategy());
+            this.ingestDisruptor.setDefaultExceptionHandler(new IngestExceptionHandler());
+            final ConversionHandler[] conversionHandlers = new ConversionHandler[this.conversionHandlerCount];
+            for (int i = 0; i < this.conversionHandlerCount; i++) {
+                conversionHandlers[i] = new ConversionHandler(i);
+            }
+            final InsertHandler[] insertHandlers = new InsertHandler[this.insertHandlerCount];
+            for (int i = 0; i < this.insertHandlerCount; i++) {
+                insertHandlers[i] = new InsertHandler(i);
+            }
+            // entries are only inserted once converted. Slots are released once the insert handlers have taken the
+            // converted entities into their pending batches, which are committed later and hold up to
+            // blockingQueueSize entities each on top of the ring buffer
+            this.ingestDisruptor
+                    .handleEventsWith(conversionHandlers)
+                    .then(insertHandlers)
+                    .then((event, sequence, endOfBatch) -> event.clear());
+            this.ingestRingBuffer = this.ingestDisruptor.start();
+        }
+        this.ingestRunning = new AtomicBoolean(!this.readOnly);
+
+        this.messageSpill =
+                spillToDisk && testRunDir != null && !this.readOnly ? createMessageSpill(testRunDir) : null;
+        if (this.messageSpill != null) {
+            this.spillReplayThread = new ThreadFactoryBuilder()
+                    .setNameFormat("MessageStorage-spill-replay")
+                    .setDaemon(true)
+                    .build()
+                    .newThread(() -> replaySpilledMessages(this.messageSpill));
+            this.spillReplayThread.start();
+        } else {
+            this.spillReplayThread = null;
         }
-
-        this.xmlInputFactory = XMLInputFactory.newInstance();
     }
 
     public XPathExtractor getActionExtractor() {
         return actionExtractor;
     }
 
-    /**
-     * Adds message to the message database.
-     *
-     * @param message to add to the database
-     */
+    @Override
     public void addMessage(final DatabaseEntry message) {
-        this.closeLock.lock();
+        this.publishers.register();
+        this.publishingThreads.add(Thread.currentThread());
         try {
             if (this.closed.get()) {
                 final String errorString = "addMessageContent called on closed storage";
@@ -256,658 +344,97 @@ public class MessageStorage implements AutoCloseable {
                 testRunObserver.invalidateTestRun(errorString);
                 return;
             }
-
-            try {
-                this.messageQueue.put(message);
-            } catch (final InterruptedException e) {
-                LOG.error("unable to put message content into queue", e);
-                testRunObserver.invalidateTestRun(e);
+            if (this.readOnly) {
+                final String errorString = "addMessageContent called on read-only storage";
+                LOG.error(errorString);
+                testRunObserver.invalidateTestRun(errorString);
+                return;
             }
-        } finally {
-            this.closeLock.unlock();
-        }
-    }
 
-    public XMLInputFactory getXmlInputFactory() {
-        return xmlInputFactory;
-    }
-
-    protected MessageContent convertMessageToMessageContent(final Message message) {
-        boolean isSOAP = false;
-        String body = "";
-        final Set<String> actions = new HashSet<>();
-        final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups = new LinkedList<>();
-        final byte[] bodyBytes = message.getFinalMemory();
-        if (bodyBytes.length > 0) {
-            Charset messageCharset = StandardCharsets.UTF_8;
-            if (this.enableEncodingCheck) {
-                messageCharset = determineCharsetFromMessage(message);
-            }
-            final CharsetDecoder charsetDecoder = messageCharset.newDecoder();
-            charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-            charsetDecoder.onMalformedInput(CodingErrorAction.REPORT);
-            try {
-                final var decodingResult = charsetDecoder.decode(ByteBuffer.wrap(message.getFinalMemory()));
-                body = decodingResult.toString();
-            } catch (CharacterCodingException e) {
-                if (this.enableEncodingCheck) {
-                    if (this.summarizeMessageEncodingErrors) {
-                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                        this.messageEncodingErrorCount.incrementAndGet();
-                    } else {
-                        this.testRunObserver.invalidateTestRun(String.format(
-                                "Encountered message encoding problem: charset %s was specified, but message "
-                                        + "cannot be decoded using this charset. The specified charset is incorrect, "
-                                        + "or the message contains invalid characters (Message UID='%s').",
-                                messageCharset, message.getID()));
-                    }
-                }
-                body = new String(message.getFinalMemory(), messageCharset);
-            }
-            isSOAP = processMessageBody(body, actions, mdibVersionGroups);
-        }
-        return new MessageContent(
-                body,
-                message.getCommunicationContext(),
-                message.getDirection(),
-                message.getMessageType(),
-                message.getTimestamp(),
-                message.getNanoTimestamp(),
-                mdibVersionGroups,
-                actions,
-                message.getID(),
-                isSOAP,
-                getSender(message));
-    }
-
-    private String getSender(final Message message) {
-        final CommunicationContext communicationContext = message.getCommunicationContext();
-        if (communicationContext == null) {
-            // NOTE: this should never happen. If it does, this should be considered a bug.
-            LOG.trace("Encountered message (uuid={}) without a CommunicationContext.", message.getID());
-            testRunObserver.invalidateTestRun("Encountered message without a CommunicationContext.");
-            return null;
-        }
-        final TransportInfo transportInfo = communicationContext.getTransportInfo();
-        if (transportInfo == null) {
-            // NOTE: this should never happen. If it does, this should be considered a bug.
-            LOG.trace("Encountered message (uuid={}) without a TransportInfo.", message.getID());
-            testRunObserver.invalidateTestRun("Encountered message without a TransportInfo.");
-            return null;
-        }
-        if (message.getDirection() == CommunicationLog.Direction.INBOUND) {
-            final Optional<String> remoteAddress = transportInfo.getRemoteAddress();
-            if (remoteAddress.isEmpty()) {
-                // NOTE: this should never happen. If it does, this should be considered a bug.
-                LOG.trace("Encountered inbound message (uuid={}) without a remoteAddress.", message.getID());
-                testRunObserver.invalidateTestRun("Encountered inbound message without a remoteAddress.");
-                return null;
-            } else {
-                return remoteAddress.orElseThrow();
-            }
-        } else if (message.getDirection() == CommunicationLog.Direction.OUTBOUND) {
-            final Optional<String> localAddress = transportInfo.getLocalAddress();
-            if (localAddress.isEmpty()) {
-                // TODO: Fix: outbound messages often have a localAddress of 0.0.0.0 or null. After this is fixed,
-                //            invalidate the TestRun in this case as well.
-                return null;
+            if (this.messageSpill != null && message instanceof final Message collectedMessage) {
+                spillOrPublish(this.messageSpill, collectedMessage);
             } else {
-                return localAddress.orElseThrow();
-            }
-        } else {
-            testRunObserver.invalidateTestRun("Encountered unknown direction in message.");
-            LOG.trace(
-                    "Encountered unknown direction {} in message with uuid={}",
-                    message.getDirection(),
-                    message.getID());
-            return null;
-        }
-    }
-
-    private boolean processMessageBody(
-            final String body,
-            final Set<String> actions,
-            final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups) {
-        var isSOAP = false;
-        try {
-            final XMLEventReader reader = this.getXmlInputFactory().createXMLEventReader(new StringReader(body));
-
-            while (reader.hasNext()) {
-                final XMLEvent nextEvent = reader.nextEvent();
-
-                if (nextEvent.isStartElement()) {
-                    final StartElement startElement = nextEvent.asStartElement();
-                    if (startElement.getName().getLocalPart().equals("Action")
-                            && startElement.getName().getNamespaceURI().equals(WsAddressingConstants.NAMESPACE)) {
-                        handleActionEvent(actions, reader);
-                    } else if (startElement.getName().getLocalPart().equals("Body")
-                            && startElement.getName().getNamespaceURI().equals(SoapConstants.NAMESPACE)) {
-                        handleSoapBodyEvent(mdibVersionGroups, reader);
-                    } else if (startElement.getName().getLocalPart().equals("Envelope")
-                            && startElement.getName().getNamespaceURI().equals(SoapConstants.NAMESPACE)) {
-                        isSOAP = true;
-                    }
-                }
+                // waits for a free slot without locking if the ring buffer is full
+                this.ingestRingBuffer.publishEvent(IngestEvent::setEntry, message);
             }
-        } catch (final XMLStreamException e) {
-            LOG.trace(
-                    "unable to extract action or body from message content, " + "this is expected for invalid messages",
-                    e);
+        } finally {
+            this.publishingThreads.remove(Thread.currentThread());
+            this.publishers.arriveAndDeregister();
         }
-        return isSOAP;
-    }
-
-    private ManipulationData convertManipulationInfoToManipulationData(final ManipulationInfo manipulationInfo) {
-        return new ManipulationData(
-                manipulationInfo.getStartTimestamp(),
-                manipulationInfo.getFinishTimestamp(),
-                manipulationInfo.getResult(),
-                manipulationInfo.getResponse(),
-                manipulationInfo.getMethodName(),
-                manipulationInfo.getParameter(),
-                manipulationInfo.getID());
     }
 
-    protected Charset determineCharsetFromMessage(final Message message) {
-        // Note: charset can be determined from (in the order of precedence)
-        //       1. HTTP Header
-        //       2. Unicode Byte Order Mark
-        //       3. XML Declaration
+    @Nullable
+    private MessageSpill createMessageSpill(final File testRunDir) {
         try {
-
-            // 1. check HTTP Header
-            final Charset charsetFromHttpHeader = determineCharsetFromHttpHeader(message);
-            // 2. check Unicode Byte Order Mark
-            final Charset charsetFromUnicodeByteOrderMark = determineCharsetFromUnicodeByteOrderMark(message);
-            // 3. check XML Declaration
-            final Charset charsetFromXmlDeclaration = determineCharsetFromXmlDeclaration(message);
-
-            checkFullCharsetConsistency(
-                    charsetFromHttpHeader,
-                    charsetFromUnicodeByteOrderMark,
-                    charsetFromXmlDeclaration,
-                    (String originA, String valueA, String originB, String valueB) -> {
-                        if (this.summarizeMessageEncodingErrors) {
-                            // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                            this.messageEncodingErrorCount.incrementAndGet();
-                        } else {
-                            this.testRunObserver.invalidateTestRun(String.format(
-                                    INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS,
-                                    message.getID(),
-                                    String.format(originA, valueA),
-                                    String.format(originB, valueB)));
-                        }
-                    });
-
-            final Charset charset = chooseMessageCharset(
-                    message, charsetFromHttpHeader, charsetFromUnicodeByteOrderMark, charsetFromXmlDeclaration);
-
-            checkMimeType(message);
-
-            if (!charset.equals(StandardCharsets.UTF_8)) {
-                String charsetWithOrigin = String.format("'%s' in Unicode Byte Order Mark", charset);
-                if (charset.equals(charsetFromHttpHeader)) {
-                    charsetWithOrigin = String.format("'%s' in HTTP Header", charset);
-                } else if (charset.equals(charsetFromXmlDeclaration)) {
-                    charsetWithOrigin = String.format("'%s' in XML Declaration", charset);
-                }
-                if (this.summarizeMessageEncodingErrors) {
-                    // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                    this.messageEncodingErrorCount.incrementAndGet();
-                } else {
-                    this.testRunObserver.invalidateTestRun(String.format(
-                            "Encountered a message whose encoding is declared to be %s. This violates"
-                                    + " MDPWS:R0007_0 - SOAP ENVELOPEs SHALL be encoded by using UTF-8. (Message UID='%s')",
-                            charsetWithOrigin, message.getID()));
-                }
-            }
-
-            return charset;
-
-        } catch (Exception e) {
-            return StandardCharsets.UTF_8;
-        }
-    }
-
-    private Charset chooseMessageCharset(
-            final Message message,
-            @Nullable final Charset charsetFromHttpHeader,
-            @Nullable final Charset charsetFromUnicodeByteOrderMark,
-            @Nullable final Charset charsetFromXmlDeclaration) {
-        final Charset charset;
-        if (charsetFromHttpHeader != null) {
-            charset = charsetFromHttpHeader;
-        } else {
-            if (charsetFromUnicodeByteOrderMark != null) {
-                // consistency between BOM and XMLDeclaration has already been checked in
-                // determineCharsetFromXMLDeclaration(). No need to do it again.
-                charset = charsetFromUnicodeByteOrderMark;
-            } else {
-                if (charsetFromXmlDeclaration != null) {
-                    charset = charsetFromXmlDeclaration;
-                } else {
-                    if (this.summarizeMessageEncodingErrors) {
-                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                        this.messageEncodingErrorCount.incrementAndGet();
-                    } else {
-                        this.testRunObserver.invalidateTestRun(
-                                "Message encoding could not be determined for message with ID '" + message.getID()
-                                        + "'."
-                                        + " Please ensure that all Messages send by the Device under Test declare their encoding"
-                                        + " either in the HTTP Header, in the Unicode Byte Order Mark, or in the XML Declaration"
-                                        + " as mandated by the XML Standard.");
-                    }
-                    charset = StandardCharsets.UTF_8;
-                }
-            }
-        }
-        return charset;
-    }
-
-    private void checkFullCharsetConsistency(
-            @Nullable final Charset charsetFromHttpHeader,
-            @Nullable final Charset charsetFromUnicodeByteOrderMark,
-            @Nullable final Charset charsetFromXmlDeclaration,
-            final InconsistencyReport report) {
-
-        if (charsetFromHttpHeader != null) {
-            if (charsetFromUnicodeByteOrderMark != null
-                    && !charsetFromUnicodeByteOrderMark.equals(charsetFromHttpHeader)) {
-                report.report(
-                        HTTP_HEADER_ORIGIN,
-                        charsetFromHttpHeader.toString(),
-                        BOM_ORIGIN,
-                        charsetFromUnicodeByteOrderMark.toString());
-            } else if (charsetFromXmlDeclaration != null && !charsetFromXmlDeclaration.equals(charsetFromHttpHeader)) {
-                report.report(
-                        HTTP_HEADER_ORIGIN,
-                        charsetFromHttpHeader.toString(),
-                        XML_DECLARATION_ORIGIN,
-                        charsetFromXmlDeclaration.toString());
-            }
-        } else {
-            if (charsetFromXmlDeclaration != null
-                    && charsetFromUnicodeByteOrderMark != null
-                    && !charsetFromUnicodeByteOrderMark.equals(charsetFromXmlDeclaration)) {
-                report.report(
-                        BOM_ORIGIN,
-                        charsetFromUnicodeByteOrderMark.toString(),
-                        XML_DECLARATION_ORIGIN,
-                        charsetFromXmlDeclaration.toString());
-            }
-        }
-    }
-
-    private void checkMimeType(final Message message) {
-        final ApplicationInfo applicationInfo =
-                message.getCommunicationContext().getApplicationInfo();
-        if (applicationInfo instanceof HttpApplicationInfo) {
-            final List<String> contentTypeHeaderValues =
-                    ((HttpApplicationInfo) applicationInfo).getHeaders().get(HTTP_HEADER_NAME_CONTENT_TYPE);
-            for (final String value : contentTypeHeaderValues) {
-                final int index = value.indexOf(";");
-                final String mimeType;
-                if (index >= 0) {
-                    mimeType = value.substring(0, index);
-                } else {
-                    mimeType = value;
-                }
-                if (!SDC_MIME_TYPES.contains(mimeType)) {
-                    if (summarizeMessageEncodingErrors) {
-                        // TestRun will be invalidated in TestSuite if invalidMimeTypeCount > 0
-                        this.invalidMimeTypeCount++;
-                    } else {
-                        this.testRunObserver.invalidateTestRun(String.format(
-                                "encountered a SOAP Envelope whose mimeType '%s' (declared in its "
-                                        + "HTTP Header) indicates that it was not serialized as 'application/soap+xml' and "
-                                        + "that hence violates the definition of a SOAP TEXT ENVELOPE in MDPWS Section 3.1. (Message UUID='%s')",
-                                mimeType, message.getID()));
-                    }
-                }
-            }
+            return new MessageSpill(new File(testRunDir, SPILL_FILE_NAME).toPath(), this);
+        } catch (final IOException e) {
+            LOG.error(
+                    "Could not create the message spill file, collecting messages blocks while the buffer is full", e);
+            return null;
         }
     }
 
-    private Charset determineCharsetFromUnicodeByteOrderMark(final Message message) {
-        Charset charsetFromUnicodeByteOrderMark = null;
+    private void spillOrPublish(final MessageSpill spill, final Message message) {
         try {
-            final ByteArrayInputStream in = new ByteArrayInputStream(message.getFinalMemory());
-            final BOMInputStream bomIn = new BOMInputStream(
-                    in,
-                    ByteOrderMark.UTF_8,
-                    ByteOrderMark.UTF_16LE,
-                    ByteOrderMark.UTF_16BE,
-                    ByteOrderMark.UTF_32LE,
-                    ByteOrderMark.UTF_32BE);
-            if (!bomIn.hasBOM()) {
-                LOG.trace("Unable to determine charset from byte order mark for message with ID '" + message.getID()
-                        + "'. Will use another option.");
-            } else if (bomIn.hasBOM(ByteOrderMark.UTF_8)) {
-                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_8;
-            } else if (bomIn.hasBOM(ByteOrderMark.UTF_16LE)) {
-                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_16LE;
-            } else if (bomIn.hasBOM(ByteOrderMark.UTF_16BE)) {
-                charsetFromUnicodeByteOrderMark = StandardCharsets.UTF_16BE;
-            } else if (bomIn.hasBOM(ByteOrderMark.UTF_32LE)) {
-                charsetFromUnicodeByteOrderMark = Charset.forName("UTF_32LE");
-            } else if (bomIn.hasBOM(ByteOrderMark.UTF_32BE)) {
-                charsetFromUnicodeByteOrderMark = Charset.forName("UTF_32BE");
-            }
-        } catch (IOException e) {
-            if (this.summarizeMessageEncodingErrors) {
-                // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                this.messageEncodingErrorCount.incrementAndGet();
-            } else {
-                this.testRunObserver.invalidateTestRun(
-                        "Unable to read message contents of message with ID '" + message.getID() + "'", e);
-            }
-        }
-        return charsetFromUnicodeByteOrderMark;
-    }
-
-    private Charset determineCharsetFromXmlDeclaration(final Message message) {
-        final Charset charsetFromBOM = determineCharsetFromUnicodeByteOrderMark(message);
-        final Charset charsetFromPrefix = determineCharsetFromXmlDeclarationPrefix(message);
-
-        Charset result = null;
-        if (charsetFromBOM != null) {
-            result = determineCharsetFromXmlDeclarationInternal(message, charsetFromBOM);
-        } else {
-            if (charsetFromPrefix != null) {
-                result = determineCharsetFromXmlDeclarationInternal(message, charsetFromPrefix);
-            }
-        }
-
-        checkCharsetConsistency(
-                charsetFromBOM,
-                charsetFromPrefix,
-                result,
-                (String originA, String valueA, String originB, String valueB) -> {
-                    if (this.summarizeMessageEncodingErrors) {
-                        // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                        this.messageEncodingErrorCount.incrementAndGet();
-                    } else {
-                        this.testRunObserver.invalidateTestRun(String.format(
-                                INCONSISTENT_CHARSET_DECLARATION_WITH_ORIGINS,
-                                message.getID(),
-                                String.format(originA, valueA),
-                                String.format(originB, valueB)));
-                    }
-                });
-
-        return result;
-    }
-
-    private void checkCharsetConsistency(
-            final @javax.annotation.Nullable Charset charsetFromBOM,
-            final @javax.annotation.Nullable Charset charsetFromPrefix,
-            final @javax.annotation.Nullable Charset charsetFromDeclaration,
-            final InconsistencyReport report) {
-        if (charsetFromDeclaration == null) {
-            if (charsetFromBOM != null
-                    && charsetFromPrefix != null
-                    && !bomAndPrefixAreCompatible(charsetFromBOM, charsetFromPrefix)) {
-                report.report(
-                        XML_DECLARATION_PREFIX_ORIGIN,
-                        charsetFromPrefix.toString(),
-                        BOM_ORIGIN,
-                        charsetFromBOM.toString());
-            }
-        } else {
-            if (charsetFromBOM != null && !charsetFromBOM.equals(charsetFromDeclaration)) {
-                report.report(
-                        XML_DECLARATION_ORIGIN,
-                        charsetFromDeclaration.toString(),
-                        BOM_ORIGIN,
-                        charsetFromBOM.toString());
-            }
-
-            final boolean charset_declaration_inconsistent =
-                    charsetFromPrefix != null && !charsetFromPrefix.equals(charsetFromDeclaration);
-            // EBCDIC Prefix is consistent with any charset from the EBCDIC family.
-            final boolean special_case_EBCDIC_family = charsetFromPrefix != null
-                    && charsetFromPrefix.equals(Charset.forName("ebcdic-international-500+euro"))
-                    && isEBCDIC(charsetFromDeclaration);
-            // UTF-8 Prefix is consistent with any charset using the same bit pattern for the ASCII characters
-            // as UTF-8. Since we were able to read the XML Declaration successfully we can assume this is the
-            // case.
-            final boolean special_case_ASCII_compatible =
-                    charsetFromPrefix != null && charsetFromPrefix.equals(StandardCharsets.US_ASCII);
-
-            if (charset_declaration_inconsistent && !special_case_EBCDIC_family && !special_case_ASCII_compatible) {
-                report.report(
-                        XML_DECLARATION_ORIGIN,
-                        charsetFromDeclaration.toString(),
-                        XML_DECLARATION_PREFIX_ORIGIN,
-                        charsetFromPrefix.toString());
-            }
-        }
-    }
-
-    private boolean bomAndPrefixAreCompatible(final Charset charsetFromBOM, final Charset charsetFromPrefix) {
-        if (StandardCharsets.US_ASCII.equals(charsetFromPrefix) && StandardCharsets.UTF_8.equals(charsetFromBOM)) {
-            return true;
-        }
-        return charsetFromPrefix.equals(charsetFromBOM);
-    }
-
-    private boolean isEBCDIC(final Charset charset) {
-        boolean result = false;
-        for (String alias : charset.aliases()) {
-            if (alias.toLowerCase().startsWith("ebcdic")) {
-                result = true;
-                break;
+            // once a message has been spilled, all following messages are spilled until the spill has been replayed,
+            // otherwise messages collected later could be stored before messages collected earlier
+            if (spill.appendIfActive(message)
+                    || this.ingestRingBuffer.tryPublishEvent(IngestEvent::setEntry, message)) {
+                return;
             }
+            spill.append(message);
+        } catch (final IOException e) {
+            LOG.error("Could not spill message {}, waiting for space in the buffer instead", message.getID(), e);
+            this.ingestRingBuffer.publishEvent(IngestEvent::setEntry, message);
         }
-        return result;
     }
 
-    private Charset determineCharsetFromXmlDeclarationPrefix(final Message message) {
-        final ByteArrayInputStream in = new ByteArrayInputStream(message.getFinalMemory());
-        final BOMInputStream bomIn = new BOMInputStream(in, ByteOrderMark.UTF_8);
+    private void replaySpilledMessages(final MessageSpill spill) {
         try {
-            Charset result = null;
-            final byte[] msg = bomIn.readNBytes(XML_DECLARATION_PREFIX_LENGTH);
-            for (Map.Entry<byte[], Charset> e : XML_DECLARATION_PREFIXES.entrySet()) {
-                if (startsWith(msg, e.getKey())) {
-                    result = e.getValue();
-                    break;
+            while (spill.awaitMessage()) {
+                final Message message;
+                try {
+                    message = spill.read();
+                } catch (final IOException e) {
+                    final long discarded = spill.discard();
+                    LOG.error("Could not read spilled messages, {} messages have been discarded", discarded, e);
+                    testRunObserver.invalidateTestRun(
+                            String.format("Could not read spilled messages, %s messages have been lost", discarded));
+                    continue;
                 }
+                // only the replaying thread publishes while messages are spilled, this blocks until there is space
+                this.ingestRingBuffer.publishEvent(IngestEvent::setEntry, message);
+                spill.markReplayed();
             }
-            return result;
-        } catch (IOException e) {
-            return null;
-        }
-    }
-
-    /**
-     * Utility method to check if one byte array starts with a specified sequence of bytes.
-     *
-     * @param array  The array to check
-     * @param prefix The prefix bytes to test for
-     * @return true if the array starts with the bytes from the prefix
-     */
-    private static boolean startsWith(final byte[] array, final byte[] prefix) {
-        if (array == prefix) {
-            return true;
-        }
-        return startsWithInternal1(array, prefix);
-    }
-
-    private static boolean startsWithInternal1(final byte[] array, final byte[] prefix) {
-        if (prefix.length > array.length) {
-            return false;
-        }
-        return startsWithInternal2(array, prefix);
-    }
-
-    private static boolean startsWithInternal2(final byte[] array, final byte[] prefix) {
-        final int prefixLength = prefix.length;
-        for (int i = 0; i < prefixLength; i++) {
-            if (array[i] != prefix[i]) {
-                return false;
-            }
+        } catch (final IOException e) {
+            LOG.error("Could not reset the message spill file, no further messages are spilled", e);
+            testRunObserver.invalidateTestRun(e);
+        } catch (final InterruptedException e) {
+            LOG.error("Replaying spilled messages was interrupted", e);
+            testRunObserver.invalidateTestRun(e);
+            Thread.currentThread().interrupt();
         }
-
-        return true;
     }
 
-    private Charset determineCharsetFromXmlDeclarationInternal(final Message message, final Charset encoding) {
-        Charset charsetFromXmlDeclaration = null;
-
-        final String content = new String(message.getFinalMemory(), encoding);
-        final Matcher matcher = encodingFromXmlDeclarationPatternDoubleQuotes.matcher(content);
-        if (matcher.matches()) {
-            charsetFromXmlDeclaration = Charset.forName(matcher.group(1));
-        } else {
-            final Matcher matcher2 = encodingFromXmlDeclarationPatternSingleQuotes.matcher(content);
-            if (matcher2.matches()) {
-                charsetFromXmlDeclaration = Charset.forName(matcher2.group(1));
-            }
-        }
-        return charsetFromXmlDeclaration;
-    }
-
-    private Charset determineCharsetFromHttpHeader(final Message message) {
-        Charset charsetFromHttpHeader = null;
-        final ApplicationInfo applicationInfo =
-                message.getCommunicationContext().getApplicationInfo();
-        if (applicationInfo instanceof HttpApplicationInfo) {
-            final List<String> contentTypeHeaderValues =
-                    ((HttpApplicationInfo) applicationInfo).getHeaders().get(HTTP_HEADER_NAME_CONTENT_TYPE);
-            for (final String value : contentTypeHeaderValues) {
-                final Matcher matcher = charsetPattern.matcher(value);
-                if (matcher.matches()) {
-                    final String charsetName =
-                            stripQuotes(matcher.group(1).trim()).trim();
-                    try {
-                        charsetFromHttpHeader = Charset.forName(charsetName);
-                    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
-                        // in this case the message contained a Content-Type Header with a charset directive,
-                        // but the encoding given in that directive was invalid - which is a finding the user should
-                        // be notified about.
-                        // NOTE: returning null in this case is ok as determineCharsetFromMessage() will then try to
-                        //       use other clues to determine the charset and hopefully succeed in correctly decoding
-                        //       the Message before storing it in the DB.
-                        if (this.summarizeMessageEncodingErrors) {
-                            // TestRun will be invalidated in TestSuite if messageEncodingErrorCount > 0
-                            this.messageEncodingErrorCount.incrementAndGet();
-                        } else {
-                            this.testRunObserver.invalidateTestRun(
-                                    String.format(
-                                            "Encountered invalid/unknown charset '%s' in HTTP Header", charsetName),
-                                    e);
-                        }
-                    }
-                }
-            }
-        }
-        return charsetFromHttpHeader;
+    public XMLInputFactory getXmlInputFactory() {
+        return this.converter.getXmlInputFactory();
     }
 
-    private String stripQuotes(final String str) {
-        if ((str.startsWith("\"") && str.endsWith("\"")) || (str.startsWith("'") && str.endsWith("'"))) {
-            return str.substring(1, str.length() - 1);
-        } else {
-            return str;
+    protected MessageContent convertMessageToMessageContent(final Message message) {
+        final MessageContent messageContent = this.converter.convert(message);
+        if (this.compressBodies) {
+            this.bodyCompressor.compress(messageContent);
         }
+        this.storedBodyLength.addAndGet(messageContent.getBodyLength());
+        this.storedBodyCount.incrementAndGet();
+        return messageContent;
     }
 
-    private void handleActionEvent(final Set<String> actions, final XMLEventReader reader) throws XMLStreamException {
-        final XMLEvent nextEvent;
-        nextEvent = reader.nextEvent();
-        if (nextEvent.isCharacters()) {
-            actions.add(nextEvent.asCharacters().getData());
-        } else {
-            LOG.warn("empty action element encountered");
-            actions.add("");
-        }
-    }
-
-    private boolean checkElementSupportsMdibVersionSorting(final QName name) {
-        return Constants.RELEVANT_REPORT_BODIES.contains(name) || Constants.MSG_GET_MDIB_RESPONSE.equals(name);
-    }
-
-    private void handleSoapBodyEvent(
-            final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups, final XMLEventReader reader)
-            throws XMLStreamException {
-        long childCounter = 0;
-
-        XMLEvent nextEvent;
-        var level = 0;
-        while (level >= 0) {
-            nextEvent = reader.nextEvent();
-            if (nextEvent.isStartElement()) {
-                level++;
-                // only add elements on level 1, i.e. direct children of the SOAP body
-                if (level == 1) {
-                    childCounter++;
-
-                    final StartElement startElement = nextEvent.asStartElement();
-
-                    final String bodyElementNameString = startElement.getName().toString();
-
-                    long mdibVersion = -3L;
-                    String sequenceId = null;
-
-                    if (this.checkElementSupportsMdibVersionSorting(startElement.getName())) {
-
-                        final Attribute mdibVersionAttribute = startElement.getAttributeByName(Constants.MDIB_VERSION);
-
-                        if (mdibVersionAttribute == null) {
-                            mdibVersion = 0L;
-                        } else if (mdibVersionAttribute.getValue() == null) {
-                            mdibVersion = -2L;
-                            this.testRunObserver.invalidateTestRun(
-                                    "Calling getValue on mdibVersionAttribute resulted in null. "
-                                            + "Saved -2L as a replacement value.");
-                        } else if (mdibVersionAttribute.getValue().equals("")) {
-                            mdibVersion = -1L;
-                            this.testRunObserver.invalidateTestRun(
-                                    "Encountered MdibVersion attribute that has an empty string as its value"
-                                            + "and saved -1L as a replacement value.");
-                        } else {
-                            try {
-                                mdibVersion = Long.parseLong(mdibVersionAttribute.getValue());
-                            } catch (NumberFormatException e) {
-                                this.testRunObserver.invalidateTestRun(e);
-                            }
-                        }
-
-                        final Attribute sequenceIdAttribute = startElement.getAttributeByName(Constants.SEQUENCE_ID);
-
-                        if (sequenceIdAttribute != null) {
-                            sequenceId = sequenceIdAttribute.getValue();
-                        } else {
-                            this.testRunObserver.invalidateTestRun(String.format(
-                                    "Encountered body with the QName %s " + "without a SequenceId attribute.",
-                                    startElement.getName()));
-                        }
-                    }
-                    mdibVersionGroups.add(new MdibVersionGroupEntity.MdibVersionGroup(
-                            mdibVersion, sequenceId, bodyElementNameString));
-                }
-            } else if (nextEvent.isEndElement()) {
-                level--;
-            }
-        }
-
-        if (childCounter > 1) {
-            this.testRunObserver.invalidateTestRun(
-                    "Encountered multiple elements in soap body, but more than one are not allowed.");
-        }
+    protected Charset determineCharsetFromMessage(final Message message) {
+        return this.converter.determineCharsetFromMessage(message);
     }
 
-    /**
-     * Creates a {@linkplain Message} object in which the message information can be written.
-     *
-     * @param path                 protocol type used, i.e. UDP or TCP
-     * @param direction            the direction of the message, i.e. inbound or outbound
-     * @param messageType          type of the message, i.e. request, response
-     * @param communicationContext context containing transport and application information
-     * @return new message instance, already inserted into the global message list
-     * @throws IOException if MessageCache was already closed
-     */
+    @Override
     public Message createMessageStream(
             final CommunicationLog.TransportType path,
             final CommunicationLog.Direction direction,
@@ -921,16 +448,7 @@ public class MessageStorage implements AutoCloseable {
         return messageFactory.create(direction, messageType, communicationContext);
     }
 
-    /**
-     * Creates a {@linkplain ManipulationInfo} object and adds it to the storage.
-     *
-     * @param startTime  of the manipulation
-     * @param finishTime of the manipulation
-     * @param result     of the manipulation
-     * @param response   of the manipulation
-     * @param name       of the manipulation
-     * @param parameters of the manipulation
-     */
+    @Override
     public void createManipulationInfo(
             final long startTime,
             final long finishTime,
@@ -942,26 +460,30 @@ public class MessageStorage implements AutoCloseable {
         manipulation.addToStorage();
     }
 
-    /**
-     * Closes the message cache, preventing any new messages from being added.
-     */
     @Override
     public void close() {
         this.closeLock.lock();
         try {
             if (this.closed.compareAndSet(false, true)) {
 
-                this.flush();
-
-                this.databaseInteractionThreads.forEach(DatabaseInteractionThread::setStopped);
-                this.databaseInteractionThreads.forEach(thread -> {
-                    try {
-                        thread.join();
-                    } catch (final InterruptedException e) {
-                        LOG.error("unable to wait for database interaction thread termination due to an interrupt", e);
-                        testRunObserver.invalidateTestRun(e);
+                // no new messages are published from here on, wait for those currently being published
+                awaitPublishingThreads();
+
+                if (!this.readOnly) {
+                    this.flush();
+                    closeMessageSpill();
+
+                    // returns once all published entries have been handled
+                    this.ingestDisruptor.shutdown();
+                    this.ingestRunning.set(false);
+                    LOG.info(
+                            "Peak number of messages not yet converted: {}, not yet inserted into the database: {}",
+                            this.conversionQueueDepthPeak.get(),
+                            this.insertQueueDepthPeak.get());
+                    if (this.compressBodies) {
+                        this.bodyCompressor.logStatistics();
                     }
-                });
+                }
 
                 this.sessionFactory.close();
                 this.configuration.close();
@@ -971,122 +493,123 @@ public class MessageStorage implements AutoCloseable {
         }
     }
 
-    /**
-     * Sends all queued and buffered messages to the database and does a plausibility check via a select query.
-     */
-    public synchronized void flush() {
-
-        this.databaseInteractionThreads.forEach(DatabaseInteractionThread::triggerFlush);
-        final List<DatabaseEntry> temp = new ArrayList<>(this.blockingQueueSize);
-        this.messageQueue.drainTo(temp, this.blockingQueueSize);
-        this.awaitFlushBarrier();
-        // will not block at the barrier since other threads had already arrived at the barrier
-        this.flush(temp);
-    }
-
-    private void flush(final List<DatabaseEntry> messageList) {
-        this.flush(messageList, false, null);
+    private void awaitPublishingThreads() {
+        final int phase = this.publishers.arrive();
+        try {
+            this.publishers.awaitAdvanceInterruptibly(phase, PUBLISHING_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final TimeoutException e) {
+            LOG.error(
+                    "Threads {} are still publishing messages after {} s, closing the storage regardless",
+                    this.publishingThreads.stream().map(Thread::getName).toList(),
+                    PUBLISHING_TIMEOUT_SECONDS);
+        } catch (final InterruptedException e) {
+            LOG.error(
+                    "Interrupted while waiting for threads {} publishing messages, closing the storage regardless",
+                    this.publishingThreads.stream().map(Thread::getName).toList());
+            Thread.currentThread().interrupt();
+        }
     }
 
-    private void flush(
-            final List<DatabaseEntry> messageList,
-            final boolean await,
-            @Nullable final DatabaseInteractionThread databaseInteractionThread) {
-
-        if (!messageList.isEmpty()) {
-
-            final var firstElement = messageList.get(0);
-            final var lastElement = messageList.get(messageList.size() - 1);
-            final String firstID = firstElement.getID();
-            final String lastID = lastElement.getID();
-
-            this.transmit(messageList);
-
-            // only uuid shall be selected, thus it is a string criteria query
-            final CriteriaQuery<String> criteriaFirst = buildCriteria(firstElement.getClass(), firstID);
-            final CriteriaQuery<String> criteriaLast = buildCriteria(lastElement.getClass(), lastID);
-
-            long uuidCount = 0;
-
-            while (uuidCount < 2) {
-
-                uuidCount = 0;
-
-                try (final Stream<String> uuidStream = this.getStreamForQuery(criteriaLast)) {
-                    final long lastIDCount = uuidStream.filter(lastID::equals).count();
-
-                    if (lastIDCount < 2) {
-                        uuidCount += lastIDCount;
-                    } else {
-                        throw new RuntimeException("duplicate uuid found in database");
-                    }
-                }
-
-                try (final Stream<String> uuidStream = this.getStreamForQuery(criteriaFirst)) {
-                    final long firstIDCount = uuidStream.filter(firstID::equals).count();
+    @Override
+    public synchronized void flush() {
+        if (this.readOnly && !this.closed.get()) {
+            LOG.debug("flush called on read-only storage, nothing has been collected");
+            return;
+        }
+        if (!this.ingestRunning.get()) {
+            final String errorString = "flush called on closed storage";
+            LOG.error(errorString);
+            testRunObserver.invalidateTestRun(errorString);
+            return;
+        }
 
-                    if (firstIDCount < 2) {
-                        uuidCount += firstIDCount;
-                    } else {
-                        throw new RuntimeException("duplicate uuid found in database");
-                    }
-                }
+        final List<CompletableFuture<Void>> acknowledgements = new ArrayList<>(this.insertHandlerCount);
+        for (int i = 0; i < this.insertHandlerCount; i++) {
+            acknowledgements.add(new CompletableFuture<>());
+        }
 
-                Thread.yield();
+        try {
+            if (this.messageSpill != null) {
+                // spilled messages have been collected before the flush and have to be published before the flush event
+                this.messageSpill.awaitDrained();
             }
-        }
+            // every insert handler commits the entries it has taken from the ring buffer before the flush event
+            this.ingestRingBuffer.publishEvent(IngestEvent::setFlushAcknowledgements, acknowledgements);
 
-        if (databaseInteractionThread != null) {
-            databaseInteractionThread.resetFlushEvent();
+            CompletableFuture.allOf(acknowledgements.toArray(new CompletableFuture<?>[0])).get();
+        } catch (final InterruptedException e) {
+            LOG.error("the message flush was interrupted", e);
+            testRunObserver.invalidateTestRun(e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOG.error("the message flush failed", e.getCause());
+            testRunObserver.invalidateTestRun(e.getCause());
         }
+    }
 
-        if (await) {
-            this.awaitFlushBarrier();
+    private void closeMessageSpill() {
+        if (this.messageSpill == null) {
+            return;
+        }
+        LOG.info(
+                "{} messages have been spilled to disk while the buffer was full",
+                this.messageSpill.getSpilledCount());
+        try {
+            this.messageSpill.close();
+        } catch (final IOException e) {
+            LOG.warn("Could not delete the message spill file", e);
+        }
+        try {
+            this.spillReplayThread.join();
+        } catch (final InterruptedException e) {
+            LOG.error("Waiting for the replay of spilled messages was interrupted", e);
+            Thread.currentThread().interrupt();
         }
     }
 
-    private CriteriaQuery<String> buildCriteria(final Class<? extends DatabaseEntry> entryClass, final String id) {
-        final CriteriaQuery<String> criteria;
-        try (final Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-
-            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            criteria = criteriaBuilder.createQuery(String.class);
-            if (entryClass.equals(Message.class)) {
-                final Root<MessageContent> messageContentRoot = criteria.from(MessageContent.class);
-
-                // here we want only the uuid, not the whole row
-                criteria.select(messageContentRoot.get(MessageContent_.uuid));
-
-                criteria.where(criteriaBuilder.equal(messageContentRoot.get(MessageContent_.uuid), id));
-            } else if (entryClass.equals(ManipulationInfo.class)) {
-                final Root<ManipulationData> manipulationDataRoot = criteria.from(ManipulationData.class);
-
-                // here we want only the uuid, not the whole row
-                criteria.select(manipulationDataRoot.get(ManipulationData_.uuid));
-
-                criteria.where(criteriaBuilder.equal(manipulationDataRoot.get(ManipulationData_.uuid), id));
-            }
+    @Override
+    public void createIndexes() {
+        if (this.closed.get()) {
+            LOG.error("createIndexes called on closed storage");
+            return;
+        }
+        if (!this.indexesCreated.compareAndSet(false, true)) {
+            LOG.debug("Indexes have already been created");
+            return;
+        }
+        if (this.readOnly) {
+            LOG.debug("Indexes are not created in a read-only database");
+            return;
         }
-        return criteria;
-    }
 
-    private void awaitFlushBarrier() {
+        final long start = System.nanoTime();
         try {
-            this.flushBarrier.await();
-        } catch (InterruptedException | BrokenBarrierException e) {
-            LOG.error("the message flush was interrupted", e);
-            testRunObserver.invalidateTestRun(e);
+            executeIndexStatements(Arrays.stream(DatabaseIndex.values())
+                    .filter(index -> !index.isCreatedWithSchema())
+                    .toList());
+        } catch (final HibernateException e) {
+            LOG.warn("Unable to create database indexes, queries will not be able to use them", e);
+            return;
+        }
+        LOG.info("Created database indexes in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void executeIndexStatements(final List<DatabaseIndex> indexes) {
+        try (final Session session = sessionFactory.openSession()) {
+            final Transaction transaction = session.beginTransaction();
+            session.doWork(connection -> {
+                try (final Statement statement = connection.createStatement()) {
+                    for (final DatabaseIndex index : indexes) {
+                        LOG.debug("Creating index {} on {}", index.getIndexName(), index.getTableName());
+                        statement.execute(index.createStatement());
+                    }
+                }
+            });
+            transaction.commit();
         }
     }
 
-    /**
-     * Retrieves all SequenceId attribute values that have been seen.
-     * Orders them by the timestamp of the first message that used the respective SequenceId.
-     *
-     * @return stream of all SequenceId attribute values that have been seen
-     * @throws IOException if storage is closed
-     */
+    @Override
     public Stream<String> getUniqueSequenceIds() throws IOException {
 
         if (this.closed.get()) {
@@ -1110,12 +633,7 @@ public class MessageStorage implements AutoCloseable {
         return this.getOrderedQueryResult(messageContentQuery).distinct();
     }
 
-    /**
-     * Retrieves all incoming messages.
-     *
-     * @return container with stream of all inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundMessages() throws IOException {
 
         if (this.closed.get()) {
@@ -1134,20 +652,10 @@ public class MessageStorage implements AutoCloseable {
                     messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getQueryResult(criteria), present);
+        return new GetterResult<>(this.getQueryResult(criteria));
     }
 
-    /**
-     * Retrieves all outgoing messages.
-     *
-     * @return container with stream of all outbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getOutboundMessages() throws IOException {
 
         if (this.closed.get()) {
@@ -1166,98 +674,43 @@ public class MessageStorage implements AutoCloseable {
                     messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.OUTBOUND));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getQueryResult(criteria), present);
+        return new GetterResult<>(this.getQueryResult(criteria));
     }
 
-    /**
-     * Retrieves all incoming SOAP messages.
-     *
-     * <p>
-     * SOAP messages are considered messages in storage which have a SOAP 1.2 envelope element or application/soap+xml
-     * content type.
-     *
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundSoapMessages() throws IOException {
-        if (this.closed.get()) {
-            LOG.error(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
-            throw new IOException(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
-        }
-
-        final CriteriaQuery<MessageContent> messageContentQuery;
-        try (final Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-
-            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            messageContentQuery = criteriaBuilder.createQuery(MessageContent.class);
-            final Root<MessageContent> messageContentRoot = messageContentQuery.from(MessageContent.class);
-            messageContentQuery.select(messageContentRoot);
-
-            final Subquery<HTTPHeaderEntity> headerSubQuery = messageContentQuery.subquery(HTTPHeaderEntity.class);
-            final Root<HTTPHeaderEntity> httpHeaderEntityRoot = headerSubQuery.from(HTTPHeaderEntity.class);
-            headerSubQuery.select(httpHeaderEntityRoot);
-
-            headerSubQuery.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            httpHeaderEntityRoot.get(HTTPHeaderEntity_.messageContent),
-                            messageContentRoot.get(MessageContent_.incId)),
-                    criteriaBuilder.and(
-                            criteriaBuilder.equal(
-                                    criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerKey)),
-                                    HTTP_HEADER_NAME_CONTENT_TYPE),
-                            criteriaBuilder.like(
-                                    criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerValue)),
-                                    criteriaBuilder.literal("%application/soap+xml%")))));
+        return new GetterResult<>(this.getQueryResult(this.createMessageContentQuery(this.inboundSoapFilter(null))));
+    }
 
-            messageContentQuery.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
-                    criteriaBuilder.or(
-                            criteriaBuilder.isTrue(messageContentRoot.get(MessageContent_.isSOAP)),
-                            criteriaBuilder.exists(headerSubQuery))));
-        }
+    @Override
+    public GetterResult<MessageContent> getInboundSoapResponseMessages() throws IOException {
+        final MessageContentFilter filter = this.inboundSoapFilter(CommunicationLog.MessageType.RESPONSE);
+        return new GetterResult<>(this.getQueryResult(this.createMessageContentQuery(filter)));
+    }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
+    @Override
+    public GetterResult<MessageView> getInboundSoapMessageViews() throws IOException {
+        return new GetterResult<>(this.getMessageViewResult(this.createMessageViewQuery(this.inboundSoapFilter(null))));
+    }
 
-        return new GetterResult<>(this.getQueryResult(messageContentQuery), present);
+    @Override
+    public GetterResult<MessageView> getInboundSoapResponseMessageViews() throws IOException {
+        final MessageContentFilter filter = this.inboundSoapFilter(CommunicationLog.MessageType.RESPONSE);
+        return new GetterResult<>(this.getMessageViewResult(this.createMessageViewQuery(filter)));
     }
 
-    /**
-     * Retrieves all incoming SOAP response messages.
-     *
-     * <p>
-     * SOAP messages are considered messages in storage which have a SOAP 1.2 envelope element or application/soap+xml
-     * content type.
-     *
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
-    public GetterResult<MessageContent> getInboundSoapResponseMessages() throws IOException {
+    private MessageContentFilter inboundSoapFilter(@Nullable final CommunicationLog.MessageType messageType)
+            throws IOException {
         if (this.closed.get()) {
             LOG.error(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
             throw new IOException(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
         }
 
-        final CriteriaQuery<MessageContent> messageContentQuery;
-        try (final Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-
-            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            messageContentQuery = criteriaBuilder.createQuery(MessageContent.class);
-            final Root<MessageContent> messageContentRoot = messageContentQuery.from(MessageContent.class);
-            messageContentQuery.select(messageContentRoot);
-
+        return (criteriaBuilder, messageContentQuery, messageContentRoot) -> {
             final Subquery<HTTPHeaderEntity> headerSubQuery = messageContentQuery.subquery(HTTPHeaderEntity.class);
             final Root<HTTPHeaderEntity> httpHeaderEntityRoot = headerSubQuery.from(HTTPHeaderEntity.class);
+            final Join<HTTPHeaderEntity, HTTPHeaderFieldEntity> headerFieldJoin =
+                    httpHeaderEntityRoot.join(HTTPHeaderEntity_.headerField);
             headerSubQuery.select(httpHeaderEntityRoot);
 
             headerSubQuery.where(criteriaBuilder.and(
@@ -1266,41 +719,28 @@ public class MessageStorage implements AutoCloseable {
                             messageContentRoot.get(MessageContent_.incId)),
                     criteriaBuilder.and(
                             criteriaBuilder.equal(
-                                    criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerKey)),
+                                    criteriaBuilder.lower(headerFieldJoin.get(HTTPHeaderFieldEntity_.headerKey)),
                                     HTTP_HEADER_NAME_CONTENT_TYPE),
                             criteriaBuilder.like(
-                                    criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerValue)),
+                                    criteriaBuilder.lower(headerFieldJoin.get(HTTPHeaderFieldEntity_.headerValue)),
                                     criteriaBuilder.literal("%application/soap+xml%")))));
 
-            messageContentQuery.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
-                    criteriaBuilder.equal(
-                            messageContentRoot.get(MessageContent_.messageType), CommunicationLog.MessageType.RESPONSE),
-                    criteriaBuilder.or(
-                            criteriaBuilder.isTrue(messageContentRoot.get(MessageContent_.isSOAP)),
-                            criteriaBuilder.exists(headerSubQuery))));
-        }
-
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
+            final List<Predicate> messageContentPredicates = new ArrayList<>();
+            messageContentPredicates.add(criteriaBuilder.equal(
+                    messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND));
+            if (messageType != null) {
+                messageContentPredicates.add(
+                        criteriaBuilder.equal(messageContentRoot.get(MessageContent_.messageType), messageType));
+            }
+            messageContentPredicates.add(criteriaBuilder.or(
+                    criteriaBuilder.isTrue(messageContentRoot.get(MessageContent_.isSOAP)),
+                    criteriaBuilder.exists(headerSubQuery)));
 
-        return new GetterResult<>(this.getQueryResult(messageContentQuery), present);
+            messageContentQuery.where(criteriaBuilder.and(messageContentPredicates.toArray(new Predicate[0])));
+        };
     }
 
-    /**
-     * Retrieves all outgoing HTTP messages which match any of the provided actions and any of the provided headers.
-     *
-     * <p>
-     * HTTP messages are considered messages in storage which have their scheme set to http or https.
-     *
-     * @param bodyTypes to match messages against
-     * @param headers   to match messages against
-     * @return container with stream of all matching outgoing {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getOutboundHttpMessagesByBodyTypeAndHeaders(
             final List<QName> bodyTypes, final List<AbstractMap.SimpleImmutableEntry<String, String>> headers)
             throws IOException {
@@ -1339,15 +779,17 @@ public class MessageStorage implements AutoCloseable {
 
             final Subquery<HTTPHeaderEntity> headerSubQuery = messageContentQuery.subquery(HTTPHeaderEntity.class);
             final Root<HTTPHeaderEntity> httpHeaderEntityRoot = headerSubQuery.from(HTTPHeaderEntity.class);
+            final Join<HTTPHeaderEntity, HTTPHeaderFieldEntity> headerFieldJoin =
+                    httpHeaderEntityRoot.join(HTTPHeaderEntity_.headerField);
             headerSubQuery.select(httpHeaderEntityRoot);
             final var headerPredicates = new ArrayList<Predicate>();
             for (final AbstractMap.SimpleImmutableEntry<String, String> header : headers) {
                 headerPredicates.add(criteriaBuilder.and(
                         criteriaBuilder.equal(
-                                criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerKey)),
+                                criteriaBuilder.lower(headerFieldJoin.get(HTTPHeaderFieldEntity_.headerKey)),
                                 header.getKey()),
                         criteriaBuilder.equal(
-                                criteriaBuilder.lower(httpHeaderEntityRoot.get(HTTPHeaderEntity_.headerValue)),
+                                criteriaBuilder.lower(headerFieldJoin.get(HTTPHeaderFieldEntity_.headerValue)),
                                 header.getValue())));
             }
             headerSubQuery.where(criteriaBuilder.and(
@@ -1370,79 +812,73 @@ public class MessageStorage implements AutoCloseable {
                     criteriaBuilder.exists(headerSubQuery)));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getQueryResult(messageContentQuery), present);
+        return new GetterResult<>(this.getQueryResult(messageContentQuery));
     }
 
-    /**
-     * Retrieves all incoming HTTP messages.
-     *
-     * <p>
-     * HTTP messages are considered messages in storage which have their scheme set to http or https.
-     *
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundHttpMessages() throws IOException {
+        return new GetterResult<>(this.getQueryResult(this.createMessageContentQuery(this.inboundHttpFilter())));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundHttpMessageViews() throws IOException {
+        return new GetterResult<>(this.getMessageViewResult(this.createMessageViewQuery(this.inboundHttpFilter())));
+    }
+
+    private MessageContentFilter inboundHttpFilter() throws IOException {
         if (this.closed.get()) {
             LOG.error(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
             throw new IOException(GET_INBOUND_SOAP_MESSAGES_CALLED_ON_CLOSED_STORAGE);
         }
 
-        final CriteriaQuery<MessageContent> criteria;
-        try (final Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-
-            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            criteria = criteriaBuilder.createQuery(MessageContent.class);
-            final Root<MessageContent> messageContentRoot = criteria.from(MessageContent.class);
-            criteria.select(messageContentRoot);
-            criteria.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
-                    criteriaBuilder.or(
-                            criteriaBuilder.equal(
-                                    criteriaBuilder.lower(messageContentRoot.get(MessageContent_.scheme)),
-                                    Constants.HTTP_SCHEME),
-                            criteriaBuilder.equal(
-                                    criteriaBuilder.lower(messageContentRoot.get(MessageContent_.scheme)),
-                                    Constants.HTTPS_SCHEME))));
-        }
+        return (criteriaBuilder, criteria, messageContentRoot) -> criteria.where(criteriaBuilder.and(
+                criteriaBuilder.equal(
+                        messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
+                criteriaBuilder.or(
+                        criteriaBuilder.equal(
+                                criteriaBuilder.lower(messageContentRoot.get(MessageContent_.scheme)),
+                                Constants.HTTP_SCHEME),
+                        criteriaBuilder.equal(
+                                criteriaBuilder.lower(messageContentRoot.get(MessageContent_.scheme)),
+                                Constants.HTTPS_SCHEME))));
+    }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
-        }
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId, final QName... bodyTypes) throws IOException {
+        return this.queryInboundMessagesByBodyTypeAndSequenceId(sequenceId, null, null, bodyTypes);
+    }
 
-        return new GetterResult<>(this.getQueryResult(criteria), present);
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId, final long minimumMdibVersion, final QName... bodyTypes) throws IOException {
+        return this.queryInboundMessagesByBodyTypeAndSequenceId(sequenceId, minimumMdibVersion, null, bodyTypes);
     }
 
-    /**
-     * Retrieves all incoming messages which match any of the provided body element QNames and at the same time belong
-     * to the given SequenceId.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     * </p>
-     *
-     * @param sequenceId SequenceId attribute value to filter for
-     * @param bodyTypes  to match messages against
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
-            final String sequenceId, final QName... bodyTypes) throws IOException {
+            final String sequenceId,
+            final long minimumMdibVersion,
+            final long finishTimestamp,
+            final QName... bodyTypes)
+            throws IOException {
+        return this.queryInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId, minimumMdibVersion, finishTimestamp, bodyTypes);
+    }
+
+    private GetterResult<MessageContent> queryInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId,
+            @Nullable final Long minimumMdibVersion,
+            @Nullable final Long finishTimestamp,
+            final QName... bodyTypes)
+            throws IOException {
         if (this.closed.get()) {
             LOG.error(GET_INBOUND_MESSAGE_BY_BODY_TYPE_CALLED_ON_CLOSED_STORAGE);
             throw new IOException(GET_INBOUND_MESSAGE_BY_BODY_TYPE_CALLED_ON_CLOSED_STORAGE);
         }
 
         for (final QName qname : bodyTypes) {
-            if (!this.checkElementSupportsMdibVersionSorting(qname)) {
+            if (!MessageConverter.supportsMdibVersionSorting(qname)) {
 
                 final String localErrorMessage = String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
                 this.testRunObserver.invalidateTestRun(localErrorMessage);
@@ -1475,16 +911,29 @@ public class MessageStorage implements AutoCloseable {
                                 mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.sequenceId), sequenceId)));
             }
 
-            mdibVersionGroupSubQuery.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.messageContent),
-                            messageContentRoot.get(MessageContent_.incId)),
-                    criteriaBuilder.or(bodyElementPredicates.toArray(new Predicate[0]))));
+            final List<Predicate> mdibVersionGroupPredicates = new ArrayList<>();
+            mdibVersionGroupPredicates.add(criteriaBuilder.equal(
+                    mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.messageContent),
+                    messageContentRoot.get(MessageContent_.incId)));
+            mdibVersionGroupPredicates.add(criteriaBuilder.or(bodyElementPredicates.toArray(new Predicate[0])));
+            if (minimumMdibVersion != null) {
+                mdibVersionGroupPredicates.add(criteriaBuilder.greaterThanOrEqualTo(
+                        mdibVersionGroupEntityRoot.get(MdibVersionGroupEntity_.mdibVersion), minimumMdibVersion));
+            }
 
-            messageContentQuery.where(criteriaBuilder.and(
-                    criteriaBuilder.equal(
-                            messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND),
-                    criteriaBuilder.exists(mdibVersionGroupSubQuery)));
+            mdibVersionGroupSubQuery.where(
+                    criteriaBuilder.and(mdibVersionGroupPredicates.toArray(new Predicate[0])));
+
+            final List<Predicate> messageContentPredicates = new ArrayList<>();
+            messageContentPredicates.add(criteriaBuilder.equal(
+                    messageContentRoot.get(MessageContent_.direction), CommunicationLog.Direction.INBOUND));
+            messageContentPredicates.add(criteriaBuilder.exists(mdibVersionGroupSubQuery));
+            if (finishTimestamp != null) {
+                messageContentPredicates.add(
+                        criteriaBuilder.lt(messageContentRoot.get(MessageContent_.nanoTimestamp), finishTimestamp));
+            }
+
+            messageContentQuery.where(criteriaBuilder.and(messageContentPredicates.toArray(new Predicate[0])));
 
             messageContentQuery.orderBy(
                     criteriaBuilder.asc(messageContentRoot
@@ -1493,27 +942,40 @@ public class MessageStorage implements AutoCloseable {
                     criteriaBuilder.asc(messageContentRoot.get(MessageContent_.nanoTimestamp)));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getOrderedQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery), present);
+        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery));
     }
 
-    /**
-     * Retrieves all incoming messages which match any of the provided body element QNames.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     *
-     * @param enableSorting switch to turn off or turn on MdibVersion based sorting
-     * @param bodyTypes     to match messages against
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundMessagesByBodyType(
             final boolean enableSorting, final QName... bodyTypes) throws IOException {
+        final MessageContentFilter filter = this.inboundBodyTypeFilter(enableSorting, bodyTypes);
+        final CriteriaQuery<MessageContent> messageContentQuery = this.createMessageContentQuery(filter);
+
+        return new GetterResult<>(
+                enableSorting
+                        ? this.getOrderedQueryResult(messageContentQuery)
+                        : this.getQueryResult(messageContentQuery));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyType(final QName... bodyTypes) throws IOException {
+        return this.getInboundMessagesByBodyType(true, bodyTypes);
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundMessageViewsByBodyType(
+            final boolean enableSorting, final QName... bodyTypes) throws IOException {
+        final MessageContentFilter filter = this.inboundBodyTypeFilter(enableSorting, bodyTypes);
+        return new GetterResult<>(this.getMessageViewResult(this.createMessageViewQuery(filter)));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundMessageViewsByBodyType(final QName... bodyTypes) throws IOException {
+        return this.getInboundMessageViewsByBodyType(true, bodyTypes);
+    }
+
+    private MessageContentFilter inboundBodyTypeFilter(final boolean enableSorting, final QName... bodyTypes)
+            throws IOException {
         if (this.closed.get()) {
             LOG.error(GET_INBOUND_MESSAGE_BY_BODY_TYPE_CALLED_ON_CLOSED_STORAGE);
             throw new IOException(GET_INBOUND_MESSAGE_BY_BODY_TYPE_CALLED_ON_CLOSED_STORAGE);
@@ -1521,7 +983,7 @@ public class MessageStorage implements AutoCloseable {
 
         if (enableSorting) {
             for (final QName qname : bodyTypes) {
-                if (!this.checkElementSupportsMdibVersionSorting(qname)) {
+                if (!MessageConverter.supportsMdibVersionSorting(qname)) {
 
                     final String localErrorMessage =
                             String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
@@ -1531,15 +993,7 @@ public class MessageStorage implements AutoCloseable {
             }
         }
 
-        final CriteriaQuery<MessageContent> messageContentQuery;
-        try (final Session session = sessionFactory.openSession()) {
-            session.beginTransaction();
-
-            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            messageContentQuery = criteriaBuilder.createQuery(MessageContent.class);
-            final Root<MessageContent> messageContentRoot = messageContentQuery.from(MessageContent.class);
-            messageContentQuery.select(messageContentRoot);
-
+        return (criteriaBuilder, messageContentQuery, messageContentRoot) -> {
             final Subquery<MdibVersionGroupEntity> mdibVersionGroupSubQuery =
                     messageContentQuery.subquery(MdibVersionGroupEntity.class);
             final Root<MdibVersionGroupEntity> mdibVersionGroupEntityRoot =
@@ -1568,45 +1022,10 @@ public class MessageStorage implements AutoCloseable {
                         .join(MessageContent_.mdibVersionGroups)
                         .get(MdibVersionGroupEntity_.mdibVersion)));
             }
-        }
-
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = enableSorting
-                ? this.getOrderedQueryResult(messageContentQuery)
-                : this.getQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(
-                enableSorting
-                        ? this.getOrderedQueryResult(messageContentQuery)
-                        : this.getQueryResult(messageContentQuery),
-                present);
-    }
-
-    /**
-     * Retrieves all incoming messages which match any of the provided body element QNames.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     *
-     * @param bodyTypes to match messages against
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
-    public GetterResult<MessageContent> getInboundMessagesByBodyType(final QName... bodyTypes) throws IOException {
-        return this.getInboundMessagesByBodyType(true, bodyTypes);
+        };
     }
 
-    /**
-     * Retrieves all manipulation data from storage.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     *
-     * @return container with stream of all matching {@linkplain ManipulationData}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<ManipulationData> getManipulationData() throws IOException {
         if (this.closed.get()) {
             LOG.error(GET_MANIPULATION_DATA_BY_MANIPULATION);
@@ -1626,27 +1045,10 @@ public class MessageStorage implements AutoCloseable {
             criteria.orderBy(criteriaBuilder.asc(manipulationDataRoot.get(ManipulationData_.startTimestamp)));
         }
 
-        final boolean present;
-        try (final Stream<ManipulationData> countingStream = this.getOrderedQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getOrderedQueryResult(criteria), present);
+        return new GetterResult<>(this.getOrderedQueryResult(criteria));
     }
 
-    /**
-     * Retrieves all incoming messages which match any of the provided body element QNames and that are in the given
-     * time interval.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     *
-     * @param startTimestamp  of relevant time interval
-     * @param finishTimestamp of relevant time interval
-     * @param reportTypes     to match message against
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundMessagesByTimeIntervalAndBodyType(
             final long startTimestamp, final long finishTimestamp, final QName... reportTypes) throws IOException {
         if (this.closed.get()) {
@@ -1655,7 +1057,7 @@ public class MessageStorage implements AutoCloseable {
         }
 
         for (final QName qname : reportTypes) {
-            if (!this.checkElementSupportsMdibVersionSorting(qname)) {
+            if (!MessageConverter.supportsMdibVersionSorting(qname)) {
 
                 final String localErrorMessage = String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
                 this.testRunObserver.invalidateTestRun(localErrorMessage);
@@ -1705,27 +1107,10 @@ public class MessageStorage implements AutoCloseable {
                     .get(MdibVersionGroupEntity_.mdibVersion)));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getOrderedQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery), present);
+        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery));
     }
 
-    /**
-     * Retrieves all incoming messages which match any of the provided body element QNames and that were received before the given
-     * timestamp and with the same sequenceId.
-     *
-     * <p>
-     * Messages are sorted by MdibVersion on the inner join result.
-     *
-     * @param sequenceId SequenceId attribute value to filter for
-     * @param finishTimestamp timestamp to filter out reports with a higher value
-     * @param reportTypes     to match message against
-     * @return container with stream of all matching inbound {@linkplain MessageContent}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<MessageContent> getInboundMessagesByTimestampAndBodyType(
             final String sequenceId, final long finishTimestamp, final QName... reportTypes) throws IOException {
         if (this.closed.get()) {
@@ -1734,7 +1119,7 @@ public class MessageStorage implements AutoCloseable {
         }
 
         for (final QName qname : reportTypes) {
-            if (!this.checkElementSupportsMdibVersionSorting(qname)) {
+            if (!MessageConverter.supportsMdibVersionSorting(qname)) {
                 final String localErrorMessage = String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
                 this.testRunObserver.invalidateTestRun(localErrorMessage);
                 throw new UnsupportedOperationException(localErrorMessage);
@@ -1785,24 +1170,10 @@ public class MessageStorage implements AutoCloseable {
                     .get(MdibVersionGroupEntity_.mdibVersion)));
         }
 
-        final boolean present;
-        try (final Stream<MessageContent> countingStream = this.getOrderedQueryResult(messageContentQuery)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery), present);
+        return new GetterResult<>(this.getOrderedQueryResult(messageContentQuery));
     }
 
-    /**
-     * Retrieves all manipulation data which match any of the provided manipulation names.
-     *
-     * <p>
-     * Manipulations are sorted by their timestamp.
-     *
-     * @param manipulationNames to match manipulation data against
-     * @return container with stream of all matching {@linkplain ManipulationData}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<ManipulationData> getManipulationDataByManipulation(final String... manipulationNames)
             throws IOException {
         if (this.closed.get()) {
@@ -1829,25 +1200,10 @@ public class MessageStorage implements AutoCloseable {
             criteria.orderBy(criteriaBuilder.asc(manipulationDataRoot.get(ManipulationData_.startTimestamp)));
         }
 
-        final boolean present;
-        try (final Stream<ManipulationData> countingStream = this.getOrderedQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
-        }
-
-        return new GetterResult<>(this.getOrderedQueryResult(criteria), present);
+        return new GetterResult<>(this.getOrderedQueryResult(criteria));
     }
 
-    /**
-     * Retrieves all manipulation data which match the provided manipulation names and manipulation parameters.
-     *
-     * <p>
-     * Manipulations are sorted by their timestamp.
-     *
-     * @param parameter        of the manipulation
-     * @param manipulationName to match manipulation data against
-     * @return container with stream of all matching {@linkplain ManipulationData}s
-     * @throws IOException if storage is closed
-     */
+    @Override
     public GetterResult<ManipulationData> getManipulationDataByParametersAndManipulation(
             final ManipulationParameterUtil.ManipulationParameterData parameter, final String manipulationName)
             throws IOException {
@@ -1898,11 +1254,103 @@ public class MessageStorage implements AutoCloseable {
                     criteriaBuilder.and(rootPredicates.toArray(new Predicate[0])),
                     criteriaBuilder.and(parameterExistPredicates.toArray(new Predicate[0]))));
         }
-        final boolean present;
-        try (final Stream<ManipulationData> countingStream = this.getOrderedQueryResult(criteria)) {
-            present = countingStream.findAny().isPresent();
+        return new GetterResult<>(this.getOrderedQueryResult(criteria));
+    }
+
+    private CriteriaQuery<MessageContent> createMessageContentQuery(final MessageContentFilter filter) {
+        final CriteriaQuery<MessageContent> messageContentQuery;
+        try (final Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            messageContentQuery = criteriaBuilder.createQuery(MessageContent.class);
+            final Root<MessageContent> messageContentRoot = messageContentQuery.from(MessageContent.class);
+            messageContentQuery.select(messageContentRoot);
+            filter.apply(criteriaBuilder, messageContentQuery, messageContentRoot);
+        }
+        return messageContentQuery;
+    }
+
+    private CriteriaQuery<Object[]> createMessageViewQuery(final MessageContentFilter filter) {
+        final CriteriaQuery<Object[]> messageViewQuery;
+        try (final Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            messageViewQuery = criteriaBuilder.createQuery(Object[].class);
+            final Root<MessageContent> messageContentRoot = messageViewQuery.from(MessageContent.class);
+            final Join<MessageContent, MessageBodyEntity> messageBody =
+                    messageContentRoot.join(MessageContent_.messageBody);
+            // only the fingerprint of the dictionary is selected, the dictionary itself is looked up once
+            final Join<MessageBodyEntity, BodyDictionaryEntity> bodyDictionary =
+                    messageBody.join(MessageBodyEntity_.bodyDictionary, JoinType.LEFT);
+            // only plain columns are selected, neither the entity nor any of its collections is loaded.
+            // the order has to match MessageViewIterator.toMessageView
+            messageViewQuery.multiselect(
+                    messageContentRoot.get(MessageContent_.incId),
+                    messageContentRoot.get(MessageContent_.uuid),
+                    messageContentRoot.get(MessageContent_.messageHash),
+                    messageBody.get(MessageBodyEntity_.body),
+                    bodyDictionary.get(BodyDictionaryEntity_.fingerprint),
+                    messageBody.get(MessageBodyEntity_.bodyLength),
+                    messageContentRoot.get(MessageContent_.bodyCharset),
+                    messageContentRoot.get(MessageContent_.direction),
+                    messageContentRoot.get(MessageContent_.messageType),
+                    messageContentRoot.get(MessageContent_.timestamp),
+                    messageContentRoot.get(MessageContent_.nanoTimestamp),
+                    messageContentRoot.get(MessageContent_.scheme));
+            filter.apply(criteriaBuilder, messageViewQuery, messageContentRoot);
+        }
+        return messageViewQuery;
+    }
+
+    private Stream<MessageView> getMessageViewResult(final CriteriaQuery<Object[]> messageViewQuery) {
+        final int fetchSize = this.getFetchSize();
+        final Session session = sessionFactory.openSession();
+        final ScrollableResults rows = session.createQuery(messageViewQuery)
+                .setReadOnly(true)
+                .setCacheable(false)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        final MessageViewIterator iterator =
+                new MessageViewIterator(session, rows, fetchSize, this.bodyCompressor::getDictionary);
+
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL | Spliterator.ORDERED),
+                        false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Determines the number of rows to fetch per database round trip from the average length of the stored message
+     * bodies, so that small messages are fetched in large batches and large messages do not exhaust the memory.
+     *
+     * @return the fetch size to use for queries over stored messages
+     */
+    int getFetchSize() {
+        final long bodyCount = this.storedBodyCount.get();
+        if (bodyCount == 0) {
+            return MINIMUM_FETCH_SIZE;
+        }
+        final long averageBodyLength = Math.max(1, this.storedBodyLength.get() / bodyCount);
+        return (int) Math.max(
+                MINIMUM_FETCH_SIZE, Math.min(MAXIMUM_FETCH_SIZE, FETCH_SIZE_BUDGET_BYTES / averageBodyLength));
+    }
+
+    /**
+     * Counts the stored rows of an entity, e.g. to verify that interned values are stored only once.
+     *
+     * @param entityClass class of the entity to count the rows of
+     * @return the number of stored rows
+     */
+    long getStoredEntityCount(final Class<?> entityClass) {
+        try (final Session session = sessionFactory.openSession()) {
+            final CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            final CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+            countQuery.select(criteriaBuilder.count(countQuery.from(entityClass)));
+            return session.createQuery(countQuery).getSingleResult();
         }
-        return new GetterResult<>(this.getOrderedQueryResult(criteria), present);
     }
 
     private <T> Stream<T> getQueryResult(final CriteriaQuery<T> criteriaQuery) {
@@ -1925,27 +1373,13 @@ public class MessageStorage implements AutoCloseable {
                 .onClose(resultIterator::close);
     }
 
-    // be aware, that this does not use evict on cached objects
-    private <T> Stream<T> getStreamForQuery(final CriteriaQuery<T> criteriaQuery) {
-        final Session session = sessionFactory.openSession();
-        final Stream<T> results =
-                session
-                        .createQuery(criteriaQuery)
-                        .setReadOnly(true)
-                        .setCacheable(false)
-                        .setFetchSize(FETCH_SIZE)
-                        .stream();
-
-        return results.onClose(session::close);
-    }
-
     // be aware, that this does not use evict on cached objects
     private <T> Stream<T> getStreamForQuery(final Session session, final CriteriaQuery<T> criteriaQuery) {
         return session
                 .createQuery(criteriaQuery)
                 .setReadOnly(true)
                 .setCacheable(false)
-                .setFetchSize(FETCH_SIZE)
+                .setFetchSize(this.getFetchSize())
                 .stream();
     }
 
@@ -1957,7 +1391,7 @@ public class MessageStorage implements AutoCloseable {
                 (ScrollableResultsImplementor) session.createQuery(criteriaQuery)
                         .setReadOnly(true)
                         .setCacheable(false)
-                        .setFetchSize(FETCH_SIZE)
+                        .setFetchSize(this.getFetchSize())
                         .scroll(ScrollMode.FORWARD_ONLY);
         final OrderedStreamIterator<T> iterator = new OrderedStreamIterator<>(scrollableResults);
         final Spliterator<T> spliterator =
@@ -1966,78 +1400,143 @@ public class MessageStorage implements AutoCloseable {
         return new StreamDecorator<>(StreamSupport.stream(spliterator, false), scrollableResults::close);
     }
 
-    private void transmit(final List<DatabaseEntry> results) {
-        try (final Session session = sessionFactory.openSession()) {
-            final Transaction transaction = session.beginTransaction();
-
-            for (int i = 0; i < results.size(); i++) {
-                final var entry = results.get(i);
-                if (entry instanceof Message) {
-                    final MessageContent content = convertMessageToMessageContent((Message) entry);
-                    session.save(content);
-                } else if (entry instanceof ManipulationInfo) {
-                    final ManipulationData content =
-                            convertManipulationInfoToManipulationData((ManipulationInfo) entry);
-                    session.save(content);
-                }
-
-                if (i % configuration.getInsertBatchSize() == 0) {
-                    session.flush();
-                    session.clear();
-                }
-            }
-
-            transaction.commit();
+    @Nullable
+    private Object convert(final DatabaseEntry entry) {
+        if (entry instanceof Message) {
+            return convertMessageToMessageContent((Message) entry);
+        } else if (entry instanceof ManipulationInfo) {
+            return MessageConverter.convert((ManipulationInfo) entry);
         }
+        return null;
     }
 
-    /**
-     * Get the number of messages detected by the MessageStorage where the encoding could not be determined.
-     *
-     * @return the count
-     */
+    private void transmit(final List<Object> results) {
+        this.bulkInsertWriter.insert(results);
+    }
+
+    @Override
     public long getMessageEncodingErrorCount() {
-        return this.messageEncodingErrorCount.getPlain();
+        return this.converter.getMessageEncodingErrorCount();
+    }
+
+    @Override
+    public long getInvalidMimeTypeErrorCount() {
+        return this.converter.getInvalidMimeTypeErrorCount();
     }
 
     /**
-     * Get the number of messages detected by the MessageStorage where the MIME type has an unexpected value.
-     *
-     * @return the count
+     * Restricts a query over stored messages, shared by the getters providing entities and those providing views.
      */
-    public long getInvalidMimeTypeErrorCount() {
-        return this.invalidMimeTypeCount;
+    @FunctionalInterface
+    private interface MessageContentFilter {
+        void apply(
+                CriteriaBuilder criteriaBuilder,
+                CriteriaQuery<?> messageContentQuery,
+                Root<MessageContent> messageContentRoot);
     }
 
     /**
-     * Container for the query result stream and the information on whether the objects are present. This shall
-     * always be closed after usage!
-     *
-     * @param <T> query result stream type
+     * Iterates the rows of a message view query page by page, loading the http headers of all messages of a page
+     * with a single query instead of one query per message.
      */
-    public static final class GetterResult<T> implements AutoCloseable {
-        private final Stream<T> stream;
-        private final boolean objectsPresent;
+    private static final class MessageViewIterator implements Iterator<MessageView>, AutoCloseable {
+        private static final String HEADER_QUERY = "select header.messageContent.incId,"
+                + " header.headerField.headerKey, header.headerField.headerValue from HTTPHeaderEntity header"
+                + " where header.messageContent.incId in (:ids) order by header.incId";
 
-        private GetterResult(final Stream<T> stream, final boolean objectsPresent) {
-            this.stream = stream;
-            this.objectsPresent = objectsPresent;
+        private final Session session;
+        private final ScrollableResults rows;
+        private final int pageSize;
+        private final ArrayDeque<MessageView> page;
+        private final Function<String, BodyDictionaryEntity> bodyDictionaries;
+        private boolean exhausted;
+
+        MessageViewIterator(
+                final Session session,
+                final ScrollableResults rows,
+                final int pageSize,
+                final Function<String, BodyDictionaryEntity> bodyDictionaries) {
+            this.session = session;
+            this.rows = rows;
+            this.pageSize = pageSize;
+            this.bodyDictionaries = bodyDictionaries;
+            this.page = new ArrayDeque<>(pageSize);
         }
 
-        public Stream<T> getStream() {
-            return stream;
+        @Override
+        public boolean hasNext() {
+            if (this.page.isEmpty() && !this.exhausted) {
+                this.fetchPage();
+            }
+            return !this.page.isEmpty();
         }
 
-        /**
-         * @return true if at least one object is present, otherwise false.
-         */
-        public boolean areObjectsPresent() {
-            return objectsPresent;
+        @Override
+        public MessageView next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.page.poll();
         }
 
         @Override
         public void close() {
-            stream.close();
+            this.page.clear();
+            try {
+                this.rows.close();
+            } finally {
+                this.session.close();
+            }
+        }
+
+        private void fetchPage() {
+            final List<Object[]> pageRows = new ArrayList<>(this.pageSize);
+            while (pageRows.size() < this.pageSize) {
+                if (!this.rows.next()) {
+                    this.exhausted = true;
+                    break;
+                }
+                pageRows.add(this.rows.get());
+            }
+            if (pageRows.isEmpty()) {
+                return;
+            }
+
+            final Set<Long> ids = new HashSet<>();
+            for (final Object[] row : pageRows) {
+                ids.add((Long) row[0]);
+            }
+            final Map<Long, Map<String, List<String>>> headers = new HashMap<>();
+            for (final Object[] header : this.session
+                    .createQuery(HEADER_QUERY, Object[].class)
+                    .setParameterList("ids", ids)
+                    .setReadOnly(true)
+                    .list()) {
+                headers.computeIfAbsent((Long) header[0], id -> new HashMap<>())
+                        .computeIfAbsent((String) header[1], key -> new ArrayList<>())
+                        .add((String) header[2]);
+            }
+
+            for (final Object[] row : pageRows) {
+                this.page.add(toMessageView(row, headers.getOrDefault((Long) row[0], Map.of())));
+            }
+        }
+
+        private MessageView toMessageView(final Object[] row, final Map<String, List<String>> headers) {
+            final String bodyDictionary = (String) row[4];
+            return new MessageView(
+                    (String) row[1],
+                    (byte[]) row[2],
+                    (byte[]) row[3],
+                    bodyDictionary != null ? this.bodyDictionaries.apply(bodyDictionary) : null,
+                    (Integer) row[5],
+                    Charset.forName((String) row[6]),
+                    (CommunicationLog.Direction) row[7],
+                    (CommunicationLog.MessageType) row[8],
+                    (Long) row[9],
+                    (Long) row[10],
+                    (String) row[11],
+                    headers);
         }
     }
 
@@ -2080,72 +1579,173 @@ public class MessageStorage implements AutoCloseable {
         }
     }
 
-    private final class DatabaseInteractionThread extends Thread {
-        private final AtomicBoolean stopped;
-        private final AtomicBoolean flushEvent;
+    private static int ringBufferSizeFor(final int bufferSize) {
+        // the size of a ring buffer has to be a power of two
+        return bufferSize <= 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+    }
+
+    /**
+     * Slot of the ingest ring buffer, either carrying an entry to store or a flush request.
+     */
+    private static final class IngestEvent {
+        @Nullable
+        private DatabaseEntry entry;
+
+        // the entity to insert, set by the conversion stage
+        @Nullable
+        private Object converted;
 
-        private DatabaseInteractionThread() {
+        @Nullable
+        private List<CompletableFuture<Void>> flushAcknowledgements;
 
-            this.stopped = new AtomicBoolean();
-            this.flushEvent = new AtomicBoolean();
+        private void setEntry(final long sequence, final DatabaseEntry databaseEntry) {
+            this.entry = databaseEntry;
+            this.converted = null;
+            this.flushAcknowledgements = null;
         }
 
-        public void setStopped() {
-            if (!this.stopped.compareAndSet(false, true)) {
-                LOG.error("setStopped called on already stopped thread");
-            }
+        private void setFlushAcknowledgements(
+                final long sequence, final List<CompletableFuture<Void>> acknowledgements) {
+            this.entry = null;
+            this.converted = null;
+            this.flushAcknowledgements = acknowledgements;
+        }
+
+        private void clear() {
+            this.entry = null;
+            this.converted = null;
+            this.flushAcknowledgements = null;
+        }
+    }
+
+    private static void updatePeak(final AtomicLong peak, final long value) {
+        if (value > peak.get()) {
+            peak.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * First stage of the ingest pipeline, converting every entry whose sequence is assigned to it into the entity
+     * to insert.
+     */
+    private final class ConversionHandler implements EventHandler<IngestEvent> {
+        private final int ordinal;
+
+        private ConversionHandler(final int ordinal) {
+            this.ordinal = ordinal;
         }
 
-        public void triggerFlush() {
-            if (!this.flushEvent.compareAndSet(false, true)) {
-                throw new RuntimeException("a previous flush has not been finished");
+        @Override
+        public void onEvent(final IngestEvent event, final long sequence, final boolean endOfBatch) {
+            final DatabaseEntry entry = event.entry;
+            if (entry != null && sequence % conversionHandlerCount == this.ordinal) {
+                try {
+                    event.converted = convert(entry);
+                } catch (final RuntimeException e) {
+                    LOG.error("unable to convert message for storage", e);
+                    testRunObserver.invalidateTestRun(e);
+                }
+            }
+            if (endOfBatch) {
+                updatePeak(conversionQueueDepthPeak, ingestRingBuffer.getCursor() - sequence);
             }
         }
+    }
 
-        private void drainQueue() {
-            final List<DatabaseEntry> results = new ArrayList<>(blockingQueueSize);
+    /**
+     * Second stage of the ingest pipeline, inserting every converted entry whose sequence is assigned to it.
+     *
+     * <p>
+     * Entries are committed in a single transaction once at least {@linkplain HibernateConfig#getInsertBatchSize()}
+     * of them are pending at the end of a batch handed out by the ring buffer, or once the configured buffer size has
+     * been reached. Flush requests are seen by all handlers and commit all pending entries.
+     */
+    private final class InsertHandler implements EventHandler<IngestEvent>, LifecycleAware {
+        private final int ordinal;
+        private final List<Object> pending;
 
-            queueExitLock.lock();
-            try {
-                while (results.size() < blockingQueueSize && !this.stopped.get()) {
-                    final DatabaseEntry polledElement = messageQueue.poll(100L, TimeUnit.MICROSECONDS);
-                    if (polledElement != null) {
-                        results.add(polledElement);
-                    }
+        private InsertHandler(final int ordinal) {
+            this.ordinal = ordinal;
+            this.pending = new ArrayList<>(blockingQueueSize);
+        }
 
-                    if (this.flushEvent.get()) {
-                        queueExitLock.unlock();
-                        try {
-                            // will block at the barrier
-                            flush(results, true, this);
-                            results.clear();
-                        } finally {
-                            queueExitLock.lock();
-                        }
-                    }
+        @Override
+        public void onEvent(final IngestEvent event, final long sequence, final boolean endOfBatch) {
+            final List<CompletableFuture<Void>> flushAcknowledgements = event.flushAcknowledgements;
+            if (flushAcknowledgements != null) {
+                final CompletableFuture<Void> acknowledgement = flushAcknowledgements.get(this.ordinal);
+                try {
+                    transmitPending();
+                    acknowledgement.complete(null);
+                } catch (final RuntimeException e) {
+                    acknowledgement.completeExceptionally(e);
                 }
-            } catch (final InterruptedException e) {
-                LOG.error("the message content queue poll was interrupted", e);
-                testRunObserver.invalidateTestRun(e);
-            } finally {
-                queueExitLock.unlock();
+                return;
             }
 
-            transmit(results);
+            final Object converted = event.converted;
+            if (converted != null && sequence % insertHandlerCount == this.ordinal) {
+                this.pending.add(converted);
+            }
+            if (endOfBatch) {
+                updatePeak(insertQueueDepthPeak, ingestRingBuffer.getCursor() - sequence);
+            }
+            final boolean batchComplete = endOfBatch && this.pending.size() >= configuration.getInsertBatchSize();
+            if (batchComplete || this.pending.size() >= blockingQueueSize) {
+                try {
+                    transmitPending();
+                } catch (final RuntimeException e) {
+                    LOG.error("unable to store messages", e);
+                    testRunObserver.invalidateTestRun(e);
+                }
+            }
         }
 
-        public void resetFlushEvent() {
-            if (!this.flushEvent.compareAndSet(true, false)) {
-                final String flushEventEarlyReset = "The flush event was reset too early";
-                LOG.error(flushEventEarlyReset);
-                testRunObserver.invalidateTestRun(flushEventEarlyReset);
+        private void transmitPending() {
+            try {
+                // returns after the transaction has been committed
+                transmit(this.pending);
+            } finally {
+                this.pending.clear();
             }
         }
 
-        public void run() {
-            while (!this.stopped.get()) {
-                drainQueue();
+        @Override
+        public void onStart() {
+            // nothing to prepare
+        }
+
+        @Override
+        public void onShutdown() {
+            try {
+                transmitPending();
+            } catch (final RuntimeException e) {
+                LOG.error("unable to store messages", e);
+                testRunObserver.invalidateTestRun(e);
             }
         }
     }
+
+    /**
+     * Reports failures of the ingest handlers without halting them, a halted handler would block all publishers.
+     */
+    private final class IngestExceptionHandler implements ExceptionHandler<IngestEvent> {
+        @Override
+        public void handleEventException(final Throwable ex, final long sequence, final IngestEvent event) {
+            LOG.error("unable to handle ingest event with sequence {}", sequence, ex);
+            testRunObserver.invalidateTestRun(ex);
+        }
+
+        @Override
+        public void handleOnStartException(final Throwable ex) {
+            LOG.error("unable to start ingest handler", ex);
+            testRunObserver.invalidateTestRun(ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(final Throwable ex) {
+            LOG.error("unable to shut down ingest handler", ex);
+            testRunObserver.invalidateTestRun(ex);
+        }
+    }
 }
@@ -0,0 +1,433 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.xml.namespace.QName;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+
+/**
+ * Storage for all messages and manipulations collected during a test run, which are evaluated by the tests.
+ *
+ * <p>
+ * The storage engine is bound in {@linkplain com.draeger.medical.sdccc.configuration.DefaultTestSuiteModule},
+ * {@linkplain MessageStorage} stores everything in a Derby database using hibernate. Alternative engines have to
+ * behave exactly like it, which is verified by subclassing the {@code MessageStoreConformanceTest}.
+ */
+public interface MessageStore extends AutoCloseable {
+
+    /**
+     * Adds message to the message database.
+     *
+     * @param message to add to the database
+     */
+    void addMessage(DatabaseEntry message);
+
+    /**
+     * Creates a {@linkplain Message} object in which the message information can be written.
+     *
+     * @param path                 protocol type used, i.e. UDP or TCP
+     * @param direction            the direction of the message, i.e. inbound or outbound
+     * @param messageType          type of the message, i.e. request, response
+     * @param communicationContext context containing transport and application information
+     * @return new message instance, already inserted into the global message list
+     * @throws IOException if MessageCache was already closed
+     */
+    Message createMessageStream(
+            CommunicationLog.TransportType path,
+            CommunicationLog.Direction direction,
+            CommunicationLog.MessageType messageType,
+            CommunicationContext communicationContext)
+            throws IOException;
+
+    /**
+     * Creates a {@linkplain ManipulationInfo} object and adds it to the storage.
+     *
+     * @param startTime  of the manipulation
+     * @param finishTime of the manipulation
+     * @param result     of the manipulation
+     * @param response   of the manipulation
+     * @param name       of the manipulation
+     * @param parameters of the manipulation
+     */
+    void createManipulationInfo(
+            long startTime,
+            long finishTime,
+            ResponseTypes.Result result,
+            String response,
+            String name,
+            ManipulationParameterUtil.ManipulationParameterData parameters);
+
+    /**
+     * Closes the message cache, preventing any new messages from being added.
+     */
+    @Override
+    void close();
+
+    /**
+     * Sends all queued and buffered messages to the database and returns once all of them have been committed.
+     */
+    void flush();
+
+    /**
+     * Creates the indexes supporting the queries of this storage, if they have not been created yet.
+     *
+     * <p>
+     * Indexes slow down inserts, which is why only indexes guaranteeing uniqueness are created together with the
+     * schema. This should be called once the bulk of the messages has been collected, i.e. before evaluating the
+     * collected data.
+     * A failure to create indexes only affects performance and is therefore not considered a test run failure.
+     */
+    void createIndexes();
+
+    /**
+     * Retrieves all SequenceId attribute values that have been seen.
+     * Orders them by the timestamp of the first message that used the respective SequenceId.
+     *
+     * @return stream of all SequenceId attribute values that have been seen
+     * @throws IOException if storage is closed
+     */
+    Stream<String> getUniqueSequenceIds() throws IOException;
+
+    /**
+     * Retrieves all incoming messages.
+     *
+     * @return container with stream of all inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessages() throws IOException;
+
+    /**
+     * Retrieves all outgoing messages.
+     *
+     * @return container with stream of all outbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getOutboundMessages() throws IOException;
+
+    /**
+     * Retrieves all incoming SOAP messages.
+     *
+     * <p>
+     * SOAP messages are considered messages in storage which have a SOAP 1.2 envelope element or application/soap+xml
+     * content type.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundSoapMessages() throws IOException;
+
+    /**
+     * Retrieves all incoming SOAP response messages.
+     *
+     * <p>
+     * SOAP messages are considered messages in storage which have a SOAP 1.2 envelope element or application/soap+xml
+     * content type.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundSoapResponseMessages() throws IOException;
+
+    /**
+     * Retrieves views of all incoming SOAP messages.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageView}s
+     * @throws IOException if storage is closed
+     * @see #getInboundSoapMessages()
+     */
+    GetterResult<MessageView> getInboundSoapMessageViews() throws IOException;
+
+    /**
+     * Retrieves views of all incoming SOAP response messages.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageView}s
+     * @throws IOException if storage is closed
+     * @see #getInboundSoapResponseMessages()
+     */
+    GetterResult<MessageView> getInboundSoapResponseMessageViews() throws IOException;
+
+    /**
+     * Retrieves all outgoing HTTP messages which match any of the provided actions and any of the provided headers.
+     *
+     * <p>
+     * HTTP messages are considered messages in storage which have their scheme set to http or https.
+     *
+     * @param bodyTypes to match messages against
+     * @param headers   to match messages against
+     * @return container with stream of all matching outgoing {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getOutboundHttpMessagesByBodyTypeAndHeaders(
+            List<QName> bodyTypes, List<AbstractMap.SimpleImmutableEntry<String, String>> headers)
+            throws IOException;
+
+    /**
+     * Retrieves all incoming HTTP messages.
+     *
+     * <p>
+     * HTTP messages are considered messages in storage which have their scheme set to http or https.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundHttpMessages() throws IOException;
+
+    /**
+     * Retrieves views of all incoming HTTP messages, including their HTTP headers.
+     *
+     * @return container with stream of all matching inbound {@linkplain MessageView}s
+     * @throws IOException if storage is closed
+     * @see #getInboundHttpMessages()
+     */
+    GetterResult<MessageView> getInboundHttpMessageViews() throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames and at the same time belong
+     * to the given SequenceId.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     * </p>
+     *
+     * @param sequenceId SequenceId attribute value to filter for
+     * @param bodyTypes  to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            String sequenceId, QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames, belong to the given
+     * SequenceId and have an MdibVersion of at least the given minimum.
+     *
+     * <p>
+     * All filtering is done by the database, messages of other sequences or older MdibVersions are never loaded.
+     * Messages are sorted by MdibVersion on the inner join result.
+     * </p>
+     *
+     * @param sequenceId         SequenceId attribute value to filter for
+     * @param minimumMdibVersion smallest MdibVersion to retrieve, inclusive
+     * @param bodyTypes          to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            String sequenceId, long minimumMdibVersion, QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames, belong to the given
+     * SequenceId, have an MdibVersion of at least the given minimum and were received before the given timestamp.
+     *
+     * <p>
+     * All filtering is done by the database. Messages are sorted by MdibVersion on the inner join result.
+     * </p>
+     *
+     * @param sequenceId         SequenceId attribute value to filter for
+     * @param minimumMdibVersion smallest MdibVersion to retrieve, inclusive
+     * @param finishTimestamp    timestamp to filter out messages with a higher value, exclusive
+     * @param bodyTypes          to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            String sequenceId,
+            long minimumMdibVersion,
+            long finishTimestamp,
+            QName... bodyTypes)
+            throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param enableSorting switch to turn off or turn on MdibVersion based sorting
+     * @param bodyTypes     to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByBodyType(
+            boolean enableSorting, QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param bodyTypes to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByBodyType(QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves views of all incoming messages which match any of the provided body element QNames.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param enableSorting switch to turn off or turn on MdibVersion based sorting
+     * @param bodyTypes     to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageView}s
+     * @throws IOException if storage is closed
+     * @see #getInboundMessagesByBodyType(boolean, QName...)
+     */
+    GetterResult<MessageView> getInboundMessageViewsByBodyType(
+            boolean enableSorting, QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves views of all incoming messages which match any of the provided body element QNames.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param bodyTypes to match messages against
+     * @return container with stream of all matching inbound {@linkplain MessageView}s
+     * @throws IOException if storage is closed
+     * @see #getInboundMessagesByBodyType(QName...)
+     */
+    GetterResult<MessageView> getInboundMessageViewsByBodyType(QName... bodyTypes) throws IOException;
+
+    /**
+     * Retrieves all manipulation data from storage.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @return container with stream of all matching {@linkplain ManipulationData}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<ManipulationData> getManipulationData() throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames and that are in the given
+     * time interval.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param startTimestamp  of relevant time interval
+     * @param finishTimestamp of relevant time interval
+     * @param reportTypes     to match message against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByTimeIntervalAndBodyType(
+            long startTimestamp, long finishTimestamp, QName... reportTypes) throws IOException;
+
+    /**
+     * Retrieves all incoming messages which match any of the provided body element QNames and that were received before the given
+     * timestamp and with the same sequenceId.
+     *
+     * <p>
+     * Messages are sorted by MdibVersion on the inner join result.
+     *
+     * @param sequenceId SequenceId attribute value to filter for
+     * @param finishTimestamp timestamp to filter out reports with a higher value
+     * @param reportTypes     to match message against
+     * @return container with stream of all matching inbound {@linkplain MessageContent}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<MessageContent> getInboundMessagesByTimestampAndBodyType(
+            String sequenceId, long finishTimestamp, QName... reportTypes) throws IOException;
+
+    /**
+     * Retrieves all manipulation data which match any of the provided manipulation names.
+     *
+     * <p>
+     * Manipulations are sorted by their timestamp.
+     *
+     * @param manipulationNames to match manipulation data against
+     * @return container with stream of all matching {@linkplain ManipulationData}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<ManipulationData> getManipulationDataByManipulation(String... manipulationNames)
+            throws IOException;
+
+    /**
+     * Retrieves all manipulation data which match the provided manipulation names and manipulation parameters.
+     *
+     * <p>
+     * Manipulations are sorted by their timestamp.
+     *
+     * @param parameter        of the manipulation
+     * @param manipulationName to match manipulation data against
+     * @return container with stream of all matching {@linkplain ManipulationData}s
+     * @throws IOException if storage is closed
+     */
+    GetterResult<ManipulationData> getManipulationDataByParametersAndManipulation(
+            ManipulationParameterUtil.ManipulationParameterData parameter, String manipulationName)
+            throws IOException;
+
+    /**
+     * Get the number of messages detected by the storage where the encoding could not be determined.
+     *
+     * @return the count
+     */
+    long getMessageEncodingErrorCount();
+
+    /**
+     * Get the number of messages detected by the storage where the MIME type has an unexpected value.
+     *
+     * @return the count
+     */
+    long getInvalidMimeTypeErrorCount();
+
+    /**
+     * Container for the query result stream and the information on whether the objects are present. This shall
+     * always be closed after usage!
+     *
+     * @param <T> query result stream type
+     */
+    final class GetterResult<T> implements AutoCloseable {
+        private final Stream<T> stream;
+        private final LookaheadSpliterator<T> lookahead;
+
+        /**
+         * Wraps a stream of query results, the stream is closed together with this container.
+         *
+         * @param source stream of query results
+         */
+        public GetterResult(final Stream<T> source) {
+            // presence is determined by peeking into the single cursor backing the stream, instead of querying twice
+            this.lookahead = new LookaheadSpliterator<>(source.spliterator());
+            this.stream = StreamSupport.stream(this.lookahead, false).onClose(source::close);
+        }
+
+        public Stream<T> getStream() {
+            return stream;
+        }
+
+        /**
+         * Determines whether the result contains any object, without consuming an object from the stream.
+         *
+         * @return true if at least one object is present, otherwise false.
+         */
+        public boolean areObjectsPresent() {
+            return lookahead.isAnyPresent();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.messages.mapping.BodyDictionaryEntity;
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.somda.sdc.dpws.CommunicationLog;
+
+/**
+ * Read-only view of a stored message, holding only the columns needed by tests and preconditions.
+ *
+ * <p>
+ * Views are not managed by hibernate, loading them neither hydrates a
+ * {@linkplain com.draeger.medical.sdccc.messages.mapping.MessageContent} nor its lazily loaded collections.
+ */
+public final class MessageView {
+    private final String uuid;
+    private final byte[] messageHash;
+    private final byte[] storedBody;
+    // set if the stored body has been compressed with this dictionary
+    @Nullable
+    private final BodyDictionaryEntity bodyDictionary;
+    private final int bodyLength;
+    private final Charset bodyCharset;
+    private final CommunicationLog.Direction direction;
+    private final CommunicationLog.MessageType messageType;
+    private final long timestamp;
+    private final long nanoTimestamp;
+    private final String scheme;
+    private final Map<String, List<String>> headers;
+
+    private String body;
+    private byte[] rawBody;
+
+    MessageView(
+            final String uuid,
+            final byte[] messageHash,
+            final byte[] storedBody,
+            @Nullable final BodyDictionaryEntity bodyDictionary,
+            final int bodyLength,
+            final Charset bodyCharset,
+            final CommunicationLog.Direction direction,
+            final CommunicationLog.MessageType messageType,
+            final long timestamp,
+            final long nanoTimestamp,
+            final String scheme,
+            final Map<String, List<String>> headers) {
+        this.uuid = uuid;
+        this.messageHash = messageHash;
+        this.storedBody = storedBody;
+        this.bodyDictionary = bodyDictionary;
+        this.bodyLength = bodyLength;
+        this.bodyCharset = bodyCharset;
+        this.direction = direction;
+        this.messageType = messageType;
+        this.timestamp = timestamp;
+        this.nanoTimestamp = nanoTimestamp;
+        this.scheme = scheme;
+        this.headers = headers;
+    }
+
+    /**
+     * Decodes the body using the charset it was received in. The decoded body is cached, readers which only
+     * need to parse the body should prefer {@linkplain #getBodyStream()}.
+     *
+     * @return the decoded body
+     */
+    public String getBody() {
+        if (this.body == null) {
+            this.body = new String(getRawBody(), this.bodyCharset);
+        }
+        return this.body;
+    }
+
+    /**
+     * Provides the body for parsing it. The body is provided as it was received, unless its charset is neither
+     * UTF-8 nor declared within the body, e.g. only in the HTTP Content-Type header, in which case it is transcoded
+     * to UTF-8.
+     *
+     * @return stream over the body
+     */
+    public InputStream getBodyStream() {
+        return MessageUtil.parsableBodyStream(getRawBody(), this.bodyCharset);
+    }
+
+    /**
+     * Provides the raw body, which must not be modified. A compressed body is decompressed on first access.
+     *
+     * @return the raw body
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made to avoid duplicating potentially large message bodies.")
+    public byte[] getRawBody() {
+        if (this.rawBody == null) {
+            this.rawBody = this.bodyDictionary == null
+                    ? this.storedBody
+                    : this.bodyDictionary.inflate(this.storedBody, this.bodyLength);
+        }
+        return this.rawBody;
+    }
+
+    public int getBodyLength() {
+        return this.bodyLength;
+    }
+
+    public Charset getBodyCharset() {
+        return this.bodyCharset;
+    }
+
+    public String getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * @return hex representation of the SHA-256 hash of the raw body
+     */
+    public String getMessageHash() {
+        return MessageUtil.toHex(this.messageHash);
+    }
+
+    public CommunicationLog.Direction getDirection() {
+        return this.direction;
+    }
+
+    public CommunicationLog.MessageType getMessageType() {
+        return this.messageType;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public long getNanoTimestamp() {
+        return this.nanoTimestamp;
+    }
+
+    public String getScheme() {
+        return this.scheme;
+    }
+
+    /**
+     * @return the http headers of the message, keyed by header name as received, empty if not received via http
+     */
+    public Map<String, List<String>> getHeaders() {
+        return this.headers;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Append-only log of records, stored in a sequence of segment files which are rolled once they reach a given size.
+ *
+ * <p>
+ * Records are appended sequentially and buffered until the buffer is full or {@linkplain #sync()} is called. Every
+ * record is prefixed by its length, hence segments can be scanned without any index. Reads map the segment
+ * containing a record into memory and return a slice of the mapping, so that records are neither read through the
+ * file channel nor copied into the heap by the log.
+ *
+ * <p>
+ * The segments of a closed log, or of a log which has not been closed due to a crash, can be reopened read-only and
+ * scanned record by record. A record at the end of a segment which has only been written partially is skipped.
+ */
+final class SegmentLog implements AutoCloseable {
+    static final String SEGMENT_FILE_PREFIX = "segment-";
+    static final String SEGMENT_FILE_SUFFIX = ".log";
+
+    private static final Logger LOG = LogManager.getLogger(SegmentLog.class);
+
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ByteBuffer writeBuffer;
+    private final boolean readOnly;
+
+    // all fields below are guarded by this
+    private final List<Segment> segments;
+    // null if the log has been reopened read-only
+    @Nullable
+    private FileChannel activeChannel;
+    // length of the active segment, including the records which are still buffered
+    private long activeLength;
+    // length of the active segment which has been written to the file and can therefore be mapped
+    private long writtenLength;
+    private boolean closed;
+
+    /**
+     * Creates an empty log, the directory must not contain any segments yet.
+     *
+     * @param directory   to create the segment files in
+     * @param segmentSize size after which a new segment is started, a segment holds at least one record
+     * @throws IOException if the first segment could not be created
+     */
+    SegmentLog(final Path directory, final long segmentSize) throws IOException {
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be positive and at most 2 GiB, was " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        this.readOnly = false;
+        this.segments = new ArrayList<>();
+        openSegment();
+    }
+
+    private SegmentLog(final Path directory, final List<Path> segmentFiles) {
+        this.directory = directory;
+        this.segmentSize = 0;
+        this.writeBuffer = ByteBuffer.allocate(0);
+        this.readOnly = true;
+        this.segments = new ArrayList<>();
+        for (final Path file : segmentFiles) {
+            this.segments.add(new Segment(file));
+        }
+        this.activeChannel = null;
+    }
+
+    /**
+     * Reopens the segments of a previous log read-only.
+     *
+     * @param directory containing the segment files
+     * @return the reopened log, records can be read and scanned but not appended
+     * @throws IOException if the directory does not contain any segments
+     */
+    static SegmentLog reopen(final Path directory) throws IOException {
+        final List<Path> segmentFiles = segmentFiles(directory);
+        if (segmentFiles.isEmpty()) {
+            throw new IOException("No segments found in " + directory);
+        }
+        return new SegmentLog(directory, segmentFiles);
+    }
+
+    /**
+     * Determines whether a directory contains the segments of a log.
+     *
+     * @param directory to look for segment files in
+     * @return true if at least one segment file exists, false otherwise
+     * @throws IOException if the directory cannot be listed
+     */
+    static boolean containsSegments(final Path directory) throws IOException {
+        return Files.isDirectory(directory) && !segmentFiles(directory).isEmpty();
+    }
+
+    private static List<Path> segmentFiles(final Path directory) throws IOException {
+        // the segment number is zero padded, hence the name order is the order the segments have been written in
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        final String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_FILE_PREFIX) && name.endsWith(SEGMENT_FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Appends a record, which can be read once it has been written to the segment file.
+     *
+     * @param record to append
+     * @return the location of the record
+     * @throws IOException if the record could not be written or the log has been closed
+     */
+    synchronized Location append(final byte[] record) throws IOException {
+        ensureWritable();
+        final long size = Integer.BYTES + (long) record.length;
+        if (this.activeLength > 0 && this.activeLength + size > this.segmentSize) {
+            rollSegment();
+        }
+        final Location location =
+                new Location(this.segments.size() - 1, Math.toIntExact(this.activeLength + Integer.BYTES), record.length);
+
+        if (size > this.writeBuffer.remaining()) {
+            drainWriteBuffer();
+        }
+        if (size > this.writeBuffer.capacity()) {
+            // large records are written as is instead of being copied into the buffer piece by piece
+            writeFully(ByteBuffer.allocate(Integer.BYTES).putInt(0, record.length));
+            writeFully(ByteBuffer.wrap(record));
+        } else {
+            this.writeBuffer.putInt(record.length).put(record);
+        }
+        this.activeLength += size;
+        return location;
+    }
+
+    /**
+     * Writes all buffered records to the segment file, without forcing them to the storage device.
+     *
+     * @throws IOException if the records could not be written or the log has been closed
+     */
+    synchronized void sync() throws IOException {
+        ensureWritable();
+        drainWriteBuffer();
+    }
+
+    /**
+     * Provides a read-only view of a record, backed by the memory mapping of its segment.
+     *
+     * <p>
+     * The view stays valid after the log has been closed, it must not be used after the segment files have been
+     * deleted.
+     *
+     * @param location of the record, as returned when it was appended
+     * @return buffer positioned at the start of the record, limited to its length
+     * @throws IOException if the segment could not be mapped or the log has been closed
+     */
+    ByteBuffer read(final Location location) throws IOException {
+        return mapping(location).slice(location.offset(), location.length());
+    }
+
+    /**
+     * Hands every complete record of the log to a visitor, in the order the records have been appended.
+     *
+     * @param visitor to hand the records to
+     * @throws IOException if a segment could not be mapped or the log has been closed
+     */
+    void scan(final RecordVisitor visitor) throws IOException {
+        final int segmentCount;
+        synchronized (this) {
+            ensureOpen();
+            if (!this.readOnly) {
+                drainWriteBuffer();
+            }
+            segmentCount = this.segments.size();
+        }
+        for (int segment = 0; segment < segmentCount; segment++) {
+            final MappedByteBuffer mapping = mapping(segment);
+            int position = 0;
+            while (position + Integer.BYTES <= mapping.limit()) {
+                final int length = mapping.getInt(position);
+                final int offset = position + Integer.BYTES;
+                if (length < 0 || length > mapping.limit() - offset) {
+                    LOG.warn(
+                            "Segment {} ends with a partially written record at offset {}, it is skipped",
+                            segment,
+                            position);
+                    break;
+                }
+                final Location location = new Location(segment, offset, length);
+                visitor.visit(location, mapping.slice(offset, length));
+                position = offset + length;
+            }
+        }
+    }
+
+    /**
+     * @return the number of segments, including the one records are appended to
+     */
+    synchronized int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Writes all buffered records and closes the log, segment files are kept.
+     *
+     * @throws IOException if the buffered records could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        if (this.activeChannel == null) {
+            this.segments.clear();
+            return;
+        }
+        try {
+            drainWriteBuffer();
+            this.activeChannel.force(false);
+        } finally {
+            this.activeChannel.close();
+            // mappings are released once they are no longer referenced by any reader
+            this.segments.clear();
+        }
+    }
+
+    private MappedByteBuffer mapping(final Location location) throws IOException {
+        return mapping(location.segment(), (long) location.offset() + location.length());
+    }
+
+    private synchronized MappedByteBuffer mapping(final int segmentIndex) throws IOException {
+        // the records written so far, the active segment is mapped up to them
+        if (!this.readOnly && segmentIndex == this.segments.size() - 1) {
+            drainWriteBuffer();
+            return mapping(segmentIndex, this.writtenLength);
+        }
+        return mapping(segmentIndex, 0);
+    }
+
+    private synchronized MappedByteBuffer mapping(final int segmentIndex, final long end) throws IOException {
+        ensureOpen();
+        final Segment segment = this.segments.get(segmentIndex);
+        if (segment.mapping != null && segment.mapping.capacity() >= end) {
+            return segment.mapping;
+        }
+
+        if (!this.readOnly && segmentIndex == this.segments.size() - 1) {
+            // the active segment is mapped up to the records written so far and mapped again once it has grown
+            if (end > this.writtenLength) {
+                drainWriteBuffer();
+            }
+            segment.mapping = this.activeChannel.map(FileChannel.MapMode.READ_ONLY, 0, this.writtenLength);
+        } else {
+            try (final FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ)) {
+                segment.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return segment.mapping;
+    }
+
+    private void rollSegment() throws IOException {
+        drainWriteBuffer();
+        // sealed segments are only mapped from here on
+        this.activeChannel.force(false);
+        this.activeChannel.close();
+        this.segments.get(this.segments.size() - 1).mapping = null;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        final Path file = this.directory.resolve(
+                String.format("%s%05d%s", SEGMENT_FILE_PREFIX, this.segments.size(), SEGMENT_FILE_SUFFIX));
+        this.activeChannel = FileChannel.open(
+                file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segments.add(new Segment(file));
+        this.activeLength = 0;
+        this.writtenLength = 0;
+    }
+
+    private void drainWriteBuffer() throws IOException {
+        this.writeBuffer.flip();
+        writeFully(this.writeBuffer);
+        this.writeBuffer.clear();
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.writtenLength += this.activeChannel.write(buffer);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("segment log has already been closed");
+        }
+    }
+
+    private void ensureWritable() throws IOException {
+        ensureOpen();
+        if (this.readOnly) {
+            throw new IOException("segment log has been reopened read-only");
+        }
+    }
+
+    /**
+     * Receives the records of a scanned log.
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        /**
+         * Visits a record.
+         *
+         * @param location of the record
+         * @param record   read-only view of the record, backed by the memory mapping of its segment
+         * @throws IOException if the record cannot be processed
+         */
+        void visit(Location location, ByteBuffer record) throws IOException;
+    }
+
+    /**
+     * Location of a record within the log.
+     *
+     * @param segment index of the segment containing the record
+     * @param offset  of the record within the segment, excluding its length prefix
+     * @param length  of the record
+     */
+    record Location(int segment, int offset, int length) {}
+
+    private static final class Segment {
+        private final Path file;
+
+        @Nullable
+        private MappedByteBuffer mapping;
+
+        private Segment(final Path file) {
+            this.file = file;
+        }
+    }
+}
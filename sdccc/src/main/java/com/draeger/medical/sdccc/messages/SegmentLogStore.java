@@ -0,0 +1,1083 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import com.draeger.medical.sdccc.configuration.TestRunConfig;
+import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+
+/**
+ * Storage for incoming and outgoing messages, backed by an append-only {@linkplain SegmentLog} in the database
+ * directory of the test run.
+ *
+ * <p>
+ * Collected messages are converted exactly like in {@linkplain MessageStorage} and appended to the log together
+ * with the extracted metadata, certificates are appended once and referenced by their fingerprint. The metadata
+ * needed to answer queries is kept in memory in side indexes by uuid, by nanoTimestamp and by body element,
+ * SequenceId and MdibVersion, hence queries never scan the log. Only the records of matching messages are read,
+ * through the memory mapping of their segment.
+ */
+@Singleton
+public class SegmentLogStore implements MessageStore {
+
+    static final String DATABASE_DIRECTORY_NAME = "Database";
+    static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final Logger LOG = LogManager.getLogger(SegmentLogStore.class);
+
+    private static final byte MESSAGE_RECORD = 1;
+    private static final byte CERTIFICATE_RECORD = 2;
+    private static final byte MANIPULATION_RECORD = 3;
+
+    // time close waits for messages currently being added before closing the storage regardless
+    private static final long PUBLISHING_TIMEOUT_SECONDS = 30;
+
+    private static final String SOAP_MIME_TYPE = "application/soap+xml";
+    private static final String CALLED_ON_CLOSED_STORAGE = "%s called on closed storage";
+    private static final String FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED =
+            "Filtering for the given element name is not supported due to MdibVersionGroups "
+                    + "not being parsed for elements with the name %s .";
+
+    private static final Comparator<GroupEntry> BY_NANO_TIMESTAMP =
+            Comparator.comparingLong(group -> group.message().nanoTimestamp());
+    private static final Comparator<GroupEntry> BY_MDIB_VERSION =
+            Comparator.comparingLong(GroupEntry::mdibVersion).thenComparing(BY_NANO_TIMESTAMP);
+
+    private final MessageFactory messageFactory;
+    private final TestRunObserver testRunObserver;
+    private final MessageConverter converter;
+    private final SegmentLog log;
+    // storage of a previous test run, reopened for reevaluating its messages
+    private final boolean readOnly;
+    private final ThreadPoolExecutor ingestExecutor;
+    private final AtomicBoolean closed;
+
+    // guards the side indexes and the order in which records are appended to the log
+    private final ReadWriteLock indexLock;
+    private final Map<String, IndexEntry> byUuid;
+    private final NavigableMap<Long, List<IndexEntry>> byNanoTimestamp;
+    // body element -> SequenceId -> MdibVersion groups, in the order they have been appended
+    private final Map<String, Map<String, List<GroupEntry>>> byBodyElement;
+    private final List<ManipulationEntry> manipulations;
+    private final Map<String, X509Certificate> certificates;
+
+    // tickets of the added entries which have not been appended yet, in the order they have been added.
+    // Guarded by itself, like the next ticket to hand out
+    private final NavigableSet<Long> pendingEntries;
+    private long nextTicket;
+    // threads currently adding entries are registered with the phaser, close waits for them instead of locking them
+    // out. The threads themselves are only tracked to report them if they do not finish in time
+    private final Phaser publishers;
+    private final Set<Thread> publishingThreads;
+
+    @Inject
+    SegmentLogStore(
+            @Named(TestSuiteConfig.COMMLOG_MESSAGE_BUFFER_SIZE) final int bufferSize,
+            @Named(TestSuiteConfig.SUMMARIZE_MESSAGE_ENCODING_ERRORS) final boolean summarizeMessageEncodingErrors,
+            @Named(TestSuiteConfig.ENABLE_MESSAGE_ENCODING_CHECK) final boolean enableEncodingCheck,
+            @Named(TestSuiteConfig.COMMLOG_CONVERSION_THREADS) final long conversionThreads,
+            @Named(TestRunConfig.TEST_RUN_DIR) final File testRunDir,
+            final MessageFactory messageFactory,
+            final TestRunObserver testRunObserver)
+            throws IOException {
+        this(
+                testRunDir.toPath().resolve(DATABASE_DIRECTORY_NAME),
+                DEFAULT_SEGMENT_SIZE,
+                bufferSize,
+                summarizeMessageEncodingErrors,
+                enableEncodingCheck,
+                conversionThreads,
+                messageFactory,
+                testRunObserver);
+    }
+
+    /**
+     * Creates an empty storage.
+     *
+     * @param directory                      to create the segment files in, must not contain any segments yet
+     * @param segmentSize                    size after which a new segment file is started
+     * @param bufferSize                     number of collected messages waiting for conversion, collecting threads
+     *                                       wait while it is exceeded, like they do for a full ring buffer in
+     *                                       {@linkplain MessageStorage}
+     * @param summarizeMessageEncodingErrors count encoding problems instead of invalidating the test run right away
+     * @param enableEncodingCheck            check the declared charsets and whether messages can be decoded
+     * @param conversionThreads              number of threads converting messages, 0 uses one per logical processor
+     * @param messageFactory                 to create message streams with
+     * @param testRunObserver                to report problems to
+     * @throws IOException if the first segment could not be created
+     */
+    SegmentLogStore(
+            final Path directory,
+            final long segmentSize,
+            final int bufferSize,
+            final boolean summarizeMessageEncodingErrors,
+            final boolean enableEncodingCheck,
+            final long conversionThreads,
+            final MessageFactory messageFactory,
+            final TestRunObserver testRunObserver)
+            throws IOException {
+        this(
+                new SegmentLog(directory, segmentSize),
+                false,
+                bufferSize,
+                summarizeMessageEncodingErrors,
+                enableEncodingCheck,
+                conversionThreads,
+                messageFactory,
+                testRunObserver);
+        LOG.info("Appending to segments in {}", directory);
+    }
+
+    private SegmentLogStore(
+            final SegmentLog log,
+            final boolean readOnly,
+            final int bufferSize,
+            final boolean summarizeMessageEncodingErrors,
+            final boolean enableEncodingCheck,
+            final long conversionThreads,
+            final MessageFactory messageFactory,
+            final TestRunObserver testRunObserver) {
+        this.messageFactory = messageFactory;
+        this.testRunObserver = testRunObserver;
+        this.converter = new MessageConverter(summarizeMessageEncodingErrors, enableEncodingCheck, testRunObserver);
+        this.log = log;
+        this.readOnly = readOnly;
+        this.closed = new AtomicBoolean();
+
+        this.indexLock = new ReentrantReadWriteLock();
+        this.byUuid = new HashMap<>();
+        this.byNanoTimestamp = new TreeMap<>();
+        this.byBodyElement = new HashMap<>();
+        this.manipulations = new ArrayList<>();
+        this.certificates = new HashMap<>();
+        this.pendingEntries = new TreeSet<>();
+        this.nextTicket = 0;
+        this.publishers = new Phaser(1);
+        this.publishingThreads = ConcurrentHashMap.newKeySet();
+
+        final int threadCount = conversionThreads > 0
+                ? Math.toIntExact(conversionThreads)
+                : Runtime.getRuntime().availableProcessors();
+        LOG.info("Will use {} message conversion threads", threadCount);
+        // converting is cpu bound and done in parallel, appending to the log is sequential.
+        // collecting threads block while the queue is full instead of converting the message themselves, which would
+        // keep the threads receiving messages busy with conversion just like before the ingest pipeline
+        this.ingestExecutor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, bufferSize)),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("SegmentLogStore-ingest-%d")
+                        .setDaemon(true)
+                        .build(),
+                SegmentLogStore::awaitQueueSpace);
+    }
+
+    /**
+     * Reopens the storage of a previous test run read-only, rebuilding the side indexes by scanning its segments.
+     *
+     * @param directory       containing the segment files of the previous test run
+     * @param messageFactory  to create message streams with
+     * @param testRunObserver to report problems to
+     * @return storage providing the messages of the previous test run, no messages can be added to it
+     * @throws IOException if the segments could not be read
+     */
+    public static SegmentLogStore reopen(
+            final Path directory, final MessageFactory messageFactory, final TestRunObserver testRunObserver)
+            throws IOException {
+        final var store = new SegmentLogStore(
+                SegmentLog.reopen(directory), true, 1, false, false, 1, messageFactory, testRunObserver);
+        store.rebuildIndexes();
+        LOG.info(
+                "Reopened {} segments in {} with {} messages",
+                store.getSegmentCount(),
+                directory,
+                store.byUuid.size());
+        return store;
+    }
+
+    /**
+     * Determines whether a directory contains the segments of a storage which can be reopened.
+     *
+     * @param directory to look for segment files in
+     * @return true if the directory contains segment files, false otherwise
+     * @throws IOException if the directory cannot be listed
+     */
+    public static boolean containsSegments(final Path directory) throws IOException {
+        return SegmentLog.containsSegments(directory);
+    }
+
+    @Override
+    public void addMessage(final DatabaseEntry message) {
+        this.publishers.register();
+        this.publishingThreads.add(Thread.currentThread());
+        try {
+            if (this.closed.get()) {
+                final String errorString = "addMessageContent called on closed storage";
+                LOG.error(errorString);
+                testRunObserver.invalidateTestRun(errorString);
+                return;
+            }
+            if (this.readOnly) {
+                final String errorString = "addMessageContent called on read-only storage";
+                LOG.error(errorString);
+                testRunObserver.invalidateTestRun(errorString);
+                return;
+            }
+            final long ticket;
+            synchronized (this.pendingEntries) {
+                ticket = this.nextTicket++;
+                this.pendingEntries.add(ticket);
+            }
+            try {
+                this.ingestExecutor.execute(() -> ingest(message, ticket));
+            } catch (final RejectedExecutionException e) {
+                LOG.error("Could not queue entry {} for the segment log", message.getID(), e);
+                testRunObserver.invalidateTestRun(
+                        String.format("Could not store entry %s, it has been lost", message.getID()), e);
+                completeEntry(ticket);
+            }
+        } finally {
+            this.publishingThreads.remove(Thread.currentThread());
+            this.publishers.arriveAndDeregister();
+        }
+    }
+
+    @Override
+    public Message createMessageStream(
+            final CommunicationLog.TransportType path,
+            final CommunicationLog.Direction direction,
+            final CommunicationLog.MessageType messageType,
+            final CommunicationContext communicationContext)
+            throws IOException {
+        checkOpen("createMessageStream");
+        return messageFactory.create(direction, messageType, communicationContext);
+    }
+
+    @Override
+    public void createManipulationInfo(
+            final long startTime,
+            final long finishTime,
+            final ResponseTypes.Result result,
+            final String response,
+            final String name,
+            final ManipulationParameterUtil.ManipulationParameterData parameters) {
+        final var manipulation = new ManipulationInfo(startTime, finishTime, result, response, name, parameters, this);
+        manipulation.addToStorage();
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        // threads which passed the closed check before it was set are still adding their entries
+        awaitPublishingThreads();
+        awaitPendingEntries(Long.MAX_VALUE);
+        this.ingestExecutor.shutdown();
+        try {
+            this.log.close();
+        } catch (final IOException e) {
+            LOG.error("Could not write the remaining messages to the segment log", e);
+            testRunObserver.invalidateTestRun(e);
+        }
+        LOG.info("Closed segment log with {} segments", this.log.getSegmentCount());
+    }
+
+    @Override
+    public void flush() {
+        if (this.closed.get()) {
+            final String errorString = "flush called on closed storage";
+            LOG.error(errorString);
+            testRunObserver.invalidateTestRun(errorString);
+            return;
+        }
+        if (this.readOnly) {
+            LOG.debug("flush called on read-only storage, nothing has been collected");
+            return;
+        }
+        // only entries added before the flush are waited for, entries added meanwhile would keep it from returning
+        final long flushTicket;
+        synchronized (this.pendingEntries) {
+            flushTicket = this.nextTicket;
+        }
+        awaitPendingEntries(flushTicket);
+        try {
+            this.log.sync();
+        } catch (final IOException e) {
+            LOG.error("the message flush failed", e);
+            testRunObserver.invalidateTestRun(e);
+        }
+    }
+
+    @Override
+    public void createIndexes() {
+        // the side indexes are maintained while appending
+        LOG.debug("Indexes of the segment log are always up to date");
+    }
+
+    @Override
+    public Stream<String> getUniqueSequenceIds() throws IOException {
+        checkOpen("getUniqueSequenceIds");
+
+        final List<GroupEntry> groups = new ArrayList<>();
+        this.indexLock.readLock().lock();
+        try {
+            for (final Map<String, List<GroupEntry>> sequences : this.byBodyElement.values()) {
+                for (final List<GroupEntry> sequenceGroups : sequences.values()) {
+                    groups.addAll(sequenceGroups);
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        groups.sort(BY_NANO_TIMESTAMP);
+
+        // the order of first appearance is kept, null is a valid value for bodies without a SequenceId
+        final Set<String> sequenceIds = new LinkedHashSet<>();
+        for (final GroupEntry group : groups) {
+            sequenceIds.add(group.sequenceId());
+        }
+        return sequenceIds.stream();
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessages() throws IOException {
+        checkOpen("getInboundMessages");
+        return messageContents(messagesInTimeOrder(entry -> entry.direction() == CommunicationLog.Direction.INBOUND));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getOutboundMessages() throws IOException {
+        checkOpen("getOutboundMessages");
+        return messageContents(messagesInTimeOrder(entry -> entry.direction() == CommunicationLog.Direction.OUTBOUND));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundSoapMessages() throws IOException {
+        checkOpen("getInboundSoapMessages");
+        return messageContents(messagesInTimeOrder(inboundSoap(null)));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundSoapResponseMessages() throws IOException {
+        checkOpen("getInboundSoapMessages");
+        return messageContents(messagesInTimeOrder(inboundSoap(CommunicationLog.MessageType.RESPONSE)));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundSoapMessageViews() throws IOException {
+        checkOpen("getInboundSoapMessages");
+        return messageViews(messagesInTimeOrder(inboundSoap(null)));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundSoapResponseMessageViews() throws IOException {
+        checkOpen("getInboundSoapMessages");
+        return messageViews(messagesInTimeOrder(inboundSoap(CommunicationLog.MessageType.RESPONSE)));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getOutboundHttpMessagesByBodyTypeAndHeaders(
+            final List<QName> bodyTypes, final List<AbstractMap.SimpleImmutableEntry<String, String>> headers)
+            throws IOException {
+        checkOpen("getOutboundHttpMessagesByBodyTypeAndHeaders");
+
+        final List<IndexEntry> messages = groupsByBodyType(bodyTypes, null).stream()
+                .map(GroupEntry::message)
+                .filter(entry -> entry.direction() == CommunicationLog.Direction.OUTBOUND && entry.http())
+                .distinct()
+                .toList();
+        // headers are not indexed, they are matched once the candidates have been read
+        return new GetterResult<>(
+                messages.stream().map(this::readMessageContent).filter(content -> anyHeaderMatches(content, headers)));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundHttpMessages() throws IOException {
+        checkOpen("getInboundHttpMessages");
+        return messageContents(messagesInTimeOrder(SegmentLogStore::isInboundHttp));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundHttpMessageViews() throws IOException {
+        checkOpen("getInboundHttpMessages");
+        return messageViews(messagesInTimeOrder(SegmentLogStore::isInboundHttp));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId, final QName... bodyTypes) throws IOException {
+        return queryInboundMessagesByBodyTypeAndSequenceId(sequenceId, Long.MIN_VALUE, Long.MAX_VALUE, bodyTypes);
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId, final long minimumMdibVersion, final QName... bodyTypes) throws IOException {
+        return queryInboundMessagesByBodyTypeAndSequenceId(sequenceId, minimumMdibVersion, Long.MAX_VALUE, bodyTypes);
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId,
+            final long minimumMdibVersion,
+            final long finishTimestamp,
+            final QName... bodyTypes)
+            throws IOException {
+        return queryInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId, minimumMdibVersion, finishTimestamp, bodyTypes);
+    }
+
+    private GetterResult<MessageContent> queryInboundMessagesByBodyTypeAndSequenceId(
+            final String sequenceId,
+            final long minimumMdibVersion,
+            final long finishTimestamp,
+            final QName... bodyTypes)
+            throws IOException {
+        checkOpen("getInboundMessagesByBodyType");
+        checkSortingSupported(bodyTypes);
+
+        final List<GroupEntry> groups = new ArrayList<>();
+        for (final GroupEntry group : groupsByBodyType(Arrays.asList(bodyTypes), sequenceId)) {
+            if (group.message().direction() == CommunicationLog.Direction.INBOUND
+                    && group.mdibVersion() >= minimumMdibVersion
+                    && group.message().nanoTimestamp() < finishTimestamp) {
+                groups.add(group);
+            }
+        }
+        groups.sort(BY_MDIB_VERSION);
+        return messageContents(groups.stream().map(GroupEntry::message).toList());
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyType(
+            final boolean enableSorting, final QName... bodyTypes) throws IOException {
+        return messageContents(inboundMessagesByBodyType(enableSorting, bodyTypes));
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByBodyType(final QName... bodyTypes) throws IOException {
+        return getInboundMessagesByBodyType(true, bodyTypes);
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundMessageViewsByBodyType(
+            final boolean enableSorting, final QName... bodyTypes) throws IOException {
+        return messageViews(inboundMessagesByBodyType(enableSorting, bodyTypes));
+    }
+
+    @Override
+    public GetterResult<MessageView> getInboundMessageViewsByBodyType(final QName... bodyTypes) throws IOException {
+        return getInboundMessageViewsByBodyType(true, bodyTypes);
+    }
+
+    private List<IndexEntry> inboundMessagesByBodyType(final boolean enableSorting, final QName... bodyTypes)
+            throws IOException {
+        checkOpen("getInboundMessagesByBodyType");
+        if (enableSorting) {
+            checkSortingSupported(bodyTypes);
+        }
+
+        final List<GroupEntry> groups = new ArrayList<>();
+        for (final GroupEntry group : groupsByBodyType(Arrays.asList(bodyTypes), null)) {
+            if (group.message().direction() == CommunicationLog.Direction.INBOUND) {
+                groups.add(group);
+            }
+        }
+        groups.sort(enableSorting ? BY_MDIB_VERSION : BY_NANO_TIMESTAMP);
+        return groups.stream().map(GroupEntry::message).distinct().toList();
+    }
+
+    @Override
+    public GetterResult<ManipulationData> getManipulationData() throws IOException {
+        checkOpen("getManipulationDataByManipulation");
+        return manipulationData(entry -> true);
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByTimeIntervalAndBodyType(
+            final long startTimestamp, final long finishTimestamp, final QName... reportTypes) throws IOException {
+        checkOpen("getInboundMessagesByTimeInterval");
+        checkSortingSupported(reportTypes);
+        if (startTimestamp > finishTimestamp) {
+            return messageContents(List.of());
+        }
+
+        final Set<String> bodyElements = bodyElements(Arrays.asList(reportTypes));
+        final List<GroupEntry> groups = new ArrayList<>();
+        this.indexLock.readLock().lock();
+        try {
+            // the interval is looked up in the time index, instead of filtering all messages of the body types
+            for (final List<IndexEntry> entries : this.byNanoTimestamp
+                    .subMap(startTimestamp, true, finishTimestamp, true)
+                    .values()) {
+                for (final IndexEntry entry : entries) {
+                    if (entry.direction() != CommunicationLog.Direction.INBOUND) {
+                        continue;
+                    }
+                    for (final MdibVersionGroupEntity.MdibVersionGroup group : entry.mdibVersionGroups()) {
+                        if (bodyElements.contains(group.bodyElement())) {
+                            groups.add(new GroupEntry(entry, group.mdibVersion(), group.sequenceId()));
+                            break;
+                        }
+                    }
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        groups.sort(BY_MDIB_VERSION);
+        return messageContents(groups.stream().map(GroupEntry::message).toList());
+    }
+
+    @Override
+    public GetterResult<MessageContent> getInboundMessagesByTimestampAndBodyType(
+            final String sequenceId, final long finishTimestamp, final QName... reportTypes) throws IOException {
+        checkOpen("getInboundMessagesByTimestampAndBodyType");
+        checkSortingSupported(reportTypes);
+
+        final List<GroupEntry> groups = new ArrayList<>();
+        for (final GroupEntry group : groupsByBodyType(Arrays.asList(reportTypes), sequenceId)) {
+            if (group.message().direction() == CommunicationLog.Direction.INBOUND
+                    && group.message().nanoTimestamp() < finishTimestamp) {
+                groups.add(group);
+            }
+        }
+        groups.sort(BY_MDIB_VERSION);
+        return messageContents(groups.stream().map(GroupEntry::message).toList());
+    }
+
+    @Override
+    public GetterResult<ManipulationData> getManipulationDataByManipulation(final String... manipulationNames)
+            throws IOException {
+        checkOpen("getManipulationDataByManipulation");
+        // like the database query, a manipulation has to match every given name
+        return manipulationData(entry -> Arrays.stream(manipulationNames).allMatch(entry.methodName()::equals));
+    }
+
+    @Override
+    public GetterResult<ManipulationData> getManipulationDataByParametersAndManipulation(
+            final ManipulationParameterUtil.ManipulationParameterData parameter, final String manipulationName)
+            throws IOException {
+        checkOpen("getManipulationDataByManipulation");
+        final List<Pair<String, String>> parameters = parameter.getParameterData();
+        // every given parameter has to be present, without any parameters this matches by name only
+        return manipulationData(entry -> entry.methodName().equals(manipulationName)
+                && parameters.stream()
+                        .map(pair -> new ImmutablePair<>(pair.getKey(), pair.getValue()))
+                        .allMatch(entry.parameters()::contains));
+    }
+
+    @Override
+    public long getMessageEncodingErrorCount() {
+        return this.converter.getMessageEncodingErrorCount();
+    }
+
+    @Override
+    public long getInvalidMimeTypeErrorCount() {
+        return this.converter.getInvalidMimeTypeErrorCount();
+    }
+
+    /**
+     * Looks up a stored message by its uuid.
+     *
+     * @param uuid of the message
+     * @return the message, empty if no message with the uuid has been stored
+     * @throws IOException if storage is closed
+     */
+    Optional<MessageContent> getMessageByUuid(final String uuid) throws IOException {
+        checkOpen("getMessageByUuid");
+        final IndexEntry entry;
+        this.indexLock.readLock().lock();
+        try {
+            entry = this.byUuid.get(uuid);
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        return Optional.ofNullable(entry).map(this::readMessageContent);
+    }
+
+    /**
+     * @return the number of segment files written so far
+     */
+    int getSegmentCount() {
+        return this.log.getSegmentCount();
+    }
+
+    private void rebuildIndexes() throws IOException {
+        final CertificateFactory certificateFactory;
+        try {
+            certificateFactory = CertificateFactory.getInstance("X.509");
+        } catch (final CertificateException e) {
+            throw new IOException("Could not create a certificate factory", e);
+        }
+        this.indexLock.writeLock().lock();
+        try {
+            // certificates are appended before the first message referencing them
+            this.log.scan((location, record) -> {
+                final byte kind = record.get();
+                switch (kind) {
+                    case MESSAGE_RECORD -> {
+                        final MessageContent messageContent =
+                                MessageRecordCodec.readMessageContent(record, this.certificates::get);
+                        index(indexEntry(location, messageContent), messageContent.getUuid());
+                    }
+                    case CERTIFICATE_RECORD -> {
+                        final Pair<String, X509Certificate> certificate =
+                                MessageRecordCodec.readCertificate(record, certificateFactory);
+                        this.certificates.put(certificate.getKey(), certificate.getValue());
+                    }
+                    case MANIPULATION_RECORD -> this.manipulations.add(
+                            manipulationEntry(location, MessageRecordCodec.readManipulationData(record)));
+                    default -> throw new IOException(
+                            String.format("Unknown record of kind %s at %s", kind, location));
+                }
+            });
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    private void ingest(final DatabaseEntry entry, final long ticket) {
+        try {
+            if (entry instanceof final Message message) {
+                appendMessage(message);
+            } else if (entry instanceof final ManipulationInfo manipulationInfo) {
+                appendManipulation(MessageConverter.convert(manipulationInfo));
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOG.error("Could not append entry {} to the segment log", entry.getID(), e);
+            testRunObserver.invalidateTestRun(
+                    String.format("Could not store entry %s, it has been lost", entry.getID()), e);
+        } finally {
+            completeEntry(ticket);
+        }
+    }
+
+    private void completeEntry(final long ticket) {
+        synchronized (this.pendingEntries) {
+            final boolean oldest = ticket == this.pendingEntries.first();
+            this.pendingEntries.remove(ticket);
+            // waiting threads only care about the oldest pending entry
+            if (oldest) {
+                this.pendingEntries.notifyAll();
+            }
+        }
+    }
+
+    private static void awaitQueueSpace(final Runnable task, final ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Segment log ingest has already been shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for space in the ingest queue", e);
+        }
+    }
+
+    private void awaitPublishingThreads() {
+        final int phase = this.publishers.arrive();
+        try {
+            this.publishers.awaitAdvanceInterruptibly(phase, PUBLISHING_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final TimeoutException e) {
+            LOG.error(
+                    "Threads {} are still adding messages after {} s, closing the storage regardless",
+                    this.publishingThreads.stream().map(Thread::getName).toList(),
+                    PUBLISHING_TIMEOUT_SECONDS);
+        } catch (final InterruptedException e) {
+            LOG.error(
+                    "Interrupted while waiting for threads {} adding messages, closing the storage regardless",
+                    this.publishingThreads.stream().map(Thread::getName).toList());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until all entries added before the given ticket have been appended.
+     *
+     * @param ticket first ticket not to wait for
+     */
+    private void awaitPendingEntries(final long ticket) {
+        synchronized (this.pendingEntries) {
+            while (!this.pendingEntries.isEmpty() && this.pendingEntries.first() < ticket) {
+                try {
+                    this.pendingEntries.wait();
+                } catch (final InterruptedException e) {
+                    LOG.error("Waiting for messages to be appended was interrupted", e);
+                    testRunObserver.invalidateTestRun(e);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void appendMessage(final Message message) throws IOException {
+        final MessageContent messageContent = this.converter.convert(message);
+        // the hash is computed while the message is written, only messages not written through a stream lack it
+        final byte[] messageHash = message.getHash() != null
+                ? message.getHash()
+                : MessageUtil.digestMessage(messageContent.getRawBody());
+        final boolean http = message.getCommunicationContext().getApplicationInfo() instanceof HttpApplicationInfo;
+        final byte[] record = encodeMessage(messageContent, messageHash, http);
+
+        final IndexEntry entry;
+        this.indexLock.writeLock().lock();
+        try {
+            for (final CertificateEntity certificate : messageContent.getCertificateEntities()) {
+                if (!this.certificates.containsKey(certificate.getFingerprint())) {
+                    this.log.append(encodeCertificate(certificate));
+                    this.certificates.put(certificate.getFingerprint(), certificate.getCertificate());
+                }
+            }
+            entry = indexEntry(this.log.append(record), messageContent);
+            index(entry, messageContent.getUuid());
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    private void appendManipulation(final ManipulationData manipulationData) throws IOException {
+        final byte[] record = encodeManipulation(manipulationData);
+        this.indexLock.writeLock().lock();
+        try {
+            this.manipulations.add(manipulationEntry(this.log.append(record), manipulationData));
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+
+    private static IndexEntry indexEntry(final SegmentLog.Location location, final MessageContent messageContent) {
+        return new IndexEntry(
+                location,
+                messageContent.getNanoTimestamp(),
+                messageContent.getDirection(),
+                messageContent.getMessageType(),
+                messageContent.getIsSOAP() || hasSoapContentType(messageContent),
+                isHttpScheme(messageContent.getScheme()),
+                messageContent.getMdibVersionGroups().stream()
+                        .map(group -> new MdibVersionGroupEntity.MdibVersionGroup(
+                                group.getMdibVersion(), group.getSequenceId(), group.getBodyElement()))
+                        .toList());
+    }
+
+    private static ManipulationEntry manipulationEntry(
+            final SegmentLog.Location location, final ManipulationData manipulationData) {
+        return new ManipulationEntry(
+                location,
+                manipulationData.getStartTimestamp(),
+                manipulationData.getMethodName(),
+                manipulationData.getParameters().stream()
+                        .map(parameter ->
+                                new ImmutablePair<>(parameter.getParameterName(), parameter.getParameterValue()))
+                        .toList());
+    }
+
+    private void index(final IndexEntry entry, final String uuid) {
+        this.byUuid.put(uuid, entry);
+        this.byNanoTimestamp
+                .computeIfAbsent(entry.nanoTimestamp(), key -> new ArrayList<>(1))
+                .add(entry);
+        for (final MdibVersionGroupEntity.MdibVersionGroup group : entry.mdibVersionGroups()) {
+            this.byBodyElement
+                    .computeIfAbsent(group.bodyElement(), key -> new HashMap<>())
+                    .computeIfAbsent(group.sequenceId(), key -> new ArrayList<>())
+                    .add(new GroupEntry(entry, group.mdibVersion(), group.sequenceId()));
+        }
+    }
+
+    private List<IndexEntry> messagesInTimeOrder(final Predicate<IndexEntry> filter) {
+        final List<IndexEntry> messages = new ArrayList<>();
+        this.indexLock.readLock().lock();
+        try {
+            for (final List<IndexEntry> entries : this.byNanoTimestamp.values()) {
+                for (final IndexEntry entry : entries) {
+                    if (filter.test(entry)) {
+                        messages.add(entry);
+                    }
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        return messages;
+    }
+
+    /**
+     * Collects the MdibVersion groups of the given body types, in the order they have been appended.
+     *
+     * @param bodyTypes  to collect the groups of
+     * @param sequenceId to restrict the groups to, null to collect the groups of all sequences
+     * @return the matching groups
+     */
+    private List<GroupEntry> groupsByBodyType(final Collection<QName> bodyTypes, @Nullable final String sequenceId) {
+        final List<GroupEntry> groups = new ArrayList<>();
+        this.indexLock.readLock().lock();
+        try {
+            for (final String bodyElement : bodyElements(bodyTypes)) {
+                final Map<String, List<GroupEntry>> sequences = this.byBodyElement.get(bodyElement);
+                if (sequences == null) {
+                    continue;
+                }
+                if (sequenceId == null) {
+                    sequences.values().forEach(groups::addAll);
+                } else {
+                    groups.addAll(sequences.getOrDefault(sequenceId, List.of()));
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        return groups;
+    }
+
+    private static Set<String> bodyElements(final Collection<QName> bodyTypes) {
+        final Set<String> bodyElements = new HashSet<>();
+        for (final QName bodyType : bodyTypes) {
+            bodyElements.add(bodyType.toString());
+        }
+        return bodyElements;
+    }
+
+    private GetterResult<ManipulationData> manipulationData(final Predicate<ManipulationEntry> filter) {
+        final List<ManipulationEntry> matches = new ArrayList<>();
+        this.indexLock.readLock().lock();
+        try {
+            for (final ManipulationEntry entry : this.manipulations) {
+                if (filter.test(entry)) {
+                    matches.add(entry);
+                }
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        // the answer should adhere to the order in which the manipulations have been performed
+        matches.sort(Comparator.comparingLong(ManipulationEntry::startTimestamp));
+        return new GetterResult<>(matches.stream().map(this::readManipulationData));
+    }
+
+    private GetterResult<MessageContent> messageContents(final List<IndexEntry> messages) {
+        return new GetterResult<>(messages.stream().map(this::readMessageContent));
+    }
+
+    private GetterResult<MessageView> messageViews(final List<IndexEntry> messages) {
+        return new GetterResult<>(messages.stream().map(this::readMessageView));
+    }
+
+    private void checkOpen(final String operation) throws IOException {
+        if (this.closed.get()) {
+            final String errorString = String.format(CALLED_ON_CLOSED_STORAGE, operation);
+            LOG.error(errorString);
+            throw new IOException(errorString);
+        }
+    }
+
+    private void checkSortingSupported(final QName... bodyTypes) {
+        for (final QName qname : bodyTypes) {
+            if (!MessageConverter.supportsMdibVersionSorting(qname)) {
+                final String localErrorMessage = String.format(FILTERING_FOR_GIVEN_ELEMENT_NAME_NOT_IMPLEMENTED, qname);
+                this.testRunObserver.invalidateTestRun(localErrorMessage);
+                throw new UnsupportedOperationException(localErrorMessage);
+            }
+        }
+    }
+
+    private static Predicate<IndexEntry> inboundSoap(@Nullable final CommunicationLog.MessageType messageType) {
+        return entry -> entry.direction() == CommunicationLog.Direction.INBOUND
+                && entry.soap()
+                && (messageType == null || entry.messageType() == messageType);
+    }
+
+    private static boolean isInboundHttp(final IndexEntry entry) {
+        return entry.direction() == CommunicationLog.Direction.INBOUND && entry.http();
+    }
+
+    private static boolean isHttpScheme(@Nullable final String scheme) {
+        if (scheme == null) {
+            return false;
+        }
+        final String lowerCaseScheme = scheme.toLowerCase(Locale.ROOT);
+        return Constants.HTTP_SCHEME.equals(lowerCaseScheme) || Constants.HTTPS_SCHEME.equals(lowerCaseScheme);
+    }
+
+    private static boolean hasSoapContentType(final MessageContent messageContent) {
+        for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+            if (MessageConverter.HTTP_HEADER_NAME_CONTENT_TYPE.equals(header.getHeaderKey().toLowerCase(Locale.ROOT))
+                    && header.getHeaderValue().toLowerCase(Locale.ROOT).contains(SOAP_MIME_TYPE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyHeaderMatches(
+            final MessageContent messageContent, final List<AbstractMap.SimpleImmutableEntry<String, String>> headers) {
+        for (final HTTPHeaderEntity header : messageContent.getHeaderEntities()) {
+            final String key = header.getHeaderKey().toLowerCase(Locale.ROOT);
+            final String value = header.getHeaderValue().toLowerCase(Locale.ROOT);
+            for (final AbstractMap.SimpleImmutableEntry<String, String> expected : headers) {
+                if (key.equals(expected.getKey()) && value.equals(expected.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] encodeMessage(
+            final MessageContent messageContent, final byte[] messageHash, final boolean http) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(messageContent.getBodyLength() + 1024);
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MESSAGE_RECORD);
+            MessageRecordCodec.writeMessage(out, messageContent, messageHash, http);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeCertificate(final CertificateEntity certificate) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(CERTIFICATE_RECORD);
+            MessageRecordCodec.writeCertificate(out, certificate);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeManipulation(final ManipulationData manipulationData) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MANIPULATION_RECORD);
+            MessageRecordCodec.writeManipulation(out, manipulationData);
+        }
+        return bytes.toByteArray();
+    }
+
+    private MessageContent readMessageContent(final IndexEntry entry) {
+        final ByteBuffer record = readRecord(entry.location(), MESSAGE_RECORD);
+        return MessageRecordCodec.readMessageContent(record, this::certificate);
+    }
+
+    private MessageView readMessageView(final IndexEntry entry) {
+        return MessageRecordCodec.readMessageView(readRecord(entry.location(), MESSAGE_RECORD));
+    }
+
+    private ManipulationData readManipulationData(final ManipulationEntry entry) {
+        return MessageRecordCodec.readManipulationData(readRecord(entry.location(), MANIPULATION_RECORD));
+    }
+
+    private X509Certificate certificate(final String fingerprint) {
+        this.indexLock.readLock().lock();
+        try {
+            return Objects.requireNonNull(this.certificates.get(fingerprint));
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+    }
+
+    private ByteBuffer readRecord(final SegmentLog.Location location, final byte expectedKind) {
+        final ByteBuffer record;
+        try {
+            record = this.log.read(location);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read record from the segment log", e);
+        }
+        final byte kind = record.get();
+        if (kind != expectedKind) {
+            throw new IllegalStateException(
+                    String.format("Expected record of kind %s at %s, found kind %s", expectedKind, location, kind));
+        }
+        return record;
+    }
+
+    /**
+     * Metadata of a stored message which is needed to answer queries without reading its record.
+     */
+    private record IndexEntry(
+            SegmentLog.Location location,
+            long nanoTimestamp,
+            CommunicationLog.Direction direction,
+            CommunicationLog.MessageType messageType,
+            boolean soap,
+            boolean http,
+            List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups) {}
+
+    private record GroupEntry(IndexEntry message, long mdibVersion, @Nullable String sequenceId) {}
+
+    private record ManipulationEntry(
+            SegmentLog.Location location,
+            long startTimestamp,
+            String methodName,
+            List<Pair<String, String>> parameters) {}
+}
@@ -0,0 +1,104 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import javax.annotation.Nullable;
+
+/**
+ * Extracts the encoding declared in the XML declaration of a message.
+ *
+ * <p>
+ * The XML declaration has to be at the very beginning of a document, only preceded by an optional byte order mark.
+ * Therefore only a bounded prefix of the message is decoded and scanned, regardless of the size of the message.
+ */
+final class XmlDeclarationScanner {
+    /**
+     * Maximum number of characters of a message which are scanned for the XML declaration.
+     */
+    static final int MAX_DECLARATION_LENGTH = 1024;
+
+    // the widest encodings of the XML declaration prefixes (UTF-32) use four bytes per character
+    private static final int MAX_BYTES_PER_CHARACTER = 4;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String DECLARATION_START = "<?xml";
+    private static final String DECLARATION_END = "?>";
+    private static final String ENCODING_ATTRIBUTE = "encoding";
+
+    private XmlDeclarationScanner() {}
+
+    /**
+     * Determines the encoding declared in the XML declaration of a message.
+     *
+     * @param content  of the message
+     * @param charset  used to decode the XML declaration, i.e. the charset indicated by the byte order mark or the
+     *                 first bytes of the message
+     * @return the declared encoding, null if the message has no XML declaration or it does not declare an encoding
+     */
+    @Nullable
+    static String findEncoding(final byte[] content, final Charset charset) {
+        final int prefixLength = Math.min(content.length, MAX_DECLARATION_LENGTH * MAX_BYTES_PER_CHARACTER);
+        // decodes malformed input, e.g. a character cut off at the end of the prefix, into replacement characters
+        final String prefix = charset.decode(ByteBuffer.wrap(content, 0, prefixLength)).toString();
+
+        int position = !prefix.isEmpty() && prefix.charAt(0) == BYTE_ORDER_MARK ? 1 : 0;
+        if (!prefix.startsWith(DECLARATION_START, position)) {
+            return null;
+        }
+        position += DECLARATION_START.length();
+
+        while (position < prefix.length()) {
+            final int nameStart = skipWhitespace(prefix, position);
+            // pseudo attributes have to be separated from each other by whitespace
+            if (nameStart == position || prefix.startsWith(DECLARATION_END, nameStart)) {
+                return null;
+            }
+            int nameEnd = nameStart;
+            while (nameEnd < prefix.length() && Character.isLetter(prefix.charAt(nameEnd))) {
+                nameEnd++;
+            }
+
+            final int equalsSign = skipWhitespace(prefix, nameEnd);
+            if (nameEnd == nameStart || equalsSign >= prefix.length() || prefix.charAt(equalsSign) != '=') {
+                return null;
+            }
+            final int valueStart = skipWhitespace(prefix, equalsSign + 1);
+            if (valueStart >= prefix.length()) {
+                return null;
+            }
+            final char quote = prefix.charAt(valueStart);
+            if (quote != '"' && quote != '\'') {
+                return null;
+            }
+            final int valueEnd = prefix.indexOf(quote, valueStart + 1);
+            if (valueEnd < 0) {
+                return null;
+            }
+
+            if (ENCODING_ATTRIBUTE.equals(prefix.substring(nameStart, nameEnd))) {
+                return prefix.substring(valueStart + 1, valueEnd);
+            }
+            position = valueEnd + 1;
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(final String prefix, final int start) {
+        int position = start;
+        while (position < prefix.length() && isWhitespace(prefix.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    // whitespace as defined by production 3 of the XML standard
+    private static boolean isWhitespace(final char character) {
+        return character == ' ' || character == '\t' || character == '\r' || character == '\n';
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+/**
+ * POJO for persisting a preset dictionary message bodies have been compressed with, identified by the fingerprint
+ * of the dictionary.
+ *
+ * <p>
+ * The dictionary is trained on the first messages of a test run and stored once, compressed message bodies
+ * reference it so they can be decompressed when they are read again, e.g. after reopening the database.
+ */
+@Entity(name = "BodyDictionaryEntity")
+@Table(name = "body_dictionary")
+public class BodyDictionaryEntity {
+
+    @Transient
+    private static final int MAXIMUM_LENGTH = 2147483647;
+
+    @Id
+    private String fingerprint;
+
+    @Lob
+    @Column(columnDefinition = "blob", length = MAXIMUM_LENGTH)
+    private byte[] dictionary;
+
+    private int sampleCount;
+
+    /**
+     * This will be used by hibernate when creating the POJO from database entries.
+     */
+    public BodyDictionaryEntity() {}
+
+    /**
+     * This will be used when creating the POJO before loading it into the database.
+     *
+     * @param dictionary  the preset dictionary, which must not be modified afterwards
+     * @param sampleCount number of message bodies the dictionary has been trained on
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP2"},
+            justification = "The dictionary is shared by all compressing threads and never modified.")
+    public BodyDictionaryEntity(final byte[] dictionary, final int sampleCount) {
+        this.dictionary = dictionary;
+        this.sampleCount = sampleCount;
+        this.fingerprint = MessageUtil.hashMessage(dictionary);
+    }
+
+    /**
+     * @return hex representation of the SHA-256 hash of the dictionary
+     */
+    public String getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * Provides the dictionary, which must not be modified.
+     *
+     * @return the preset dictionary
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made, the dictionary is set on every compressing deflater.")
+    public byte[] getDictionary() {
+        return this.dictionary;
+    }
+
+    public int getSampleCount() {
+        return this.sampleCount;
+    }
+
+    /**
+     * Compresses a body using this dictionary.
+     *
+     * @param deflater to compress with, reset before it is used
+     * @param body     to compress
+     * @return the compressed body, or null if it would not be smaller than the body itself
+     */
+    @Nullable
+    public byte[] deflate(final Deflater deflater, final byte[] body) {
+        deflater.reset();
+        deflater.setDictionary(this.dictionary);
+        deflater.setInput(body);
+        deflater.finish();
+        // bodies which cannot be compressed are stored as they are, the output is bounded by their length
+        final byte[] buffer = new byte[body.length];
+        int length = 0;
+        while (!deflater.finished() && length < buffer.length) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        if (!deflater.finished()) {
+            return null;
+        }
+        final byte[] compressed = new byte[length];
+        System.arraycopy(buffer, 0, compressed, 0, length);
+        return compressed;
+    }
+
+    /**
+     * Decompresses a body which has been compressed using this dictionary.
+     *
+     * @param compressed the compressed body
+     * @param length     length of the body before it was compressed
+     * @return the body
+     */
+    public byte[] inflate(final byte[] compressed, final int length) {
+        final byte[] body = new byte[length];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                final int count = inflater.inflate(body, inflated, length - inflated);
+                if (count == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(this.dictionary);
+                } else if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != length) {
+                throw new IllegalStateException(String.format(
+                        "Compressed body is truncated, expected %s bytes but got %s", length, inflated));
+            }
+        } catch (final DataFormatException e) {
+            throw new IllegalStateException("Compressed body could not be decompressed with " + this.fingerprint, e);
+        } finally {
+            inflater.end();
+        }
+        return body;
+    }
+}
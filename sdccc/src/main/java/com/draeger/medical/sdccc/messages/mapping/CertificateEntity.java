@@ -0,0 +1,90 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+/**
+ * POJO for persisting a distinct certificate, identified by the fingerprint of its encoding.
+ *
+ * <p>
+ * Peers usually present the same certificates for all of their connections, each certificate is therefore stored
+ * once and referenced by all messages it has been received with.
+ */
+@Entity(name = "CertificateEntity")
+@Table(name = "certificate_entity")
+public class CertificateEntity {
+
+    @Transient
+    private static final int MAXIMUM_LENGTH = 2147483647;
+
+    @Id
+    private String fingerprint;
+
+    @Lob
+    @Column(columnDefinition = "blob", length = MAXIMUM_LENGTH)
+    private byte[] encoded;
+
+    @Transient
+    private X509Certificate certificate;
+
+    /**
+     * This will be used by hibernate when creating the POJO from database entries.
+     */
+    public CertificateEntity() {}
+
+    /**
+     * This will be used when creating the POJO before loading it into the database.
+     *
+     * @param certificate the certificate to persist
+     */
+    public CertificateEntity(final X509Certificate certificate) {
+        try {
+            this.encoded = certificate.getEncoded();
+        } catch (final CertificateEncodingException e) {
+            throw new IllegalArgumentException("Certificate could not be encoded", e);
+        }
+        this.fingerprint = MessageUtil.hashMessage(this.encoded);
+        this.certificate = certificate;
+    }
+
+    /**
+     * @return hex representation of the SHA-256 hash of the encoded certificate
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Decodes the certificate, the decoded certificate is cached.
+     *
+     * @return the certificate
+     */
+    public X509Certificate getCertificate() {
+        if (this.certificate == null) {
+            try {
+                this.certificate = (X509Certificate)
+                        CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(encoded));
+            } catch (final CertificateException e) {
+                throw new IllegalStateException("Stored certificate " + fingerprint + " could not be decoded", e);
+            }
+        }
+        return this.certificate;
+    }
+}
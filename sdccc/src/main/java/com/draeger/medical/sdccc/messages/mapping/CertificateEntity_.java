@@ -0,0 +1,27 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.StaticMetamodel;
+
+/**
+ * Used for building database query criteria.
+ */
+@SuppressFBWarnings(
+        value = {"UUF_UNUSED_PUBLIC_OR_PROTECTED_FIELD", "UWF_UNWRITTEN_PUBLIC_OR_PROTECTED_FIELD"},
+        justification = "This is a commonly made design choice for persistence meta models.")
+@StaticMetamodel(CertificateEntity.class)
+public final class CertificateEntity_ {
+
+    public static volatile SingularAttribute<CertificateEntity, String> fingerprint;
+    public static volatile SingularAttribute<CertificateEntity, byte[]> encoded;
+
+    private CertificateEntity_() {}
+}
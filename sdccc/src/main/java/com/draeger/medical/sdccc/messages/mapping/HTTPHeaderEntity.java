@@ -14,25 +14,34 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
- * POJO for persisting headers.
+ * POJO for persisting headers, linking a message to the key and value pair of the header.
  */
 @Entity(name = "HTTPHeaderEntity")
 @Table(name = "http_header_entity")
 public class HTTPHeaderEntity {
 
     @Id
-    @GenericGenerator(name = "HTTPHeaderIDGen", strategy = "increment")
+    @GenericGenerator(
+            name = "HTTPHeaderIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "http_header_entity_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
     @GeneratedValue(generator = "HTTPHeaderIDGen")
     private long incId;
 
-    private String headerKey;
-
     @ManyToOne(fetch = FetchType.LAZY)
     private MessageContent messageContent;
 
-    private String headerValue;
+    // the shared key and value pair is loaded together with the header
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    private HTTPHeaderFieldEntity headerField;
 
     /**
      * This will be used by hibernate when creating the POJO from database entries.
@@ -47,16 +56,29 @@ public class HTTPHeaderEntity {
      * @param messageContent row to link to
      */
     public HTTPHeaderEntity(final String headerKey, final String headerValue, final MessageContent messageContent) {
-        this.headerKey = headerKey;
-        this.headerValue = headerValue;
+        this.headerField = new HTTPHeaderFieldEntity(headerKey, headerValue);
         this.messageContent = messageContent;
     }
 
     public String getHeaderKey() {
-        return headerKey;
+        return headerField.getHeaderKey();
     }
 
     public String getHeaderValue() {
-        return headerValue;
+        return headerField.getHeaderValue();
+    }
+
+    public HTTPHeaderFieldEntity getHeaderField() {
+        return headerField;
+    }
+
+    /**
+     * Replaces the key and value pair of this header by an equal, already persisted pair, which must be done before
+     * the header itself is persisted.
+     *
+     * @param headerField persisted pair with the same key and value
+     */
+    public void setHeaderField(final HTTPHeaderFieldEntity headerField) {
+        this.headerField = headerField;
     }
 }
@@ -21,9 +21,8 @@ import javax.persistence.metamodel.StaticMetamodel;
 public final class HTTPHeaderEntity_ {
 
     public static volatile SingularAttribute<HTTPHeaderEntity, Long> incId;
-    public static volatile SingularAttribute<HTTPHeaderEntity, String> headerKey;
-    public static volatile SingularAttribute<HTTPHeaderEntity, String> headerValue;
     public static volatile SingularAttribute<HTTPHeaderEntity, MessageContent> messageContent;
+    public static volatile SingularAttribute<HTTPHeaderEntity, HTTPHeaderFieldEntity> headerField;
 
     private HTTPHeaderEntity_() {}
 }
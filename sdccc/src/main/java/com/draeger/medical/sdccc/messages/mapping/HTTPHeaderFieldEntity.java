@@ -0,0 +1,68 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * POJO for persisting a distinct header key and value pair, which is referenced by all headers using it.
+ */
+@Entity(name = "HTTPHeaderFieldEntity")
+@Table(name = "http_header_field_entity")
+public class HTTPHeaderFieldEntity {
+
+    @Id
+    @GenericGenerator(
+            name = "HTTPHeaderFieldIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "http_header_field_entity_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
+    @GeneratedValue(generator = "HTTPHeaderFieldIDGen")
+    private long incId;
+
+    private String headerKey;
+
+    private String headerValue;
+
+    /**
+     * This will be used by hibernate when creating the POJO from database entries.
+     */
+    public HTTPHeaderFieldEntity() {}
+
+    /**
+     * This will be used when creating the POJO before loading it into the database.
+     *
+     * @param headerKey   the key string
+     * @param headerValue the string the key gets mapped to
+     */
+    public HTTPHeaderFieldEntity(final String headerKey, final String headerValue) {
+        this.headerKey = headerKey;
+        this.headerValue = headerValue;
+    }
+
+    public long getIncId() {
+        return incId;
+    }
+
+    public String getHeaderKey() {
+        return headerKey;
+    }
+
+    public String getHeaderValue() {
+        return headerValue;
+    }
+}
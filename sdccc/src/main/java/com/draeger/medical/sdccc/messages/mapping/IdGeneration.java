@@ -0,0 +1,34 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+/**
+ * Identifier generation settings shared by all storage entities.
+ *
+ * <p>
+ * Identifiers are taken from a database sequence in blocks of {@linkplain #INCREMENT_SIZE}, which are handed out
+ * in memory using the pooled-lo optimizer. Threads inserting in parallel therefore only synchronize once per block.
+ */
+public final class IdGeneration {
+    /**
+     * Hibernate generator strategy backed by a database sequence.
+     */
+    public static final String STRATEGY = "enhanced-sequence";
+
+    /**
+     * Optimizer handing out identifiers of an allocated block in memory.
+     */
+    public static final String OPTIMIZER = "pooled-lo";
+
+    /**
+     * Number of identifiers allocated at once.
+     */
+    public static final String INCREMENT_SIZE = "100";
+
+    private IdGeneration() {}
+}
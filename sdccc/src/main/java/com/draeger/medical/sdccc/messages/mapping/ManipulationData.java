@@ -20,6 +20,8 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * POJO for persisting relevant manipulation data.
@@ -32,7 +34,14 @@ public class ManipulationData {
     private static final int MAXIMUM_LENGTH = 2147483647;
 
     @Id
-    @GenericGenerator(name = "ManipulationDataIDGen", strategy = "increment")
+    @GenericGenerator(
+            name = "ManipulationDataIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "manipulation_data_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
     @GeneratedValue(generator = "ManipulationDataIDGen")
     private long incId;
 
@@ -14,6 +14,8 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * POJO for persisting manipulation parameter.
@@ -22,7 +24,14 @@ import org.hibernate.annotations.GenericGenerator;
 @Table(name = "manipulation_parameter")
 public class ManipulationParameter {
     @Id
-    @GenericGenerator(name = "ManipulationParameterIDGen", strategy = "increment")
+    @GenericGenerator(
+            name = "ManipulationParameterIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "manipulation_parameter_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
     @GeneratedValue(generator = "ManipulationParameterIDGen")
     private long incId;
 
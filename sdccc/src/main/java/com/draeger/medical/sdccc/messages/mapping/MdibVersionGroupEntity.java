@@ -15,6 +15,8 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * POJO for persisting MdibVersionGroups.
@@ -24,7 +26,14 @@ import org.hibernate.annotations.GenericGenerator;
 public class MdibVersionGroupEntity {
 
     @Id
-    @GenericGenerator(name = "MdibVersionGroupIDGen", strategy = "increment")
+    @GenericGenerator(
+            name = "MdibVersionGroupIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "mdib_version_groups_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
     @GeneratedValue(generator = "MdibVersionGroupIDGen")
     private long incId;
 
@@ -0,0 +1,132 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import javax.annotation.Nullable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+/**
+ * POJO for persisting a distinct message body, identified by the hash of the body as received.
+ *
+ * <p>
+ * Devices send many byte identical messages, e.g. repeated discovery messages or retransmissions. Each distinct
+ * body is therefore stored once and referenced by all messages it has been received with, everything which differs
+ * between those messages, such as their uuid and timestamps, is stored with the messages.
+ */
+@Entity(name = "MessageBodyEntity")
+@Table(name = "message_body")
+public class MessageBodyEntity {
+
+    @Transient
+    private static final int MAXIMUM_LENGTH = 2147483647;
+
+    // same column definition as MessageContent.messageHash, which references this column
+    @Id
+    @Column(columnDefinition = "char(" + MessageUtil.HASH_LENGTH + ") for bit data")
+    private byte[] hash;
+
+    @Lob
+    @Column(columnDefinition = "blob", length = MAXIMUM_LENGTH)
+    private byte[] body;
+
+    // set if the body column holds the body compressed with this dictionary
+    @ManyToOne(fetch = FetchType.EAGER)
+    @Nullable
+    private BodyDictionaryEntity bodyDictionary;
+
+    // length of the body as received, before it was compressed
+    private int bodyLength;
+
+    // the decompressed body, cached after it has been decompressed once
+    @Transient
+    private byte[] inflatedBody;
+
+    /**
+     * This will be used by hibernate when creating the POJO from database entries.
+     */
+    public MessageBodyEntity() {}
+
+    /**
+     * This will be used when creating the POJO before loading it into the database.
+     *
+     * @param body        the body as received, which must not be modified afterwards
+     * @param messageHash SHA-256 hash of the body
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP2"},
+            justification = "No copy is made to avoid duplicating potentially large message bodies.")
+    public MessageBodyEntity(final byte[] body, final byte[] messageHash) {
+        this.body = body;
+        this.bodyLength = body.length;
+        this.hash = messageHash;
+    }
+
+    /**
+     * @return SHA-256 hash of the body as received, which must not be modified
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made, the hash is compared for every stored message.")
+    public byte[] getHash() {
+        return this.hash;
+    }
+
+    /**
+     * Provides the body as received, which must not be modified. A compressed body is decompressed on first access.
+     *
+     * @return the body
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made to avoid duplicating potentially large message bodies.")
+    public byte[] getBody() {
+        if (this.bodyDictionary == null) {
+            return this.body;
+        }
+        if (this.inflatedBody == null) {
+            this.inflatedBody = this.bodyDictionary.inflate(this.body, this.bodyLength);
+        }
+        return this.inflatedBody;
+    }
+
+    public int getBodyLength() {
+        return this.bodyLength;
+    }
+
+    /**
+     * Stores the body compressed, {@linkplain #getBody()} keeps providing the body as it was received.
+     *
+     * @param compressedBody the body compressed with the dictionary
+     * @param dictionary     the body has been compressed with
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP2"},
+            justification = "No copy is made to avoid duplicating potentially large message bodies.")
+    public void setCompressedBody(final byte[] compressedBody, final BodyDictionaryEntity dictionary) {
+        this.inflatedBody = getBody();
+        this.body = compressedBody;
+        this.bodyDictionary = dictionary;
+    }
+
+    /**
+     * @return the dictionary the body is stored compressed with, null if it is stored as received
+     */
+    @Nullable
+    public BodyDictionaryEntity getBodyDictionary() {
+        return this.bodyDictionary;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages.mapping;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.StaticMetamodel;
+
+/**
+ * Used for building database query criteria.
+ */
+@SuppressFBWarnings(
+        value = {"UUF_UNUSED_PUBLIC_OR_PROTECTED_FIELD", "UWF_UNWRITTEN_PUBLIC_OR_PROTECTED_FIELD"},
+        justification = "This is a commonly made design choice for persistence meta models.")
+@StaticMetamodel(MessageBodyEntity.class)
+public final class MessageBodyEntity_ {
+
+    public static volatile SingularAttribute<MessageBodyEntity, byte[]> hash;
+    public static volatile SingularAttribute<MessageBodyEntity, byte[]> body;
+    public static volatile SingularAttribute<MessageBodyEntity, BodyDictionaryEntity> bodyDictionary;
+    public static volatile SingularAttribute<MessageBodyEntity, Integer> bodyLength;
+
+    private MessageBodyEntity_() {}
+}
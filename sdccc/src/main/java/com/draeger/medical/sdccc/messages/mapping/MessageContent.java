@@ -8,6 +8,9 @@
 package com.draeger.medical.sdccc.messages.mapping;
 
 import com.draeger.medical.sdccc.messages.util.MessageUtil;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -18,15 +21,23 @@ import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.soap.CommunicationContext;
 import org.somda.sdc.dpws.soap.HttpApplicationInfo;
@@ -38,20 +49,60 @@ import org.somda.sdc.dpws.soap.HttpApplicationInfo;
 @Table(name = "message_content")
 public class MessageContent {
 
-    @Transient
-    private static final int MAXIMUM_LENGTH = 2147483647;
+    /**
+     * Table storing the actions of a message.
+     */
+    public static final String ACTIONS_TABLE = "MessageContent_actions";
+
+    /**
+     * Column of {@linkplain #ACTIONS_TABLE} storing the action.
+     */
+    public static final String ACTIONS_COLUMN = "actions";
+
+    /**
+     * Join table linking messages to the certificates they have been received with.
+     */
+    public static final String CERTS_TABLE = "message_content_certs";
+
+    /**
+     * Column of {@linkplain #CERTS_TABLE} referencing the certificate fingerprint.
+     */
+    public static final String CERTS_COLUMN = "certs_fingerprint";
+
+    /**
+     * Column of {@linkplain #ACTIONS_TABLE} and {@linkplain #CERTS_TABLE} referencing the message.
+     */
+    public static final String OWNER_COLUMN = "MessageContent_incId";
 
     @Id
-    @GenericGenerator(name = "MessageContentIDGen", strategy = "increment")
+    @GenericGenerator(
+            name = "MessageContentIDGen",
+            strategy = IdGeneration.STRATEGY,
+            parameters = {
+                @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "message_content_seq"),
+                @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = IdGeneration.INCREMENT_SIZE),
+                @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = IdGeneration.OPTIMIZER)
+            })
     @GeneratedValue(generator = "MessageContentIDGen")
     private long incId;
 
-    @Column(columnDefinition = "clob", length = MAXIMUM_LENGTH)
+    // identical bodies are stored once and shared by all messages they have been received with, the body is
+    // referenced through the messageHash column, which is written by the messageHash field
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "messageHash", insertable = false, updatable = false)
+    private MessageBodyEntity messageBody;
+
+    private String bodyCharset;
+
+    @Transient
     private String body;
 
-    @ElementCollection
-    @Column(columnDefinition = "blob", length = MAXIMUM_LENGTH)
-    private List<X509Certificate> certs;
+    @ManyToMany
+    @JoinTable(
+            name = CERTS_TABLE,
+            joinColumns = @JoinColumn(name = OWNER_COLUMN),
+            inverseJoinColumns = @JoinColumn(name = CERTS_COLUMN))
+    private List<CertificateEntity> certs;
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "messageContent", orphanRemoval = true)
     private List<HTTPHeaderEntity> headers;
@@ -60,6 +111,8 @@ public class MessageContent {
     private List<MdibVersionGroupEntity> mdibVersionGroups;
 
     @ElementCollection
+    @CollectionTable(name = ACTIONS_TABLE, joinColumns = @JoinColumn(name = OWNER_COLUMN))
+    @Column(name = ACTIONS_COLUMN)
     private Set<String> actions;
 
     private CommunicationLog.Direction direction;
@@ -71,7 +124,10 @@ public class MessageContent {
     private String requestUri;
     private long timestamp;
     private long nanoTimestamp;
-    private String messageHash;
+
+    @Column(columnDefinition = "char(" + MessageUtil.HASH_LENGTH + ") for bit data")
+    private byte[] messageHash;
+
     private String scheme;
     private String uuid;
     private boolean isSOAP;
@@ -84,10 +140,58 @@ public class MessageContent {
      */
     public MessageContent() {}
 
+    /**
+     * This will be used when creating the POJO before loading it into the database, hashing the raw body.
+     *
+     * @param rawBody              data send on top of the transport or application layer, as received
+     * @param bodyCharset          charset the raw body is encoded in
+     * @param communicationContext information about the transport and application layer
+     * @param direction            declares, if the message was outgoing or ingoing
+     * @param messageType          type of the message, i.e. request, response
+     * @param timestamp            time point of the stream creation for getting the body
+     * @param nanoTimestamp        point in time relative to current jvm start at which message arrived,
+     *                             useful for sorting
+     * @param mdibVersionGroups    MdibVersionGroup values
+     * @param actions              ws addressing actions
+     * @param uuid                 identifier for ensuring, that a message was written to the database
+     * @param isSOAP               shall be true if a SOAP envelope was found and false otherwise
+     * @param sender               the IP address of the message's sender or null if it could not be determined.
+     */
+    public MessageContent(
+            final byte[] rawBody,
+            final Charset bodyCharset,
+            final CommunicationContext communicationContext,
+            final CommunicationLog.Direction direction,
+            final CommunicationLog.MessageType messageType,
+            final long timestamp,
+            final long nanoTimestamp,
+            final List<MdibVersionGroupEntity.MdibVersionGroup> mdibVersionGroups,
+            final Set<String> actions,
+            final String uuid,
+            final boolean isSOAP,
+            @Nullable final String sender) {
+        this(
+                rawBody,
+                MessageUtil.digestMessage(rawBody),
+                bodyCharset,
+                communicationContext,
+                direction,
+                messageType,
+                timestamp,
+                nanoTimestamp,
+                mdibVersionGroups,
+                actions,
+                uuid,
+                isSOAP,
+                sender);
+    }
+
     /**
      * This will be used when creating the POJO before loading it into the database.
      *
-     * @param body                 data send on top of the transport or application layer
+     * @param rawBody              data send on top of the transport or application layer, as received
+     * @param messageHash          SHA-256 hash of the raw body, e.g. computed while the message was written
+     * @param bodyCharset          charset the raw body is encoded in
      * @param communicationContext information about the transport and application layer
      * @param direction            declares, if the message was outgoing or ingoing
      * @param messageType          type of the message, i.e. request, response
@@ -101,7 +205,9 @@ public class MessageContent {
      * @param sender               the IP address of the message's sender or null if it could not be determined.
      */
     public MessageContent(
-            final String body,
+            final byte[] rawBody,
+            final byte[] messageHash,
+            final Charset bodyCharset,
             final CommunicationContext communicationContext,
             final CommunicationLog.Direction direction,
             final CommunicationLog.MessageType messageType,
@@ -113,7 +219,8 @@ public class MessageContent {
             final boolean isSOAP,
             @Nullable final String sender) {
 
-        this.body = body;
+        this.messageBody = new MessageBodyEntity(rawBody, messageHash);
+        this.bodyCharset = bodyCharset.name();
         this.direction = direction;
         this.messageType = messageType;
         this.timestamp = timestamp;
@@ -123,10 +230,12 @@ public class MessageContent {
         this.isSOAP = isSOAP;
         this.sender = sender;
 
-        this.messageHash = MessageUtil.hashMessage(this.body);
+        this.messageHash = messageHash;
         this.scheme = communicationContext.getTransportInfo().getScheme();
 
-        this.certs = communicationContext.getTransportInfo().getX509Certificates();
+        this.certs = communicationContext.getTransportInfo().getX509Certificates().stream()
+                .map(CertificateEntity::new)
+                .toList();
 
         final List<HTTPHeaderEntity> httpHeaderEntityList;
         // handle http headers
@@ -153,10 +262,75 @@ public class MessageContent {
                 .toList();
     }
 
+    /**
+     * Decodes the body using the charset it was received in. The decoded body is cached, readers which only
+     * need to parse the body should prefer {@linkplain #getBodyStream()}.
+     *
+     * @return the decoded body
+     */
     public String getBody() {
+        if (this.body == null) {
+            this.body = new String(getRawBody(), Charset.forName(this.bodyCharset));
+        }
         return this.body;
     }
 
+    /**
+     * Provides the body for parsing it. The body is provided as it was received, unless its charset is neither
+     * UTF-8 nor declared within the body, e.g. only in the HTTP Content-Type header, in which case it is transcoded
+     * to UTF-8.
+     *
+     * @return stream over the body
+     */
+    public InputStream getBodyStream() {
+        return MessageUtil.parsableBodyStream(getRawBody(), Charset.forName(this.bodyCharset));
+    }
+
+    /**
+     * Provides the raw body, which must not be modified. A compressed body is decompressed on first access.
+     *
+     * @return the raw body
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made to avoid duplicating potentially large message bodies.")
+    public byte[] getRawBody() {
+        return this.messageBody.getBody();
+    }
+
+    public int getBodyLength() {
+        return this.messageBody.getBodyLength();
+    }
+
+    /**
+     * Stores the body compressed, the accessors keep providing the body as it was received.
+     *
+     * @param compressedBody the body compressed with the dictionary
+     * @param dictionary     the body has been compressed with
+     */
+    public void setCompressedBody(final byte[] compressedBody, final BodyDictionaryEntity dictionary) {
+        this.messageBody.setCompressedBody(compressedBody, dictionary);
+    }
+
+    /**
+     * @return the dictionary the body is stored compressed with, null if it is stored as received
+     */
+    @Nullable
+    public BodyDictionaryEntity getBodyDictionary() {
+        return this.messageBody.getBodyDictionary();
+    }
+
+    /**
+     * @return the entity storing the body, which may be shared with other messages with an identical body
+     */
+    public MessageBodyEntity getMessageBody() {
+        return this.messageBody;
+    }
+
+    public Charset getBodyCharset() {
+        return Charset.forName(this.bodyCharset);
+    }
+
     public String getScheme() {
         return this.scheme;
     }
@@ -173,7 +347,20 @@ public class MessageContent {
         return this.isSOAP;
     }
 
+    /**
+     * @return hex representation of the SHA-256 hash of the raw body
+     */
     public String getMessageHash() {
+        return MessageUtil.toHex(this.messageHash);
+    }
+
+    /**
+     * @return SHA-256 hash of the raw body, which must not be modified
+     */
+    @SuppressFBWarnings(
+            value = {"EI_EXPOSE_REP"},
+            justification = "No copy is made, the hash is compared for every stored message.")
+    public byte[] getRawMessageHash() {
         return this.messageHash;
     }
 
@@ -186,6 +373,13 @@ public class MessageContent {
     }
 
     public List<X509Certificate> getCerts() {
+        return this.certs.stream().map(CertificateEntity::getCertificate).toList();
+    }
+
+    /**
+     * @return the entities storing the certificates of the message, which may be shared with other messages
+     */
+    public List<CertificateEntity> getCertificateEntities() {
         return this.certs;
     }
 
@@ -202,6 +396,13 @@ public class MessageContent {
         return headersMap;
     }
 
+    /**
+     * @return the entities storing the http headers of the message, one per header value
+     */
+    public List<HTTPHeaderEntity> getHeaderEntities() {
+        return this.headers;
+    }
+
     public CommunicationLog.Direction getDirection() {
         return this.direction;
     }
@@ -8,7 +8,6 @@
 package com.draeger.medical.sdccc.messages.mapping;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.security.cert.X509Certificate;
 import javax.persistence.metamodel.ListAttribute;
 import javax.persistence.metamodel.SetAttribute;
 import javax.persistence.metamodel.SingularAttribute;
@@ -25,8 +24,9 @@ import org.somda.sdc.dpws.CommunicationLog;
 public final class MessageContent_ {
 
     public static volatile SingularAttribute<MessageContent, Long> incId;
-    public static volatile SingularAttribute<MessageContent, String> body;
-    public static volatile ListAttribute<MessageContent, X509Certificate> certs;
+    public static volatile SingularAttribute<MessageContent, MessageBodyEntity> messageBody;
+    public static volatile SingularAttribute<MessageContent, String> bodyCharset;
+    public static volatile ListAttribute<MessageContent, CertificateEntity> certs;
     public static volatile ListAttribute<MessageContent, HTTPHeaderEntity> headers;
     public static volatile SingularAttribute<MessageContent, CommunicationLog.Direction> direction;
     public static volatile SingularAttribute<MessageContent, CommunicationLog.MessageType> messageType;
@@ -34,7 +34,7 @@ public final class MessageContent_ {
     public static volatile SingularAttribute<MessageContent, String> requestUri;
     public static volatile SingularAttribute<MessageContent, Long> timestamp;
     public static volatile SingularAttribute<MessageContent, Long> nanoTimestamp;
-    public static volatile SingularAttribute<MessageContent, String> messageHash;
+    public static volatile SingularAttribute<MessageContent, byte[]> messageHash;
     public static volatile ListAttribute<MessageContent, MdibVersionGroupEntity> mdibVersionGroups;
     public static volatile SetAttribute<MessageContent, String> actions;
     public static volatile SingularAttribute<MessageContent, String> scheme;
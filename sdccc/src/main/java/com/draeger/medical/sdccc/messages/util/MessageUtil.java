@@ -7,9 +7,15 @@
 
 package com.draeger.medical.sdccc.messages.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -19,7 +25,24 @@ import org.apache.logging.log4j.Logger;
 public final class MessageUtil {
     private static final Logger LOG = LogManager.getLogger(MessageUtil.class);
 
-    private static final int BYTE_SIZE = 0xff;
+    /**
+     * Length of a message hash in bytes.
+     */
+    public static final int HASH_LENGTH = 32;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int NIBBLE_BITS = 4;
+    private static final int NIBBLE_MASK = 0x0f;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final MessageDigest DIGEST_PROTOTYPE = createDigest();
+    // digests are reset after every hash, hence a digest per thread can be reused for any number of messages
+    private static final ThreadLocal<MessageDigest> THREAD_DIGEST = ThreadLocal.withInitial(MessageUtil::newDigest);
+
+    // long enough to contain the byte order mark and the xml declaration up to its encoding attribute
+    private static final int XML_DECLARATION_MAX_LENGTH = 256;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final Pattern XML_DECLARATION_ENCODING =
+            Pattern.compile("^<\\?xml\\s[^>]*?encoding\\s*=\\s*[\"']([A-Za-z][A-Za-z0-9._-]*)[\"']");
 
     private MessageUtil() {}
 
@@ -30,25 +53,108 @@ public final class MessageUtil {
      * @return hex representation of the SHA-256 hash
      */
     public static String hashMessage(final String data) {
+        return hashMessage(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hashes raw message bytes using the SHA-256 algorithm.
+     *
+     * @param data bytes to hash
+     * @return hex representation of the SHA-256 hash
+     */
+    public static String hashMessage(final byte[] data) {
+        return toHex(digestMessage(data));
+    }
+
+    /**
+     * Hashes raw message bytes using the SHA-256 algorithm, reusing a digest of the calling thread.
+     *
+     * @param data bytes to hash
+     * @return the SHA-256 hash
+     */
+    public static byte[] digestMessage(final byte[] data) {
+        return THREAD_DIGEST.get().digest(data);
+    }
+
+    /**
+     * Creates a SHA-256 digest for hashing a message incrementally while it is being written.
+     *
+     * @return a new digest
+     */
+    public static MessageDigest newDigest() {
         try {
-            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            final byte[] encodedHash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(encodedHash);
-        } catch (final NoSuchAlgorithmException e) {
-            LOG.error("Error while initializing message digest", e);
-            throw new RuntimeException(e);
+            return (MessageDigest) DIGEST_PROTOTYPE.clone();
+        } catch (final CloneNotSupportedException e) {
+            return createDigest();
+        }
+    }
+
+    /**
+     * Formats bytes, e.g. a hash, as lower case hex string.
+     *
+     * @param bytes to format
+     * @return hex representation of the bytes
+     */
+    public static String toHex(final byte[] bytes) {
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> NIBBLE_BITS) & NIBBLE_MASK];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & NIBBLE_MASK];
         }
+        return new String(hex);
     }
 
-    private static String bytesToHex(final byte[] hash) {
-        final StringBuilder hexString = new StringBuilder();
-        for (final byte b : hash) {
-            final String hex = Integer.toHexString(BYTE_SIZE & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
+    /**
+     * Provides a raw message body to an XML parser which only receives bytes.
+     *
+     * <p>
+     * Without a byte order mark or an encoding in the XML declaration, a parser reads the bytes as UTF-8. A body in
+     * any other charset, which is e.g. only declared in the HTTP Content-Type header, is therefore transcoded to
+     * UTF-8, all other bodies are provided as received.
+     *
+     * @param rawBody body as received
+     * @param charset the body has been received in
+     * @return stream over the body, which an XML parser decodes correctly
+     */
+    public static InputStream parsableBodyStream(final byte[] rawBody, final Charset charset) {
+        if (isCharsetDeclaredInBody(rawBody, charset)) {
+            return new ByteArrayInputStream(rawBody);
+        }
+        return new ByteArrayInputStream(new String(rawBody, charset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Determines whether an XML parser detects the charset of a body from the body alone.
+     *
+     * @param rawBody body as received
+     * @param charset the body has been received in
+     * @return true if the charset is UTF-8, or is declared by a byte order mark or the XML declaration of the body
+     */
+    static boolean isCharsetDeclaredInBody(final byte[] rawBody, final Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return true;
+        }
+        final String prefix = new String(rawBody, 0, Math.min(rawBody.length, XML_DECLARATION_MAX_LENGTH), charset);
+        if (!prefix.isEmpty() && prefix.charAt(0) == BYTE_ORDER_MARK) {
+            return true;
+        }
+        final var matcher = XML_DECLARATION_ENCODING.matcher(prefix);
+        if (!matcher.find()) {
+            return false;
+        }
+        try {
+            return charset.equals(Charset.forName(matcher.group(1)));
+        } catch (final IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            LOG.error("Error while initializing message digest", e);
+            throw new RuntimeException(e);
         }
-        return hexString.toString();
     }
 }
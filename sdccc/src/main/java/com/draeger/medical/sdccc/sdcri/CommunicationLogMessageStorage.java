@@ -7,7 +7,7 @@
 
 package com.draeger.medical.sdccc.sdcri;
 
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -16,24 +16,24 @@ import org.somda.sdc.dpws.CommunicationLogSink;
 import org.somda.sdc.dpws.soap.CommunicationContext;
 
 /**
- * Connector between the SDCri {@linkplain CommunicationLog} and SDCcc's {@linkplain MessageStorage}.
+ * Connector between the SDCri {@linkplain CommunicationLog} and SDCcc's {@linkplain MessageStore}.
  */
 public class CommunicationLogMessageStorage implements CommunicationLogSink {
 
-    private final MessageStorage messageStorage;
+    private final MessageStore messageStorage;
 
     /**
-     * Creates a {@linkplain CommunicationLogSink} connected to a {@linkplain MessageStorage}.
+     * Creates a {@linkplain CommunicationLogSink} connected to a {@linkplain MessageStore}.
      *
      * @param messageStorage to write incoming messages to
      */
     @Inject
-    CommunicationLogMessageStorage(final MessageStorage messageStorage) {
+    CommunicationLogMessageStorage(final MessageStore messageStorage) {
         this.messageStorage = messageStorage;
     }
 
     /**
-     * Creates an output stream which is stored in the {@linkplain MessageStorage}.
+     * Creates an output stream which is stored in the {@linkplain MessageStore}.
      *
      * @param path                 transport type, i.e. UDP or TCP
      * @param direction            message direction, i.e. inbound or outbound
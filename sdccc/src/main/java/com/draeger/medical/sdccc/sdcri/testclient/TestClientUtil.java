@@ -8,7 +8,7 @@
 package com.draeger.medical.sdccc.sdcri.testclient;
 
 import com.draeger.medical.sdccc.configuration.TestSuiteConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.CommunicationLogMessageStorage;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
@@ -94,7 +94,7 @@ public class TestClientUtil {
      * Creates a utility instance which prepares the injector for the client.
      *
      * @param cryptoSettings                 crypto setting
-     * @param communicationLogMessageStorage connector to the {@linkplain MessageStorage} to write to
+     * @param communicationLogMessageStorage connector to the {@linkplain MessageStore} to write to
      * @param testRunObserver                observer for invalidating test runs on unexpected errors
      * @param localAddressResolver           resolver for getting the local address to use
      * @param multicastTTL                   TTL for multicast packets used in Discovery.
@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the method of a test class creating the Mdib replay check of the test case with the given identifier.
+ *
+ * <p>
+ * The checks of all enabled test cases are created before the invariant tests are run, so that the episodic report
+ * based histories are replayed once for all of them.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MdibReplayCheckFor {
+    /**
+     * @return test identifier of the test case the check belongs to
+     */
+    String value();
+}
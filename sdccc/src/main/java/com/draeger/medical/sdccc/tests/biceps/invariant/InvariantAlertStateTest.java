@@ -12,15 +12,19 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import java.io.IOException;
@@ -50,14 +54,16 @@ public class InvariantAlertStateTest extends InjectorTestBase {
     public static final String NO_ACCEPTABLE_SEQUENCE_SEEN = "Not enough AlertSystemStates or children seen with the"
             + " AlertSystemState set to PSD or OFF during test run, test failed.";
 
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -72,11 +78,14 @@ public class InvariantAlertStateTest extends InjectorTestBase {
     @RequirePrecondition(
             manipulationPreconditions = {ManipulationPreconditions.AlertConditionPresenceManipulation.class})
     void testRequirementR00290() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0029_0, this::checkRequirementR00290);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0029_0)
+    MdibReplayCheck checkRequirementR00290() {
         final var presenceOnSeen = new AtomicInteger(0);
-        mdibHistorian.processAllRemoteMdibAccess(mdibAccess -> {
+
+        final var visitor = MdibReplayVisitor.ofRevisions(mdibAccess -> {
             final var alertConditionStates = mdibAccess.getStatesByType(AlertConditionState.class);
             for (var alertConditionState : alertConditionStates) {
                 final var isPresence = ImpliedValueUtil.isPresence(alertConditionState);
@@ -115,7 +124,9 @@ public class InvariantAlertStateTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(presenceOnSeen.get(), NO_PRESENCE_TRUE);
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(presenceOnSeen.get(), NO_PRESENCE_TRUE);
+        });
     }
 
     @Test
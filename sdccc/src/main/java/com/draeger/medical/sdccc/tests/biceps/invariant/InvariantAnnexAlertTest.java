@@ -12,16 +12,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumMap;
@@ -45,15 +45,11 @@ import org.somda.sdc.biceps.model.participant.SystemSignalActivation;
  * BICEPS Annex B alert tests (B.88 - B.128).
  */
 public class InvariantAnnexAlertTest extends InjectorTestBase {
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setUp() {
-        final var injector = getInjector();
-        this.messageStorage = injector.getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -66,12 +62,14 @@ public class InvariantAnnexAlertTest extends InjectorTestBase {
     @RequirePrecondition(
             manipulationPreconditions = {ManipulationPreconditions.SystemSignalActivationManipulation.class})
     void testRequirementB128() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_B_128, this::checkRequirementB128);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_B_128)
+    MdibReplayCheck checkRequirementB128() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var alertSystemStates = first.getStatesByType(AlertSystemState.class);
 
             for (var alertSystemState : alertSystemStates) {
@@ -115,7 +113,9 @@ public class InvariantAnnexAlertTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No acceptable sequence seen, test failed");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No acceptable sequence seen, test failed");
+        });
     }
 
     private Map<AlertSignalManifestation, List<AlertActivation>> createSystemSignalActivationMap(
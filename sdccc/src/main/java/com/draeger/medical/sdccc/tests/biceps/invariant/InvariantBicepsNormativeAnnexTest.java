@@ -12,8 +12,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.messages.MessageView;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
@@ -34,12 +34,12 @@ public class InvariantBicepsNormativeAnnexTest extends InjectorTestBase {
     private static final Logger LOG = LogManager.getLogger(InvariantBicepsNormativeAnnexTest.class);
 
     private Injector injector;
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
 
     @BeforeEach
     void setUp() {
         this.injector = getInjector();
-        this.messageStorage = injector.getInstance(MessageStorage.class);
+        this.messageStorage = injector.getInstance(MessageStore.class);
     }
 
     // NOTE: The way that a Device uses LocalizedTexts is usually static. It does hence not make sense to implement
@@ -53,8 +53,8 @@ public class InvariantBicepsNormativeAnnexTest extends InjectorTestBase {
 
         final var refExtractor = new XPathExtractor(REF_ELEMENT_QUERY);
 
-        try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
-                messageStorage.getInboundSoapMessages()) {
+        try (final MessageStore.GetterResult<MessageView> inboundMessages =
+                messageStorage.getInboundSoapMessageViews()) {
 
             assertTestData(inboundMessages.areObjectsPresent(), "No inbound messages to perform test on.");
 
@@ -11,16 +11,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,14 +47,11 @@ import org.somda.sdc.biceps.model.participant.OperatingMode;
  * BICEPS tests for chapter 5.4.6 .
  */
 public class InvariantDeviceComponentStateTest extends InjectorTestBase {
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -71,12 +68,14 @@ public class InvariantDeviceComponentStateTest extends InjectorTestBase {
     @RequirePrecondition(
             manipulationPreconditions = {ManipulationPreconditions.AbstractDeviceComponentStateOFFManipulation.class})
     void testRequirementR00250() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0025_0, this::checkRequirementR00250);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0025_0)
+    MdibReplayCheck checkRequirementR00250() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(AbstractDeviceComponentDescriptor.class);
 
             for (var entity : entities) {
@@ -147,8 +146,10 @@ public class InvariantDeviceComponentStateTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(
-                acceptableSequenceSeen.get(), "No pm:AbstractDeviceComponentState/@ActivationState had the value OFF.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(
+                    acceptableSequenceSeen.get(), "No pm:AbstractDeviceComponentState/@ActivationState had the value OFF.");
+        });
     }
 
     private List<MdibEntity> getDescendantsByType(
@@ -16,8 +16,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.messages.MessageView;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
@@ -30,9 +30,7 @@ import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -81,12 +79,12 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     private static final String STATE_UNCHANGED = "The state with the handle %s from the report has not changed";
     private MarshallingService marshalling;
     private SoapUtil soapUtil;
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
         this.marshalling = riInjector.getInstance(MarshallingService.class);
@@ -108,12 +106,11 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
 
         // get DescriptionModification reports
         try (final var reports =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
-            for (final Iterator<MessageContent> iterator = reports.getStream().iterator(); iterator.hasNext(); ) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+            for (final Iterator<MessageView> iterator = reports.getStream().iterator(); iterator.hasNext(); ) {
 
-                final MessageContent messageContent = iterator.next();
-                final SoapMessage soapMessage = marshalling.unmarshal(
-                        new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                final MessageView messageContent = iterator.next();
+                final SoapMessage soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                 final Optional<DescriptionModificationReport> reportOpt =
                         soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                 final DescriptionModificationReport descriptionModificationReport = reportOpt.orElseThrow();
@@ -240,12 +237,11 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     void testRequirementC7() throws NoTestData, IOException, MarshallingException {
         final var acceptableReportsSeen = new AtomicInteger(0);
 
-        try (final MessageStorage.GetterResult<MessageContent> descriptionModificationReports =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
-            for (MessageContent messageContent :
+        try (final MessageStore.GetterResult<MessageView> descriptionModificationReports =
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+            for (MessageView messageContent :
                     descriptionModificationReports.getStream().toList()) {
-                final SoapMessage soapMessage = marshalling.unmarshal(
-                        new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                final SoapMessage soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                 final DescriptionModificationReport descriptionModificationReport = soapUtil.getBody(
                                 soapMessage, DescriptionModificationReport.class)
                         .orElseThrow();
@@ -279,13 +275,12 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
             simplePreconditions = {ConditionalPreconditions.TriggerDescriptionModificationReportPrecondition.class})
     void testRequirementR5024() throws NoTestData, IOException {
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var descriptorsSeen = new AtomicInteger(0);
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                     if (reportOpt.isPresent()) {
                         for (var part : reportOpt.orElseThrow().getReportPart()) {
@@ -319,13 +314,12 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
                     ManipulationPreconditions.DescriptionModificationAllWithParentChildRelationshipPrecondition.class)
     void testRequirementR5025() throws NoTestData, IOException {
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var descriptorsSeen = new AtomicInteger(0);
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                     reportOpt.ifPresent(descriptionModificationReport ->
                             checkOrderOfReportParts(descriptionModificationReport, descriptorsSeen));
@@ -495,14 +489,13 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationCrtPrecondition.class})
     void testRequirementR5051() throws NoTestData, IOException {
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
 
             final var acceptableSequenceSeen = new AtomicInteger(0);
             final var impliedValueMap = new HashMap<String, InitialImpliedValue>();
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                     final var crtReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
@@ -559,14 +552,13 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationUptPrecondition.class})
     void testRequirementR5052() throws NoTestData, IOException {
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var acceptableSequenceSeen = new AtomicInteger(0);
 
             final var impliedValueMap = new HashMap<Object, InitialImpliedValue>();
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                     final var uptReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
@@ -625,13 +617,12 @@ public class InvariantMessageModelAnnexTest extends InjectorTestBase {
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.DescriptionModificationDelPrecondition.class})
     void testRequirementR5053() throws NoTestData, IOException {
         try (final var messages =
-                messageStorage.getInboundMessagesByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
+                messageStorage.getInboundMessageViewsByBodyType(Constants.MSG_DESCRIPTION_MODIFICATION_REPORT)) {
             final var delReportsSeen = new AtomicInteger(0);
 
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, DescriptionModificationReport.class);
                     final var delReportParts = reportOpt.orElseThrow().getReportPart().stream()
                             .filter(part ->
@@ -12,16 +12,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.util.Collection;
@@ -31,7 +31,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.common.MdibEntity;
@@ -61,15 +60,11 @@ public class InvariantMultiStateTest extends InjectorTestBase {
             OperatorContextDescriptor.class,
             WorkflowContextDescriptor.class);
 
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setUp() {
-        final var injector = getInjector();
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.messageStorage = injector.getInstance(MessageStorage.class);
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -80,35 +75,45 @@ public class InvariantMultiStateTest extends InjectorTestBase {
     @RequirePrecondition(
             simplePreconditions = {ConditionalPreconditions.AllKindsOfContextStatesAssociatedPrecondition.class})
     void testRequirement0097() throws NoTestData, IOException {
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0097, this::checkRequirement0097);
+    }
 
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0097)
+    MdibReplayCheck checkRequirement0097() {
         final var seenAcceptableSequence = new AtomicBoolean(false);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var descriptorHandles = new HashSet<String>();
-                final var multiStateHandles = new HashSet<String>();
-                final var seenMultiStatesMap = new HashMap<String, Set<String>>();
-                final var firstAccess = new AtomicBoolean(true);
-
-                mdibHistorian.processRemoteMdibAccessForSequence(
-                        mdibAccess -> {
-                            if (firstAccess.getAndSet(false)) {
-                                seenMultiStatesMap.putAll(initMultiStateMap(mdibAccess, CONTEXT_DESCRIPTOR_CLASSES));
-                            }
-                            final var entities = mdibAccess.findEntitiesByType(AbstractDescriptor.class);
-                            final var states = mdibAccess.findContextStatesByType(AbstractContextState.class);
-                            addAllDescriptorHandles(entities, descriptorHandles);
-                            if (!states.isEmpty()) {
-                                addAllMultiStateHandles(states, multiStateHandles, seenMultiStatesMap);
-                                areMultiStatesHandlesUnique(states);
-                                areHandlesDisjunctive(
-                                        descriptorHandles, multiStateHandles, mdibAccess.getMdibVersion());
-                            }
-                        },
-                        sequenceId);
+        final var visitor = new MdibReplayVisitor() {
+            private final HashSet<String> descriptorHandles = new HashSet<>();
+            private final HashSet<String> multiStateHandles = new HashSet<>();
+            private final HashMap<String, Set<String>> seenMultiStatesMap = new HashMap<>();
+            private boolean firstAccess;
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                descriptorHandles.clear();
+                multiStateHandles.clear();
+                seenMultiStatesMap.clear();
+                firstAccess = true;
+            }
+
+            @Override
+            public void visitRevision(final RemoteMdibAccess mdibAccess, final String sequenceId) {
+                if (firstAccess) {
+                    firstAccess = false;
+                    seenMultiStatesMap.putAll(initMultiStateMap(mdibAccess, CONTEXT_DESCRIPTOR_CLASSES));
+                }
+                final var entities = mdibAccess.findEntitiesByType(AbstractDescriptor.class);
+                final var states = mdibAccess.findContextStatesByType(AbstractContextState.class);
+                addAllDescriptorHandles(entities, descriptorHandles);
+                if (!states.isEmpty()) {
+                    addAllMultiStateHandles(states, multiStateHandles, seenMultiStatesMap);
+                    areMultiStatesHandlesUnique(states);
+                    areHandlesDisjunctive(descriptorHandles, multiStateHandles, mdibAccess.getMdibVersion());
+                }
+            }
 
+            @Override
+            public void endSequence(final String sequenceId) {
                 var acceptableSequence = true;
                 for (var value : seenMultiStatesMap.values()) {
                     acceptableSequence &= value.size() > 1;
@@ -117,11 +122,14 @@ public class InvariantMultiStateTest extends InjectorTestBase {
                 if (acceptableSequence) {
                     seenAcceptableSequence.set(true);
                 }
-            });
-        }
-        assertTestData(
-                seenAcceptableSequence.get(),
-                "No Sequence with two different context states for each" + " context descriptor associated seen.");
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(
+                    seenAcceptableSequence.get(),
+                    "No Sequence with two different context states for each" + " context descriptor associated seen.");
+        });
     }
 
     private HashMap<String, Set<String>> initMultiStateMap(
@@ -12,14 +12,18 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import java.io.IOException;
@@ -47,14 +51,16 @@ import org.somda.sdc.glue.consumer.report.ReportProcessingException;
  */
 public class InvariantParticipantModelAnnexTest extends InjectorTestBase {
 
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -180,12 +186,14 @@ public class InvariantParticipantModelAnnexTest extends InjectorTestBase {
             + " no OperatingJurisdiction is set for an VmdState at any time if the corresponding VmdDescriptor does not"
             + " maintain an ApprovedJurisdiction list.")
     void testRequirementB402() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_B_402_0, this::checkRequirementB402);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_B_402_0)
+    MdibReplayCheck checkRequirementB402() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var vmdEntities = first.findEntitiesByType(VmdDescriptor.class);
             for (var vmd : vmdEntities) {
                 final var descriptor = vmd.getDescriptor(VmdDescriptor.class);
@@ -203,9 +211,11 @@ public class InvariantParticipantModelAnnexTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(
-                acceptableSequenceSeen.get(),
-                "No vmd descriptor without approved jurisdiction seen," + " during test run, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(
+                    acceptableSequenceSeen.get(),
+                    "No vmd descriptor without approved jurisdiction seen," + " during test run, test failed.");
+        });
     }
 
     private Set<String> getAllChildrenHandles(
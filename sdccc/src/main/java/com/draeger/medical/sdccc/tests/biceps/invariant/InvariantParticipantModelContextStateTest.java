@@ -11,26 +11,26 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.google.common.collect.HashMultimap;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.common.MdibEntity;
+import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.participant.AbstractMultiState;
 import org.somda.sdc.biceps.model.participant.ContextAssociation;
 import org.somda.sdc.biceps.model.participant.LocationContextDescriptor;
@@ -45,14 +45,11 @@ public class InvariantParticipantModelContextStateTest extends InjectorTestBase
 
     private static final Logger LOG = LogManager.getLogger();
 
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setUp() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -62,55 +59,60 @@ public class InvariantParticipantModelContextStateTest extends InjectorTestBase
             + " during every sequence there were at least two different associated patient context states.")
     @RequirePrecondition(manipulationPreconditions = {ManipulationPreconditions.AssociatePatientsManipulation.class})
     void testRequirementR0124() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0124, this::checkRequirementR0124);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0124)
+    MdibReplayCheck checkRequirementR0124() {
         final var acceptableSequenceIdsSeen = new AtomicBoolean(false);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var associationCounterMap = HashMultimap.<String, String>create();
-                mdibHistorian.processRemoteMdibAccessForSequence(
-                        mdibAccess -> {
-                            final var patientContextEntities =
-                                    mdibAccess.findEntitiesByType(PatientContextDescriptor.class);
-
-                            for (MdibEntity patientContextEntity : patientContextEntities) {
-
-                                final var associatedPatients =
-                                        patientContextEntity.getStates(PatientContextState.class).stream()
-                                                .filter(state -> ContextAssociation.ASSOC.equals(
-                                                        ImpliedValueUtil.getContextAssociation(state)))
-                                                .toList();
-
-                                if (!associatedPatients.isEmpty()) {
-                                    final var associatedStateHandles = associatedPatients.stream()
-                                            .map(AbstractMultiState::getHandle)
-                                            .collect(Collectors.toList());
-
-                                    assertEquals(
-                                            1,
-                                            associatedPatients.size(),
-                                            String.format(
-                                                    "More than one PatientContextState was associated for the"
-                                                            + " handle %s, associated state handles were %s, mdib version %s",
-                                                    patientContextEntity.getHandle(),
-                                                    String.join(", ", associatedStateHandles),
-                                                    mdibAccess.getMdibVersion()));
-
-                                    // only add handles if the check above passed
-                                    LOG.debug(
-                                            "Adding desc {} state {}",
-                                            patientContextEntity.getHandle(),
-                                            associatedPatients.get(0).getHandle());
-                                    associationCounterMap.put(
-                                            patientContextEntity.getHandle(),
-                                            associatedPatients.get(0).getHandle());
-                                }
-                            }
-                        },
-                        sequenceId);
+        final var visitor = new MdibReplayVisitor() {
+            private final HashMultimap<String, String> associationCounterMap = HashMultimap.create();
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                associationCounterMap.clear();
+            }
+
+            @Override
+            public void visitRevision(final RemoteMdibAccess mdibAccess, final String sequenceId) {
+                final var patientContextEntities = mdibAccess.findEntitiesByType(PatientContextDescriptor.class);
+
+                for (MdibEntity patientContextEntity : patientContextEntities) {
+
+                    final var associatedPatients = patientContextEntity.getStates(PatientContextState.class).stream()
+                            .filter(state ->
+                                    ContextAssociation.ASSOC.equals(ImpliedValueUtil.getContextAssociation(state)))
+                            .toList();
+
+                    if (!associatedPatients.isEmpty()) {
+                        final var associatedStateHandles = associatedPatients.stream()
+                                .map(AbstractMultiState::getHandle)
+                                .collect(Collectors.toList());
+
+                        assertEquals(
+                                1,
+                                associatedPatients.size(),
+                                String.format(
+                                        "More than one PatientContextState was associated for the"
+                                                + " handle %s, associated state handles were %s, mdib version %s",
+                                        patientContextEntity.getHandle(),
+                                        String.join(", ", associatedStateHandles),
+                                        mdibAccess.getMdibVersion()));
+
+                        // only add handles if the check above passed
+                        LOG.debug(
+                                "Adding desc {} state {}",
+                                patientContextEntity.getHandle(),
+                                associatedPatients.get(0).getHandle());
+                        associationCounterMap.put(
+                                patientContextEntity.getHandle(), associatedPatients.get(0).getHandle());
+                    }
+                }
+            }
 
+            @Override
+            public void endSequence(final String sequenceId) {
                 // determine if any context descriptor had 2+ associated states
                 final var hadSufficientContexts =
                         associationCounterMap.asMap().values().stream().anyMatch(values -> values.size() >= 2);
@@ -125,13 +127,16 @@ public class InvariantParticipantModelContextStateTest extends InjectorTestBase
                                     + " context descriptor.",
                             sequenceId);
                 }
-            });
-        }
-        assertTestData(
-                acceptableSequenceIdsSeen.get(),
-                "No or not enough patients were associated during the test run."
-                        + " At least two different associated patient context states are required for a single patient"
-                        + " context descriptor in a single sequence.");
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(
+                    acceptableSequenceIdsSeen.get(),
+                    "No or not enough patients were associated during the test run."
+                            + " At least two different associated patient context states are required for a single patient"
+                            + " context descriptor in a single sequence.");
+        });
     }
 
     @Test
@@ -141,54 +146,60 @@ public class InvariantParticipantModelContextStateTest extends InjectorTestBase
             + " there were at least two different associated location context states during at least one sequence.")
     @RequirePrecondition(manipulationPreconditions = {ManipulationPreconditions.AssociateLocationsManipulation.class})
     void testRequirementR0133() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0133, this::checkRequirementR0133);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0133)
+    MdibReplayCheck checkRequirementR0133() {
         final var acceptableSequenceIdsSeen = new AtomicBoolean(false);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var associationCounterMap = HashMultimap.<String, String>create();
-                mdibHistorian.processRemoteMdibAccessForSequence(
-                        mdibAccess -> {
-                            final var locationContextEntities =
-                                    mdibAccess.findEntitiesByType(LocationContextDescriptor.class);
-
-                            for (MdibEntity locationContextEntity : locationContextEntities) {
-
-                                final var associatedLocations =
-                                        locationContextEntity.getStates(LocationContextState.class).stream()
-                                                .filter(state -> ContextAssociation.ASSOC.equals(
-                                                        ImpliedValueUtil.getContextAssociation(state)))
-                                                .toList();
-
-                                if (!associatedLocations.isEmpty()) {
-                                    final var associatedStateHandles = associatedLocations.stream()
-                                            .map(AbstractMultiState::getHandle)
-                                            .collect(Collectors.toList());
-
-                                    assertEquals(
-                                            1,
-                                            associatedLocations.size(),
-                                            String.format(
-                                                    "More than one LocationContextState was associated for the"
-                                                            + " handle %s, associated state handles were %s, mdib version %s",
-                                                    locationContextEntity.getHandle(),
-                                                    String.join(", ", associatedStateHandles),
-                                                    mdibAccess.getMdibVersion()));
-
-                                    // only add handles if the check above passed
-                                    LOG.debug(
-                                            "Adding desc {} state {}",
-                                            locationContextEntity.getHandle(),
-                                            associatedLocations.get(0).getHandle());
-                                    associationCounterMap.put(
-                                            locationContextEntity.getHandle(),
-                                            associatedLocations.get(0).getHandle());
-                                }
-                            }
-                        },
-                        sequenceId);
+        final var visitor = new MdibReplayVisitor() {
+            private final HashMultimap<String, String> associationCounterMap = HashMultimap.create();
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                associationCounterMap.clear();
+            }
+
+            @Override
+            public void visitRevision(final RemoteMdibAccess mdibAccess, final String sequenceId) {
+                final var locationContextEntities = mdibAccess.findEntitiesByType(LocationContextDescriptor.class);
+
+                for (MdibEntity locationContextEntity : locationContextEntities) {
+
+                    final var associatedLocations = locationContextEntity.getStates(LocationContextState.class).stream()
+                            .filter(state ->
+                                    ContextAssociation.ASSOC.equals(ImpliedValueUtil.getContextAssociation(state)))
+                            .toList();
+
+                    if (!associatedLocations.isEmpty()) {
+                        final var associatedStateHandles = associatedLocations.stream()
+                                .map(AbstractMultiState::getHandle)
+                                .collect(Collectors.toList());
+
+                        assertEquals(
+                                1,
+                                associatedLocations.size(),
+                                String.format(
+                                        "More than one LocationContextState was associated for the"
+                                                + " handle %s, associated state handles were %s, mdib version %s",
+                                        locationContextEntity.getHandle(),
+                                        String.join(", ", associatedStateHandles),
+                                        mdibAccess.getMdibVersion()));
+
+                        // only add handles if the check above passed
+                        LOG.debug(
+                                "Adding desc {} state {}",
+                                locationContextEntity.getHandle(),
+                                associatedLocations.get(0).getHandle());
+                        associationCounterMap.put(
+                                locationContextEntity.getHandle(), associatedLocations.get(0).getHandle());
+                    }
+                }
+            }
+
+            @Override
+            public void endSequence(final String sequenceId) {
                 // determine if any context descriptor had 2+ associated states
                 final var hadSufficientContexts = !associationCounterMap.isEmpty()
                         && associationCounterMap.asMap().values().stream().allMatch(values -> values.size() >= 2);
@@ -203,12 +214,15 @@ public class InvariantParticipantModelContextStateTest extends InjectorTestBase
                                     + " location context descriptor.",
                             sequenceId);
                 }
-            });
-        }
-        assertTestData(
-                acceptableSequenceIdsSeen.get(),
-                "No or not enough locations were associated during the test run."
-                        + " At least two different associated location context states are required for a single location"
-                        + " context descriptor in a single sequence.");
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(
+                    acceptableSequenceIdsSeen.get(),
+                    "No or not enough locations were associated during the test run."
+                            + " At least two different associated location context states are required for a single location"
+                            + " context descriptor in a single sequence.");
+        });
     }
 }
@@ -14,21 +14,21 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.draeger.medical.sdccc.util.Constants;
-import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -58,17 +58,17 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
 
     private static final Pair<Integer, Integer> VALID_ASCII_RANGE = new ImmutablePair<>(0x21, 0x7E);
 
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private MessageStore messageStorage;
+    private SharedMdibReplay sharedMdibReplay;
     private MarshallingService marshalling;
     private SoapUtil soapUtil;
 
     @BeforeEach
     void setUp() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
 
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
         this.marshalling = riInjector.getInstance(MarshallingService.class);
         this.soapUtil = riInjector.getInstance(SoapUtil.class);
     }
@@ -79,16 +79,18 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
     @TestDescription("Starting from the initially retrieved mdib, ensures that for each mdib version, "
             + " all contained handles are unique.")
     void testRequirementR0007() throws NoTestData, IOException {
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0007_0, this::checkRequirementR0007);
+    }
+
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0007_0)
+    MdibReplayCheck checkRequirementR0007() {
         // NOTE: MdibHistorian checks the uniqueness of Handles in all MdibVersions.
         //       However, its checks are missing duplicate handles introduced by ContextReports.
         //       Hence, we cannot fully rely on the MdibHistorian and have to check handle
         //       uniqueness ourselves.
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
-
         final AtomicInteger handlesSeen = new AtomicInteger();
 
-        mdibHistorian.processAllRemoteMdibAccess(current -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(current -> {
             final var allEntities = current.findEntitiesByType(AbstractDescriptor.class);
 
             final List<String> entityHandles =
@@ -115,7 +117,9 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
             handlesSeen.addAndGet(allHandles.size());
         });
 
-        assertTestData(handlesSeen.get(), "No Data to perform test on");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(handlesSeen.get(), "No Data to perform test on");
+        });
     }
 
     @Test
@@ -126,12 +130,14 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
             + " verifies that every descriptor and state handle present only contains valid ASCII characters within the"
             + " permitted range.")
     void testRequirementR0105() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0105_0, this::checkRequirementR0105);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0105_0)
+    MdibReplayCheck checkRequirementR0105() {
         final var handlesSeen = new HashSet<String>();
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var mdibVersion = first.getMdibVersion();
             final var allEntities = first.findEntitiesByType(AbstractDescriptor.class);
             for (MdibEntity entity : allEntities) {
@@ -155,7 +161,9 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(handlesSeen, "No Data to perform test on");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(handlesSeen, "No Data to perform test on");
+        });
     }
 
     @Test
@@ -212,11 +220,9 @@ public class InvariantParticipantModelHandleTest extends InjectorTestBase {
 
     private Optional<DescriptionModificationReport> getDescriptionModificationReportFromMessageContent(
             final MessageContent content) {
-        final var body = content.getBody();
-
         final SoapMessage message;
         try {
-            message = marshalling.unmarshal(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            message = marshalling.unmarshal(content.getBodyStream());
         } catch (MarshallingException e) {
             fail("Could not unmarshal message", e);
             // unreachable, silence warnings
@@ -10,14 +10,14 @@ package com.draeger.medical.sdccc.tests.biceps.invariant;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,14 +31,11 @@ public class InvariantParticipantModelMappingTest extends InjectorTestBase {
     private static final String STATE_SUFFIX = "State$";
     private static final String DESCRIPTOR_SUFFIX = "%sDescriptor";
 
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setUp() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -49,12 +46,14 @@ public class InvariantParticipantModelMappingTest extends InjectorTestBase {
             + " The existence of a descriptor for a state is implicitly tested in MdibHistorian"
             + " and is covered by a unittest.")
     void testRequirementR0023() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0023, this::checkRequirementR0023);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0023)
+    MdibReplayCheck checkRequirementR0023() {
         final var statesSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var allStates = first.getStatesByType(AbstractState.class);
             for (var state : allStates) {
                 statesSeen.incrementAndGet();
@@ -72,6 +71,8 @@ public class InvariantParticipantModelMappingTest extends InjectorTestBase {
             }
         });
 
-        assertTestData(statesSeen.get(), "No Data to perform test on");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(statesSeen.get(), "No Data to perform test on");
+        });
     }
 }
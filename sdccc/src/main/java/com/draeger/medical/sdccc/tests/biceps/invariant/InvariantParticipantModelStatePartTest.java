@@ -8,13 +8,12 @@
 package com.draeger.medical.sdccc.tests.biceps.invariant;
 
 import static com.draeger.medical.sdccc.configuration.TestParameterConfig.BICEPS_547_TIME_INTERVAL;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ManipulationPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
@@ -24,6 +23,7 @@ import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
@@ -39,7 +39,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.somda.sdc.biceps.common.storage.PreprocessingException;
-import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.participant.AbstractMetricState;
 import org.somda.sdc.biceps.model.participant.ComponentActivation;
 import org.somda.sdc.biceps.model.participant.MetricCategory;
@@ -58,12 +57,12 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
     public static final String WRONG_ACTIVATION_STATE =
             "The manipulated activation state for metric %s should be %s but is %s";
     private long buffer;
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
 
     @BeforeEach
     void setUp() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         final var timeBufferInSeconds =
                 getInjector().getInstance(Key.get(long.class, Names.named(BICEPS_547_TIME_INTERVAL)));
@@ -359,6 +358,9 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
     private void testRequirement547(final MetricCategory category, final ComponentActivation activation)
             throws NoTestData {
         final var successfulManipulationSeen = new AtomicBoolean(false);
+        // a single historian replays the history once and reuses its checkpoints for all manipulations
+        final var historian = mdibHistorianFactory.createMdibHistorian(
+                messageStorage, getInjector().getInstance(TestRunObserver.class));
         try (final var manipulations = messageStorage.getManipulationDataByParametersAndManipulation(
                 ManipulationParameterUtil.buildMetricStatusManipulationParameterDataWithoutHandle(category, activation),
                 Constants.MANIPULATION_NAME_SET_METRIC_STATUS)) {
@@ -369,7 +371,7 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
                     .filter(it -> it.getResult().equals(ResponseTypes.Result.RESULT_SUCCESS))
                     .forEachOrdered(it -> {
                         successfulManipulationSeen.getAndSet(true);
-                        checkAssociatedMetric(it, activation);
+                        checkAssociatedMetric(historian, it, activation);
                     });
         } catch (IOException e) {
             fail(e);
@@ -380,7 +382,9 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
     }
 
     private void checkAssociatedMetric(
-            final ManipulationData manipulationData, final ComponentActivation expectedActivationState) {
+            final MdibHistorian historian,
+            final ManipulationData manipulationData,
+            final ComponentActivation expectedActivationState) {
         final var manipulationParameter = manipulationData.getParameters();
         final var manipulatedHandle = manipulationParameter.stream()
                 .filter(it -> it.getParameterName().equals(Constants.MANIPULATION_PARAMETER_HANDLE))
@@ -393,39 +397,26 @@ public class InvariantParticipantModelStatePartTest extends InjectorTestBase {
                 .findFirst()
                 .orElseThrow();
 
-        final var historian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
-
         final var endTimestamp = manipulationData.getFinishTimestamp() + buffer;
-        try (final var history = historian.uniqueEpisodicReportBasedHistoryUntilTimestamp(sequenceId, endTimestamp)) {
-            try (final var historyNext =
-                    historian.uniqueEpisodicReportBasedHistoryUntilTimestamp(sequenceId, endTimestamp)) {
-
-                RemoteMdibAccess first = history.next();
-                RemoteMdibAccess second = historyNext.next();
-                // skip the first entry so that history and historyNext are off by one entry
-                final var skippedElement = historyNext.next();
-                assertNotNull(skippedElement, String.format(NO_REPORT_IN_TIME, endTimestamp));
+        try {
+            // last mdib state before the end timestamp
+            final var replayedMdib = historian.uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, endTimestamp);
+            assertTrue(replayedMdib.appliedReportCount() > 0, String.format(NO_REPORT_IN_TIME, endTimestamp));
 
-                // fast-forward to last mdib state before the end timestamp
-                while (second != null) {
-                    first = history.next();
-                    second = historyNext.next();
-                }
-                final var relevantMetricStateOpt = first.getState(manipulatedHandle, AbstractMetricState.class);
-                assertTrue(
-                        relevantMetricStateOpt.isPresent(),
-                        String.format(NO_METRIC_WITH_EXPECTED_HANDLE, manipulatedHandle));
-                final var relevantMetricState = relevantMetricStateOpt.orElseThrow();
-                Assertions.assertEquals(
-                        expectedActivationState,
-                        ImpliedValueUtil.getMetricActivation(relevantMetricState),
-                        String.format(
-                                WRONG_ACTIVATION_STATE,
-                                manipulatedHandle,
-                                expectedActivationState,
-                                ImpliedValueUtil.getMetricActivation(relevantMetricState)));
-            }
+            final var relevantMetricStateOpt =
+                    replayedMdib.mdibAccess().getState(manipulatedHandle, AbstractMetricState.class);
+            assertTrue(
+                    relevantMetricStateOpt.isPresent(),
+                    String.format(NO_METRIC_WITH_EXPECTED_HANDLE, manipulatedHandle));
+            final var relevantMetricState = relevantMetricStateOpt.orElseThrow();
+            Assertions.assertEquals(
+                    expectedActivationState,
+                    ImpliedValueUtil.getMetricActivation(relevantMetricState),
+                    String.format(
+                            WRONG_ACTIVATION_STATE,
+                            manipulatedHandle,
+                            expectedActivationState,
+                            ImpliedValueUtil.getMetricActivation(relevantMetricState)));
         } catch (ReportProcessingException | PreprocessingException e) {
             fail(e);
         }
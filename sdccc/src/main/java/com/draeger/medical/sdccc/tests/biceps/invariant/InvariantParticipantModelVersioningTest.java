@@ -12,9 +12,10 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
@@ -22,7 +23,10 @@ import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValue;
 import com.draeger.medical.sdccc.tests.util.InitialImpliedValueException;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -65,14 +69,16 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
 
     public static final String DESCRIPTOR_UPDATE_PREFIX =
             "Descriptor version has not been incremented by one, but descriptor has changed.";
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setUp() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -83,60 +89,70 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
     @RequirePrecondition(
             simplePreconditions = {ConditionalPreconditions.DescriptionModificationCrtOrDelPrecondition.class})
     void testRequirementR0033() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0033, this::checkRequirementR0033);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0033)
+    MdibReplayCheck checkRequirementR0033() {
         final var descriptorChanges = new AtomicInteger(0);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var impliedValueMap = new InitialImpliedValue();
-                mdibHistorian.processAllConsecutivePairsForSequenceId(
-                        (first, second) -> {
-                            final var currentDescriptors = first.findEntitiesByType(AbstractDescriptor.class);
-                            for (MdibEntity entity : currentDescriptors) {
-                                final var descriptor = entity.getDescriptor(AbstractDescriptor.class)
-                                        .orElseThrow();
-                                final var nextEntityOpt = second.getEntity(descriptor.getHandle());
-                                if (nextEntityOpt.isEmpty()) {
-                                    continue;
-                                }
-                                final var nextEntity = nextEntityOpt.orElseThrow();
-                                final var nextDescriptor = nextEntity
-                                        .getDescriptor(AbstractDescriptor.class)
-                                        .orElseThrow();
-
-                                // compare children of current and next descriptor one by one
-                                final var childrenChanged =
-                                        haveDescriptorChildrenDisOrReappeared(descriptor.getHandle(), first, second);
-
-                                if (!childrenChanged) {
-                                    continue;
-                                }
-
-                                descriptorChanges.incrementAndGet();
-
-                                try {
-                                    assertTrue(
-                                            isIncrementedVersion(
-                                                    ImpliedValueUtil.getDescriptorVersion(descriptor, impliedValueMap),
-                                                    ImpliedValueUtil.getDescriptorVersion(
-                                                            nextDescriptor, impliedValueMap)),
-                                            "Descriptor version has not changed, but children have."
-                                                    + " MdibVersions " + first.getMdibVersion()
-                                                    + " and " + second.getMdibVersion()
-                                                    + ". Descriptor handle " + descriptor.getHandle()
-                                                    + ". Old children " + descriptor
-                                                    + " new children " + nextEntity.getChildren());
-                                } catch (InitialImpliedValueException e) {
-                                    fail(e);
-                                }
-                            }
-                        },
-                        sequenceId);
-            });
-        }
-        assertTestData(descriptorChanges.get(), "No descriptor changed during the test run.");
+        final var visitor = new MdibReplayVisitor() {
+            private InitialImpliedValue impliedValueMap = new InitialImpliedValue();
+
+            @Override
+            public boolean requiresConsecutivePairs() {
+                return true;
+            }
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                impliedValueMap = new InitialImpliedValue();
+            }
+
+            @Override
+            public void visitConsecutivePair(
+                    final RemoteMdibAccess first, final RemoteMdibAccess second, final String sequenceId) {
+                final var currentDescriptors = first.findEntitiesByType(AbstractDescriptor.class);
+                for (MdibEntity entity : currentDescriptors) {
+                    final var descriptor = entity.getDescriptor(AbstractDescriptor.class).orElseThrow();
+                    final var nextEntityOpt = second.getEntity(descriptor.getHandle());
+                    if (nextEntityOpt.isEmpty()) {
+                        continue;
+                    }
+                    final var nextEntity = nextEntityOpt.orElseThrow();
+                    final var nextDescriptor = nextEntity.getDescriptor(AbstractDescriptor.class).orElseThrow();
+
+                    // compare children of current and next descriptor one by one
+                    final var childrenChanged =
+                            haveDescriptorChildrenDisOrReappeared(descriptor.getHandle(), first, second);
+
+                    if (!childrenChanged) {
+                        continue;
+                    }
+
+                    descriptorChanges.incrementAndGet();
+
+                    try {
+                        assertTrue(
+                                isIncrementedVersion(
+                                        ImpliedValueUtil.getDescriptorVersion(descriptor, impliedValueMap),
+                                        ImpliedValueUtil.getDescriptorVersion(nextDescriptor, impliedValueMap)),
+                                "Descriptor version has not changed, but children have."
+                                        + " MdibVersions " + first.getMdibVersion()
+                                        + " and " + second.getMdibVersion()
+                                        + ". Descriptor handle " + descriptor.getHandle()
+                                        + ". Old children " + descriptor
+                                        + " new children " + nextEntity.getChildren());
+                    } catch (InitialImpliedValueException e) {
+                        fail(e);
+                    }
+                }
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(descriptorChanges.get(), "No descriptor changed during the test run.");
+        });
     }
 
     @Test
@@ -150,84 +166,93 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
     @RequirePrecondition(
             simplePreconditions = {ConditionalPreconditions.TriggerDescriptionModificationReportPrecondition.class})
     void testRequirementR0034() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0034_0, this::checkRequirementR0034);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0034_0)
+    MdibReplayCheck checkRequirementR0034() {
         final var descriptorChanges = new AtomicInteger(0);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var impliedValueMap = new InitialImpliedValue();
-                final var lastDescriptorMap = new HashMap<String, AbstractDescriptor>();
-                mdibHistorian.processAllConsecutivePairsForSequenceId(
-                        (first, second) -> {
-                            final var currentDescriptors = first.findEntitiesByType(AbstractDescriptor.class);
-                            for (MdibEntity entity : currentDescriptors) {
-                                // check if this was previously deleted and returned
-                                final var descriptor = entity.getDescriptor(AbstractDescriptor.class)
-                                        .orElseThrow();
-                                final var oldVersion = lastDescriptorMap.remove(descriptor.getHandle());
-                                if (oldVersion != null) {
-                                    final var descriptorChanged = hasDescriptorChanged(oldVersion, descriptor);
-                                    if (descriptorChanged) {
-                                        descriptorChanges.incrementAndGet();
-                                        try {
-                                            assertTrue(
-                                                    isIncrementedVersion(
-                                                            ImpliedValueUtil.getDescriptorVersion(
-                                                                    oldVersion, impliedValueMap),
-                                                            ImpliedValueUtil.getDescriptorVersion(
-                                                                    descriptor, impliedValueMap)),
-                                                    DESCRIPTOR_REINSERTION_PREFIX
-                                                            + " MdibVersions of insertion " + first.getMdibVersion()
-                                                            + ". Descriptor handle " + descriptor.getHandle()
-                                                            + ". Old Descriptor " + oldVersion
-                                                            + " Inserted Descriptor " + descriptor);
-                                        } catch (InitialImpliedValueException e) {
-                                            fail(e);
-                                        }
-                                    }
-                                }
-
-                                final var nextEntityOpt = second.getEntity(descriptor.getHandle());
-                                if (nextEntityOpt.isEmpty()) {
-                                    // descriptor was removed, add to storage
-                                    lastDescriptorMap.put(descriptor.getHandle(), descriptor);
-                                    continue;
-                                }
-
-                                final var nextDescriptor = nextEntityOpt
-                                        .orElseThrow()
-                                        .getDescriptor(AbstractDescriptor.class)
-                                        .orElseThrow();
-                                // compare children of current and next descriptor one by one
-                                final var descriptorChanged = hasDescriptorChanged(descriptor, nextDescriptor);
-                                if (!descriptorChanged) {
-                                    continue;
-                                }
-
-                                descriptorChanges.incrementAndGet();
-                                try {
-                                    assertTrue(
-                                            isIncrementedVersion(
-                                                    ImpliedValueUtil.getDescriptorVersion(descriptor, impliedValueMap),
-                                                    ImpliedValueUtil.getDescriptorVersion(
-                                                            nextDescriptor, impliedValueMap)),
-                                            DESCRIPTOR_UPDATE_PREFIX
-                                                    + " MdibVersions " + first.getMdibVersion()
-                                                    + " and " + second.getMdibVersion()
-                                                    + ". Descriptor handle " + descriptor.getHandle()
-                                                    + ". Old Descriptor " + descriptor
-                                                    + " New Descriptor " + nextDescriptor);
-                                } catch (InitialImpliedValueException e) {
-                                    fail(e);
-                                }
+        final var visitor = new MdibReplayVisitor() {
+            private InitialImpliedValue impliedValueMap = new InitialImpliedValue();
+            private final HashMap<String, AbstractDescriptor> lastDescriptorMap = new HashMap<>();
+
+            @Override
+            public boolean requiresConsecutivePairs() {
+                return true;
+            }
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                impliedValueMap = new InitialImpliedValue();
+                lastDescriptorMap.clear();
+            }
+
+            @Override
+            public void visitConsecutivePair(
+                    final RemoteMdibAccess first, final RemoteMdibAccess second, final String sequenceId) {
+                final var currentDescriptors = first.findEntitiesByType(AbstractDescriptor.class);
+                for (MdibEntity entity : currentDescriptors) {
+                    // check if this was previously deleted and returned
+                    final var descriptor = entity.getDescriptor(AbstractDescriptor.class).orElseThrow();
+                    final var oldVersion = lastDescriptorMap.remove(descriptor.getHandle());
+                    if (oldVersion != null) {
+                        final var descriptorChanged = hasDescriptorChanged(oldVersion, descriptor);
+                        if (descriptorChanged) {
+                            descriptorChanges.incrementAndGet();
+                            try {
+                                assertTrue(
+                                        isIncrementedVersion(
+                                                ImpliedValueUtil.getDescriptorVersion(oldVersion, impliedValueMap),
+                                                ImpliedValueUtil.getDescriptorVersion(descriptor, impliedValueMap)),
+                                        DESCRIPTOR_REINSERTION_PREFIX
+                                                + " MdibVersions of insertion " + first.getMdibVersion()
+                                                + ". Descriptor handle " + descriptor.getHandle()
+                                                + ". Old Descriptor " + oldVersion
+                                                + " Inserted Descriptor " + descriptor);
+                            } catch (InitialImpliedValueException e) {
+                                fail(e);
                             }
-                        },
-                        sequenceId);
-            });
-        }
-        assertTestData(descriptorChanges.get(), "No descriptor changed during the test run.");
+                        }
+                    }
+
+                    final var nextEntityOpt = second.getEntity(descriptor.getHandle());
+                    if (nextEntityOpt.isEmpty()) {
+                        // descriptor was removed, add to storage
+                        lastDescriptorMap.put(descriptor.getHandle(), descriptor);
+                        continue;
+                    }
+
+                    final var nextDescriptor =
+                            nextEntityOpt.orElseThrow().getDescriptor(AbstractDescriptor.class).orElseThrow();
+                    // compare children of current and next descriptor one by one
+                    final var descriptorChanged = hasDescriptorChanged(descriptor, nextDescriptor);
+                    if (!descriptorChanged) {
+                        continue;
+                    }
+
+                    descriptorChanges.incrementAndGet();
+                    try {
+                        assertTrue(
+                                isIncrementedVersion(
+                                        ImpliedValueUtil.getDescriptorVersion(descriptor, impliedValueMap),
+                                        ImpliedValueUtil.getDescriptorVersion(nextDescriptor, impliedValueMap)),
+                                DESCRIPTOR_UPDATE_PREFIX
+                                        + " MdibVersions " + first.getMdibVersion()
+                                        + " and " + second.getMdibVersion()
+                                        + ". Descriptor handle " + descriptor.getHandle()
+                                        + ". Old Descriptor " + descriptor
+                                        + " New Descriptor " + nextDescriptor);
+                    } catch (InitialImpliedValueException e) {
+                        fail(e);
+                    }
+                }
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(descriptorChanges.get(), "No descriptor changed during the test run.");
+        });
     }
 
     @Test
@@ -239,84 +264,97 @@ public class InvariantParticipantModelVersioningTest extends InjectorTestBase {
             + " changed.")
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.StateChangedPrecondition.class})
     void testRequirementR0038() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.BICEPS_R0038_0, this::checkRequirementR0038);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.BICEPS_R0038_0)
+    MdibReplayCheck checkRequirementR0038() {
         final var stateChanges = new AtomicInteger(0);
 
-        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                final var impliedValueMap = new InitialImpliedValue();
-                final var removedStatesMap = new HashMap<String, AbstractState>();
-                mdibHistorian.processAllConsecutivePairsForSequenceId(
-                        (first, second) -> {
-                            final var states = first.getStatesByType(AbstractState.class);
-                            for (var state : states) {
-
-                                final String stateHandle;
-                                if (state instanceof AbstractMultiState) {
-                                    stateHandle = ((AbstractMultiState) state).getHandle();
-                                } else {
-                                    stateHandle = state.getDescriptorHandle();
-                                }
-                                final Optional<AbstractState> nextStateOpt = second.getState(stateHandle);
-
-                                if (removedStatesMap.containsKey(stateHandle)) {
-                                    final var removedState = removedStatesMap.get(stateHandle);
-                                    if (!removedState.equals(state)) {
-                                        try {
-                                            assertTrue(
-                                                    isIncrementedVersion(
-                                                            ImpliedValueUtil.getStateVersion(
-                                                                    removedState, impliedValueMap),
-                                                            ImpliedValueUtil.getStateVersion(state, impliedValueMap)),
-                                                    "State version has not been incremented by one, but reinserted state"
-                                                            + " has changed. MdibVersions " + first.getMdibVersion()
-                                                            + " and " + second.getMdibVersion()
-                                                            + ". State handle " + stateHandle
-                                                            + ". Old State " + removedState
-                                                            + " New State " + state);
-                                        } catch (InitialImpliedValueException e) {
-                                            fail(e);
-                                        }
-                                    }
-                                    removedStatesMap.remove(stateHandle);
-                                }
-
-                                if (nextStateOpt.isEmpty()) {
-                                    // state will be removed
-                                    removedStatesMap.put(stateHandle, state);
-                                    continue;
-                                }
-
-                                final var nextState = nextStateOpt.orElseThrow();
-
-                                if (state.equals(nextState)) {
-                                    continue;
-                                }
-
-                                stateChanges.incrementAndGet();
-                                try {
-                                    assertTrue(
-                                            isIncrementedVersion(
-                                                    ImpliedValueUtil.getStateVersion(state, impliedValueMap),
-                                                    ImpliedValueUtil.getStateVersion(nextState, impliedValueMap)),
-                                            "State version has not been incremented by one, but state has changed."
-                                                    + " MdibVersions " + first.getMdibVersion()
-                                                    + " and " + second.getMdibVersion()
-                                                    + ". State handle " + stateHandle
-                                                    + ". Old State " + state
-                                                    + " New State " + nextState);
-                                } catch (InitialImpliedValueException e) {
-                                    fail(e);
-                                }
-                            }
-                        },
-                        sequenceId);
+        final var visitor = new MdibReplayVisitor() {
+            private InitialImpliedValue impliedValueMap = new InitialImpliedValue();
+            private final HashMap<String, AbstractState> removedStatesMap = new HashMap<>();
+
+            @Override
+            public boolean requiresConsecutivePairs() {
+                return true;
+            }
+
+            @Override
+            public void startSequence(final String sequenceId) {
+                impliedValueMap = new InitialImpliedValue();
                 removedStatesMap.clear();
-            });
-        }
-        assertTestData(stateChanges.get(), "No state changed during the test run.");
+            }
+
+            @Override
+            public void visitConsecutivePair(
+                    final RemoteMdibAccess first, final RemoteMdibAccess second, final String sequenceId) {
+                final var states = first.getStatesByType(AbstractState.class);
+                for (var state : states) {
+
+                    final String stateHandle;
+                    if (state instanceof AbstractMultiState) {
+                        stateHandle = ((AbstractMultiState) state).getHandle();
+                    } else {
+                        stateHandle = state.getDescriptorHandle();
+                    }
+                    final Optional<AbstractState> nextStateOpt = second.getState(stateHandle);
+
+                    if (removedStatesMap.containsKey(stateHandle)) {
+                        final var removedState = removedStatesMap.get(stateHandle);
+                        if (!removedState.equals(state)) {
+                            try {
+                                assertTrue(
+                                        isIncrementedVersion(
+                                                ImpliedValueUtil.getStateVersion(removedState, impliedValueMap),
+                                                ImpliedValueUtil.getStateVersion(state, impliedValueMap)),
+                                        "State version has not been incremented by one, but reinserted state"
+                                                + " has changed. MdibVersions " + first.getMdibVersion()
+                                                + " and " + second.getMdibVersion()
+                                                + ". State handle " + stateHandle
+                                                + ". Old State " + removedState
+                                                + " New State " + state);
+                            } catch (InitialImpliedValueException e) {
+                                fail(e);
+                            }
+                        }
+                        removedStatesMap.remove(stateHandle);
+                    }
+
+                    if (nextStateOpt.isEmpty()) {
+                        // state will be removed
+                        removedStatesMap.put(stateHandle, state);
+                        continue;
+                    }
+
+                    final var nextState = nextStateOpt.orElseThrow();
+
+                    if (state.equals(nextState)) {
+                        continue;
+                    }
+
+                    stateChanges.incrementAndGet();
+                    try {
+                        assertTrue(
+                                isIncrementedVersion(
+                                        ImpliedValueUtil.getStateVersion(state, impliedValueMap),
+                                        ImpliedValueUtil.getStateVersion(nextState, impliedValueMap)),
+                                "State version has not been incremented by one, but state has changed."
+                                        + " MdibVersions " + first.getMdibVersion()
+                                        + " and " + second.getMdibVersion()
+                                        + ". State handle " + stateHandle
+                                        + ". Old State " + state
+                                        + " New State " + nextState);
+                    } catch (InitialImpliedValueException e) {
+                        fail(e);
+                    }
+                }
+            }
+        };
+
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(stateChanges.get(), "No state changed during the test run.");
+        });
     }
 
     @Test
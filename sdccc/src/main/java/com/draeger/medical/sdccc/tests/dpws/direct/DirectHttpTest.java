@@ -11,7 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
@@ -59,7 +59,7 @@ public class DirectHttpTest extends InjectorTestBase {
         final SoapMessage response = this.messageGeneratingUtil.getMdib();
         assertFalse(response.isFault());
 
-        final MessageStorage messageStorage = getInjector().getInstance(MessageStorage.class);
+        final MessageStore messageStorage = getInjector().getInstance(MessageStore.class);
 
         // ensure, that the messages from the above call are already in the database
         messageStorage.flush();
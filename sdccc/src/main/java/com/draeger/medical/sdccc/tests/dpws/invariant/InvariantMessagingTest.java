@@ -16,7 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
@@ -46,11 +46,11 @@ public class InvariantMessagingTest extends InjectorTestBase {
     @TestIdentifier(EnabledTestConfig.DPWS_R0019)
     @TestDescription("Verifies the relationship property is set in all response messages from the DUT.")
     void testRequirement0019() throws Exception {
-        final var messageStorage = getInjector().getInstance(MessageStorage.class);
+        final var messageStorage = getInjector().getInstance(MessageStore.class);
 
         final var relatesToExtractor = new XPathExtractor(s12("Header") + "/" + wsa("RelatesTo"));
 
-        try (final var inboundSoaps = messageStorage.getInboundSoapResponseMessages()) {
+        try (final var inboundSoaps = messageStorage.getInboundSoapResponseMessageViews()) {
             assertTestData(inboundSoaps.areObjectsPresent(), "No inbound messages to perform test on.");
 
             inboundSoaps.getStream().forEach(message -> {
@@ -79,12 +79,12 @@ public class InvariantMessagingTest extends InjectorTestBase {
     @TestDescription("Checks all response messages from the DUT containing a SOAP Fault and verifies the relationship"
             + " property is set.")
     void testRequirement0040() throws Exception {
-        final var messageStorage = getInjector().getInstance(MessageStorage.class);
+        final var messageStorage = getInjector().getInstance(MessageStore.class);
 
         final var faultExtractor = new XPathExtractor(s12("Body") + "/" + s12("Fault"));
         final var relatesToExtractor = new XPathExtractor(s12("Header") + "/" + wsa("RelatesTo"));
 
-        try (final var inboundSoaps = messageStorage.getInboundSoapMessages()) {
+        try (final var inboundSoaps = messageStorage.getInboundSoapMessageViews()) {
             assertTestData(inboundSoaps.areObjectsPresent(), "No inbound messages to perform test on.");
 
             final AtomicBoolean faultsPresent = new AtomicBoolean(false);
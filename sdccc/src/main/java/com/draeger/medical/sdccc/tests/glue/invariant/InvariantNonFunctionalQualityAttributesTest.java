@@ -13,15 +13,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.ImpliedValueUtil;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import java.io.IOException;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -50,14 +50,11 @@ import org.somda.sdc.biceps.model.participant.StringMetricState;
  * Glue Non-functional quality attributes tests (ch. 10).
  */
 public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBase {
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -67,12 +64,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
     @TestDescription("Starting from the initially retrieved mdib, applies each episodic report to the mdib and"
             + " verifies for each mds that a clock descriptor and a clock state are present.")
     void testRequirementR0010() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0010_0, this::checkRequirementR0010);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0010_0)
+    MdibReplayCheck checkRequirementR0010() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(MdsDescriptor.class);
 
             for (var entity : entities) {
@@ -95,7 +94,9 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No mds seen during test run, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No mds seen during test run, test failed.");
+        });
     }
 
     @Test
@@ -103,12 +104,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
     @TestDescription("Starting from the initially retrieved mdib, applies every episodic report to the mdib and "
             + "verifies for each metric that if a value is present, a timestamp is also present.")
     void testRequirementR0011() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0011, this::checkRequirementR0011);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0011)
+    MdibReplayCheck checkRequirementR0011() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(remoteMdibAccess -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(remoteMdibAccess -> {
             final var entities = remoteMdibAccess.findEntitiesByType(AbstractMetricDescriptor.class);
 
             for (var entity : entities) {
@@ -197,7 +200,9 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No metric with a value has been seen.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No metric with a value has been seen.");
+        });
     }
 
     @Test
@@ -208,12 +213,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             + " and verifies for every alert condition state, that its @DeterminationTime is updated"
             + " whenever its @Presence changes.")
     void testRequirementR001200() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0012_0_0, this::checkRequirementR001200);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0012_0_0)
+    MdibReplayCheck checkRequirementR001200() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllConsecutivePairs((last, current) -> {
+        final var visitor = MdibReplayVisitor.ofConsecutivePairs((last, current) -> {
             final var currentAlertConditionStates = current.getStatesByType(AlertConditionState.class);
 
             for (var currentAlertConditionState : currentAlertConditionStates) {
@@ -245,7 +252,9 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No AlertConditionState seen during the test run, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No AlertConditionState seen during the test run, test failed.");
+        });
     }
 
     @Test
@@ -254,12 +263,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             + " verifies for every context state, that the BindingStartTime is set, when the BindingMdibVersion is"
             + " present.")
     void testRequirementR0013() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0013, this::checkRequirementR0013);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0013)
+    MdibReplayCheck checkRequirementR0013() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var contextStates = first.getStatesByType(AbstractContextState.class);
             for (var contextState : contextStates) {
                 final var bindingMdibVersion = contextState.getBindingMdibVersion();
@@ -275,7 +286,9 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No suitable context states seen, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No suitable context states seen, test failed.");
+        });
     }
 
     @Test
@@ -284,12 +297,14 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             + " verifies for every context state, that the BindingEndTime is set, when the UnbindingMdibVersion is"
             + " present.")
     void testRequirementR0072() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0072, this::checkRequirementR0072);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0072)
+    MdibReplayCheck checkRequirementR0072() {
         final var acceptableSequenceSeen = new AtomicInteger(0);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             final var contextStates = first.getStatesByType(AbstractContextState.class);
             for (var contextState : contextStates) {
                 final var unbindingMdibVersion = contextState.getUnbindingMdibVersion();
@@ -304,6 +319,8 @@ public class InvariantNonFunctionalQualityAttributesTest extends InjectorTestBas
             }
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No suitable context states seen, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No suitable context states seen, test failed.");
+        });
     }
 }
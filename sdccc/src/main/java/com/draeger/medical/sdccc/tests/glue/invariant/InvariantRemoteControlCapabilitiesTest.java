@@ -12,7 +12,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
@@ -22,9 +22,7 @@ import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
 import com.draeger.medical.sdccc.tests.util.CryptoUtil;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.util.Constants;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,13 +41,13 @@ public class InvariantRemoteControlCapabilitiesTest extends InjectorTestBase {
     public static final String WRONG_ROOT_ERROR_MESSAGE = "Root is not the expected root%n%s%nbut is%n%s%n";
     public static final String WRONG_EXTENSION_ERROR_MESSAGE =
             "Extension is not the expected extension%n%s%nbut" + " is%n%s%n";
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MarshallingService marshalling;
     private SoapUtil soapUtil;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.marshalling = riInjector.getInstance(MarshallingService.class);
         this.soapUtil = riInjector.getInstance(SoapUtil.class);
@@ -72,8 +70,7 @@ public class InvariantRemoteControlCapabilitiesTest extends InjectorTestBase {
             final var operationInvokedReportsSeen = new AtomicInteger(0);
             messages.getStream().forEach(messageContent -> {
                 try {
-                    final var soapMessage = marshalling.unmarshal(
-                            new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
+                    final var soapMessage = marshalling.unmarshal(messageContent.getBodyStream());
                     final var reportOpt = soapUtil.getBody(soapMessage, OperationInvokedReport.class);
                     if (reportOpt.isPresent()) {
                         for (var reportPart : reportOpt.orElseThrow().getReportPart()) {
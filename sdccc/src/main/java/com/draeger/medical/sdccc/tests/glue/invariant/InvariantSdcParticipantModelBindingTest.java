@@ -10,14 +10,14 @@ package com.draeger.medical.sdccc.tests.glue.invariant;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
+import com.draeger.medical.sdccc.tests.util.MdibReplayCheck;
+import com.draeger.medical.sdccc.tests.util.MdibReplayVisitor;
 import com.draeger.medical.sdccc.tests.util.NoTestData;
-import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
-import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.sdccc.tests.util.SharedMdibReplay;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -35,14 +35,11 @@ import org.somda.sdc.biceps.model.participant.ChannelDescriptor;
  * Glue Sdc Participant Model Binding tests (ch. 7).
  */
 public class InvariantSdcParticipantModelBindingTest extends InjectorTestBase {
-    private MessageStorage messageStorage;
-    private MdibHistorianFactory mdibHistorianFactory;
+    private SharedMdibReplay sharedMdibReplay;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
-        final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
-        this.mdibHistorianFactory = riInjector.getInstance(MdibHistorianFactory.class);
+        this.sharedMdibReplay = getInjector().getInstance(SharedMdibReplay.class);
     }
 
     @Test
@@ -52,12 +49,14 @@ public class InvariantSdcParticipantModelBindingTest extends InjectorTestBase {
             + " ChannelDescriptor, AbstractOperationDescriptor, AlertConditionDescriptor and AbstractMetricDescriptor"
             + " is present.")
     void testRequirementR0080() throws NoTestData, IOException {
-        final var mdibHistorian = mdibHistorianFactory.createMdibHistorian(
-                messageStorage, getInjector().getInstance(TestRunObserver.class));
+        sharedMdibReplay.verify(EnabledTestConfig.GLUE_R0080, this::checkRequirementR0080);
+    }
 
+    @MdibReplayCheckFor(EnabledTestConfig.GLUE_R0080)
+    MdibReplayCheck checkRequirementR0080() {
         final var acceptableSequenceSeen = new AtomicBoolean(false);
 
-        mdibHistorian.processAllRemoteMdibAccess(first -> {
+        final var visitor = MdibReplayVisitor.ofRevisions(first -> {
             acceptableSequenceSeen.compareAndSet(
                     false,
                     checkForTypeAttribute(
@@ -81,7 +80,9 @@ public class InvariantSdcParticipantModelBindingTest extends InjectorTestBase {
                             first.findEntitiesByType(AbstractMetricDescriptor.class), AbstractMetricDescriptor.class));
         });
 
-        assertTestData(acceptableSequenceSeen.get(), "No suitable descriptors seen, test failed.");
+        return new MdibReplayCheck(visitor, () -> {
+            assertTestData(acceptableSequenceSeen.get(), "No suitable descriptors seen, test failed.");
+        });
     }
 
     private boolean checkForTypeAttribute(
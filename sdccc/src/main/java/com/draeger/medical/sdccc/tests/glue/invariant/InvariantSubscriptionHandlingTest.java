@@ -12,7 +12,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
@@ -27,10 +27,8 @@ import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -63,14 +61,14 @@ import org.somda.sdc.dpws.soap.exception.MarshallingException;
  */
 public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
 
-    private MessageStorage messageStorage;
+    private MessageStore messageStorage;
     private MdibHistorianFactory historianFactory;
     private MarshallingService marshalling;
     private SoapUtil soapUtil;
 
     @BeforeEach
     void setup() {
-        this.messageStorage = getInjector().getInstance(MessageStorage.class);
+        this.messageStorage = getInjector().getInstance(MessageStore.class);
         final var riInjector = getInjector().getInstance(TestClient.class).getInjector();
         this.historianFactory = riInjector.getInstance(MdibHistorianFactory.class);
         this.marshalling = riInjector.getInstance(MarshallingService.class);
@@ -125,11 +123,9 @@ public class InvariantSubscriptionHandlingTest extends InjectorTestBase {
 
     private Optional<DescriptionModificationReport> getDescriptionModificationReportFromMessageContent(
             final MessageContent content) {
-        final var body = content.getBody();
-
         final SoapMessage message;
         try {
-            message = marshalling.unmarshal(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            message = marshalling.unmarshal(content.getBodyStream());
         } catch (MarshallingException e) {
             fail("Could not unmarshal message", e);
             // unreachable, silence warnings
@@ -12,7 +12,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
 import com.draeger.medical.sdccc.manipulation.precondition.impl.ConditionalPreconditions;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.RequirePrecondition;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
@@ -43,13 +43,13 @@ public class InvariantDynamicDiscoveryTest extends InjectorTestBase {
     @RequirePrecondition(simplePreconditions = {ConditionalPreconditions.HelloMessagePrecondition.class})
     void testRequirement0008() throws Exception {
 
-        final var messageStorage = getInjector().getInstance(MessageStorage.class);
+        final var messageStorage = getInjector().getInstance(MessageStore.class);
 
         final var bodyTypes =
                 List.of(Constants.WSD_HELLO_BODY, Constants.WSD_RESOLVE_MATCHES_BODY, Constants.WSD_PROBE_MATCHES_BODY);
 
         for (final var bodyType : bodyTypes) {
-            try (final var messages = messageStorage.getInboundMessagesByBodyType(false, bodyType)) {
+            try (final var messages = messageStorage.getInboundMessageViewsByBodyType(false, bodyType)) {
 
                 assertTestData(messages.areObjectsPresent(), "No messages found for bodyType " + bodyType);
 
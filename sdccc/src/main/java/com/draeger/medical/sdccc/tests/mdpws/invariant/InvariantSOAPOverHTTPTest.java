@@ -12,7 +12,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.draeger.medical.sdccc.configuration.EnabledTestConfig;
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
@@ -20,7 +20,6 @@ import com.draeger.medical.sdccc.tests.util.NoTestData;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunInformation;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.http.HttpHeaders;
@@ -63,10 +62,10 @@ public class InvariantSOAPOverHTTPTest extends InjectorTestBase {
         //     However, as far as possible for us, these messages are already triggered by the
         //     BasicMessagingCheck and do not require a precondition.
 
-        final var messageStorage = getInjector().getInstance(MessageStorage.class);
+        final var messageStorage = getInjector().getInstance(MessageStore.class);
 
         final var hadSoapXml = new AtomicBoolean(false);
-        try (final var inboundGetter = messageStorage.getInboundHttpMessages()) {
+        try (final var inboundGetter = messageStorage.getInboundHttpMessageViews()) {
             assertTestData(inboundGetter.areObjectsPresent(), "No inbound messages to perform test on.");
 
             inboundGetter.getStream().forEach(message -> {
@@ -107,8 +106,7 @@ public class InvariantSOAPOverHTTPTest extends InjectorTestBase {
                 if (isSoapXml) {
                     hadSoapXml.set(true);
                     assertTrue(
-                            message.getBody().getBytes(StandardCharsets.UTF_8).length
-                                    <= Constants.MAX_LARGE_ENVELOPE_SIZE,
+                            message.getBodyLength() <= Constants.MAX_LARGE_ENVELOPE_SIZE,
                             "The DUT transmitted a message with more than MAX_LARGE_ENVELOPE_SIZE bytes."
                                     + " Message hash was " + message.getMessageHash());
                 }
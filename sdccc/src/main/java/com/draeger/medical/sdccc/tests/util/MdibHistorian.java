@@ -9,7 +9,7 @@ package com.draeger.medical.sdccc.tests.util;
 
 import static org.junit.jupiter.api.Assertions.fail;
 
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.util.Constants;
 import com.draeger.medical.sdccc.util.TestRunObserver;
@@ -19,15 +19,19 @@ import com.google.inject.TypeLiteral;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -63,9 +67,8 @@ import org.somda.sdc.biceps.provider.preprocessing.DuplicateChecker;
 import org.somda.sdc.biceps.provider.preprocessing.DuplicateDescriptorChecker;
 import org.somda.sdc.common.guice.AbstractConfigurationModule;
 import org.somda.sdc.common.guice.DefaultCommonModule;
-import org.somda.sdc.dpws.soap.MarshallingService;
-import org.somda.sdc.dpws.soap.SoapUtil;
 import org.somda.sdc.dpws.soap.exception.MarshallingException;
+import org.somda.sdc.glue.common.factory.MdibMapperFactory;
 import org.somda.sdc.glue.common.factory.ModificationsBuilderFactory;
 import org.somda.sdc.glue.consumer.report.ReportProcessingException;
 import org.somda.sdc.glue.consumer.report.ReportProcessor;
@@ -79,30 +82,44 @@ public class MdibHistorian {
     public static final String NO_MDIB_ERROR = "No initial mdib present";
     private static final Logger LOG = LogManager.getLogger(MdibHistorian.class);
 
+    /**
+     * Number of applied reports after which a checkpoint of the mdib is recorded.
+     */
+    public static final int CHECKPOINT_INTERVAL = 500;
+
+    /**
+     * Number of sequences checkpoints are kept for, the checkpoints of the least recently used sequence are dropped
+     * first.
+     */
+    static final int MAXIMUM_CHECKPOINTED_SEQUENCES = 8;
+
     private static final QName GET_MDIB_RESPONSE = Constants.MSG_GET_MDIB_RESPONSE;
 
-    private final MessageStorage messageStorage;
+    private final MessageStore messageStorage;
     private final TestRunObserver testRunObserver;
-    private final MarshallingService marshalling;
-    private final SoapUtil soapUtil;
+    private final UnmarshalledMessageCache unmarshalledMessageCache;
     private final RemoteMdibAccessFactory remoteMdibAccessFactory;
     private final ModificationsBuilderFactory modificationsBuilderFactory;
+    private final MdibMapperFactory mdibMapperFactory;
     private final Provider<ReportProcessor> reportProcessorProvider;
+    private final Map<String, SequenceCheckpoints> checkpoints;
 
     @AssistedInject
     MdibHistorian(
-            final @Assisted MessageStorage messageStorage,
+            final @Assisted MessageStore messageStorage,
             final @Assisted TestRunObserver testRunObserver,
-            final MarshallingService marshalling,
-            final SoapUtil soapUtil,
+            final UnmarshalledMessageCache unmarshalledMessageCache,
             final ModificationsBuilderFactory modificationsBuilderFactory,
+            final MdibMapperFactory mdibMapperFactory,
             final Provider<ReportProcessor> reportProcessorProvider) {
         this.messageStorage = messageStorage;
         this.testRunObserver = testRunObserver;
-        this.marshalling = marshalling;
-        this.soapUtil = soapUtil;
+        this.unmarshalledMessageCache = unmarshalledMessageCache;
         this.modificationsBuilderFactory = modificationsBuilderFactory;
+        this.mdibMapperFactory = mdibMapperFactory;
         this.reportProcessorProvider = reportProcessorProvider;
+        // access order, the eldest entry is the least recently used one
+        this.checkpoints = new LinkedHashMap<>(16, 0.75f, true);
 
         class MdibHistorianBicepsModule extends AbstractConfigurationModule {
             @Override
@@ -168,10 +185,13 @@ public class MdibHistorian {
      * @throws PreprocessingException if converting the initial mdib fails
      */
     public RemoteMdibAccess createNewStorage(final String sequenceId) throws PreprocessingException {
-        final Mdib initialMdib;
+        return convertToRemoteMdib(retrieveInitialMdib(sequenceId));
+    }
+
+    private Mdib retrieveInitialMdib(final String sequenceId) {
         try (final var messages =
                 messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, GET_MDIB_RESPONSE)) {
-            initialMdib = messages.getStream()
+            return messages.getStream()
                     .map(this::unmarshallMdib)
                     .findFirst()
                     .orElseThrow(() -> new AssertionError(NO_MDIB_ERROR + " for sequence id " + sequenceId));
@@ -183,8 +203,6 @@ public class MdibHistorian {
             // unreachable, silence warnings
             throw new RuntimeException(e);
         }
-
-        return convertToRemoteMdib(initialMdib);
     }
 
     /**
@@ -223,51 +241,24 @@ public class MdibHistorian {
         final var storage = createNewStorage(sequenceId);
         final var reportProcessor = reportProcessorProvider.get();
         reportProcessor.startApplyingReportsOnMdib(storage);
-        final var mdibVersionPredicate =
-                new InitialMdibVersionPredicateWithUUID(ImpliedValueUtil.getMdibVersion(storage.getMdibVersion()));
-
         try {
-            final var messages =
-                    messageStorage.getInboundMessagesByBodyType(Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
-            var preStream = messages.getStream()
-                    .sequential() // the stateful filter operation below is not threadsafe
-                    .map(this::unmarshallReportKeepUUID)
-                    .filter(report -> sequenceId.equals(report.getLeft().getSequenceId()))
-                    .filter(mdibVersionPredicate);
+            // reports of other sequences and reports older than the initial mdib are filtered by the database
+            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
+                    sequenceId,
+                    ImpliedValueUtil.getMdibVersion(storage.getMdibVersion()).longValueExact(),
+                    Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            // the stateful filter operations below are not threadsafe
+            var messageStream = messages.getStream().sequential();
+            if (ensureUnique) {
+                messageStream = filterIdenticalBodies(messageStream);
+            }
+            var preStream = messageStream.map(this::unmarshallReportKeepUUID);
             if (ensureUnique) {
                 preStream = filterReportDuplicates(preStream);
             }
             final var stream = preStream.map(pair -> {
-                final var report = pair.getLeft();
                 try {
-                    final var cmp = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
-                            .compareTo(ImpliedValueUtil.getReportMdibVersion(report));
-                    if (cmp > 0) {
-                        fail("Cannot apply report older than current storage."
-                                + " Storage " + ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
-                                + " Report " + ImpliedValueUtil.getReportMdibVersion(report)
-                                + " " + report.getClass().getSimpleName());
-                    } else if (cmp == 0) {
-                        LOG.debug("Cannot apply report of equal mdib version. This means that another report with the"
-                                + " same version has already been applied, and is expected behavior when e.g."
-                                + " descriptors update, as both a report for description and state will arrive.");
-                    }
-                    final var episodic = EpisodicReport.tryFrom(report);
-                    if (episodic != null) {
-                        LOG.debug(
-                                "Applying report with mdib version {}, type {}",
-                                ImpliedValueUtil.getReportMdibVersion(report),
-                                report.getClass().getSimpleName());
-                        reportProcessor.processEpisodicReport(episodic);
-                    } else {
-                        // other reports do not modify the Mdib and hence cannot be passed into report processor,
-                        // simply ignore them.
-                        LOG.debug(
-                                "Ignoring report of type {} with MdibVersion {} as it is not expected to "
-                                        + "change the Mdib anyway.",
-                                report.getClass().getSimpleName(),
-                                ImpliedValueUtil.getReportMdibVersion(report));
-                    }
+                    applyReport(reportProcessor, storage, pair.getLeft());
                 } catch (final Exception e) {
                     fail(e);
                 }
@@ -310,49 +301,16 @@ public class MdibHistorian {
         try {
             final var messages = messageStorage.getInboundMessagesByTimestampAndBodyType(
                     sequenceId, timestamp, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
-            var preStream = messages.getStream()
-                    .sequential() // the stateful filter operation below is not threadsafe
+            var preStream = filterIdenticalBodies(messages.getStream()
+                            .sequential()) // the stateful filter operations below are not threadsafe
                     .map(this::unmarshallReportKeepUUID)
-                    .filter(report -> sequenceId.equals(report.getLeft().getSequenceId()))
                     .filter(mdibVersionPredicate);
 
             preStream = filterReportDuplicates(preStream);
 
             final var stream = preStream.map(pair -> {
-                final var report = pair.getLeft();
                 try {
-                    final var cmp = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
-                            .compareTo(ImpliedValueUtil.getReportMdibVersion(report));
-                    if (cmp > 0) {
-                        fail("Cannot apply report older than current storage."
-                                + " Storage " + ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
-                                + " Report " + ImpliedValueUtil.getReportMdibVersion(report)
-                                + " " + report.getClass().getSimpleName());
-                    } else if (cmp == 0) {
-                        LOG.debug("Cannot apply report of equal mdib version. This means that another report with the"
-                                + " same version has already been applied, and is expected behavior when e.g."
-                                + " descriptors update, as both a report for description and state will arrive.");
-                    }
-                    LOG.debug(
-                            "Applying report with mdib version {}, type {}",
-                            ImpliedValueUtil.getReportMdibVersion(report),
-                            report.getClass().getSimpleName());
-                    final var episodic = EpisodicReport.tryFrom(report);
-                    if (episodic != null) {
-                        LOG.debug(
-                                "Applying report with mdib version {}, type {}",
-                                ImpliedValueUtil.getReportMdibVersion(report),
-                                report.getClass().getSimpleName());
-                        reportProcessor.processEpisodicReport(episodic);
-                    } else {
-                        // other reports do not modify the Mdib and hence cannot be passed into report processor,
-                        // simply ignore them.
-                        LOG.debug(
-                                "Ignoring report of type {} with MdibVersion {} as it is not expected to "
-                                        + "change the Mdib anyway.",
-                                report.getClass().getSimpleName(),
-                                ImpliedValueUtil.getReportMdibVersion(report));
-                    }
+                    applyReport(reportProcessor, storage, pair.getLeft());
                 } catch (final Exception e) {
                     fail(e);
                 }
@@ -373,6 +331,172 @@ public class MdibHistorian {
         }
     }
 
+    /**
+     * Retrieves the mdib of a sequence after applying all unique episodic reports received before the specified
+     * timestamp, exclusive. The result is the same as the last element of
+     * {@linkplain #uniqueEpisodicReportBasedHistoryUntilTimestamp(String, long)}.
+     *
+     * <p>
+     * While replaying a sequence a checkpoint is recorded every {@value #CHECKPOINT_INTERVAL} reports, but only as far
+     * as the requested timestamp, later calls extend the checkpoints from the latest one when they request a later
+     * timestamp. Every call starts from the latest checkpoint preceding the timestamp and only replays the remaining
+     * reports. Checkpoints are kept by this historian instance for the {@value #MAXIMUM_CHECKPOINTED_SEQUENCES} most
+     * recently used sequences and are not updated, the historian must therefore only be used for this once all
+     * messages have been collected. Apart from the initial mdib, checkpoints are only softly referenced and may be
+     * reclaimed when memory runs low, in which case the replay starts from an earlier checkpoint.
+     *
+     * @param sequenceId of the sequence to retrieve the mdib for
+     * @param timestamp  to apply reports until, exclusive
+     * @return the mdib and the number of reports applied to it
+     * @throws PreprocessingException    if converting the initial mdib or a checkpoint fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    public ReplayedMdib uniqueEpisodicReportBasedMdibUntilTimestamp(final String sequenceId, final long timestamp)
+            throws PreprocessingException, ReportProcessingException {
+        return uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, timestamp, CHECKPOINT_INTERVAL);
+    }
+
+    ReplayedMdib uniqueEpisodicReportBasedMdibUntilTimestamp(
+            final String sequenceId, final long timestamp, final int checkpointInterval)
+            throws PreprocessingException, ReportProcessingException {
+        var sequenceCheckpoints = checkpoints.get(sequenceId);
+        if (sequenceCheckpoints == null) {
+            sequenceCheckpoints = new SequenceCheckpoints(retrieveInitialMdib(sequenceId));
+            checkpoints.put(sequenceId, sequenceCheckpoints);
+            final Iterator<String> eldest = checkpoints.keySet().iterator();
+            while (checkpoints.size() > MAXIMUM_CHECKPOINTED_SEQUENCES) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        if (!sequenceCheckpoints.complete && sequenceCheckpoints.scannedTimestamp < timestamp) {
+            extendCheckpoints(sequenceId, sequenceCheckpoints, timestamp, checkpointInterval);
+        }
+
+        // checkpoints are ordered by their reports, the latest one only containing earlier reports is used
+        MdibCheckpoint checkpoint = sequenceCheckpoints.checkpoints.get(0);
+        Mdib checkpointMdib = sequenceCheckpoints.initialMdib;
+        for (final var candidate : sequenceCheckpoints.checkpoints) {
+            if (candidate.latestTimestamp() >= timestamp) {
+                break;
+            }
+            final var candidateMdib = candidate.mdib().get();
+            if (candidateMdib != null) {
+                checkpoint = candidate;
+                checkpointMdib = candidateMdib;
+            }
+        }
+
+        final var storage = convertToRemoteMdib(checkpointMdib);
+        final var reportProcessor = reportProcessorProvider.get();
+        reportProcessor.startApplyingReportsOnMdib(storage);
+
+        var appliedReports = checkpoint.appliedReports();
+        try (final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId,
+                checkpoint.nextMdibVersion(),
+                timestamp,
+                Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]))) {
+            final var uniqueReports = filterReportDuplicates(filterIdenticalBodies(messages.getStream()
+                            .sequential()) // the stateful filter operations below are not threadsafe
+                    .map(this::unmarshallReportKeepUUID));
+            final Iterator<Pair<AbstractReport, String>> reports = uniqueReports.iterator();
+            while (reports.hasNext()) {
+                applyReport(reportProcessor, storage, reports.next().getLeft());
+                appliedReports++;
+            }
+        } catch (IOException e) {
+            final var errorMessage = "Error while trying to retrieve reports from storage";
+            LOG.error("{}: {}", errorMessage, e.getMessage());
+            LOG.debug("{}", errorMessage, e);
+            testRunObserver.invalidateTestRun(errorMessage, e);
+            fail(e);
+        }
+        return new ReplayedMdib(storage, appliedReports);
+    }
+
+    /**
+     * Records the checkpoints of a sequence until a report received at or after the given timestamp has been seen,
+     * continuing from the latest checkpoint which has not been reclaimed.
+     */
+    private void extendCheckpoints(
+            final String sequenceId,
+            final SequenceCheckpoints sequenceCheckpoints,
+            final long timestamp,
+            final int checkpointInterval)
+            throws PreprocessingException, ReportProcessingException {
+        final var result = sequenceCheckpoints.checkpoints;
+        int resumeIndex = result.size() - 1;
+        Mdib resumeMdib = result.get(resumeIndex).mdib().get();
+        // terminates at the latest, the initial mdib is never reclaimed
+        while (resumeMdib == null) {
+            resumeIndex--;
+            resumeMdib = result.get(resumeIndex).mdib().get();
+        }
+        // later checkpoints have been reclaimed and are recorded again
+        result.subList(resumeIndex + 1, result.size()).clear();
+        final var resume = result.get(resumeIndex);
+
+        final var storage = convertToRemoteMdib(resumeMdib);
+        final var reportProcessor = reportProcessorProvider.get();
+        reportProcessor.startApplyingReportsOnMdib(storage);
+
+        long latestTimestamp = resume.latestTimestamp();
+        try (final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId, resume.nextMdibVersion(), Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]))) {
+            // checkpoints are only recorded between mdib versions, hence the filters can start without any state
+            final var identicalBodyFilter = createIdenticalBodyFilter();
+            final var duplicateFilter = createReportDuplicateFilter();
+            final Iterator<MessageContent> iterator = messages.getStream().iterator();
+
+            BigInteger previousMdibVersion = null;
+            int appliedReports = resume.appliedReports();
+            int appliedSinceCheckpoint = 0;
+            // later checkpoints contain a report at or after the timestamp and are not usable for it
+            while (latestTimestamp < timestamp && iterator.hasNext()) {
+                final var messageContent = iterator.next();
+                if (!identicalBodyFilter.test(messageContent)) {
+                    // same report as the previous message, which has already been applied or dropped
+                    latestTimestamp = Math.max(latestTimestamp, messageContent.getNanoTimestamp());
+                    continue;
+                }
+                final var report = unmarshallReport(messageContent);
+                final var mdibVersion = ImpliedValueUtil.getReportMdibVersion(report);
+
+                // only checkpoint between mdib versions, reports sharing one have to be filtered for duplicates
+                if (appliedSinceCheckpoint >= checkpointInterval
+                        && previousMdibVersion != null
+                        && mdibVersion.compareTo(previousMdibVersion) > 0) {
+                    final var snapshot = mdibMapperFactory.createMdibMapper(storage).mapMdib();
+                    result.add(new MdibCheckpoint(
+                            new SoftReference<>(snapshot),
+                            mdibVersion.longValueExact(),
+                            latestTimestamp,
+                            appliedReports));
+                    appliedSinceCheckpoint = 0;
+                }
+
+                // a checkpoint is only valid for timestamps after every report it has seen, including duplicates
+                latestTimestamp = Math.max(latestTimestamp, messageContent.getNanoTimestamp());
+                previousMdibVersion = mdibVersion;
+                if (duplicateFilter.test(new ImmutablePair<>(report, messageContent.getUuid()))) {
+                    applyReport(reportProcessor, storage, report);
+                    appliedReports++;
+                    appliedSinceCheckpoint++;
+                }
+            }
+            sequenceCheckpoints.complete = !iterator.hasNext();
+        } catch (IOException e) {
+            final var errorMessage = "Error while trying to retrieve reports from storage";
+            LOG.error("{}: {}", errorMessage, e.getMessage());
+            LOG.debug("{}", errorMessage, e);
+            testRunObserver.invalidateTestRun(errorMessage, e);
+            fail(e);
+        }
+        sequenceCheckpoints.scannedTimestamp = latestTimestamp;
+        LOG.debug("Recorded {} checkpoints for sequence {}", result.size(), sequenceId);
+    }
+
     /**
      * Retrieves all episodic reports for a given sequence id.
      *
@@ -383,15 +507,9 @@ public class MdibHistorian {
     public Stream<AbstractReport> getAllReports(
             final String sequenceId, @Nullable final BigInteger minimumMdibVersion) {
         try {
-            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
-                    sequenceId, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            final var messages = getReportsAboveMdibVersion(sequenceId, minimumMdibVersion);
 
-            final var iter = messages.getStream().map(this::unmarshallReport);
-            if (minimumMdibVersion != null) {
-                return iter.filter(
-                        it -> ImpliedValueUtil.getReportMdibVersion(it).compareTo(minimumMdibVersion) >= 1);
-            }
-            return iter;
+            return messages.getStream().map(this::unmarshallReport);
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve initial mdib from storage";
             LOG.error("{}: {}", errorMessage, e.getMessage());
@@ -413,16 +531,11 @@ public class MdibHistorian {
     public Stream<AbstractReport> getAllUniqueReports(
             final String sequenceId, @Nullable final BigInteger minimumMdibVersion) {
         try {
-            final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
-                    sequenceId, Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]));
+            final var messages = getReportsAboveMdibVersion(sequenceId, minimumMdibVersion);
 
-            var iter = messages.getStream()
-                    .sequential() // the stateful filter operation below is not thread-safe
+            final var iter = filterIdenticalBodies(messages.getStream()
+                            .sequential()) // the stateful filter operations below are not thread-safe
                     .map(this::unmarshallReportKeepUUID);
-            if (minimumMdibVersion != null) {
-                iter = iter.filter(it ->
-                        ImpliedValueUtil.getReportMdibVersion(it.getLeft()).compareTo(minimumMdibVersion) >= 1);
-            }
             return filterReportDuplicates(iter).map(Pair::getLeft);
         } catch (IOException e) {
             final var errorMessage = "Error while trying to retrieve initial mdib from storage";
@@ -434,11 +547,53 @@ public class MdibHistorian {
         }
     }
 
+    private MessageStore.GetterResult<MessageContent> getReportsAboveMdibVersion(
+            final String sequenceId, @Nullable final BigInteger minimumMdibVersion) throws IOException {
+        final var reportBodies = Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]);
+        if (minimumMdibVersion == null) {
+            return messageStorage.getInboundMessagesByBodyTypeAndSequenceId(sequenceId, reportBodies);
+        }
+        // the minimum is exclusive, the storage filters inclusively
+        return messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId, minimumMdibVersion.add(BigInteger.ONE).longValueExact(), reportBodies);
+    }
+
+    /**
+     * Drops messages whose body is identical to the body of the preceding message, before their reports are
+     * unmarshalled.
+     *
+     * <p>
+     * Bodies are stored once per distinct content and referenced by their hash, messages sharing a body reference
+     * carry the very same report, which {@linkplain #filterReportDuplicates(Stream)} would drop after comparing it in
+     * full. Only the preceding message is compared, matching the duplicate filter.
+     *
+     * @param messages to filter, must be sequential
+     * @return the messages without repeated bodies
+     */
+    private Stream<MessageContent> filterIdenticalBodies(final Stream<MessageContent> messages) {
+        return messages.filter(createIdenticalBodyFilter());
+    }
+
+    private Predicate<MessageContent> createIdenticalBodyFilter() {
+        final byte[][] lastMessageHash = new byte[1][];
+
+        return it -> {
+            final byte[] messageHash = it.getRawMessageHash();
+            final boolean identical = Arrays.equals(messageHash, lastMessageHash[0]);
+            lastMessageHash[0] = messageHash;
+            return !identical;
+        };
+    }
+
     private Stream<Pair<AbstractReport, String>> filterReportDuplicates(
             final Stream<Pair<AbstractReport, String>> iter) {
+        return iter.filter(createReportDuplicateFilter());
+    }
+
+    private Predicate<Pair<AbstractReport, String>> createReportDuplicateFilter() {
         final Pair<AbstractReport, String>[] last = new ImmutablePair[1];
 
-        return iter.filter(it -> {
+        return it -> {
             if (last[0] == null) {
                 last[0] = it;
                 return true;
@@ -478,7 +633,7 @@ public class MdibHistorian {
                     return true;
                 }
             }
-        });
+        };
     }
 
     /**
@@ -523,6 +678,13 @@ public class MdibHistorian {
         final var reportProcessor = reportProcessorProvider.get();
         reportProcessor.startApplyingReportsOnMdib(storage);
 
+        applyReport(reportProcessor, storage, report);
+        return storage;
+    }
+
+    private void applyReport(
+            final ReportProcessor reportProcessor, final RemoteMdibAccess storage, final AbstractReport report)
+            throws PreprocessingException, ReportProcessingException {
         final var cmp = ImpliedValueUtil.getMdibVersion(storage.getMdibVersion())
                 .compareTo(ImpliedValueUtil.getReportMdibVersion(report));
         if (cmp > 0) {
@@ -553,7 +715,80 @@ public class MdibHistorian {
                     report.getClass().getSimpleName(),
                     ImpliedValueUtil.getReportMdibVersion(report));
         }
-        return storage;
+    }
+
+    /**
+     * Creates a new replay engine, which replays the episodic report based histories of this historian once for any
+     * number of registered visitors.
+     *
+     * @return a new replay engine without any registered visitors
+     */
+    public MdibReplayEngine createReplayEngine() {
+        return new MdibReplayEngine(this);
+    }
+
+    /**
+     * Walks the episodic report based history of a sequence id once. The step is called with the initial mdib and
+     * after every applied report.
+     *
+     * <p>
+     * If requested, a second mdib trailing the current one by one report is maintained, so that consecutive pairs of
+     * revisions can be provided without querying and unmarshalling the history a second time.
+     *
+     * @param sequenceId    of the sequence to replay
+     * @param trackPrevious whether the revision before the last applied report shall be provided
+     * @param step          called with the previous revision, null for the initial mdib or if previous revisions
+     *                      are not tracked, and the current revision, returns false to stop the replay early
+     * @throws PreprocessingException    if converting the initial mdib fails
+     * @throws ReportProcessingException if applying reports fails
+     */
+    void replaySequence(
+            final String sequenceId,
+            final boolean trackPrevious,
+            final BiPredicate<RemoteMdibAccess, RemoteMdibAccess> step)
+            throws PreprocessingException, ReportProcessingException {
+        final var initialMdib = retrieveInitialMdib(sequenceId);
+
+        final var current = convertToRemoteMdib(initialMdib);
+        final var currentReportProcessor = reportProcessorProvider.get();
+        currentReportProcessor.startApplyingReportsOnMdib(current);
+
+        RemoteMdibAccess previous = null;
+        ReportProcessor previousReportProcessor = null;
+        if (trackPrevious) {
+            previous = convertToRemoteMdib(initialMdib);
+            previousReportProcessor = reportProcessorProvider.get();
+            previousReportProcessor.startApplyingReportsOnMdib(previous);
+        }
+
+        if (!step.test(null, current)) {
+            return;
+        }
+
+        // reports of other sequences and reports older than the initial mdib are filtered by the database
+        try (final var messages = messageStorage.getInboundMessagesByBodyTypeAndSequenceId(
+                sequenceId,
+                ImpliedValueUtil.getMdibVersion(current.getMdibVersion()).longValueExact(),
+                Constants.RELEVANT_REPORT_BODIES.toArray(new QName[0]))) {
+            final Iterator<AbstractReport> reports = messages.getStream().map(this::unmarshallReport).iterator();
+
+            while (reports.hasNext()) {
+                final var report = reports.next();
+                applyReport(currentReportProcessor, current, report);
+                if (!step.test(previous, current)) {
+                    return;
+                }
+                if (previous != null) {
+                    applyReport(previousReportProcessor, previous, report);
+                }
+            }
+        } catch (IOException e) {
+            final var errorMessage = "Error while trying to retrieve reports from storage";
+            LOG.error("{}: {}", errorMessage, e.getMessage());
+            LOG.debug("{}", errorMessage, e);
+            testRunObserver.invalidateTestRun(errorMessage, e);
+            fail(e);
+        }
     }
 
     private Pair<AbstractReport, String> unmarshallReportKeepUUID(final MessageContent messageContent) {
@@ -563,9 +798,7 @@ public class MdibHistorian {
     private AbstractReport unmarshallReport(final MessageContent messageContent) {
         final var failMessage = "Could not unmarshall report in message " + messageContent.getMessageHash();
         try {
-            final var currentMdib = marshalling.unmarshal(
-                    new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-            final var reportOpt = soapUtil.getBody(currentMdib, AbstractReport.class);
+            final var reportOpt = unmarshalledMessageCache.getBody(messageContent, AbstractReport.class);
             if (reportOpt.isEmpty()) {
                 fail(failMessage);
                 // unreachable, silence warnings
@@ -584,9 +817,7 @@ public class MdibHistorian {
     private Mdib unmarshallMdib(final MessageContent messageContent) {
         final var failMessage = "Could not unmarshall Mdib in message " + messageContent.getMessageHash();
         try {
-            final var currentMdib = marshalling.unmarshal(
-                    new ByteArrayInputStream(messageContent.getBody().getBytes(StandardCharsets.UTF_8)));
-            final var mdibOpt = soapUtil.getBody(currentMdib, GetMdibResponse.class);
+            final var mdibOpt = unmarshalledMessageCache.getBody(messageContent, GetMdibResponse.class);
             if (mdibOpt.isEmpty()) {
                 fail(failMessage);
                 // unreachable, silence warnings
@@ -627,14 +858,10 @@ public class MdibHistorian {
      */
     public void processRemoteMdibAccessForSequence(
             final Consumer<RemoteMdibAccess> processor, final String sequenceId) {
-        try (HistorianResult history = episodicReportBasedHistory(sequenceId)) {
-            RemoteMdibAccess mdibAccess;
-            while ((mdibAccess = history.next()) != null) {
-                processor.accept(mdibAccess);
-            }
-        } catch (PreprocessingException | ReportProcessingException e) {
-            fail(e);
-        }
+        final var visitor = MdibReplayVisitor.ofRevisions((mdibAccess, ignored) -> processor.accept(mdibAccess));
+        final var engine = createReplayEngine().register(visitor);
+        engine.replay(sequenceId);
+        engine.throwIfFailed(visitor);
     }
 
     /**
@@ -644,11 +871,7 @@ public class MdibHistorian {
      * @param processor  a consumer that processes each RemoteMdibAccess
      */
     public void processAllRemoteMdibAccess(final Consumer<RemoteMdibAccess> processor) throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processRemoteMdibAccessForSequence(processor, sequenceId);
-            });
-        }
+        processAllRemoteMdibAccess((mdibAccess, sequenceId) -> processor.accept(mdibAccess));
     }
 
     /**
@@ -658,11 +881,10 @@ public class MdibHistorian {
      * @param processor a BiConsumer that processes a RemoteMdibAccess and its associated sequence id.
      */
     public void processAllRemoteMdibAccess(final BiConsumer<RemoteMdibAccess, String> processor) throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processRemoteMdibAccessForSequence(mdibAccess -> processor.accept(mdibAccess, sequenceId), sequenceId);
-            });
-        }
+        final var visitor = MdibReplayVisitor.ofRevisions(processor);
+        final var engine = createReplayEngine().register(visitor);
+        engine.replayAll();
+        engine.throwIfFailed(visitor);
     }
 
     /**
@@ -674,25 +896,10 @@ public class MdibHistorian {
      */
     public void processAllConsecutivePairsForSequenceId(
             final BiConsumer<RemoteMdibAccess, RemoteMdibAccess> processor, final String sequenceId) {
-        try (final MdibHistorian.HistorianResult history = episodicReportBasedHistory(sequenceId);
-                final MdibHistorian.HistorianResult historyNext = episodicReportBasedHistory(sequenceId)) {
-
-            // skip the first entry so that history and historyNext are off by one entry
-            final var skippedElement = historyNext.next();
-            if (skippedElement == null) {
-                throw new NoTestData("Not enough input to compare mdib revisions");
-            }
-
-            RemoteMdibAccess first = history.next();
-            RemoteMdibAccess second = historyNext.next();
-            while (second != null) {
-                processor.accept(first, second);
-                first = history.next();
-                second = historyNext.next();
-            }
-        } catch (PreprocessingException | ReportProcessingException | NoTestData e) {
-            fail(e);
-        }
+        final var visitor = MdibReplayVisitor.ofConsecutivePairs(processor);
+        final var engine = createReplayEngine().register(visitor);
+        engine.replay(sequenceId);
+        engine.throwIfFailed(visitor);
     }
 
     /**
@@ -703,11 +910,25 @@ public class MdibHistorian {
      */
     public void processAllConsecutivePairs(final BiConsumer<RemoteMdibAccess, RemoteMdibAccess> processor)
             throws IOException {
-        try (final Stream<String> sequenceIds = this.getKnownSequenceIds()) {
-            sequenceIds.forEach(sequenceId -> {
-                processAllConsecutivePairsForSequenceId(processor, sequenceId);
-            });
-        }
+        final var visitor = MdibReplayVisitor.ofConsecutivePairs(processor);
+        final var engine = createReplayEngine().register(visitor);
+        engine.replayAll();
+        engine.throwIfFailed(visitor);
+    }
+
+    /**
+     * Replays the episodic report based histories of all known sequence ids exactly once and hands every revision to
+     * all provided visitors, instead of replaying the histories once per visitor.
+     *
+     * @param visitors to hand the revisions to
+     * @return the engine used for the replay, which provides the failures of the visitors
+     * @throws IOException on errors retrieving the sequence ids from storage
+     */
+    public MdibReplayEngine replayAll(final List<MdibReplayVisitor> visitors) throws IOException {
+        final var engine = createReplayEngine();
+        visitors.forEach(engine::register);
+        engine.replayAll();
+        return engine;
     }
 
     /**
@@ -788,6 +1009,49 @@ public class MdibHistorian {
         }
     }
 
+    /**
+     * Mdib of a sequence replayed up to a point in time.
+     *
+     * @param mdibAccess         replayed mdib
+     * @param appliedReportCount number of reports applied to the initial mdib of the sequence
+     */
+    public record ReplayedMdib(RemoteMdibAccess mdibAccess, int appliedReportCount) {}
+
+    /**
+     * Snapshot of a replayed mdib.
+     *
+     * @param mdib            state of the mdib after applying all previous reports
+     * @param nextMdibVersion smallest mdib version of the reports which have not been applied yet
+     * @param latestTimestamp latest timestamp of all reports which have been seen, including dropped duplicates
+     * @param appliedReports  number of reports applied to the initial mdib
+     */
+    private record MdibCheckpoint(
+            SoftReference<Mdib> mdib, long nextMdibVersion, long latestTimestamp, int appliedReports) {}
+
+    /**
+     * Checkpoints recorded for a sequence so far, ordered by their reports.
+     */
+    private static final class SequenceCheckpoints {
+        // strongly referenced, so that the first checkpoint is never reclaimed
+        private final Mdib initialMdib;
+        private final List<MdibCheckpoint> checkpoints;
+        // latest timestamp of all reports seen while recording, later checkpoints have not been recorded yet
+        private long scannedTimestamp;
+        private boolean complete;
+
+        private SequenceCheckpoints(final Mdib initialMdib) {
+            this.initialMdib = initialMdib;
+            this.checkpoints = new ArrayList<>();
+            this.checkpoints.add(new MdibCheckpoint(
+                    new SoftReference<>(initialMdib),
+                    ImpliedValueUtil.getMdibMdibVersion(initialMdib).longValueExact(),
+                    Long.MIN_VALUE,
+                    0));
+            this.scannedTimestamp = Long.MIN_VALUE;
+            this.complete = false;
+        }
+    }
+
     /**
      * Result container providing a {@linkplain RemoteMdibAccess} on which every incoming report is applied in order of
      * arrival.
@@ -796,11 +1060,11 @@ public class MdibHistorian {
         // this is intentionally not implementing the iterator interface, as we're only updating the same
         // instance when iterating over the transformed stream, which is just a tremendous side-effect
 
-        private final MessageStorage.GetterResult<MessageContent> messageContent;
+        private final MessageStore.GetterResult<MessageContent> messageContent;
         private final Iterator<RemoteMdibAccess> transformedStream;
 
         HistorianResult(
-                final MessageStorage.GetterResult<MessageContent> messageContent,
+                final MessageStore.GetterResult<MessageContent> messageContent,
                 final Stream<RemoteMdibAccess> transformedStream) {
             this.messageContent = messageContent;
             this.transformedStream = transformedStream.iterator();
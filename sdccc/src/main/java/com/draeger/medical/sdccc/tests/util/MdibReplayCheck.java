@@ -0,0 +1,51 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+/**
+ * Invariant check evaluated while replaying the episodic report based histories, made up of the visitor which is
+ * handed the Mdib revisions and the verification which runs once the replay has finished, e.g. to check whether any
+ * test data has been seen.
+ */
+public final class MdibReplayCheck {
+    private final MdibReplayVisitor visitor;
+    private final Verification verification;
+
+    /**
+     * @param visitor      to hand the Mdib revisions to
+     * @param verification to run once all histories have been replayed
+     */
+    public MdibReplayCheck(final MdibReplayVisitor visitor, final Verification verification) {
+        this.visitor = visitor;
+        this.verification = verification;
+    }
+
+    public MdibReplayVisitor getVisitor() {
+        return visitor;
+    }
+
+    /**
+     * Runs the verification, must only be called after the replay has finished.
+     *
+     * @throws NoTestData if the replay has not provided the data required by the check
+     */
+    public void verify() throws NoTestData {
+        verification.verify();
+    }
+
+    /**
+     * Verification of a check which runs once all histories have been replayed.
+     */
+    @FunctionalInterface
+    public interface Verification {
+        /**
+         * @throws NoTestData if the replay has not provided the data required by the check
+         */
+        void verify() throws NoTestData;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Replays the episodic report based history of a sequence exactly once and hands every Mdib revision, and if
+ * requested every pair of consecutive revisions, to all registered {@linkplain MdibReplayVisitor}s.
+ *
+ * <p>
+ * A visitor which fails, i.e. throws an {@linkplain AssertionError} or a {@linkplain RuntimeException}, is not
+ * visited any further. Its failure is recorded and can be retrieved after the replay, while the remaining visitors
+ * continue to receive revisions. A failure of the replay itself, e.g. a missing initial Mdib, is recorded for every
+ * visitor which took part in the replay of the affected sequence.
+ */
+public class MdibReplayEngine {
+    private static final Logger LOG = LogManager.getLogger(MdibReplayEngine.class);
+
+    private final MdibHistorian mdibHistorian;
+    private final List<MdibReplayVisitor> visitors;
+    private final Map<MdibReplayVisitor, Throwable> failures;
+
+    MdibReplayEngine(final MdibHistorian mdibHistorian) {
+        this.mdibHistorian = mdibHistorian;
+        this.visitors = new ArrayList<>();
+        this.failures = new IdentityHashMap<>();
+    }
+
+    /**
+     * Registers a visitor for all following replays.
+     *
+     * @param visitor to hand the revisions to
+     * @return this engine
+     */
+    public MdibReplayEngine register(final MdibReplayVisitor visitor) {
+        this.visitors.add(visitor);
+        return this;
+    }
+
+    /**
+     * Replays the histories of all known sequence ids, in order of their first appearance.
+     *
+     * @throws IOException on errors retrieving the sequence ids from storage
+     */
+    public void replayAll() throws IOException {
+        try (final Stream<String> sequenceIds = mdibHistorian.getKnownSequenceIds()) {
+            for (final Iterator<String> iterator = sequenceIds.iterator(); iterator.hasNext(); ) {
+                replay(iterator.next());
+            }
+        }
+    }
+
+    /**
+     * Replays the history of a single sequence id.
+     *
+     * @param sequenceId of the sequence to replay
+     */
+    public void replay(final String sequenceId) {
+        final List<MdibReplayVisitor> activeVisitors = activeVisitors();
+        if (activeVisitors.isEmpty()) {
+            LOG.debug("Skipping replay of sequence {}, no visitor is left to visit it", sequenceId);
+            return;
+        }
+
+        final boolean trackPrevious = activeVisitors.stream().anyMatch(MdibReplayVisitor::requiresConsecutivePairs);
+
+        visitAll(activeVisitors, visitor -> visitor.startSequence(sequenceId));
+        try {
+            mdibHistorian.replaySequence(sequenceId, trackPrevious, (previous, current) -> {
+                visitAll(activeVisitors, visitor -> visitor.visitRevision(current, sequenceId));
+                if (previous != null) {
+                    visitAll(activeVisitors, visitor -> {
+                        if (visitor.requiresConsecutivePairs()) {
+                            visitor.visitConsecutivePair(previous, current, sequenceId);
+                        }
+                    });
+                }
+                // stop applying reports as soon as nobody is interested in them anymore
+                return activeVisitors.stream().anyMatch(visitor -> !failures.containsKey(visitor));
+            });
+        } catch (final Exception | AssertionError e) {
+            LOG.debug("Replay of sequence {} failed", sequenceId, e);
+            for (final MdibReplayVisitor visitor : activeVisitors) {
+                failures.putIfAbsent(visitor, e);
+            }
+        }
+        visitAll(activeVisitors, visitor -> visitor.endSequence(sequenceId));
+    }
+
+    /**
+     * Retrieves the failure recorded for a visitor.
+     *
+     * @param visitor to retrieve the failure for
+     * @return the first failure of the visitor or an empty optional if the visitor has not failed
+     */
+    public Optional<Throwable> getFailure(final MdibReplayVisitor visitor) {
+        return Optional.ofNullable(failures.get(visitor));
+    }
+
+    /**
+     * Rethrows the failure recorded for a visitor, checked exceptions are reported as a test failure.
+     *
+     * @param visitor to rethrow the failure for
+     */
+    public void throwIfFailed(final MdibReplayVisitor visitor) {
+        final Throwable failure = failures.get(visitor);
+        if (failure instanceof final RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (failure instanceof final Error error) {
+            throw error;
+        } else if (failure != null) {
+            fail(failure);
+        }
+    }
+
+    private List<MdibReplayVisitor> activeVisitors() {
+        return visitors.stream().filter(visitor -> !failures.containsKey(visitor)).toList();
+    }
+
+    private void visitAll(final List<MdibReplayVisitor> activeVisitors, final Consumer<MdibReplayVisitor> action) {
+        for (final MdibReplayVisitor visitor : activeVisitors) {
+            if (failures.containsKey(visitor)) {
+                continue;
+            }
+            try {
+                action.accept(visitor);
+            } catch (final RuntimeException | AssertionError e) {
+                LOG.debug("Visitor {} failed during replay", visitor, e);
+                failures.put(visitor, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
+
+/**
+ * Visitor which is handed every Mdib revision of a replayed episodic report based history by the
+ * {@linkplain MdibReplayEngine}.
+ *
+ * <p>
+ * <em>Warning: The {@linkplain RemoteMdibAccess} instances passed to a visitor are updated in place by the engine,
+ * visitors must not keep references to them beyond the respective call.</em>
+ */
+public interface MdibReplayVisitor {
+
+    /**
+     * Indicates whether {@linkplain #visitConsecutivePair(RemoteMdibAccess, RemoteMdibAccess, String)} shall be
+     * called. The engine only maintains the additional trailing Mdib if at least one visitor requires it.
+     *
+     * @return true if consecutive pairs of revisions shall be visited, false otherwise
+     */
+    default boolean requiresConsecutivePairs() {
+        return false;
+    }
+
+    /**
+     * Called before the first revision of a sequence is visited.
+     *
+     * @param sequenceId of the sequence which is about to be replayed
+     */
+    default void startSequence(final String sequenceId) {}
+
+    /**
+     * Called for the initial Mdib of a sequence and after every report which has been applied to it.
+     *
+     * @param mdibAccess current revision of the Mdib
+     * @param sequenceId of the sequence the revision belongs to
+     */
+    default void visitRevision(final RemoteMdibAccess mdibAccess, final String sequenceId) {}
+
+    /**
+     * Called after every report which has been applied, with the revisions before and after applying it.
+     *
+     * @param previous   revision of the Mdib before the report was applied
+     * @param current    revision of the Mdib after the report was applied
+     * @param sequenceId of the sequence the revisions belong to
+     */
+    default void visitConsecutivePair(
+            final RemoteMdibAccess previous, final RemoteMdibAccess current, final String sequenceId) {}
+
+    /**
+     * Called after the last revision of a sequence has been visited.
+     *
+     * @param sequenceId of the sequence which has been replayed
+     */
+    default void endSequence(final String sequenceId) {}
+
+    /**
+     * Creates a visitor processing every revision.
+     *
+     * @param processor which processes a revision and its associated sequence id
+     * @return a new visitor
+     */
+    static MdibReplayVisitor ofRevisions(final BiConsumer<RemoteMdibAccess, String> processor) {
+        return new MdibReplayVisitor() {
+            @Override
+            public void visitRevision(final RemoteMdibAccess mdibAccess, final String sequenceId) {
+                processor.accept(mdibAccess, sequenceId);
+            }
+        };
+    }
+
+    /**
+     * Creates a visitor processing every revision, regardless of the sequence it belongs to.
+     *
+     * @param processor which processes a revision
+     * @return a new visitor
+     */
+    static MdibReplayVisitor ofRevisions(final Consumer<RemoteMdibAccess> processor) {
+        return ofRevisions((mdibAccess, sequenceId) -> processor.accept(mdibAccess));
+    }
+
+    /**
+     * Creates a visitor processing every pair of consecutive revisions.
+     *
+     * @param processor which processes the revisions before and after applying a report
+     * @return a new visitor
+     */
+    static MdibReplayVisitor ofConsecutivePairs(final BiConsumer<RemoteMdibAccess, RemoteMdibAccess> processor) {
+        return new MdibReplayVisitor() {
+            @Override
+            public boolean requiresConsecutivePairs() {
+                return true;
+            }
+
+            @Override
+            public void visitConsecutivePair(
+                    final RemoteMdibAccess previous, final RemoteMdibAccess current, final String sequenceId) {
+                processor.accept(previous, current);
+            }
+        };
+    }
+}
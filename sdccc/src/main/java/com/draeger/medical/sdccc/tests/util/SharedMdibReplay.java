@@ -0,0 +1,191 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
+import com.draeger.medical.sdccc.tests.annotations.MdibReplayCheckFor;
+import com.draeger.medical.sdccc.tests.annotations.TestIdentifier;
+import com.draeger.medical.sdccc.tests.util.guice.MdibHistorianFactory;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Replays the episodic report based histories once for the Mdib replay checks of all invariant test cases of a run.
+ *
+ * <p>
+ * The checks of the enabled test cases are registered before the invariant tests are run. The first test case
+ * verifying a registered check triggers a single replay visiting all registered checks, every other test case only
+ * verifies the outcome of its check. Test cases whose check has not been registered, e.g. when they are run on their
+ * own, replay the histories for their check alone.
+ */
+@Singleton
+public class SharedMdibReplay {
+    private static final Logger LOG = LogManager.getLogger(SharedMdibReplay.class);
+
+    private final MessageStore messageStorage;
+    private final TestRunObserver testRunObserver;
+    private final TestClient testClient;
+
+    // test identifier -> check, in order of registration
+    private final Map<String, MdibReplayCheck> registeredChecks;
+
+    // null until the registered checks have been replayed
+    @Nullable
+    private MdibReplayEngine sharedEngine;
+
+    @Inject
+    SharedMdibReplay(
+            final MessageStore messageStorage, final TestRunObserver testRunObserver, final TestClient testClient) {
+        this.messageStorage = messageStorage;
+        this.testRunObserver = testRunObserver;
+        this.testClient = testClient;
+        this.registeredChecks = new LinkedHashMap<>();
+        this.sharedEngine = null;
+    }
+
+    /**
+     * Registers the check of a test case for the shared replay.
+     *
+     * @param testIdentifier of the test case the check belongs to
+     * @param check          to evaluate during the shared replay
+     */
+    public synchronized void register(final String testIdentifier, final MdibReplayCheck check) {
+        if (this.sharedEngine != null) {
+            LOG.warn("Check of {} registered after the shared replay, it is replayed on its own", testIdentifier);
+            return;
+        }
+        this.registeredChecks.put(testIdentifier, check);
+    }
+
+    /**
+     * Registers the checks of all test cases contained in a test plan, created by the methods annotated with
+     * {@linkplain MdibReplayCheckFor} on a set up instance of the test class.
+     *
+     * @param testPlan containing the test cases to be run
+     */
+    public void registerChecks(final TestPlan testPlan) {
+        final Set<String> testIdentifiers = new HashSet<>();
+        final Set<Class<?>> testClasses = new LinkedHashSet<>();
+        for (final var root : testPlan.getRoots()) {
+            for (final var descendant : testPlan.getDescendants(root)) {
+                if (descendant.getSource().orElse(null) instanceof final MethodSource methodSource) {
+                    final TestIdentifier identifier =
+                            methodSource.getJavaMethod().getAnnotation(TestIdentifier.class);
+                    if (identifier != null) {
+                        testIdentifiers.add(identifier.value());
+                        testClasses.add(methodSource.getJavaClass());
+                    }
+                }
+            }
+        }
+
+        for (final Class<?> testClass : testClasses) {
+            Object testInstance = null;
+            for (final Method method : testClass.getDeclaredMethods()) {
+                final MdibReplayCheckFor checkFor = method.getAnnotation(MdibReplayCheckFor.class);
+                if (checkFor == null || !testIdentifiers.contains(checkFor.value())) {
+                    continue;
+                }
+                try {
+                    if (testInstance == null) {
+                        testInstance = createTestInstance(testClass);
+                    }
+                    method.setAccessible(true);
+                    register(checkFor.value(), (MdibReplayCheck) method.invoke(testInstance));
+                } catch (final ReflectiveOperationException | RuntimeException e) {
+                    LOG.error("Could not create the check of {}, it is replayed on its own", checkFor.value(), e);
+                }
+            }
+        }
+        LOG.info("Registered {} checks for the shared Mdib replay", this.registeredChecks.size());
+    }
+
+    // creates a test instance the way the test engine would, i.e. including its set up
+    private static Object createTestInstance(final Class<?> testClass) throws ReflectiveOperationException {
+        final var constructor = testClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        final Object testInstance = constructor.newInstance();
+
+        final List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = testClass; current != null; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        for (final Class<?> current : hierarchy) {
+            for (final Method method : current.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(BeforeEach.class)) {
+                    method.setAccessible(true);
+                    method.invoke(testInstance);
+                }
+            }
+        }
+        return testInstance;
+    }
+
+    /**
+     * Evaluates the check of a test case, replaying the histories for all registered checks if that has not happened
+     * yet, or for the check alone if it has not been registered.
+     *
+     * @param testIdentifier of the test case the check belongs to
+     * @param checkSupplier  creating the check if it has not been registered
+     * @throws NoTestData  if the replay has not provided the data required by the check
+     * @throws IOException on errors retrieving the sequence ids from storage
+     */
+    public void verify(final String testIdentifier, final Supplier<MdibReplayCheck> checkSupplier)
+            throws NoTestData, IOException {
+        final MdibReplayCheck check;
+        final MdibReplayEngine engine;
+        synchronized (this) {
+            final MdibReplayCheck registeredCheck = this.registeredChecks.remove(testIdentifier);
+            if (registeredCheck != null) {
+                if (this.sharedEngine == null) {
+                    this.sharedEngine = replaySharedChecks(registeredCheck);
+                }
+                check = registeredCheck;
+                engine = this.sharedEngine;
+            } else {
+                check = checkSupplier.get();
+                engine = createMdibHistorian().replayAll(List.of(check.getVisitor()));
+            }
+        }
+        engine.throwIfFailed(check.getVisitor());
+        check.verify();
+    }
+
+    private MdibReplayEngine replaySharedChecks(final MdibReplayCheck firstCheck) throws IOException {
+        final List<MdibReplayVisitor> visitors = new ArrayList<>(this.registeredChecks.size() + 1);
+        visitors.add(firstCheck.getVisitor());
+        this.registeredChecks.values().forEach(registered -> visitors.add(registered.getVisitor()));
+        LOG.info("Replaying the episodic report based histories once for {} checks", visitors.size());
+        return createMdibHistorian().replayAll(visitors);
+    }
+
+    private MdibHistorian createMdibHistorian() {
+        return this.testClient
+                .getInjector()
+                .getInstance(MdibHistorianFactory.class)
+                .createMdibHistorian(this.messageStorage, this.testRunObserver);
+    }
+}
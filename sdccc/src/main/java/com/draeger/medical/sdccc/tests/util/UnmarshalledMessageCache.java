@@ -0,0 +1,200 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import com.draeger.medical.sdccc.messages.MessageView;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.somda.sdc.dpws.soap.MarshallingService;
+import org.somda.sdc.dpws.soap.SoapUtil;
+import org.somda.sdc.dpws.soap.exception.MarshallingException;
+
+/**
+ * Cache of unmarshalled message bodies, keyed by the identifier of the stored message.
+ *
+ * <p>
+ * The cache is shared by all tests and preconditions of a test run, which repeatedly unmarshal the same stored
+ * reports and mdibs. It is bounded by the summed length of the serialized xml of the cached message bodies, not by
+ * the memory the unmarshalled objects occupy, which is usually several times larger. The least recently used entries
+ * are evicted first. Cached bodies are only softly referenced, the garbage collector may reclaim them when memory
+ * runs low.
+ *
+ * <p>
+ * <em>Warning: Cached bodies are not copied, the same instance is handed out to every caller requesting it. Callers
+ * must not modify them. The {@linkplain MdibHistorian} applies cached reports and mdibs to mdib storages configured to
+ * copy their input, hence the storages never share or modify the cached instances, the preconditions only read the
+ * cached reports.</em>
+ */
+@Singleton
+public class UnmarshalledMessageCache {
+    /**
+     * Maximum summed length of the serialized xml of all cached message bodies, in bytes.
+     */
+    static final long MAXIMUM_SERIALIZED_BYTES = 64L * 1024 * 1024;
+
+    private static final Logger LOG = LogManager.getLogger(UnmarshalledMessageCache.class);
+
+    private final MarshallingService marshalling;
+    private final SoapUtil soapUtil;
+    private final long maximumSerializedBytes;
+
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private long cachedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long reclaimedCount;
+
+    @Inject
+    UnmarshalledMessageCache(final MarshallingService marshalling, final SoapUtil soapUtil) {
+        this(marshalling, soapUtil, MAXIMUM_SERIALIZED_BYTES);
+    }
+
+    UnmarshalledMessageCache(
+            final MarshallingService marshalling, final SoapUtil soapUtil, final long maximumSerializedBytes) {
+        this.marshalling = marshalling;
+        this.soapUtil = soapUtil;
+        this.maximumSerializedBytes = maximumSerializedBytes;
+        // access order, the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retrieves the body of a stored message, unmarshalling it only if it is not cached.
+     *
+     * @param messageContent to retrieve the body of
+     * @param bodyType       expected type of the body
+     * @param <T>            expected type of the body
+     * @return the body of the message, empty if it is not of the expected type
+     * @throws MarshallingException if the message could not be unmarshalled
+     */
+    public <T> Optional<T> getBody(final MessageContent messageContent, final Class<T> bodyType)
+            throws MarshallingException {
+        return getBody(
+                messageContent.getUuid(), messageContent::getBodyStream, messageContent.getBodyLength(), bodyType);
+    }
+
+    /**
+     * Retrieves the body of a stored message, unmarshalling it only if it is not cached.
+     *
+     * @param messageView to retrieve the body of
+     * @param bodyType    expected type of the body
+     * @param <T>         expected type of the body
+     * @return the body of the message, empty if it is not of the expected type
+     * @throws MarshallingException if the message could not be unmarshalled
+     */
+    public <T> Optional<T> getBody(final MessageView messageView, final Class<T> bodyType)
+            throws MarshallingException {
+        return getBody(messageView.getUuid(), messageView::getBodyStream, messageView.getBodyLength(), bodyType);
+    }
+
+    private <T> Optional<T> getBody(
+            final String uuid, final Supplier<InputStream> bodyStream, final int bodyLength, final Class<T> bodyType)
+            throws MarshallingException {
+        final var cached = lookup(uuid, bodyType);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        final var message = marshalling.unmarshal(bodyStream.get());
+        final var body = soapUtil.getBody(message, bodyType);
+        body.ifPresent(it -> store(uuid, it, bodyLength));
+        return body;
+    }
+
+    /**
+     * Logs the hit, miss and eviction statistics of the cache.
+     */
+    public void logStatistics() {
+        synchronized (entries) {
+            LOG.info(
+                    "Unmarshalled message cache: {} hits, {} misses, {} evictions, {} reclaimed by the garbage"
+                            + " collector, {} entries cached",
+                    hitCount,
+                    missCount,
+                    evictionCount,
+                    reclaimedCount,
+                    entries.size());
+        }
+    }
+
+    long getHitCount() {
+        synchronized (entries) {
+            return hitCount;
+        }
+    }
+
+    long getMissCount() {
+        synchronized (entries) {
+            return missCount;
+        }
+    }
+
+    long getEvictionCount() {
+        synchronized (entries) {
+            return evictionCount;
+        }
+    }
+
+    @Nullable
+    private <T> T lookup(final String uuid, final Class<T> bodyType) {
+        synchronized (entries) {
+            final var entry = entries.get(uuid);
+            final var value = entry != null ? entry.value().get() : null;
+            if (bodyType.isInstance(value)) {
+                hitCount++;
+                return bodyType.cast(value);
+            }
+            if (entry != null && value == null) {
+                entries.remove(uuid);
+                cachedBytes -= entry.serializedBytes();
+                reclaimedCount++;
+            }
+            missCount++;
+            return null;
+        }
+    }
+
+    private void store(final String uuid, final Object value, final int bodyLength) {
+        if (bodyLength > maximumSerializedBytes) {
+            return;
+        }
+        synchronized (entries) {
+            final var previous = entries.put(uuid, new CacheEntry(new SoftReference<>(value), bodyLength));
+            if (previous != null) {
+                cachedBytes -= previous.serializedBytes();
+            }
+            cachedBytes += bodyLength;
+
+            final Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (cachedBytes > maximumSerializedBytes && iterator.hasNext()) {
+                final var eldest = iterator.next();
+                iterator.remove();
+                cachedBytes -= eldest.getValue().serializedBytes();
+                if (eldest.getValue().value().get() != null) {
+                    evictionCount++;
+                } else {
+                    reclaimedCount++;
+                }
+            }
+        }
+    }
+
+    private record CacheEntry(SoftReference<Object> value, int serializedBytes) {}
+}
@@ -7,7 +7,7 @@
 
 package com.draeger.medical.sdccc.tests.util.guice;
 
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.tests.util.MdibHistorian;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 
@@ -23,5 +23,5 @@ public interface MdibHistorianFactory {
      * @param testRunObserver to indicate failures
      * @return a new mdib historian
      */
-    MdibHistorian createMdibHistorian(MessageStorage messageStorage, TestRunObserver testRunObserver);
+    MdibHistorian createMdibHistorian(MessageStore messageStorage, TestRunObserver testRunObserver);
 }
@@ -9,7 +9,7 @@ package com.draeger.medical.sdccc.util;
 
 import static com.draeger.medical.sdccc.util.Constants.REF_ELEMENT_QUERY;
 
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.google.inject.Inject;
 import java.io.IOException;
@@ -49,14 +49,14 @@ public class MessageGeneratingUtil {
     private final TestRunObserver testRunObserver;
     private final ObjectFactory messageModelFactory;
     private final SoapUtil soapUtil;
-    private final MessageStorage storage;
+    private final MessageStore storage;
 
     @Inject
     MessageGeneratingUtil(
             final TestClient client,
             final TestRunObserver testRunObserver,
             final ObjectFactory messageModelFactory,
-            final MessageStorage storage) {
+            final MessageStore storage) {
         this.client = client;
         this.testRunObserver = testRunObserver;
         this.messageModelFactory = messageModelFactory;
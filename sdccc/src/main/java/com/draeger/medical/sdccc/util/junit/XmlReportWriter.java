@@ -7,7 +7,7 @@
 
 package com.draeger.medical.sdccc.util.junit;
 
-import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.draeger.medical.sdccc.tests.annotations.TestDescription;
 import com.draeger.medical.sdccc.util.TestRunObserver;
 import com.draeger.medical.sdccc.util.junit.util.ClassUtil;
@@ -48,7 +48,7 @@ public class XmlReportWriter {
     private final List<ReportData> reportData;
     private final TestRunObserver testRunObserver;
     private final ClassUtil classUtil;
-    private final MessageStorage messageStorage;
+    private final MessageStore messageStorage;
 
     /**
      * Initializes an XmlReportWriter.
@@ -63,7 +63,7 @@ public class XmlReportWriter {
             @Assisted final List<ReportData> reportData,
             final ClassUtil classUtil,
             final TestRunObserver testRunObserver,
-            final MessageStorage messageStorage) {
+            final MessageStore messageStorage) {
         this.reportData = reportData;
         this.testRunObserver = testRunObserver;
         this.classUtil = classUtil;
@@ -14,6 +14,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.draeger.medical.sdccc.messages.MessageStorage;
+import com.draeger.medical.sdccc.messages.MessageStore;
 import com.google.inject.Injector;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,7 +33,7 @@ public class PreconditionRegistryTest {
     void setUp() {
         final var mockInjector = mock(Injector.class);
         final var messageStorageMock = mock(MessageStorage.class);
-        when(mockInjector.getInstance(MessageStorage.class)).thenReturn(messageStorageMock);
+        when(mockInjector.getInstance(MessageStore.class)).thenReturn(messageStorageMock);
 
         registry = new PreconditionRegistry(mockInjector);
 
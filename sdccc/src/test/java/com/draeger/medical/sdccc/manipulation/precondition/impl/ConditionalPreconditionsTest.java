@@ -29,7 +29,8 @@ import com.draeger.medical.sdccc.manipulation.ResultResponse;
 import com.draeger.medical.sdccc.manipulation.precondition.PreconditionException;
 import com.draeger.medical.sdccc.marshalling.MarshallingUtil;
 import com.draeger.medical.sdccc.messages.MessageStorage;
-import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.messages.MessageStore;
+import com.draeger.medical.sdccc.messages.MessageView;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClient;
 import com.draeger.medical.sdccc.sdcri.testclient.TestClientUtil;
 import com.draeger.medical.sdccc.tests.InjectorTestBase;
@@ -228,19 +229,19 @@ public class ConditionalPreconditionsTest {
     @SuppressWarnings("resource")
     public void testHelloMessagePreconditionCheck() throws PreconditionException, IOException {
         final var mockStorage = mock(MessageStorage.class);
-        final var mockMessage = mock(MessageContent.class);
+        final var mockMessage = mock(MessageView.class);
         @SuppressWarnings("unchecked")
-        final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
+        final MessageStorage.GetterResult<MessageView> mockGetter = mock(MessageStorage.GetterResult.class);
         when(mockGetter.getStream()).thenReturn(Stream.of(mockMessage)).thenReturn(Stream.empty());
         when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-        when(mockStorage.getInboundMessagesByBodyType(ArgumentMatchers.anyBoolean(), any(QName[].class)))
+        when(mockStorage.getInboundMessageViewsByBodyType(ArgumentMatchers.anyBoolean(), any(QName[].class)))
                 .thenReturn(mockGetter);
 
         final var injector = Guice.createInjector(new AbstractModule() {
             @Override
             protected void configure() {
-                bind(MessageStorage.class).toInstance(mockStorage);
+                bind(MessageStore.class).toInstance(mockStorage);
             }
         });
 
@@ -2192,17 +2193,17 @@ public class ConditionalPreconditionsTest {
         @SuppressWarnings("resource")
         final var mockStorage = mock(MessageStorage.class);
         @SuppressWarnings("unchecked")
-        final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
+        final MessageStorage.GetterResult<MessageView> mockGetter = mock(MessageStorage.GetterResult.class);
         // TriggerEpisodicAlertReportPrecondition
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2215,12 +2216,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2234,12 +2235,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2252,12 +2253,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2270,12 +2271,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2290,12 +2291,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2308,12 +2309,12 @@ public class ConditionalPreconditionsTest {
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
 
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
 
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
 
@@ -2490,14 +2491,14 @@ public class ConditionalPreconditionsTest {
         @SuppressWarnings("resource")
         final var mockStorage = mock(MessageStorage.class);
         @SuppressWarnings("unchecked")
-        final MessageStorage.GetterResult<MessageContent> mockGetter = mock(MessageStorage.GetterResult.class);
+        final MessageStorage.GetterResult<MessageView> mockGetter = mock(MessageStorage.GetterResult.class);
         {
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
             assertTrue(ConditionalPreconditions.StateChangedPrecondition.preconditionCheck(injector));
@@ -2507,12 +2508,12 @@ public class ConditionalPreconditionsTest {
         // just metric reports available
         {
             when(mockGetter.areObjectsPresent()).thenReturn(true).thenReturn(false);
-            when(mockStorage.getInboundMessagesByBodyType(Constants.MSG_EPISODIC_METRIC_REPORT))
+            when(mockStorage.getInboundMessageViewsByBodyType(Constants.MSG_EPISODIC_METRIC_REPORT))
                     .thenReturn(mockGetter);
             @SuppressWarnings("unchecked")
-            final MessageStorage.GetterResult<MessageContent> mockGetter2 = mock(MessageStorage.GetterResult.class);
+            final MessageStorage.GetterResult<MessageView> mockGetter2 = mock(MessageStorage.GetterResult.class);
             when(mockGetter2.areObjectsPresent()).thenReturn(false);
-            when(mockStorage.getInboundMessagesByBodyType(
+            when(mockStorage.getInboundMessageViewsByBodyType(
                             Constants.MSG_EPISODIC_ALERT_REPORT,
                             Constants.MSG_EPISODIC_COMPONENT_REPORT,
                             Constants.MSG_EPISODIC_OPERATIONAL_STATE_REPORT,
@@ -2521,7 +2522,7 @@ public class ConditionalPreconditionsTest {
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
             assertTrue(ConditionalPreconditions.StateChangedPrecondition.preconditionCheck(injector));
@@ -2531,11 +2532,11 @@ public class ConditionalPreconditionsTest {
         // no reports available
         {
             when(mockGetter.areObjectsPresent()).thenReturn(false);
-            when(mockStorage.getInboundMessagesByBodyType(any(QName[].class))).thenReturn(mockGetter);
+            when(mockStorage.getInboundMessageViewsByBodyType(any(QName[].class))).thenReturn(mockGetter);
             final var injector = Guice.createInjector(new AbstractModule() {
                 @Override
                 protected void configure() {
-                    bind(MessageStorage.class).toInstance(mockStorage);
+                    bind(MessageStore.class).toInstance(mockStorage);
                 }
             });
             assertFalse(ConditionalPreconditions.StateChangedPrecondition.preconditionCheck(injector));
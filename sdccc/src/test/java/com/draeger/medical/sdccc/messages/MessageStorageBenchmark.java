@@ -0,0 +1,282 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.util.CertificateUtil;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Measures the throughput of the message storage, kept out of the unit tests so that their run time and outcome do not
+ * depend on the machine they are executed on.
+ *
+ * <p>
+ * Run using {@code ./gradlew :sdccc:benchmark}, the results are logged as messages or rows per second.
+ */
+final class MessageStorageBenchmark {
+    private static final Logger LOG = LogManager.getLogger(MessageStorageBenchmark.class);
+
+    private static final int ENTITIES_PER_THREAD = 5000;
+    private static final int ENTITIES_PER_INSERT = 100;
+    private static final List<Integer> THREAD_COUNTS = List.of(1, 2, 4);
+    private static final int MESSAGES_PER_PRODUCER = 5000;
+    private static final int PRODUCER_COUNT = 4;
+    private static final int RELATED_ROWS_MESSAGE_COUNT = 5000;
+    private static final long RELATED_ROWS_BATCH_SIZE = 7L;
+
+    private static final byte[] ACTION_ENVELOPE = ("<s12:Envelope "
+                    + "xmlns:s12=\"http://www.w3.org/2003/05/soap-envelope\" "
+                    + "xmlns:wsa=\"http://www.w3.org/2005/08/addressing\" "
+                    + "xmlns:msg=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/message\">"
+                    + "<s12:Header><wsa:Action s12:mustUnderstand=\"true\">action</wsa:Action>"
+                    + "<wsa:MessageID>urn:uuid:407229f6-a17d-45ae-9e57-d951d55767c3</wsa:MessageID></s12:Header>"
+                    + "<s12:Body><msg:EpisodicMetricReport MdibVersion=\"3\" SequenceId=\"urn:uuid:1\">"
+                    + "<msg:ReportPart/></msg:EpisodicMetricReport></s12:Body></s12:Envelope>")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private MessageStorageBenchmark() {}
+
+    /**
+     * Runs all measurements in a temporary directory, which is removed afterwards.
+     *
+     * @param args unused
+     * @throws Exception when a measurement fails
+     */
+    public static void main(final String[] args) throws Exception {
+        final File dir = Files.createTempDirectory("sdccc-benchmark").toFile();
+        try {
+            measureParallelInserts(new File(dir, "parallel"));
+            measureIngestFlood(new File(dir, "flood"));
+            measureRelatedRows(new File(dir, "related"));
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    /**
+     * Inserts converted messages directly with an increasing number of threads, bypassing the ingest pipeline.
+     */
+    private static void measureParallelInserts(final File dir) throws Exception {
+        final CommunicationContext communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo("http", null, null, null, null, Collections.emptyList()),
+                null);
+        final HibernateConfigImpl hibernateConfig = new HibernateConfigImpl(dir);
+        try (final SessionFactory sessionFactory = hibernateConfig.getConfiguration().buildSessionFactory()) {
+            final BulkInsertWriter writer = new BulkInsertWriter(sessionFactory, hibernateConfig.getInsertBatchSize());
+            for (final int threadCount : THREAD_COUNTS) {
+                final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+                try {
+                    final CountDownLatch startSignal = new CountDownLatch(1);
+                    final List<Future<?>> inserts = new ArrayList<>();
+                    for (int i = 0; i < threadCount; i++) {
+                        inserts.add(executor.submit(() -> {
+                            startSignal.await();
+                            insertMessageContents(writer, communicationContext);
+                            return null;
+                        }));
+                    }
+
+                    final long start = System.nanoTime();
+                    startSignal.countDown();
+                    for (final Future<?> insert : inserts) {
+                        insert.get();
+                    }
+                    final long duration = System.nanoTime() - start;
+
+                    final long inserted = (long) ENTITIES_PER_THREAD * threadCount;
+                    LOG.info(
+                            "Inserted {} messages using {} threads in {} ms, {} inserts/s",
+                            inserted,
+                            threadCount,
+                            TimeUnit.NANOSECONDS.toMillis(duration),
+                            perSecond(inserted, duration));
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        } finally {
+            hibernateConfig.close();
+        }
+    }
+
+    private static void insertMessageContents(
+            final BulkInsertWriter writer, final CommunicationContext communicationContext) {
+        final byte[] body = "<body/>".getBytes(StandardCharsets.UTF_8);
+        final List<Object> entities = new ArrayList<>(ENTITIES_PER_INSERT);
+        for (int i = 0; i < ENTITIES_PER_THREAD; i++) {
+            entities.add(new MessageContent(
+                    body,
+                    StandardCharsets.UTF_8,
+                    communicationContext,
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    System.currentTimeMillis(),
+                    System.nanoTime(),
+                    List.of(new MdibVersionGroupEntity.MdibVersionGroup(i, "sequence", "body")),
+                    Set.of("action"),
+                    UUID.randomUUID().toString(),
+                    true,
+                    null));
+            if (entities.size() == ENTITIES_PER_INSERT) {
+                writer.insert(entities);
+                entities.clear();
+            }
+        }
+        writer.insert(entities);
+    }
+
+    /**
+     * Floods the ingest pipeline from several producing threads, measuring the throughput and the worst time a
+     * producer was blocked adding a message.
+     */
+    private static void measureIngestFlood(final File dir) throws Exception {
+        final CommunicationContext communicationContext = new CommunicationContext(
+                new HttpApplicationInfo(ArrayListMultimap.create(), "transactionId", "requestURI"),
+                new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of()),
+                null);
+        final TestRunObserver testRunObserver = mock(TestRunObserver.class);
+        try (final MessageStorage messageStorage = new MessageStorage(
+                16, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), testRunObserver)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(PRODUCER_COUNT);
+            try {
+                final CountDownLatch startSignal = new CountDownLatch(1);
+                final List<Future<Long>> producers = new ArrayList<>();
+                for (int i = 0; i < PRODUCER_COUNT; i++) {
+                    producers.add(executor.submit(() -> {
+                        startSignal.await();
+                        long maximumLatency = 0;
+                        for (int j = 0; j < MESSAGES_PER_PRODUCER; j++) {
+                            final Message message = new Message(
+                                    CommunicationLog.Direction.INBOUND,
+                                    CommunicationLog.MessageType.REQUEST,
+                                    communicationContext,
+                                    messageStorage);
+                            message.write(ACTION_ENVELOPE);
+                            final long beforeClose = System.nanoTime();
+                            // adds the message to the storage
+                            message.close();
+                            maximumLatency = Math.max(maximumLatency, System.nanoTime() - beforeClose);
+                        }
+                        return maximumLatency;
+                    }));
+                }
+
+                final long start = System.nanoTime();
+                startSignal.countDown();
+                long maximumLatency = 0;
+                for (final Future<Long> producer : producers) {
+                    maximumLatency = Math.max(maximumLatency, producer.get());
+                }
+                messageStorage.flush();
+                final long duration = System.nanoTime() - start;
+
+                final long ingested = (long) MESSAGES_PER_PRODUCER * PRODUCER_COUNT;
+                LOG.info(
+                        "Ingested {} messages from {} threads in {} ms, {} messages/s, maximum add latency {} us",
+                        ingested,
+                        PRODUCER_COUNT,
+                        TimeUnit.NANOSECONDS.toMillis(duration),
+                        perSecond(ingested, duration),
+                        TimeUnit.NANOSECONDS.toMicros(maximumLatency));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        checkValid(testRunObserver);
+    }
+
+    /**
+     * Stores messages with several headers, a certificate, an action and an mdib version group each, using a jdbc
+     * batch size smaller than the number of related rows.
+     */
+    private static void measureRelatedRows(final File dir) throws Exception {
+        final ListMultimap<String, String> headers = ArrayListMultimap.create();
+        headers.put("Content-Type", "application/soap+xml; charset=UTF-8");
+        headers.put("X-Multi", "first");
+        headers.put("X-Multi", "second");
+        final X509Certificate certificate = CertificateUtil.getDummyCert();
+        final CommunicationContext communicationContext = new CommunicationContext(
+                new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                new TransportInfo("https", "localhost", 1234, "remotehost", 4567, List.of(certificate)),
+                null);
+
+        final TestRunObserver testRunObserver = mock(TestRunObserver.class);
+        try (final MessageStorage messageStorage = new MessageStorage(
+                64,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir, RELATED_ROWS_BATCH_SIZE),
+                testRunObserver)) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < RELATED_ROWS_MESSAGE_COUNT; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        communicationContext,
+                        messageStorage)) {
+                    message.write(ACTION_ENVELOPE);
+                }
+            }
+            messageStorage.flush();
+            final long duration = System.nanoTime() - start;
+
+            // the message row and its action, certificate, header and mdib version group rows
+            final long rows = (long) RELATED_ROWS_MESSAGE_COUNT * (1 + 1 + 1 + headers.size() + 1);
+            LOG.info(
+                    "Stored {} messages with {} rows in {} ms, {} rows/s",
+                    RELATED_ROWS_MESSAGE_COUNT,
+                    rows,
+                    TimeUnit.NANOSECONDS.toMillis(duration),
+                    perSecond(rows, duration));
+        }
+        checkValid(testRunObserver);
+    }
+
+    // a measurement of failed inserts is worthless, every invalidation of the test run is a failed insert
+    private static void checkValid(final TestRunObserver testRunObserver) {
+        if (!mockingDetails(testRunObserver).getInvocations().isEmpty()) {
+            throw new IllegalStateException("Messages could not be stored, the measurement is not valid");
+        }
+    }
+
+    private static long perSecond(final long count, final long durationNanos) {
+        return count * TimeUnit.SECONDS.toNanos(1) / Math.max(durationNanos, 1);
+    }
+}
@@ -0,0 +1,1158 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.util.CertificateUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.namespace.QName;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.somda.sdc.biceps.common.CommonConstants;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Behavior every {@linkplain MessageStore} has to provide, subclasses run these tests against a storage engine.
+ */
+public abstract class MessageStoreConformanceTest {
+    private static final String ENVELOPE = "<s12:Envelope"
+            + " xmlns:msg=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/message\""
+            + " xmlns:s12=\"http://www.w3.org/2003/05/soap-envelope\""
+            + " xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">"
+            + "<s12:Header><wsa:Action>action</wsa:Action></s12:Header>"
+            + "<s12:Body>%s</s12:Body></s12:Envelope>";
+    private static final String METRIC_REPORT =
+            "<msg:EpisodicMetricReport MdibVersion=\"%s\" SequenceId=\"urn:uuid:%s\"/>";
+    private static final String ALERT_REPORT =
+            "<msg:EpisodicAlertReport MdibVersion=\"%s\" SequenceId=\"urn:uuid:%s\"/>";
+    private static final QName METRIC_REPORT_QNAME =
+            new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+    private static final QName ALERT_REPORT_QNAME =
+            new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
+    private static final String BASE_MESSAGE_STRING =
+            "<s12:Envelope xmlns:dom=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/participant\" "
+                    + "xmlns:dpws=\"http://docs.oasis-open.org/ws-dd/ns/dpws/2009/01\" "
+                    + "xmlns:ext=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/extension\" "
+                    + "xmlns:mdpws=\"http://standards.ieee.org/downloads/11073/11073-20702-2016\" "
+                    + "xmlns:msg=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/message\" "
+                    + "xmlns:s12=\"http://www.w3.org/2003/05/soap-envelope\" "
+                    + "xmlns:sdc=\"http://standards.ieee.org/downloads/11073/11073-20701-2018\" "
+                    + "xmlns:wsa=\"http://www.w3.org/2005/08/addressing\" "
+                    + "xmlns:wsd=\"http://docs.oasis-open.org/ws-dd/ns/discovery/2009/01\" "
+                    + "xmlns:wse=\"http://schemas.xmlsoap.org/ws/2004/08/eventing\" "
+                    + "xmlns:wsx=\"http://schemas.xmlsoap.org/ws/2004/09/mex\" "
+                    + "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+                    + "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"><s12:Header>"
+                    + "<wsa:To s12:mustUnderstand=\"true\">"
+                    + "https://127.0.0.1:52027/29bf1db0b76e11e982e374e5f9efcfcb"
+                    + "</wsa:To><wsa:Action s12:mustUnderstand=\"true\">"
+                    + "%s"
+                    + "</wsa:Action>"
+                    + "<wsa:MessageID>urn:uuid:407229f6-a17d-45ae-9e57-d951d55767c3</wsa:MessageID>"
+                    + "</s12:Header><s12:Body>%s</s12:Body></s12:Envelope>";
+    private static final String SEQUENCE_ID_METRIC_BODY_STRING =
+            "<msg:EpisodicMetricReport MdibVersion=\"%s\" SequenceId=\"urn:uuid:%s\">"
+                    + "<msg:ReportPart>"
+                    + "<msg:MetricState xsi:type=\"pm:NumericMetricState\" StateVersion=\"1\" "
+                    + "DescriptorHandle=\"H0\" DescriptorVersion=\"0\">"
+                    + "<pm:MetricValue Value=\"10.0\" DeterminationTime=\"1608791424007\">"
+                    + "<pm:MetricQuality Validity=\"Vld\">"
+                    + "</pm:MetricQuality>"
+                    + "</pm:MetricValue>"
+                    + "</msg:MetricState>"
+                    + "</msg:ReportPart>"
+                    + "</msg:EpisodicMetricReport>";
+
+    private CommunicationContext communicationContext;
+    private CommunicationContext secureCommunicationContext;
+    private TestRunObserver testRunObserver;
+
+    /**
+     * Creates an empty storage.
+     *
+     * @param dir             a temporary directory the storage may use
+     * @param testRunObserver to report failures to
+     * @return the storage under test
+     * @throws IOException if the storage could not be created
+     */
+    protected abstract MessageStore createStore(File dir, TestRunObserver testRunObserver) throws IOException;
+
+    @BeforeEach
+    void setUp() throws CertificateException, IOException {
+        this.communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        this.secureCommunicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(
+                        Constants.HTTPS_SCHEME, null, null, null, null, List.of(CertificateUtil.getDummyCert())),
+                null);
+        this.testRunObserver = mock(TestRunObserver.class, RETURNS_DEEP_STUBS);
+    }
+
+    /**
+     * Tests whether stored messages are returned unchanged and separated by direction.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testMessagesByDirection(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            write(store, CommunicationLog.Direction.INBOUND, "first");
+            write(store, CommunicationLog.Direction.OUTBOUND, "second");
+            write(store, CommunicationLog.Direction.INBOUND, "third");
+            store.flush();
+
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                assertEquals(
+                        Set.of("first", "third"),
+                        inbound.getStream().map(MessageContent::getBody).collect(Collectors.toSet()));
+            }
+            try (final MessageStore.GetterResult<MessageContent> outbound = store.getOutboundMessages()) {
+                final List<MessageContent> messages = outbound.getStream().toList();
+                assertEquals(1, messages.size());
+                assertEquals("second", messages.get(0).getBody());
+                assertEquals(CommunicationLog.Direction.OUTBOUND, messages.get(0).getDirection());
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Tests whether presence of objects can be determined without consuming the result.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetterResultPresence(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                assertFalse(inbound.areObjectsPresent());
+            }
+
+            write(store, CommunicationLog.Direction.INBOUND, "body");
+            store.flush();
+
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                assertTrue(inbound.areObjectsPresent());
+                assertEquals(1, inbound.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether messages are filtered by the type of their body.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testInboundMessagesByBodyType(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            write(store, CommunicationLog.Direction.INBOUND, String.format(ENVELOPE, metricReport(1, "a")));
+            write(store, CommunicationLog.Direction.INBOUND, String.format(ENVELOPE, alertReport(2, "a")));
+            write(store, CommunicationLog.Direction.OUTBOUND, String.format(ENVELOPE, metricReport(3, "a")));
+            store.flush();
+
+            try (final MessageStore.GetterResult<MessageContent> metrics =
+                    store.getInboundMessagesByBodyType(METRIC_REPORT_QNAME)) {
+                final List<MessageContent> messages = metrics.getStream().toList();
+                assertEquals(1, messages.size());
+                assertTrue(messages.get(0).getBody().contains(metricReport(1, "a")));
+            }
+            try (final MessageStore.GetterResult<MessageView> views =
+                    store.getInboundMessageViewsByBodyType(METRIC_REPORT_QNAME, ALERT_REPORT_QNAME)) {
+                assertEquals(2, views.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether SequenceId values are returned once, ordered by the first message they appeared in.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testUniqueSequenceIds(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            for (final String sequenceId : List.of("3", "1", "3", "2")) {
+                write(store, CommunicationLog.Direction.INBOUND, String.format(ENVELOPE, metricReport(1, sequenceId)));
+                store.flush();
+            }
+
+            try (final Stream<String> sequenceIds = store.getUniqueSequenceIds()) {
+                assertEquals(List.of("urn:uuid:3", "urn:uuid:1", "urn:uuid:2"), sequenceIds.toList());
+            }
+        }
+    }
+
+    /**
+     * Tests whether manipulations are stored and filtered by name.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testManipulationDataByManipulation(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            store.createManipulationInfo(
+                    1000,
+                    1500,
+                    ResponseTypes.Result.RESULT_SUCCESS,
+                    "{}",
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData());
+            store.createManipulationInfo(
+                    2000,
+                    2500,
+                    ResponseTypes.Result.RESULT_FAIL,
+                    "{}",
+                    "sendBye",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData());
+            store.flush();
+
+            try (final MessageStore.GetterResult<ManipulationData> all = store.getManipulationData()) {
+                assertEquals(2, all.getStream().count());
+            }
+            try (final MessageStore.GetterResult<ManipulationData> hello =
+                    store.getManipulationDataByManipulation("sendHello")) {
+                final List<ManipulationData> manipulations = hello.getStream().toList();
+                assertEquals(1, manipulations.size());
+                assertEquals(1000, manipulations.get(0).getStartTimestamp());
+                assertEquals(1500, manipulations.get(0).getFinishTimestamp());
+                assertEquals(ResponseTypes.Result.RESULT_SUCCESS, manipulations.get(0).getResult());
+            }
+        }
+    }
+
+    /**
+     * Tests whether a closed storage rejects queries.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testClosedStoreRejectsQueries(@TempDir final File dir) throws IOException {
+        final MessageStore store = createStore(dir, this.testRunObserver);
+        store.close();
+
+        assertThrows(IOException.class, store::getInboundMessages);
+        assertThrows(IOException.class, store::getManipulationData);
+        assertThrows(IOException.class, store::getUniqueSequenceIds);
+    }
+
+    /**
+     * Tests whether SequenceId values are ordered by the timestamp of the first message they appear in.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     */
+    @Test
+    public void testGetUniqueSequenceIdsOrdering(@TempDir final File dir) throws IOException, CertificateException {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(String.format(
+                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "3"))
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            messageStorage.flush();
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(String.format(
+                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "2"))
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            messageStorage.flush();
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(String.format(
+                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "1"))
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            messageStorage.flush();
+
+            try (final Stream<String> sequenceIdStream = messageStorage.getUniqueSequenceIds()) {
+                assertEquals(List.of("urn:uuid:3", "urn:uuid:2", "urn:uuid:1"), sequenceIdStream.toList());
+            }
+
+            try (final MessageStore.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertEquals(3, inboundMessages.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether only inbound messages with messageType RESPONSE are retrieved.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundSoapResponseMessages(@TempDir final File dir) throws IOException, CertificateException {
+        final ListMultimap<String, String> multimap = ArrayListMultimap.create();
+
+        multimap.putAll("Content-Type", Collections.singletonList("application/soap+xml; charset=UTF-8"));
+
+        final CommunicationContext headerContext = new CommunicationContext(
+                new HttpApplicationInfo(multimap, "someId", "someUri"),
+                new TransportInfo(
+                        Constants.HTTPS_SCHEME,
+                        null,
+                        null,
+                        null,
+                        null,
+                        Collections.singletonList(CertificateUtil.getDummyCert())),
+                null);
+
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            final var expected = String.format(BASE_MESSAGE_STRING, "action1", "expected_body");
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    headerContext,
+                    messageStorage)) {
+
+                message.write("troll".getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    headerContext,
+                    messageStorage)) {
+
+                message.write("troll".getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            }
+
+            messageStorage.flush();
+
+            {
+                try (final var inboundMessages = messageStorage.getInboundSoapResponseMessages()) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertTrue(expected.equals(message.getBody()) || "troll".equals(message.getBody()));
+                        assertEquals(CommunicationLog.Direction.INBOUND, message.getDirection());
+                        assertEquals(CommunicationLog.MessageType.RESPONSE, message.getMessageType());
+                        count.incrementAndGet();
+                    });
+                    assertEquals(4, count.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the header search and subquery linkage to the main query through the entity IDs.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on dummy cert read errors
+     */
+    @Test
+    public void testGetOutboundHttpMessagesByBodyTypeAndHeaders(@TempDir final File dir)
+            throws IOException, CertificateException {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+
+            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "some_body", "msg");
+            final String expectedBody1 = "<msg:some_body><pm:once_told_me>"
+                    + "the_world_was_macaroni"
+                    + "</pm:once_told_me></msg:some_body>";
+            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
+
+            final ListMultimap<String, String> multimap = ArrayListMultimap.create();
+
+            final List<String> expectedList1 = Arrays.asList("headerContent1", "headerContent2", "headerContent3");
+            final List<String> expectedList2 = Arrays.asList("headerContent4", "chunked");
+
+            final String listName1 = "headername1";
+            final String listName2 = "Transfer-Encoding";
+
+            multimap.putAll(listName1, expectedList1);
+            multimap.putAll(listName2, expectedList2);
+
+            final X509Certificate certificate = CertificateUtil.getDummyCert();
+            final CommunicationContext headerContextFull = new CommunicationContext(
+                    new HttpApplicationInfo(multimap, "someId", "someUri"),
+                    new TransportInfo(
+                            Constants.HTTPS_SCHEME, null, null, null, null, Collections.singletonList(certificate)),
+                    null);
+            final CommunicationContext headerContextEmpty = new CommunicationContext(
+                    new HttpApplicationInfo(ArrayListMultimap.create(), "someId", "someUri"),
+                    new TransportInfo(
+                            Constants.HTTPS_SCHEME, null, null, null, null, Collections.singletonList(certificate)),
+                    null);
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    headerContextEmpty,
+                    messageStorage)) {
+
+                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    headerContextFull,
+                    messageStorage)) {
+
+                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    headerContextFull,
+                    messageStorage)) {
+
+                message.write("troll".getBytes(StandardCharsets.UTF_8));
+            }
+
+            messageStorage.flush();
+
+            {
+                try (final var outboundMessages = messageStorage.getOutboundHttpMessagesByBodyTypeAndHeaders(
+                        List.of(expectedQName1),
+                        List.of(new AbstractMap.SimpleImmutableEntry<>(
+                                "Transfer-Encoding".toLowerCase(), "chunked")))) {
+                    final var count = new AtomicInteger(0);
+                    outboundMessages.getStream().forEach(message -> {
+                        assertEquals(messageContent1, message.getBody());
+                        assertTrue(message.getMdibVersionGroups().stream()
+                                .anyMatch(mdibVersionGroup ->
+                                        mdibVersionGroup.getBodyElement().equals(expectedQName1.toString())));
+                        assertFalse(message.getHeaders().isEmpty());
+                        count.incrementAndGet();
+                    });
+                    assertEquals(1, count.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether getInboundMessageByBodyTypeAndSequenceId() orders the results by MdibVersion and Timestamp.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundMessagesByBodyTypeAndSequenceIdGoodCheckOrderedByMdibVersionAndTimestamp(
+            @TempDir final File dir) throws IOException {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+
+            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String messageContent2 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s2"));
+
+            addMessageWithTimestamp(messageStorage, messageContent2, 30L);
+            addMessageWithTimestamp(messageStorage, messageContent2, 10L);
+            addMessageWithTimestamp(messageStorage, messageContent2, 20L);
+
+            {
+                messageStorage.flush();
+            }
+
+            {
+                try (final var inboundMessages =
+                        messageStorage.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s2", expectedQName2)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        if (count.get() == 0) {
+                            assertEquals(10, message.getNanoTimestamp());
+                        }
+                        if (count.get() == 1) {
+                            assertEquals(20, message.getNanoTimestamp());
+                        }
+                        if (count.get() == 2) {
+                            assertEquals(30, message.getNanoTimestamp());
+                        }
+                        assertEquals(messageContent2, message.getBody());
+                        assertTrue(message.getMdibVersionGroups().stream()
+                                .anyMatch(mdibVersionGroup ->
+                                        mdibVersionGroup.getBodyElement().equals(expectedQName2.toString())));
+                        count.incrementAndGet();
+                    });
+                    assertEquals(3, count.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether getInboundMessagesByBodyTypeAndSequenceId() with a minimum MdibVersion only returns messages of
+     * the given sequence with an MdibVersion of at least the minimum, ordered by MdibVersion.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundMessagesByBodyTypeAndSequenceIdWithMinimumMdibVersion(@TempDir final File dir)
+            throws IOException {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+
+            final var expectedQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String version3 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "s1"));
+            final String version1 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s1"));
+            final String version2 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "2", "s1"));
+            final String otherSequence = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "5", "s2"));
+
+            addMessageWithTimestamp(messageStorage, version3, 10L);
+            addMessageWithTimestamp(messageStorage, version1, 20L);
+            addMessageWithTimestamp(messageStorage, otherSequence, 30L);
+            addMessageWithTimestamp(messageStorage, version2, 40L);
+
+            messageStorage.flush();
+
+            try (final var inboundMessages =
+                    messageStorage.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s1", 2L, expectedQName)) {
+                assertEquals(
+                        List.of(version2, version3),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
+
+            try (final var inboundMessages =
+                    messageStorage.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s1", 4L, expectedQName)) {
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+
+            try (final var inboundMessages =
+                    messageStorage.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s2", 0L, expectedQName)) {
+                assertEquals(
+                        List.of(otherSequence),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
+        }
+    }
+
+    /**
+     * Tests whether only inbound messages matching the body type inside the given time interval are retrieved.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundMessagesByTimeIntervalAndBodyType(@TempDir final File dir) throws IOException {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            // test tag with content
+            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
+            final String expectedBody1 = "<msg:EpisodicAlertReport><pm:once_told_me>"
+                    + "the_world_was_macaroni"
+                    + "</pm:once_told_me></msg:EpisodicAlertReport>";
+            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
+
+            // test empty tag
+            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+            final String expectedBody2 = "<msg:EpisodicMetricReport/>";
+            final String messageContent2 = String.format(BASE_MESSAGE_STRING, "2", expectedBody2);
+
+            final var startInterval = System.nanoTime();
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.secureCommunicationContext,
+                    messageStorage)) {
+                message.write(String.format(BASE_MESSAGE_STRING, "other", "<msg:my_body/>")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            final var finishInterval = System.nanoTime();
+
+            // should not count since not in time interval
+            final var mockMessage = mock(Message.class);
+            final var mockMessageId = UUID.randomUUID();
+            when(mockMessage.getID()).thenReturn(mockMessageId.toString());
+            when(mockMessage.getDirection()).thenReturn(CommunicationLog.Direction.INBOUND);
+            when(mockMessage.getMessageType()).thenReturn(CommunicationLog.MessageType.RESPONSE);
+            when(mockMessage.getCommunicationContext()).thenReturn(this.secureCommunicationContext);
+            when(mockMessage.getNanoTimestamp()).thenReturn(finishInterval + 10000);
+            when(mockMessage.getFinalMemory()).thenReturn(messageContent2.getBytes(StandardCharsets.UTF_8));
+            messageStorage.addMessage(mockMessage);
+
+            messageStorage.flush();
+
+            {
+                try (final var inboundMessages = messageStorage.getInboundMessagesByTimeIntervalAndBodyType(
+                        startInterval, finishInterval, expectedQName2)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertEquals(messageContent2, message.getBody());
+                        assertTrue(message.getMdibVersionGroups().stream()
+                                .anyMatch(mdibVersionGroup ->
+                                        mdibVersionGroup.getBodyElement().equals(expectedQName2.toString())));
+                        count.incrementAndGet();
+                    });
+                    assertEquals(2, count.get());
+                }
+            }
+            {
+                try (final var inboundMessages = messageStorage.getInboundMessagesByTimeIntervalAndBodyType(
+                        startInterval, finishInterval, expectedQName1, expectedQName2)) {
+                    assertEquals(3, inboundMessages.getStream().count());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether only manipulation data matching the given manipulation and parameters are retrieved.
+     *
+     * @param dir message storage directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testGetManipulationDataByParametersAndManipulation(@TempDir final File dir) throws Exception {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            final var startTime1 = 1000;
+            final var finishTime1 = 1500;
+            final var result = ResponseTypes.Result.RESULT_SUCCESS;
+            final var expectedMethodName = "setMetricStatus";
+            final var expectedResponse = "{\"result\":\"RESULT_SUCCESS\"}";
+            final var expectedParameters = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
+                    "someHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
+            final var expectedManipulationInfo = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResponse,
+                    expectedMethodName,
+                    expectedParameters,
+                    messageStorage);
+            expectedManipulationInfo.addToStorage();
+
+            // same manipulation without parameter
+            final var manipulationWithoutParams = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResponse,
+                    expectedMethodName,
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            manipulationWithoutParams.addToStorage();
+
+            // same manipulation with different handle parameter
+            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
+                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
+
+            final var manipulationDifferentHandle = new ManipulationInfo(
+                    startTime1, finishTime1, result, expectedResponse, expectedMethodName, parameters2, messageStorage);
+            manipulationDifferentHandle.addToStorage();
+
+            // different manipulation with same parameter
+            final var differentManipulationSameParam = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResponse,
+                    "setComponentActivation",
+                    expectedParameters,
+                    messageStorage);
+            differentManipulationSameParam.addToStorage();
+
+            final var otherManipulation = new ManipulationInfo(
+                    1200,
+                    1300,
+                    result,
+                    expectedResponse,
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            otherManipulation.addToStorage();
+
+            messageStorage.flush();
+            {
+                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
+                        expectedParameters, expectedMethodName)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertEquals(expectedManipulationInfo.getStartTimestamp(), message.getStartTimestamp());
+                        assertEquals(expectedManipulationInfo.getFinishTimestamp(), message.getFinishTimestamp());
+                        assertEquals(expectedManipulationInfo.getResult(), message.getResult());
+                        assertEquals(expectedManipulationInfo.getMethodName(), message.getMethodName());
+                        for (var parameter : message.getParameters()) {
+                            assertTrue(expectedManipulationInfo.getParameter().stream()
+                                    .map(Pair::getKey)
+                                    .anyMatch(it -> it.equals(parameter.getParameterName())));
+                            assertTrue(expectedManipulationInfo.getParameter().stream()
+                                    .map(Pair::getValue)
+                                    .anyMatch(it -> it.equals(parameter.getParameterValue())));
+                        }
+                        count.incrementAndGet();
+                    });
+                    assertEquals(
+                            1, count.get(), "Only one matching manipulation should've been retrieved from storage.");
+                }
+            }
+            // add second manipulation
+            final var secondManipulation = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResponse,
+                    expectedMethodName,
+                    expectedParameters,
+                    messageStorage);
+            secondManipulation.addToStorage();
+            messageStorage.flush();
+            {
+                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
+                        expectedParameters, expectedMethodName)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> count.incrementAndGet());
+                    assertEquals(2, count.get(), "Two matching manipulation should've been retrieved from storage.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether only manipulation data matching the given manipulation and parameters are retrieved.
+     *
+     * @param dir message storage directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testGetManipulationDataByParametersAndManipulationOneParameter(@TempDir final File dir)
+            throws Exception {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            final var startTime1 = 1000;
+            final var finishTime1 = 1500;
+            final var result = ResponseTypes.Result.RESULT_SUCCESS;
+            final var expectedResult = "{\"result\":\"RESULT_SUCCESS\"}";
+            final var expectedMethodName = "setMetricStatus";
+            final var expectedHandle = "someHandle";
+            final var expectedParameters =
+                    ManipulationParameterUtil.buildHandleManipulationParameterData(expectedHandle);
+            final var expectedParameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
+                    expectedHandle, org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
+
+            final var expectedManipulationInfo = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResult,
+                    expectedMethodName,
+                    expectedParameters2,
+                    messageStorage);
+            expectedManipulationInfo.addToStorage();
+
+            // same manipulation without parameter
+            final var manipulationWithoutParams = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResult,
+                    expectedMethodName,
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            manipulationWithoutParams.addToStorage();
+
+            // same manipulation with different handle parameter
+            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
+                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
+            final var manipulationDifferentHandle = new ManipulationInfo(
+                    startTime1, finishTime1, result, expectedResult, expectedMethodName, parameters2, messageStorage);
+            manipulationDifferentHandle.addToStorage();
+
+            // different manipulation with same parameter
+            final var methodName3 = "setComponentActivation";
+            final var differentManipulationSameParam = new ManipulationInfo(
+                    startTime1, finishTime1, result, expectedResult, methodName3, expectedParameters, messageStorage);
+            differentManipulationSameParam.addToStorage();
+
+            final var startTime2 = 1200;
+            final var finishTime2 = 1300;
+            final var methodName2 = "sendHello";
+            final var otherManipulation = new ManipulationInfo(
+                    startTime2,
+                    finishTime2,
+                    result,
+                    expectedResult,
+                    methodName2,
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            otherManipulation.addToStorage();
+
+            messageStorage.flush();
+
+            {
+                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
+                        expectedParameters, expectedMethodName)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertEquals(expectedManipulationInfo.getStartTimestamp(), message.getStartTimestamp());
+                        assertEquals(expectedManipulationInfo.getFinishTimestamp(), message.getFinishTimestamp());
+                        assertEquals(expectedManipulationInfo.getResult(), message.getResult());
+                        assertEquals(expectedManipulationInfo.getMethodName(), message.getMethodName());
+                        for (var parameter : expectedParameters.getParameterData()) {
+                            assertTrue(message.getParameters().stream()
+                                    .map(ManipulationParameter::getParameterName)
+                                    .anyMatch(it -> it.equals(parameter.getKey())));
+                            assertTrue(message.getParameters().stream()
+                                    .map(ManipulationParameter::getParameterValue)
+                                    .anyMatch(it -> it.equals(parameter.getValue())));
+                        }
+                        count.incrementAndGet();
+                    });
+                    assertEquals(1, count.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether only manipulation data matching the given manipulation is retrieved when no parameters are
+     * specified.
+     *
+     * @param dir message storage directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testGetManipulationDataByParametersAndManipulationEmptyParameters(@TempDir final File dir)
+            throws Exception {
+        try (final MessageStore messageStorage = createStore(dir, this.testRunObserver)) {
+            final var startTime1 = 1000;
+            final var finishTime1 = 1500;
+            final var result = ResponseTypes.Result.RESULT_SUCCESS;
+            final var expectedResult = "{\"result\":\"RESULT_SUCCESS\"}";
+            final var methodName1 = "setMetricStatus";
+            final var parameters1 = ManipulationParameterUtil.buildHandleManipulationParameterData("someHandle");
+            final var manipulation1 = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResult,
+                    methodName1,
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            manipulation1.addToStorage();
+
+            // same manipulation without parameter
+            final var manipulation2 = new ManipulationInfo(
+                    startTime1, finishTime1, result, expectedResult, methodName1, parameters1, messageStorage);
+            manipulation2.addToStorage();
+
+            // same manipulation with different handle parameter
+            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
+                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
+            final var manipulation3 = new ManipulationInfo(
+                    startTime1, finishTime1, result, expectedResult, methodName1, parameters2, messageStorage);
+            manipulation3.addToStorage();
+
+            // different manipulation with same parameter
+            final var manipulation4 = new ManipulationInfo(
+                    startTime1,
+                    finishTime1,
+                    result,
+                    expectedResult,
+                    "setComponentActivation",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            manipulation4.addToStorage();
+
+            final var manipulation5 = new ManipulationInfo(
+                    1200,
+                    1300,
+                    result,
+                    expectedResult,
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
+                    messageStorage);
+            manipulation5.addToStorage();
+
+            messageStorage.flush();
+
+            {
+                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
+                        ManipulationParameterUtil.buildEmptyManipulationParameterData(), methodName1)) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertEquals(methodName1, message.getMethodName());
+                        count.incrementAndGet();
+                    });
+                    assertEquals(
+                            3,
+                            count.get(),
+                            String.format(
+                                    "Three manipulation with method name %s should've been retrieved from storage.",
+                                    methodName1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether only inbound messages of the given sequence and body type received before the given timestamp are
+     * retrieved, ordered by MdibVersion.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testInboundMessagesByTimestampAndBodyType(@TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            final var expectedQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String version2 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "2", "s1"));
+            final String version1 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s1"));
+            final String otherSequence = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s2"));
+            final String tooLate = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "s1"));
+
+            addMessageWithTimestamp(store, version2, 10L);
+            addMessageWithTimestamp(store, version1, 20L);
+            addMessageWithTimestamp(store, otherSequence, 25L);
+            addMessageWithTimestamp(store, tooLate, 30L);
+            store.flush();
+
+            try (final var inboundMessages =
+                    store.getInboundMessagesByTimestampAndBodyType("urn:uuid:s1", 30L, expectedQName)) {
+                assertEquals(
+                        List.of(version1, version2),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
+            try (final var inboundMessages =
+                    store.getInboundMessagesByTimestampAndBodyType("urn:uuid:s1", 10L, expectedQName)) {
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+        }
+    }
+
+    /**
+     * Tests whether getInboundMessagesByBodyTypeAndSequenceId() with a minimum MdibVersion and a finish timestamp only
+     * returns messages of the given sequence within both bounds, ordered by MdibVersion.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testInboundMessagesByBodyTypeAndSequenceIdWithMinimumMdibVersionAndFinishTimestamp(
+            @TempDir final File dir) throws IOException {
+        try (final MessageStore store = createStore(dir, this.testRunObserver)) {
+            final var expectedQName = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+
+            final String version1 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s1"));
+            final String version3 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "s1"));
+            final String version2 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "2", "s1"));
+            final String version4 = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "4", "s1"));
+
+            addMessageWithTimestamp(store, version1, 10L);
+            addMessageWithTimestamp(store, version3, 20L);
+            addMessageWithTimestamp(store, version2, 30L);
+            addMessageWithTimestamp(store, version4, 40L);
+            store.flush();
+
+            try (final var inboundMessages =
+                    store.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s1", 2L, 40L, expectedQName)) {
+                assertEquals(
+                        List.of(version2, version3),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
+            try (final var inboundMessages =
+                    store.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s1", 2L, 20L, expectedQName)) {
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+        }
+    }
+
+    private void write(final MessageStore store, final CommunicationLog.Direction direction, final String body)
+            throws IOException {
+        try (final Message message =
+                new Message(direction, CommunicationLog.MessageType.REQUEST, this.communicationContext, store)) {
+            message.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void addMessageWithTimestamp(
+            final MessageStore messageStorage, final String messageContent2, final Long timestamp) {
+        final var mockMessage1 = mock(Message.class);
+        final var mockMessageId1 = UUID.randomUUID();
+        when(mockMessage1.getID()).thenReturn(mockMessageId1.toString());
+        when(mockMessage1.getDirection()).thenReturn(CommunicationLog.Direction.INBOUND);
+        when(mockMessage1.getMessageType()).thenReturn(CommunicationLog.MessageType.REQUEST);
+        when(mockMessage1.getCommunicationContext()).thenReturn(this.secureCommunicationContext);
+        when(mockMessage1.getNanoTimestamp()).thenReturn(timestamp);
+        when(mockMessage1.getFinalMemory()).thenReturn(messageContent2.getBytes(StandardCharsets.UTF_8));
+        messageStorage.addMessage(mockMessage1);
+    }
+
+    private static String metricReport(final long mdibVersion, final String sequenceId) {
+        return String.format(METRIC_REPORT, mdibVersion, sequenceId);
+    }
+
+    private static String alertReport(final long mdibVersion, final String sequenceId) {
+        return String.format(ALERT_REPORT, mdibVersion, sequenceId);
+    }
+}
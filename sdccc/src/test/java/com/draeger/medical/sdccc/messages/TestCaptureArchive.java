@@ -0,0 +1,207 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.xml.namespace.QName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.somda.sdc.biceps.common.CommonConstants;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Unit tests for {@linkplain CaptureArchive} and {@linkplain CaptureArchiveWriter}.
+ */
+public class TestCaptureArchive {
+    private static final String ENVELOPE = "<s12:Envelope"
+            + " xmlns:msg=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/message\""
+            + " xmlns:s12=\"http://www.w3.org/2003/05/soap-envelope\""
+            + " xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">"
+            + "<s12:Header><wsa:Action>action</wsa:Action></s12:Header>"
+            + "<s12:Body><msg:%s MdibVersion=\"%s\" SequenceId=\"urn:uuid:%s\"/></s12:Body></s12:Envelope>";
+    private static final QName METRIC_REPORT_QNAME =
+            new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+    private static final QName ALERT_REPORT_QNAME =
+            new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
+    // small enough for the messages to be spread over several blocks
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * Tests whether an archive can be queried by SequenceId, body type and time without losing any data.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testQueries(@TempDir final File dir) throws IOException {
+        final Path file = dir.toPath().resolve("capture.sdcccarchive");
+        final List<MessageContent> written;
+        try (final SegmentLogStore store = createStore(dir.toPath().resolve("store"))) {
+            writeReports(store);
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                written = inbound.getStream().toList();
+            }
+            try (final CaptureArchiveWriter writer = new CaptureArchiveWriter(file, BLOCK_SIZE)) {
+                for (final MessageContent messageContent : written) {
+                    writer.addMessage(messageContent);
+                }
+                try (final MessageStore.GetterResult<ManipulationData> manipulations = store.getManipulationData()) {
+                    final Iterator<ManipulationData> iterator = manipulations.getStream().iterator();
+                    while (iterator.hasNext()) {
+                        writer.addManipulation(iterator.next());
+                    }
+                }
+            }
+        }
+
+        try (final CaptureArchive archive = CaptureArchive.open(file)) {
+            assertTrue(archive.getBlockCount() > 2);
+            assertEquals(Set.of("urn:uuid:1", "urn:uuid:2"), archive.getSequenceIds());
+
+            try (final Stream<MessageContent> messages = archive.getMessages()) {
+                final List<MessageContent> read = messages.toList();
+                assertEquals(written.size(), read.size());
+                for (int i = 0; i < written.size(); i++) {
+                    assertEquals(written.get(i).getUuid(), read.get(i).getUuid());
+                    assertEquals(written.get(i).getBody(), read.get(i).getBody());
+                    assertEquals(written.get(i).getMessageHash(), read.get(i).getMessageHash());
+                    assertEquals(written.get(i).getNanoTimestamp(), read.get(i).getNanoTimestamp());
+                }
+            }
+            try (final Stream<MessageContent> messages =
+                    archive.getMessagesBySequenceIdAndBodyType("urn:uuid:2", ALERT_REPORT_QNAME)) {
+                final List<MessageContent> read = messages.toList();
+                assertEquals(5, read.size());
+                read.forEach(message -> assertTrue(message.getBody().contains("EpisodicAlertReport")));
+            }
+            final long start = written.get(3).getNanoTimestamp();
+            final long finish = written.get(6).getNanoTimestamp();
+            try (final Stream<MessageContent> messages = archive.getMessagesByTimeInterval(start, finish)) {
+                assertEquals(
+                        written.stream()
+                                .filter(message -> message.getNanoTimestamp() >= start
+                                        && message.getNanoTimestamp() <= finish)
+                                .map(MessageContent::getUuid)
+                                .toList(),
+                        messages.map(MessageContent::getUuid).toList());
+            }
+            try (final Stream<ManipulationData> manipulations = archive.getManipulationData()) {
+                final List<ManipulationData> read = manipulations.toList();
+                assertEquals(1, read.size());
+                assertEquals("setMetricStatus", read.get(0).getMethodName());
+                assertEquals(ResponseTypes.Result.RESULT_SUCCESS, read.get(0).getResult());
+                assertEquals("handle", read.get(0).getParameters().get(0).getParameterValue());
+            }
+        }
+    }
+
+    /**
+     * Tests whether an exported archive can be imported into another storage.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testExportAndImport(@TempDir final File dir) throws IOException {
+        final Path file = dir.toPath().resolve("capture.sdcccarchive");
+        final List<String> uuids = new ArrayList<>();
+        try (final SegmentLogStore store = createStore(dir.toPath().resolve("export"))) {
+            writeReports(store);
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                inbound.getStream().map(MessageContent::getUuid).forEach(uuids::add);
+            }
+            CaptureArchive.export(store, file);
+        }
+
+        try (final SegmentLogStore store = createStore(dir.toPath().resolve("import"));
+                final CaptureArchive archive = CaptureArchive.open(file)) {
+            archive.importInto(store);
+
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                assertEquals(uuids, inbound.getStream().map(MessageContent::getUuid).toList());
+            }
+            try (final MessageStore.GetterResult<MessageContent> reports =
+                    store.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:1", METRIC_REPORT_QNAME)) {
+                assertEquals(5, reports.getStream().count());
+            }
+            try (final MessageStore.GetterResult<ManipulationData> manipulations = store.getManipulationData()) {
+                assertEquals(1, manipulations.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether files which are not capture archives are rejected.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testRejectsOtherFiles(@TempDir final File dir) throws IOException {
+        final Path file = dir.toPath().resolve("capture.sdcccarchive");
+        Files.writeString(file, "this is not a capture archive, but long enough to have a trailer");
+        assertThrows(IOException.class, () -> CaptureArchive.open(file));
+    }
+
+    private static SegmentLogStore createStore(final Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return new SegmentLogStore(
+                dir, 1024 * 1024, 1, false, true, 0, mock(MessageFactory.class), mock(TestRunObserver.class));
+    }
+
+    private static void writeReports(final MessageStore store) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        for (int i = 0; i < 10; i++) {
+            final String body = i % 2 == 0
+                    ? String.format(ENVELOPE, "EpisodicMetricReport", i, "1")
+                    : String.format(ENVELOPE, "EpisodicAlertReport", i, "2");
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    store)) {
+                message.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        store.createManipulationInfo(
+                1000,
+                1500,
+                ResponseTypes.Result.RESULT_SUCCESS,
+                "{}",
+                "setMetricStatus",
+                ManipulationParameterUtil.buildHandleManipulationParameterData("handle"));
+        store.flush();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Unit tests for {@linkplain ExistingDatabaseHibernateConfig}.
+ */
+public class TestExistingDatabaseHibernateConfig {
+
+    /**
+     * Tests whether the data stored by a previous test run is still available when its database is opened again.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testPreviousRunIsKept(@TempDir final File dir) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        try (final MessageStorage previousRun = new MessageStorage(
+                1,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir),
+                mock(TestRunObserver.class))) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    previousRun)) {
+                message.write("body".getBytes(StandardCharsets.UTF_8));
+            }
+            previousRun.createManipulationInfo(
+                    1000,
+                    1500,
+                    ResponseTypes.Result.RESULT_SUCCESS,
+                    "{}",
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData());
+        }
+
+        try (final MessageStorage reevaluation = new MessageStorage(
+                1,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new ExistingDatabaseHibernateConfig(dir),
+                mock(TestRunObserver.class))) {
+            try (final MessageStore.GetterResult<MessageContent> inbound = reevaluation.getInboundMessages()) {
+                final List<MessageContent> messages = inbound.getStream().toList();
+                assertEquals(1, messages.size());
+                assertEquals("body", messages.get(0).getBody());
+            }
+            try (final MessageStore.GetterResult<ManipulationData> manipulations =
+                    reevaluation.getManipulationData()) {
+                assertEquals(1, manipulations.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether messages and manipulations added while re-evaluating are rejected and leave the database of the
+     * previous test run unchanged.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testPreviousRunIsNotModified(@TempDir final File dir) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        try (final MessageStorage previousRun = new MessageStorage(
+                1,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir),
+                mock(TestRunObserver.class))) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    previousRun)) {
+                message.write("body".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        final var testRunObserver = mock(TestRunObserver.class);
+        try (final MessageStorage reevaluation = new MessageStorage(
+                1,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new ExistingDatabaseHibernateConfig(dir),
+                testRunObserver)) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    reevaluation)) {
+                message.write("other body".getBytes(StandardCharsets.UTF_8));
+            }
+            reevaluation.createManipulationInfo(
+                    1000,
+                    1500,
+                    ResponseTypes.Result.RESULT_SUCCESS,
+                    "{}",
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData());
+            reevaluation.flush();
+        }
+        verify(testRunObserver, atLeastOnce()).invalidateTestRun(anyString());
+
+        try (final MessageStorage reevaluation = new MessageStorage(
+                1,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new ExistingDatabaseHibernateConfig(dir),
+                mock(TestRunObserver.class))) {
+            try (final MessageStore.GetterResult<MessageContent> inbound = reevaluation.getInboundMessages()) {
+                final List<MessageContent> messages = inbound.getStream().toList();
+                assertEquals(1, messages.size());
+                assertEquals("body", messages.get(0).getBody());
+            }
+            try (final MessageStore.GetterResult<ManipulationData> manipulations =
+                    reevaluation.getManipulationData()) {
+                assertEquals(0, manipulations.getStream().count());
+            }
+        }
+    }
+}
@@ -7,8 +7,10 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -19,18 +21,24 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import com.draeger.medical.sdccc.messages.util.MessageUtil;
 import com.draeger.medical.sdccc.util.XPathExtractor;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.somda.sdc.dpws.CommunicationLog;
 import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
 
 /**
  * Unit tests for the Message container.
@@ -78,6 +86,113 @@ public class TestMessage {
         assertThrows(IOException.class, () -> message.write(1));
     }
 
+    /**
+     * Tests whether bulk writes with offsets spanning multiple buffer chunks are stored completely and in order.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testMessageBulkWrite() throws Exception {
+        final CommunicationContext mockContext = mock(CommunicationContext.class, RETURNS_DEEP_STUBS);
+        when(mockContext.getTransportInfo().getScheme()).thenReturn("https");
+
+        final MessageStorage mockStorage = mock(MessageStorage.class);
+
+        final Message message = new Message(
+                CommunicationLog.Direction.INBOUND, CommunicationLog.MessageType.REQUEST, mockContext, mockStorage);
+
+        final byte[] expected = new byte[ChunkedByteBuffer.CHUNK_SIZE * 3 + 17];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+
+        // write with a padding around the actual data, interleaved with single byte writes
+        final int padding = 5;
+        final byte[] padded = new byte[expected.length + 2 * padding];
+        System.arraycopy(expected, 0, padded, padding, expected.length);
+
+        message.write(expected[0]);
+        message.write(padded, padding + 1, ChunkedByteBuffer.CHUNK_SIZE - 2);
+        message.write(expected[ChunkedByteBuffer.CHUNK_SIZE - 1]);
+        message.write(
+                padded, padding + ChunkedByteBuffer.CHUNK_SIZE, expected.length - ChunkedByteBuffer.CHUNK_SIZE);
+        message.write(padded, 0, 0);
+
+        final ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        message.close();
+
+        verify(mockStorage, times(1)).addMessage(captor.capture());
+        assertArrayEquals(expected, captor.getValue().getFinalMemory());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(expected), captor.getValue().getHash());
+
+        assertThrows(IOException.class, () -> message.write(padded, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        mockContext,
+                        mockStorage)
+                .write(padded, padded.length, 1));
+    }
+
+    /**
+     * Tests whether the hash computed while writing a message matches the SHA-256 test vector and the hash of the
+     * raw bytes.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testMessageHash() throws Exception {
+        final CommunicationContext mockContext = mock(CommunicationContext.class, RETURNS_DEEP_STUBS);
+        final MessageStorage mockStorage = mock(MessageStorage.class);
+
+        final Message message = new Message(
+                CommunicationLog.Direction.INBOUND, CommunicationLog.MessageType.REQUEST, mockContext, mockStorage);
+        assertNull(message.getHash());
+
+        message.write('a');
+        message.write("bc".getBytes(StandardCharsets.UTF_8));
+        message.close();
+
+        final String expectedHash = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        assertEquals(MessageUtil.HASH_LENGTH, message.getHash().length);
+        assertEquals(expectedHash, MessageUtil.toHex(message.getHash()));
+        assertEquals(expectedHash, MessageUtil.hashMessage(message.getFinalMemory()));
+        assertEquals(expectedHash, MessageUtil.hashMessage("abc"));
+    }
+
+    /**
+     * Tests whether messages are stored completely regardless of whether the announced Content-Length is correct,
+     * too small, too large or not a number.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testMessageContentLength() throws Exception {
+        final byte[] expected = new byte[ChunkedByteBuffer.FIRST_CHUNK_SIZE * 5 + 3];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+
+        for (final String contentLength :
+                List.of(String.valueOf(expected.length), "10", String.valueOf(expected.length * 10), "invalid")) {
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            headers.put("Content-Length", contentLength);
+            final CommunicationContext context = new CommunicationContext(
+                    new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                    new TransportInfo("https", "localhost", 1234, "remotehost", 4567, List.of()),
+                    null);
+            final MessageStorage mockStorage = mock(MessageStorage.class);
+
+            final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND, CommunicationLog.MessageType.REQUEST, context, mockStorage);
+            message.write(expected, 0, 7);
+            message.write(expected, 7, expected.length - 7);
+            message.close();
+
+            assertArrayEquals(expected, message.getFinalMemory(), contentLength);
+        }
+    }
+
     /**
      * Test whether message can handle content using complex characters.
      *
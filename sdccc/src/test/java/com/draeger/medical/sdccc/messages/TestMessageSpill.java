@@ -0,0 +1,169 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.util.CertificateUtil;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.HttpApplicationInfo;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Unit tests for the {@linkplain MessageSpill}.
+ */
+public class TestMessageSpill {
+
+    /**
+     * Tests whether spilled messages are read back unchanged and in the order they have been appended.
+     *
+     * @param dir a temporary directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testRoundTrip(@TempDir final Path dir) throws Exception {
+        final var messageStorage = mock(MessageStorage.class);
+        final ListMultimap<String, String> headers = ArrayListMultimap.create();
+        headers.put("Content-Type", "application/soap+xml; charset=UTF-8");
+        headers.put("X-Multi", "first");
+        headers.put("X-Multi", "second");
+        final var certificate = CertificateUtil.getDummyCert();
+
+        final var httpMessage = closedMessage(
+                CommunicationLog.Direction.INBOUND,
+                new CommunicationContext(
+                        new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                        new TransportInfo("https", "localhost", 1234, "remotehost", 4567, List.of(certificate)),
+                        null),
+                messageStorage,
+                "<Envelope>äöü</Envelope>");
+        final var plainMessage = closedMessage(
+                CommunicationLog.Direction.OUTBOUND,
+                new CommunicationContext(
+                        new ApplicationInfo(), new TransportInfo("udp", null, null, null, null, List.of()), null),
+                messageStorage,
+                "");
+
+        try (final var spill = new MessageSpill(dir.resolve("spill.bin"), messageStorage)) {
+            assertFalse(spill.appendIfActive(httpMessage));
+
+            spill.append(httpMessage);
+            assertTrue(spill.appendIfActive(plainMessage));
+            assertEquals(2, spill.getSpilledCount());
+
+            assertTrue(spill.awaitMessage());
+            final var replayedHttpMessage = spill.read();
+            spill.markReplayed();
+            assertTrue(spill.awaitMessage());
+            final var replayedPlainMessage = spill.read();
+            spill.markReplayed();
+
+            assertMessageEquals(httpMessage, replayedHttpMessage);
+            final var httpApplicationInfo = assertInstanceOf(
+                    HttpApplicationInfo.class,
+                    replayedHttpMessage.getCommunicationContext().getApplicationInfo());
+            assertEquals(headers, httpApplicationInfo.getHeaders());
+            assertEquals("transactionId", httpApplicationInfo.getTransactionId());
+            assertEquals(Optional.of("requestURI"), httpApplicationInfo.getRequestUri());
+            assertEquals(
+                    List.of(certificate),
+                    replayedHttpMessage
+                            .getCommunicationContext()
+                            .getTransportInfo()
+                            .getX509Certificates());
+
+            assertMessageEquals(plainMessage, replayedPlainMessage);
+            assertFalse(replayedPlainMessage.getCommunicationContext().getApplicationInfo()
+                    instanceof HttpApplicationInfo);
+            final var transportInfo = replayedPlainMessage.getCommunicationContext().getTransportInfo();
+            assertTrue(transportInfo.getLocalAddress().isEmpty());
+            assertTrue(transportInfo.getRemotePort().isEmpty());
+
+            // a drained spill starts over with an empty file and stops spilling further messages
+            assertEquals(0, Files.size(dir.resolve("spill.bin")));
+            assertFalse(spill.appendIfActive(plainMessage));
+        }
+    }
+
+    /**
+     * Tests whether the spill file is removed and no further messages are accepted once the spill is closed.
+     *
+     * @param dir a temporary directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testClose(@TempDir final Path dir) throws Exception {
+        final var messageStorage = mock(MessageStorage.class);
+        final var file = dir.resolve("spill.bin");
+        final var spill = new MessageSpill(file, messageStorage);
+        spill.close();
+
+        assertFalse(Files.exists(file));
+        assertFalse(spill.awaitMessage());
+        assertThrows(
+                IOException.class,
+                () -> spill.append(closedMessage(
+                        CommunicationLog.Direction.INBOUND,
+                        new CommunicationContext(
+                                new ApplicationInfo(),
+                                new TransportInfo("http", null, null, null, null, List.of()),
+                                null),
+                        messageStorage,
+                        "")));
+    }
+
+    private static Message closedMessage(
+            final CommunicationLog.Direction direction,
+            final CommunicationContext communicationContext,
+            final MessageStorage messageStorage,
+            final String body)
+            throws IOException {
+        final var message = new Message(
+                direction, CommunicationLog.MessageType.REQUEST, communicationContext, messageStorage);
+        message.write(body.getBytes(StandardCharsets.UTF_8));
+        message.close();
+        return message;
+    }
+
+    private static void assertMessageEquals(final Message expected, final Message actual) {
+        assertEquals(expected.getID(), actual.getID());
+        assertEquals(expected.getDirection(), actual.getDirection());
+        assertEquals(expected.getMessageType(), actual.getMessageType());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getNanoTimestamp(), actual.getNanoTimestamp());
+        assertArrayEquals(expected.getFinalMemory(), actual.getFinalMemory());
+        assertArrayEquals(expected.getHash(), actual.getHash());
+        assertTrue(actual.isClosed());
+
+        final var expectedTransportInfo = expected.getCommunicationContext().getTransportInfo();
+        final var actualTransportInfo = actual.getCommunicationContext().getTransportInfo();
+        assertEquals(expectedTransportInfo.getScheme(), actualTransportInfo.getScheme());
+        assertEquals(expectedTransportInfo.getLocalAddress(), actualTransportInfo.getLocalAddress());
+        assertEquals(expectedTransportInfo.getLocalPort(), actualTransportInfo.getLocalPort());
+        assertEquals(expectedTransportInfo.getRemoteAddress(), actualTransportInfo.getRemoteAddress());
+        assertEquals(expectedTransportInfo.getRemotePort(), actualTransportInfo.getRemotePort());
+    }
+}
@@ -7,6 +7,7 @@
 
 package com.draeger.medical.sdccc.messages;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -20,14 +21,19 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.CertificateEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderEntity;
+import com.draeger.medical.sdccc.messages.mapping.HTTPHeaderFieldEntity;
 import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
-import com.draeger.medical.sdccc.messages.mapping.ManipulationParameter;
+import com.draeger.medical.sdccc.messages.mapping.MdibVersionGroupEntity;
+import com.draeger.medical.sdccc.messages.mapping.MessageBodyEntity;
 import com.draeger.medical.sdccc.messages.mapping.MessageContent;
 import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
 import com.draeger.medical.sdccc.util.CertificateUtil;
@@ -41,21 +47,37 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.time.Duration;
-import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -73,7 +95,6 @@ import org.somda.sdc.dpws.soap.TransportInfo;
  * Tests for the message storage.
  */
 public class TestMessageStorage {
-
     private static final String BASE_MESSAGE_STRING =
             "<s12:Envelope xmlns:dom=\"http://standards.ieee.org/downloads/11073/11073-10207-2017/participant\" "
                     + "xmlns:dpws=\"http://docs.oasis-open.org/ws-dd/ns/dpws/2009/01\" "
@@ -221,73 +242,136 @@ public class TestMessageStorage {
     }
 
     /**
-     * Tests whether SequenceId values are stored and only distinct values returned on request.
+     * Tests whether the metadata of a message is extracted before the payload of the SOAP body is skipped, i.e. a
+     * message whose payload is truncated still yields its action and the attributes of its body element.
      *
      * @param dir message storage directory
      * @throws IOException          on io exceptions
      * @throws CertificateException on certificate exceptions
      */
     @Test
-    public void testGetUniqueSequenceIds(@TempDir final File dir) throws IOException, CertificateException {
+    public void testMetadataExtractionOfTruncatedPayload(@TempDir final File dir)
+            throws IOException, CertificateException {
         try (final MessageStorage messageStorage = new MessageStorage(
                 1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            final ListMultimap<String, String> multimap = ArrayListMultimap.create();
+            final CommunicationContext communicationContext = new CommunicationContext(
+                    new HttpApplicationInfo(ArrayListMultimap.create(), "transactionId", "requestURI"),
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of()),
+                    null);
 
-            final CommunicationContext headerContext = getCommunicationContext(multimap);
+            final var completeMessage = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "5", "1"));
+            // cut the message off within the payload of the report
+            final var truncatedMessage = completeMessage.substring(0, completeMessage.indexOf("<pm:MetricValue") + 6);
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.REQUEST,
-                    headerContext,
+                    communicationContext,
                     messageStorage)) {
-                message.write(ACTION_ENVELOPE);
+                message.write(truncatedMessage.getBytes(StandardCharsets.UTF_8));
             }
             messageStorage.flush();
 
+            try (final MessageStorage.GetterResult<MessageContent> messageContentGetterResult =
+                    messageStorage.getInboundMessages()) {
+                final MessageContent messageContent =
+                        messageContentGetterResult.getStream().toList().get(0);
+                assertTrue(messageContent.getIsSOAP());
+                assertEquals(Set.of("action"), messageContent.getActions());
+                assertEquals(1, messageContent.getMdibVersionGroups().size());
+                assertEquals(5, messageContent.getMdibVersionGroups().get(0).getMdibVersion());
+                assertEquals("urn:uuid:1", messageContent.getMdibVersionGroups().get(0).getSequenceId());
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Tests whether a SOAP body with more than one child invalidates the test run, while the metadata of the first
+     * child is still extracted.
+     *
+     * @param dir message storage directory
+     * @throws IOException          on io exceptions
+     * @throws CertificateException on certificate exceptions
+     */
+    @Test
+    public void testMultipleSoapBodyChildren(@TempDir final File dir) throws IOException, CertificateException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final CommunicationContext headerContext = getCommunicationContext(ArrayListMultimap.create());
+
+            final var singleChild = String.format(
+                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "5", "1"));
+            final var multipleChildren = String.format(
+                    BASE_MESSAGE_STRING,
+                    "action",
+                    String.format(SEQUENCE_ID_METRIC_BODY_STRING, "6", "1")
+                            + String.format(SEQUENCE_ID_METRIC_BODY_STRING, "7", "1"));
+            // the empty action element must not throw off the depth of the body children
+            final var multipleChildrenEmptyAction = String.format(
+                    BASE_MESSAGE_STRING,
+                    "",
+                    String.format(SEQUENCE_ID_METRIC_BODY_STRING, "8", "1")
+                            + String.format(SEQUENCE_ID_METRIC_BODY_STRING, "9", "1"));
+
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.REQUEST,
                     headerContext,
                     messageStorage)) {
-                message.write(String.format(
-                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "2"))
-                        .getBytes(StandardCharsets.UTF_8));
+                message.write(singleChild.getBytes(StandardCharsets.UTF_8));
             }
             messageStorage.flush();
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.REQUEST,
                     headerContext,
                     messageStorage)) {
-                message.write(String.format(
-                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "1"))
-                        .getBytes(StandardCharsets.UTF_8));
+                message.write(multipleChildren.getBytes(StandardCharsets.UTF_8));
             }
             messageStorage.flush();
+            verify(this.testRunObserver, times(1))
+                    .invalidateTestRun("Encountered multiple elements in soap body, but more than one are not allowed.");
 
-            try (final Stream<String> sequenceIdStream = messageStorage.getUniqueSequenceIds()) {
-                assertEquals(
-                        List.of("urn:uuid:1", "urn:uuid:2"),
-                        sequenceIdStream.sorted().toList());
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    headerContext,
+                    messageStorage)) {
+                message.write(multipleChildrenEmptyAction.getBytes(StandardCharsets.UTF_8));
             }
+            messageStorage.flush();
+            verify(this.testRunObserver, times(2))
+                    .invalidateTestRun("Encountered multiple elements in soap body, but more than one are not allowed.");
 
-            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+            try (final MessageStorage.GetterResult<MessageContent> messageContentGetterResult =
                     messageStorage.getInboundMessages()) {
-                assertEquals(3, inboundMessages.getStream().count());
+                final List<MessageContent> messageContents =
+                        messageContentGetterResult.getStream().toList();
+                assertEquals(3, messageContents.size());
+                // only the first child of each body yields an MdibVersion group
+                assertEquals(
+                        Set.of(5L, 6L, 8L),
+                        messageContents.stream()
+                                .flatMap(messageContent -> messageContent.getMdibVersionGroups().stream())
+                                .map(MdibVersionGroupEntity::getMdibVersion)
+                                .collect(Collectors.toSet()));
             }
         }
     }
 
     /**
-     * Tests whether SequenceId values are ordered by the timestamp of the first message they appear in.
+     * Tests whether SequenceId values are stored and only distinct values returned on request.
      *
      * @param dir message storage directory
      * @throws IOException          on io exceptions
      * @throws CertificateException on certificate exceptions
      */
     @Test
-    public void testGetUniqueSequenceIdsOrdering(@TempDir final File dir) throws IOException, CertificateException {
+    public void testGetUniqueSequenceIds(@TempDir final File dir) throws IOException, CertificateException {
         try (final MessageStorage messageStorage = new MessageStorage(
                 1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
             final ListMultimap<String, String> multimap = ArrayListMultimap.create();
@@ -299,9 +383,7 @@ public class TestMessageStorage {
                     CommunicationLog.MessageType.REQUEST,
                     headerContext,
                     messageStorage)) {
-                message.write(String.format(
-                                BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "3", "3"))
-                        .getBytes(StandardCharsets.UTF_8));
+                message.write(ACTION_ENVELOPE);
             }
             messageStorage.flush();
 
@@ -328,7 +410,9 @@ public class TestMessageStorage {
             messageStorage.flush();
 
             try (final Stream<String> sequenceIdStream = messageStorage.getUniqueSequenceIds()) {
-                assertEquals(List.of("urn:uuid:3", "urn:uuid:2", "urn:uuid:1"), sequenceIdStream.toList());
+                assertEquals(
+                        List.of("urn:uuid:1", "urn:uuid:2"),
+                        sequenceIdStream.sorted().toList());
             }
 
             try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
@@ -775,48 +859,23 @@ public class TestMessageStorage {
     }
 
     /**
-     * Tests whether only inbound messages with messageType RESPONSE are retrieved.
+     * Tests whether only inbound messages with http scheme are retrieved.
      *
      * @param dir message storage directory
      * @throws IOException on io exceptions
      */
     @Test
-    public void testGetInboundSoapResponseMessages(@TempDir final File dir) throws IOException, CertificateException {
-        final ListMultimap<String, String> multimap = ArrayListMultimap.create();
-
-        multimap.putAll("Content-Type", Collections.singletonList("application/soap+xml; charset=UTF-8"));
-
-        final CommunicationContext headerContext = new CommunicationContext(
-                new HttpApplicationInfo(multimap, "someId", "someUri"),
-                new TransportInfo(
-                        Constants.HTTPS_SCHEME,
-                        null,
-                        null,
-                        null,
-                        null,
-                        Collections.singletonList(CertificateUtil.getDummyCert())),
-                null);
-
+    public void testGetInboundHttpMessages(@TempDir final File dir) throws IOException {
         try (final MessageStorage messageStorage = new MessageStorage(
-                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            final var expected = String.format(BASE_MESSAGE_STRING, "action1", "expected_body");
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
-            }
+                5, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    headerContext,
+                    CommunicationLog.MessageType.UNKNOWN,
+                    this.udpMessageContext,
                     messageStorage)) {
 
-                message.write("troll".getBytes(StandardCharsets.UTF_8));
+                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
@@ -825,16 +884,16 @@ public class TestMessageStorage {
                     this.messageContext,
                     messageStorage)) {
 
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
+                    CommunicationLog.MessageType.UNKNOWN,
+                    this.udpMessageContext,
                     messageStorage)) {
 
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
@@ -843,98 +902,281 @@ public class TestMessageStorage {
                     this.messageContext,
                     messageStorage)) {
 
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+                message.write("expected".getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
+                    this.insecureMessageContext,
                     messageStorage)) {
 
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+                message.write("expected".getBytes(StandardCharsets.UTF_8));
             }
 
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    this.messageContext,
-                    messageStorage)) {
+            messageStorage.flush();
 
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+            {
+                try (final var inboundMessages = messageStorage.getInboundHttpMessages()) {
+                    final var count = new AtomicInteger(0);
+                    inboundMessages.getStream().forEach(message -> {
+                        assertEquals("expected", message.getBody());
+                        count.incrementAndGet();
+                    });
+                    assertEquals(2, count.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether the views of inbound http messages match the stored entities, including the http headers which
+     * are loaded for a page of views at once.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testGetInboundHttpMessageViews(@TempDir final File dir) throws IOException {
+        // more messages than fit into a single page, so that headers are loaded for several pages
+        final int messageCount = 25;
+        try (final MessageStorage messageStorage = new MessageStorage(
+                5, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+
+            for (int i = 0; i < messageCount; i++) {
+                final ListMultimap<String, String> headers = ArrayListMultimap.create();
+                headers.put("x-index", String.valueOf(i));
+                headers.putAll("x-multi", List.of("first" + i, "second" + i));
+                final CommunicationContext headerContext = new CommunicationContext(
+                        new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                        new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, Collections.emptyList()),
+                        null);
+
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.RESPONSE,
+                        headerContext,
+                        messageStorage)) {
+                    message.write(("expected" + i).getBytes(StandardCharsets.UTF_8));
+                }
             }
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    headerContext,
+                    CommunicationLog.MessageType.UNKNOWN,
+                    this.udpMessageContext,
                     messageStorage)) {
+                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
+            }
 
-                message.write("troll".getBytes(StandardCharsets.UTF_8));
+            messageStorage.flush();
+
+            final Map<String, MessageContent> entities = new HashMap<>();
+            try (final var inboundMessages = messageStorage.getInboundHttpMessages()) {
+                inboundMessages.getStream().forEach(message -> entities.put(message.getUuid(), message));
+            }
+            assertEquals(messageCount, entities.size());
+
+            try (final var inboundMessageViews = messageStorage.getInboundHttpMessageViews()) {
+                assertTrue(inboundMessageViews.areObjectsPresent());
+                final var count = new AtomicInteger(0);
+                inboundMessageViews.getStream().forEach(view -> {
+                    final MessageContent entity = entities.get(view.getUuid());
+                    assertNotNull(entity);
+                    assertEquals(entity.getBody(), view.getBody());
+                    assertEquals(entity.getBodyLength(), view.getBodyLength());
+                    assertEquals(entity.getMessageHash(), view.getMessageHash());
+                    assertEquals(entity.getNanoTimestamp(), view.getNanoTimestamp());
+                    assertEquals(CommunicationLog.Direction.INBOUND, view.getDirection());
+                    assertEquals(CommunicationLog.MessageType.RESPONSE, view.getMessageType());
+                    assertEquals(entity.getHeaders(), view.getHeaders());
+
+                    final String index = view.getBody().substring("expected".length());
+                    assertEquals(List.of(index), view.getHeaders().get("x-index"));
+                    assertEquals(List.of("first" + index, "second" + index), view.getHeaders().get("x-multi"));
+                    count.incrementAndGet();
+                });
+                assertEquals(messageCount, count.get());
             }
+        }
+    }
+
+    /**
+     * Tests whether the number of rows fetched per database round trip follows the average length of stored bodies.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testFetchSizeAdaptsToBodyLength(@TempDir final File dir) throws IOException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                5, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            // nothing is known about the bodies yet
+            assertEquals(10, messageStorage.getFetchSize());
 
             try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
                     this.messageContext,
                     messageStorage)) {
-
-                message.write(expected.getBytes(StandardCharsets.UTF_8));
+                message.write(new byte[1024]);
+            }
+            messageStorage.flush();
+            assertEquals(500, messageStorage.getFetchSize());
+
+            for (int i = 0; i < 2; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        this.messageContext,
+                        messageStorage)) {
+                    message.write(new byte[2 * 1024 * 1024]);
+                }
             }
+            messageStorage.flush();
+            assertEquals(10, messageStorage.getFetchSize());
+        }
+    }
 
+    /**
+     * Tests whether bodies stored after the dictionary has been trained are compressed and read back unchanged, also
+     * after the database has been opened again.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testCompressedBodies(@TempDir final File dir) throws IOException {
+        final int trainingSamples = 5;
+        final int messageCount = 20;
+        final Map<String, String> expectedBodies = new HashMap<>();
+        // a single conversion thread trains the dictionary on exactly the first messages
+        try (final MessageStorage messageStorage = new MessageStorage(
+                5,
+                false,
+                true,
+                1L,
+                0L,
+                false,
+                true,
+                trainingSamples,
+                null,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir),
+                this.testRunObserver)) {
+            for (int i = 0; i < messageCount; i++) {
+                final String body = String.format(
+                        BASE_MESSAGE_STRING,
+                        "action",
+                        String.format(SEQUENCE_ID_METRIC_BODY_STRING, String.valueOf(i), "1"));
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        this.messageContext,
+                        messageStorage)) {
+                    message.write(body.getBytes(StandardCharsets.UTF_8));
+                    expectedBodies.put(message.getID(), body);
+                }
+            }
             messageStorage.flush();
 
-            {
-                try (final var inboundMessages = messageStorage.getInboundSoapResponseMessages()) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertTrue(expected.equals(message.getBody()) || "troll".equals(message.getBody()));
-                        assertEquals(CommunicationLog.Direction.INBOUND, message.getDirection());
-                        assertEquals(CommunicationLog.MessageType.RESPONSE, message.getMessageType());
-                        count.incrementAndGet();
-                    });
-                    assertEquals(4, count.get());
+            try (final var inboundMessages = messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(messageCount, messages.size());
+                for (final MessageContent message : messages) {
+                    assertEquals(expectedBodies.get(message.getUuid()), message.getBody());
+                    assertEquals(
+                            expectedBodies.get(message.getUuid()).getBytes(StandardCharsets.UTF_8).length,
+                            message.getBodyLength());
                 }
+                assertEquals(
+                        messageCount - trainingSamples,
+                        messages.stream()
+                                .filter(message -> message.getBodyDictionary() != null)
+                                .count());
+            }
+        }
+
+        try (final MessageStorage reopened = new MessageStorage(
+                5,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new ExistingDatabaseHibernateConfig(dir),
+                this.testRunObserver)) {
+            try (final var inboundMessages = reopened.getInboundMessages()) {
+                inboundMessages
+                        .getStream()
+                        .forEach(message -> assertEquals(expectedBodies.get(message.getUuid()), message.getBody()));
+            }
+            try (final var views = reopened.getInboundSoapMessageViews()) {
+                final var count = new AtomicInteger(0);
+                views.getStream().forEach(view -> {
+                    assertEquals(expectedBodies.get(view.getUuid()), view.getBody());
+                    count.incrementAndGet();
+                });
+                assertEquals(messageCount, count.get());
             }
         }
+        verify(this.testRunObserver, never()).invalidateTestRun(anyString());
     }
 
     /**
-     * Tests whether only inbound messages with http scheme are retrieved.
+     * Tests whether only inbound messages matching the body type are retrieved.
      *
      * @param dir message storage directory
      * @throws IOException on io exceptions
      */
     @Test
-    public void testGetInboundHttpMessages(@TempDir final File dir) throws IOException {
+    public void testGetInboundMessagesByBodyType(@TempDir final File dir) throws IOException {
         try (final MessageStorage messageStorage = new MessageStorage(
-                5, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            // test tag with content
+            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
+            final String expectedBody1 = "<msg:EpisodicAlertReport><pm:once_told_me>"
+                    + "the_world_was_macaroni"
+                    + "</pm:once_told_me></msg:EpisodicAlertReport>";
+            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
+
+            // test empty tag
+            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
+            final String expectedBody2 = "<msg:EpisodicMetricReport/>";
+            final String messageContent2 = String.format(BASE_MESSAGE_STRING, "2", expectedBody2);
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.UNKNOWN,
-                    this.udpMessageContext,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.messageContext,
                     messageStorage)) {
 
-                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.messageContext,
+                    messageStorage)) {
+
+                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.REQUEST,
                     this.messageContext,
                     messageStorage)) {
 
-                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.UNKNOWN,
-                    this.udpMessageContext,
+                    CommunicationLog.MessageType.RESPONSE,
+                    this.messageContext,
                     messageStorage)) {
 
-                message.write("notExpected".getBytes(StandardCharsets.UTF_8));
+                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
@@ -943,217 +1185,35 @@ public class TestMessageStorage {
                     this.messageContext,
                     messageStorage)) {
 
-                message.write("expected".getBytes(StandardCharsets.UTF_8));
+                message.write(String.format(BASE_MESSAGE_STRING, "other", "<msg:my_body/>")
+                        .getBytes(StandardCharsets.UTF_8));
             }
 
             try (final Message message = new Message(
                     CommunicationLog.Direction.INBOUND,
                     CommunicationLog.MessageType.RESPONSE,
-                    this.insecureMessageContext,
+                    this.messageContext,
                     messageStorage)) {
 
-                message.write("expected".getBytes(StandardCharsets.UTF_8));
+                message.write(String.format(BASE_MESSAGE_STRING, "other2", "<pm:pmpmpm>ok</pm:pmpmpm>")
+                        .getBytes(StandardCharsets.UTF_8));
             }
 
-            messageStorage.flush();
+            {
+                messageStorage.flush();
+            }
 
             {
-                try (final var inboundMessages = messageStorage.getInboundHttpMessages()) {
+                try (final var inboundMessages = messageStorage.getInboundMessagesByBodyType(expectedQName1)) {
                     final var count = new AtomicInteger(0);
                     inboundMessages.getStream().forEach(message -> {
-                        assertEquals("expected", message.getBody());
+                        assertEquals(messageContent1, message.getBody());
+                        assertTrue(message.getMdibVersionGroups().stream()
+                                .anyMatch(mdibVersionGroup ->
+                                        mdibVersionGroup.getBodyElement().equals(expectedQName1.toString())));
                         count.incrementAndGet();
                     });
-                    assertEquals(2, count.get());
-                }
-            }
-        }
-    }
-
-    /**
-     * Test the header search and subquery linkage to the main query through the entity IDs.
-     *
-     * @param dir message storage directory
-     * @throws IOException          on io exceptions
-     * @throws CertificateException on dummy cert read errors
-     */
-    @Test
-    public void testGetOutboundHttpMessagesByBodyTypeAndHeaders(@TempDir final File dir)
-            throws IOException, CertificateException {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                3, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-
-            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "some_body", "msg");
-            final String expectedBody1 = "<msg:some_body><pm:once_told_me>"
-                    + "the_world_was_macaroni"
-                    + "</pm:once_told_me></msg:some_body>";
-            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
-
-            final ListMultimap<String, String> multimap = ArrayListMultimap.create();
-
-            final List<String> expectedList1 = Arrays.asList("headerContent1", "headerContent2", "headerContent3");
-            final List<String> expectedList2 = Arrays.asList("headerContent4", "chunked");
-
-            final String listName1 = "headername1";
-            final String listName2 = "Transfer-Encoding";
-
-            multimap.putAll(listName1, expectedList1);
-            multimap.putAll(listName2, expectedList2);
-
-            final X509Certificate certificate = CertificateUtil.getDummyCert();
-            final CommunicationContext headerContextFull = new CommunicationContext(
-                    new HttpApplicationInfo(multimap, "someId", "someUri"),
-                    new TransportInfo(
-                            Constants.HTTPS_SCHEME, null, null, null, null, Collections.singletonList(certificate)),
-                    null);
-            final CommunicationContext headerContextEmpty = new CommunicationContext(
-                    new HttpApplicationInfo(ArrayListMultimap.create(), "someId", "someUri"),
-                    new TransportInfo(
-                            Constants.HTTPS_SCHEME, null, null, null, null, Collections.singletonList(certificate)),
-                    null);
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    headerContextEmpty,
-                    messageStorage)) {
-
-                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    headerContextFull,
-                    messageStorage)) {
-
-                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    headerContextFull,
-                    messageStorage)) {
-
-                message.write("troll".getBytes(StandardCharsets.UTF_8));
-            }
-
-            messageStorage.flush();
-
-            {
-                try (final var outboundMessages = messageStorage.getOutboundHttpMessagesByBodyTypeAndHeaders(
-                        List.of(expectedQName1),
-                        List.of(new AbstractMap.SimpleImmutableEntry<>(
-                                "Transfer-Encoding".toLowerCase(), "chunked")))) {
-                    final var count = new AtomicInteger(0);
-                    outboundMessages.getStream().forEach(message -> {
-                        assertEquals(messageContent1, message.getBody());
-                        assertTrue(message.getMdibVersionGroups().stream()
-                                .anyMatch(mdibVersionGroup ->
-                                        mdibVersionGroup.getBodyElement().equals(expectedQName1.toString())));
-                        assertFalse(message.getHeaders().isEmpty());
-                        count.incrementAndGet();
-                    });
-                    assertEquals(1, count.get());
-                }
-            }
-        }
-    }
-
-    /**
-     * Tests whether only inbound messages matching the body type are retrieved.
-     *
-     * @param dir message storage directory
-     * @throws IOException on io exceptions
-     */
-    @Test
-    public void testGetInboundMessagesByBodyType(@TempDir final File dir) throws IOException {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            // test tag with content
-            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
-            final String expectedBody1 = "<msg:EpisodicAlertReport><pm:once_told_me>"
-                    + "the_world_was_macaroni"
-                    + "</pm:once_told_me></msg:EpisodicAlertReport>";
-            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
-
-            // test empty tag
-            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
-            final String expectedBody2 = "<msg:EpisodicMetricReport/>";
-            final String messageContent2 = String.format(BASE_MESSAGE_STRING, "2", expectedBody2);
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.REQUEST,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(String.format(BASE_MESSAGE_STRING, "other", "<msg:my_body/>")
-                        .getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(String.format(BASE_MESSAGE_STRING, "other2", "<pm:pmpmpm>ok</pm:pmpmpm>")
-                        .getBytes(StandardCharsets.UTF_8));
-            }
-
-            {
-                messageStorage.flush();
-            }
-
-            {
-                try (final var inboundMessages = messageStorage.getInboundMessagesByBodyType(expectedQName1)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertEquals(messageContent1, message.getBody());
-                        assertTrue(message.getMdibVersionGroups().stream()
-                                .anyMatch(mdibVersionGroup ->
-                                        mdibVersionGroup.getBodyElement().equals(expectedQName1.toString())));
-                        count.incrementAndGet();
-                    });
-                    assertEquals(1, count.get());
+                    assertEquals(1, count.get());
                 }
             }
             {
@@ -1333,70 +1393,6 @@ public class TestMessageStorage {
         }
     }
 
-    /**
-     * Tests whether getInboundMessageByBodyTypeAndSequenceId() orders the results by MdibVersion and Timestamp.
-     *
-     * @param dir message storage directory
-     * @throws IOException on io exceptions
-     */
-    @Test
-    public void testGetInboundMessagesByBodyTypeAndSequenceIdGoodCheckOrderedByMdibVersionAndTimestamp(
-            @TempDir final File dir) throws IOException {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-
-            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
-
-            final String messageContent2 = String.format(
-                    BASE_MESSAGE_STRING, "action", String.format(SEQUENCE_ID_METRIC_BODY_STRING, "1", "s2"));
-
-            addMessageWithTimestamp(messageStorage, messageContent2, 30L);
-            addMessageWithTimestamp(messageStorage, messageContent2, 10L);
-            addMessageWithTimestamp(messageStorage, messageContent2, 20L);
-
-            {
-                messageStorage.flush();
-            }
-
-            {
-                try (final var inboundMessages =
-                        messageStorage.getInboundMessagesByBodyTypeAndSequenceId("urn:uuid:s2", expectedQName2)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        if (count.get() == 0) {
-                            assertEquals(10, message.getNanoTimestamp());
-                        }
-                        if (count.get() == 1) {
-                            assertEquals(20, message.getNanoTimestamp());
-                        }
-                        if (count.get() == 2) {
-                            assertEquals(30, message.getNanoTimestamp());
-                        }
-                        assertEquals(messageContent2, message.getBody());
-                        assertTrue(message.getMdibVersionGroups().stream()
-                                .anyMatch(mdibVersionGroup ->
-                                        mdibVersionGroup.getBodyElement().equals(expectedQName2.toString())));
-                        count.incrementAndGet();
-                    });
-                    assertEquals(3, count.get());
-                }
-            }
-        }
-    }
-
-    private void addMessageWithTimestamp(
-            final MessageStorage messageStorage, final String messageContent2, final Long timestamp) {
-        final var mockMessage1 = mock(Message.class);
-        final var mockMessageId1 = UUID.randomUUID();
-        when(mockMessage1.getID()).thenReturn(mockMessageId1.toString());
-        when(mockMessage1.getDirection()).thenReturn(CommunicationLog.Direction.INBOUND);
-        when(mockMessage1.getMessageType()).thenReturn(CommunicationLog.MessageType.REQUEST);
-        when(mockMessage1.getCommunicationContext()).thenReturn(this.messageContext);
-        when(mockMessage1.getNanoTimestamp()).thenReturn(timestamp);
-        when(mockMessage1.getFinalMemory()).thenReturn(messageContent2.getBytes(StandardCharsets.UTF_8));
-        messageStorage.addMessage(mockMessage1);
-    }
-
     /**
      * Tests whether manipulation data are retrieved from storage.
      *
@@ -1545,106 +1541,90 @@ public class TestMessageStorage {
     }
 
     /**
-     * Tests whether only inbound messages matching the body type inside the given time interval are retrieved.
+     * Tests whether determining the presence of objects in a getter result neither consumes an object from the
+     * stream nor depends on the stream not having been consumed yet.
      *
      * @param dir message storage directory
      * @throws IOException on io exceptions
      */
     @Test
-    public void testGetInboundMessagesByTimeIntervalAndBodyType(@TempDir final File dir) throws IOException {
+    public void testGetterResultPresence(@TempDir final File dir) throws IOException {
         try (final MessageStorage messageStorage = new MessageStorage(
-                6, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            // test tag with content
-            final var expectedQName1 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicAlertReport", "msg");
-            final String expectedBody1 = "<msg:EpisodicAlertReport><pm:once_told_me>"
-                    + "the_world_was_macaroni"
-                    + "</pm:once_told_me></msg:EpisodicAlertReport>";
-            final String messageContent1 = String.format(BASE_MESSAGE_STRING, "1", expectedBody1);
-
-            // test empty tag
-            final var expectedQName2 = new QName(CommonConstants.NAMESPACE_MESSAGE, "EpisodicMetricReport", "msg");
-            final String expectedBody2 = "<msg:EpisodicMetricReport/>";
-            final String messageContent2 = String.format(BASE_MESSAGE_STRING, "2", expectedBody2);
-
-            final var startInterval = System.nanoTime();
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.OUTBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertFalse(inboundMessages.areObjectsPresent());
+                assertEquals(0, inboundMessages.getStream().count());
+                assertFalse(inboundMessages.areObjectsPresent());
+            }
+
+            for (final String body : List.of("first", "second")) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        this.messageContext,
+                        messageStorage)) {
+                    message.write(body.getBytes(StandardCharsets.UTF_8));
+                }
             }
+            messageStorage.flush();
 
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-                message.write(messageContent1.getBytes(StandardCharsets.UTF_8));
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertTrue(inboundMessages.areObjectsPresent());
+                assertTrue(inboundMessages.areObjectsPresent());
+                assertEquals(
+                        Set.of("first", "second"),
+                        new HashSet<>(inboundMessages
+                                .getStream()
+                                .map(MessageContent::getBody)
+                                .toList()));
             }
 
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertEquals(2, inboundMessages.getStream().count());
+                assertTrue(inboundMessages.areObjectsPresent());
             }
+        }
+    }
 
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-                message.write(messageContent2.getBytes(StandardCharsets.UTF_8));
-            }
-
-            try (final Message message = new Message(
-                    CommunicationLog.Direction.INBOUND,
-                    CommunicationLog.MessageType.RESPONSE,
-                    this.messageContext,
-                    messageStorage)) {
-                message.write(String.format(BASE_MESSAGE_STRING, "other", "<msg:my_body/>")
-                        .getBytes(StandardCharsets.UTF_8));
-            }
-            final var finishInterval = System.nanoTime();
-
-            // should not count since not in time interval
-            final var mockMessage = mock(Message.class);
-            final var mockMessageId = UUID.randomUUID();
-            when(mockMessage.getID()).thenReturn(mockMessageId.toString());
-            when(mockMessage.getDirection()).thenReturn(CommunicationLog.Direction.INBOUND);
-            when(mockMessage.getMessageType()).thenReturn(CommunicationLog.MessageType.RESPONSE);
-            when(mockMessage.getCommunicationContext()).thenReturn(this.messageContext);
-            when(mockMessage.getNanoTimestamp()).thenReturn(finishInterval + 10000);
-            when(mockMessage.getFinalMemory()).thenReturn(messageContent2.getBytes(StandardCharsets.UTF_8));
-            messageStorage.addMessage(mockMessage);
+    /**
+     * Tests whether every message added before a flush is committed once the flush returns, for consecutive flushes
+     * and for flushes without any pending messages.
+     *
+     * @param dir message storage directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testMessageStorageFlushCommitsAllMessages(@TempDir final File dir) throws IOException {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                10, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            int expectedCount = 0;
+            for (final int messagesToAdd : List.of(200, 50, 0)) {
+                for (int i = 0; i < messagesToAdd; i++) {
+                    try (final Message message = new Message(
+                            CommunicationLog.Direction.INBOUND,
+                            CommunicationLog.MessageType.REQUEST,
+                            this.messageContext,
+                            messageStorage)) {
+                        message.write(("body" + i).getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                expectedCount += messagesToAdd;
 
-            messageStorage.flush();
+                assertTimeoutPreemptively(
+                        Duration.ofSeconds(30),
+                        messageStorage::flush,
+                        "MessageStorage flush timed out after 30 seconds, might be in a deadlock.");
 
-            {
-                try (final var inboundMessages = messageStorage.getInboundMessagesByTimeIntervalAndBodyType(
-                        startInterval, finishInterval, expectedQName2)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertEquals(messageContent2, message.getBody());
-                        assertTrue(message.getMdibVersionGroups().stream()
-                                .anyMatch(mdibVersionGroup ->
-                                        mdibVersionGroup.getBodyElement().equals(expectedQName2.toString())));
-                        count.incrementAndGet();
-                    });
-                    assertEquals(2, count.get());
-                }
-            }
-            {
-                try (final var inboundMessages = messageStorage.getInboundMessagesByTimeIntervalAndBodyType(
-                        startInterval, finishInterval, expectedQName1, expectedQName2)) {
-                    assertEquals(3, inboundMessages.getStream().count());
+                try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                        messageStorage.getInboundMessages()) {
+                    assertEquals(expectedCount, inboundMessages.getStream().count());
                 }
             }
         }
+        verify(testRunObserver, never()).invalidateTestRun(any(Throwable.class));
     }
 
     /**
@@ -1717,297 +1697,6 @@ public class TestMessageStorage {
         }
     }
 
-    /**
-     * Tests whether only manipulation data matching the given manipulation and parameters are retrieved.
-     *
-     * @param dir message storage directory
-     * @throws Exception on any exception
-     */
-    @Test
-    public void testGetManipulationDataByParametersAndManipulation(@TempDir final File dir) throws Exception {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            final var startTime1 = 1000;
-            final var finishTime1 = 1500;
-            final var result = ResponseTypes.Result.RESULT_SUCCESS;
-            final var expectedMethodName = "setMetricStatus";
-            final var expectedResponse = "{\"result\":\"RESULT_SUCCESS\"}";
-            final var expectedParameters = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
-                    "someHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
-            final var expectedManipulationInfo = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResponse,
-                    expectedMethodName,
-                    expectedParameters,
-                    messageStorage);
-            expectedManipulationInfo.addToStorage();
-
-            // same manipulation without parameter
-            final var manipulationWithoutParams = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResponse,
-                    expectedMethodName,
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            manipulationWithoutParams.addToStorage();
-
-            // same manipulation with different handle parameter
-            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
-                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
-
-            final var manipulationDifferentHandle = new ManipulationInfo(
-                    startTime1, finishTime1, result, expectedResponse, expectedMethodName, parameters2, messageStorage);
-            manipulationDifferentHandle.addToStorage();
-
-            // different manipulation with same parameter
-            final var differentManipulationSameParam = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResponse,
-                    "setComponentActivation",
-                    expectedParameters,
-                    messageStorage);
-            differentManipulationSameParam.addToStorage();
-
-            final var otherManipulation = new ManipulationInfo(
-                    1200,
-                    1300,
-                    result,
-                    expectedResponse,
-                    "sendHello",
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            otherManipulation.addToStorage();
-
-            messageStorage.flush();
-            {
-                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
-                        expectedParameters, expectedMethodName)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertEquals(expectedManipulationInfo.getStartTimestamp(), message.getStartTimestamp());
-                        assertEquals(expectedManipulationInfo.getFinishTimestamp(), message.getFinishTimestamp());
-                        assertEquals(expectedManipulationInfo.getResult(), message.getResult());
-                        assertEquals(expectedManipulationInfo.getMethodName(), message.getMethodName());
-                        for (var parameter : message.getParameters()) {
-                            assertTrue(expectedManipulationInfo.getParameter().stream()
-                                    .map(Pair::getKey)
-                                    .anyMatch(it -> it.equals(parameter.getParameterName())));
-                            assertTrue(expectedManipulationInfo.getParameter().stream()
-                                    .map(Pair::getValue)
-                                    .anyMatch(it -> it.equals(parameter.getParameterValue())));
-                        }
-                        count.incrementAndGet();
-                    });
-                    assertEquals(
-                            1, count.get(), "Only one matching manipulation should've been retrieved from storage.");
-                }
-            }
-            // add second manipulation
-            final var secondManipulation = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResponse,
-                    expectedMethodName,
-                    expectedParameters,
-                    messageStorage);
-            secondManipulation.addToStorage();
-            messageStorage.flush();
-            {
-                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
-                        expectedParameters, expectedMethodName)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> count.incrementAndGet());
-                    assertEquals(2, count.get(), "Two matching manipulation should've been retrieved from storage.");
-                }
-            }
-        }
-    }
-
-    /**
-     * Tests whether only manipulation data matching the given manipulation and parameters are retrieved.
-     *
-     * @param dir message storage directory
-     * @throws Exception on any exception
-     */
-    @Test
-    public void testGetManipulationDataByParametersAndManipulationOneParameter(@TempDir final File dir)
-            throws Exception {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            final var startTime1 = 1000;
-            final var finishTime1 = 1500;
-            final var result = ResponseTypes.Result.RESULT_SUCCESS;
-            final var expectedResult = "{\"result\":\"RESULT_SUCCESS\"}";
-            final var expectedMethodName = "setMetricStatus";
-            final var expectedHandle = "someHandle";
-            final var expectedParameters =
-                    ManipulationParameterUtil.buildHandleManipulationParameterData(expectedHandle);
-            final var expectedParameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
-                    expectedHandle, org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
-
-            final var expectedManipulationInfo = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResult,
-                    expectedMethodName,
-                    expectedParameters2,
-                    messageStorage);
-            expectedManipulationInfo.addToStorage();
-
-            // same manipulation without parameter
-            final var manipulationWithoutParams = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResult,
-                    expectedMethodName,
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            manipulationWithoutParams.addToStorage();
-
-            // same manipulation with different handle parameter
-            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
-                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
-            final var manipulationDifferentHandle = new ManipulationInfo(
-                    startTime1, finishTime1, result, expectedResult, expectedMethodName, parameters2, messageStorage);
-            manipulationDifferentHandle.addToStorage();
-
-            // different manipulation with same parameter
-            final var methodName3 = "setComponentActivation";
-            final var differentManipulationSameParam = new ManipulationInfo(
-                    startTime1, finishTime1, result, expectedResult, methodName3, expectedParameters, messageStorage);
-            differentManipulationSameParam.addToStorage();
-
-            final var startTime2 = 1200;
-            final var finishTime2 = 1300;
-            final var methodName2 = "sendHello";
-            final var otherManipulation = new ManipulationInfo(
-                    startTime2,
-                    finishTime2,
-                    result,
-                    expectedResult,
-                    methodName2,
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            otherManipulation.addToStorage();
-
-            messageStorage.flush();
-
-            {
-                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
-                        expectedParameters, expectedMethodName)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertEquals(expectedManipulationInfo.getStartTimestamp(), message.getStartTimestamp());
-                        assertEquals(expectedManipulationInfo.getFinishTimestamp(), message.getFinishTimestamp());
-                        assertEquals(expectedManipulationInfo.getResult(), message.getResult());
-                        assertEquals(expectedManipulationInfo.getMethodName(), message.getMethodName());
-                        for (var parameter : expectedParameters.getParameterData()) {
-                            assertTrue(message.getParameters().stream()
-                                    .map(ManipulationParameter::getParameterName)
-                                    .anyMatch(it -> it.equals(parameter.getKey())));
-                            assertTrue(message.getParameters().stream()
-                                    .map(ManipulationParameter::getParameterValue)
-                                    .anyMatch(it -> it.equals(parameter.getValue())));
-                        }
-                        count.incrementAndGet();
-                    });
-                    assertEquals(1, count.get());
-                }
-            }
-        }
-    }
-
-    /**
-     * Tests whether only manipulation data matching the given manipulation is retrieved when no parameters are
-     * specified.
-     *
-     * @param dir message storage directory
-     * @throws Exception on any exception
-     */
-    @Test
-    public void testGetManipulationDataByParametersAndManipulationEmptyParameters(@TempDir final File dir)
-            throws Exception {
-        try (final MessageStorage messageStorage = new MessageStorage(
-                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
-            final var startTime1 = 1000;
-            final var finishTime1 = 1500;
-            final var result = ResponseTypes.Result.RESULT_SUCCESS;
-            final var expectedResult = "{\"result\":\"RESULT_SUCCESS\"}";
-            final var methodName1 = "setMetricStatus";
-            final var parameters1 = ManipulationParameterUtil.buildHandleManipulationParameterData("someHandle");
-            final var manipulation1 = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResult,
-                    methodName1,
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            manipulation1.addToStorage();
-
-            // same manipulation without parameter
-            final var manipulation2 = new ManipulationInfo(
-                    startTime1, finishTime1, result, expectedResult, methodName1, parameters1, messageStorage);
-            manipulation2.addToStorage();
-
-            // same manipulation with different handle parameter
-            final var parameters2 = ManipulationParameterUtil.buildComponentActivationManipulationParameterData(
-                    "someOtherHandle", org.somda.sdc.biceps.model.participant.ComponentActivation.ON);
-            final var manipulation3 = new ManipulationInfo(
-                    startTime1, finishTime1, result, expectedResult, methodName1, parameters2, messageStorage);
-            manipulation3.addToStorage();
-
-            // different manipulation with same parameter
-            final var manipulation4 = new ManipulationInfo(
-                    startTime1,
-                    finishTime1,
-                    result,
-                    expectedResult,
-                    "setComponentActivation",
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            manipulation4.addToStorage();
-
-            final var manipulation5 = new ManipulationInfo(
-                    1200,
-                    1300,
-                    result,
-                    expectedResult,
-                    "sendHello",
-                    ManipulationParameterUtil.buildEmptyManipulationParameterData(),
-                    messageStorage);
-            manipulation5.addToStorage();
-
-            messageStorage.flush();
-
-            {
-                try (final var inboundMessages = messageStorage.getManipulationDataByParametersAndManipulation(
-                        ManipulationParameterUtil.buildEmptyManipulationParameterData(), methodName1)) {
-                    final var count = new AtomicInteger(0);
-                    inboundMessages.getStream().forEach(message -> {
-                        assertEquals(methodName1, message.getMethodName());
-                        count.incrementAndGet();
-                    });
-                    assertEquals(
-                            3,
-                            count.get(),
-                            String.format(
-                                    "Three manipulation with method name %s should've been retrieved from storage.",
-                                    methodName1));
-                }
-            }
-        }
-    }
-
     /**
      * Tests if determineCharsetFromMessage() correctly determines the Charset when it is given in the HTTP Header.
      *
@@ -2803,6 +2492,628 @@ public class TestMessageStorage {
             assertNotNull(result);
             assertNotEquals(new String(encodedContent, StandardCharsets.UTF_8), result.getBody());
             assertEquals(content, result.getBody());
+            assertArrayEquals(encodedContent, result.getRawBody());
+            assertEquals(charsetInXMLDeclarationEncoding, result.getBodyCharset());
+        }
+    }
+
+    /**
+     * Checks that the raw bytes of a message are persisted and provided to readers without transcoding them.
+     *
+     * @param dir - a temporary directory.
+     * @throws IOException - when something goes wrong.
+     */
+    @Test
+    public void testRawBodyIsPersisted(@TempDir final File dir) throws IOException {
+        final Charset charset = StandardCharsets.UTF_16LE;
+
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            // given
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            headers.put("Content-Type", String.format("application/xml;charset=%s", charset));
+
+            final HttpApplicationInfo applicationInfo = new HttpApplicationInfo(headers, "transactionId", "requestURI");
+            final TransportInfo transportInfo =
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of());
+            final CommunicationContext communicationContext =
+                    new CommunicationContext(applicationInfo, transportInfo, null);
+            final String content =
+                    String.format("<?xml version=\"1.0\" encoding=\"%s\"?>%n<sometag>\u00e4</sometag>", charset);
+            final byte[] encodedContent = content.getBytes(charset);
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    messageStorage)) {
+                message.write(encodedContent);
+            }
+
+            // when
+            messageStorage.flush();
+
+            // then
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final var messages = inboundMessages.getStream().toList();
+                assertEquals(1, messages.size());
+                final var message = messages.get(0);
+                assertEquals(content, message.getBody());
+                assertEquals(charset, message.getBodyCharset());
+                assertEquals(encodedContent.length, message.getBodyLength());
+                assertArrayEquals(encodedContent, message.getBodyStream().readAllBytes());
+            }
+        }
+    }
+
+    /**
+     * Checks that a body whose charset is only declared in the HTTP Content-Type header is provided to parsers in a
+     * form they decode correctly, while the raw bytes remain untouched.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testBodyStreamWithCharsetOnlyInHeader(@TempDir final File dir) throws Exception {
+        final Charset charset = StandardCharsets.ISO_8859_1;
+
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            // given
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            headers.put("Content-Type", String.format("application/xml;charset=%s", charset));
+
+            final HttpApplicationInfo applicationInfo = new HttpApplicationInfo(headers, "transactionId", "requestURI");
+            final TransportInfo transportInfo =
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of());
+            final CommunicationContext communicationContext =
+                    new CommunicationContext(applicationInfo, transportInfo, null);
+            // neither a byte order mark nor an xml declaration, a parser reading the bytes assumes UTF-8
+            final String text = "\u00e4\u00f6\u00fc\u00df";
+            final String content = String.format("<sometag>%s</sometag>", text);
+            final byte[] encodedContent = content.getBytes(charset);
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    communicationContext,
+                    messageStorage)) {
+                message.write(encodedContent);
+            }
+
+            // when
+            messageStorage.flush();
+
+            // then
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final var messages = inboundMessages.getStream().toList();
+                assertEquals(1, messages.size());
+                final var message = messages.get(0);
+                assertEquals(charset, message.getBodyCharset());
+                assertEquals(content, message.getBody());
+                assertArrayEquals(encodedContent, message.getRawBody());
+
+                final var document = DocumentBuilderFactory.newInstance()
+                        .newDocumentBuilder()
+                        .parse(message.getBodyStream());
+                assertEquals(text, document.getDocumentElement().getTextContent());
+            }
+        }
+    }
+
+    /**
+     * Checks that identifiers allocated by an increasing number of threads inserting in parallel never collide.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testParallelInsertsAllocateDistinctIds(@TempDir final File dir) throws Exception {
+        final int entitiesPerThread = 500;
+        final List<Integer> threadCounts = List.of(1, 2, 4);
+
+        final HibernateConfigImpl hibernateConfig = new HibernateConfigImpl(dir);
+        try (final SessionFactory sessionFactory = hibernateConfig.getConfiguration().buildSessionFactory()) {
+            final BulkInsertWriter writer = new BulkInsertWriter(sessionFactory, hibernateConfig.getInsertBatchSize());
+            for (final int threadCount : threadCounts) {
+                final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+                try {
+                    final CountDownLatch startSignal = new CountDownLatch(1);
+                    final List<Future<?>> inserts = new ArrayList<>();
+                    for (int i = 0; i < threadCount; i++) {
+                        inserts.add(executor.submit(() -> {
+                            startSignal.await();
+                            insertMessageContents(writer, entitiesPerThread);
+                            return null;
+                        }));
+                    }
+                    startSignal.countDown();
+                    for (final Future<?> insert : inserts) {
+                        insert.get();
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            try (final Session session = sessionFactory.openSession()) {
+                final long total = session.createQuery("select count(m) from MessageContent m", Long.class)
+                        .getSingleResult();
+                final long distinctIds = session.createQuery(
+                                "select count(distinct m.incId) from MessageContent m", Long.class)
+                        .getSingleResult();
+                final long expected = (long) entitiesPerThread
+                        * threadCounts.stream().mapToInt(Integer::intValue).sum();
+                assertEquals(expected, total);
+                assertEquals(total, distinctIds);
+            }
+        } finally {
+            hibernateConfig.close();
+        }
+    }
+
+    private void insertMessageContents(final BulkInsertWriter writer, final int count) {
+        final byte[] body = "<body/>".getBytes(StandardCharsets.UTF_8);
+        final List<Object> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entities.add(new MessageContent(
+                    body,
+                    StandardCharsets.UTF_8,
+                    this.insecureMessageContext,
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    System.currentTimeMillis(),
+                    System.nanoTime(),
+                    List.of(new MdibVersionGroupEntity.MdibVersionGroup(i, "sequence", "body")),
+                    Set.of("action"),
+                    UUID.randomUUID().toString(),
+                    true,
+                    null));
+        }
+        writer.insert(entities);
+    }
+
+    /**
+     * Floods the storage with messages from multiple threads and checks that every message is stored.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testConcurrentIngestFlood(@TempDir final File dir) throws Exception {
+        final int messagesPerThread = 500;
+        final int threadCount = 4;
+
+        try (final MessageStorage messageStorage = new MessageStorage(
+                16, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final CommunicationContext communicationContext = new CommunicationContext(
+                    new HttpApplicationInfo(ArrayListMultimap.create(), "transactionId", "requestURI"),
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of()),
+                    null);
+
+            final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            try {
+                final CountDownLatch startSignal = new CountDownLatch(1);
+                final List<Future<?>> producers = new ArrayList<>();
+                for (int i = 0; i < threadCount; i++) {
+                    producers.add(executor.submit(() -> {
+                        startSignal.await();
+                        for (int j = 0; j < messagesPerThread; j++) {
+                            try (final Message message = new Message(
+                                    CommunicationLog.Direction.INBOUND,
+                                    CommunicationLog.MessageType.REQUEST,
+                                    communicationContext,
+                                    messageStorage)) {
+                                message.write(ACTION_ENVELOPE);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+
+                startSignal.countDown();
+                for (final Future<?> producer : producers) {
+                    producer.get();
+                }
+                messageStorage.flush();
+
+                try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                        messageStorage.getInboundMessages()) {
+                    assertEquals((long) messagesPerThread * threadCount, inboundMessages.getStream().count());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Checks that all messages are stored when the number of conversion and insert threads is configured explicitly.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testIngestWithConfiguredThreadCounts(@TempDir final File dir) throws Exception {
+        final int messageCount = 50;
+        try (final MessageStorage messageStorage = new MessageStorage(
+                4,
+                false,
+                true,
+                3L,
+                2L,
+                false,
+                dir,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir),
+                this.testRunObserver)) {
+            final CommunicationContext communicationContext = new CommunicationContext(
+                    new HttpApplicationInfo(ArrayListMultimap.create(), "transactionId", "requestURI"),
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of()),
+                    null);
+
+            for (int i = 0; i < messageCount; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        communicationContext,
+                        messageStorage)) {
+                    message.write(ACTION_ENVELOPE);
+                }
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(messageCount, messages.size());
+                messages.forEach(message -> assertEquals(Set.of("action"), message.getActions()));
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Checks that messages are stored together with all related rows when the insert batch size is smaller than the
+     * number of related rows.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testBulkInsertOfRelatedRows(@TempDir final File dir) throws Exception {
+        final int messageCount = 500;
+        try (final MessageStorage messageStorage = new MessageStorage(
+                64, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir, 7L), this.testRunObserver)) {
+            final ListMultimap<String, String> headers = ArrayListMultimap.create();
+            headers.put("Content-Type", "application/soap+xml; charset=UTF-8");
+            headers.put("X-Multi", "first");
+            headers.put("X-Multi", "second");
+            final X509Certificate certificate = CertificateUtil.getDummyCert();
+            final CommunicationContext communicationContext = new CommunicationContext(
+                    new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                    new TransportInfo("https", "localhost", 1234, "remotehost", 4567, List.of(certificate)),
+                    null);
+
+            for (int i = 0; i < messageCount; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        communicationContext,
+                        messageStorage)) {
+                    message.write(ACTION_ENVELOPE);
+                }
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(messageCount, messages.size());
+                for (final MessageContent message : messages) {
+                    assertEquals(Set.of("action"), message.getActions());
+                    assertEquals(List.of(certificate), message.getCerts());
+                    assertEquals(
+                            Map.of(
+                                    "Content-Type",
+                                    List.of("application/soap+xml; charset=UTF-8"),
+                                    "X-Multi",
+                                    List.of("first", "second")),
+                            message.getHeaders());
+                    assertEquals(1, message.getMdibVersionGroups().size());
+                }
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Checks that certificates and http header key and value pairs shared by several messages are stored only once,
+     * while every message still resolves its own certificates and headers.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testSharedValuesAreStoredOnce(@TempDir final File dir) throws Exception {
+        final int messageCount = 30;
+        try (final MessageStorage messageStorage = new MessageStorage(
+                4, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final X509Certificate certificate = CertificateUtil.getDummyCert();
+
+            for (int i = 0; i < messageCount; i++) {
+                final ListMultimap<String, String> headers = ArrayListMultimap.create();
+                headers.put("Content-Type", "application/soap+xml; charset=UTF-8");
+                headers.put("X-Multi", "first");
+                headers.put("X-Multi", "second");
+                headers.put("X-Parity", Integer.toString(i % 2));
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        new CommunicationContext(
+                                new HttpApplicationInfo(headers, "transactionId", "requestURI"),
+                                new TransportInfo(
+                                        "https", "localhost", 1234, "remotehost", 4567, List.of(certificate)),
+                                null),
+                        messageStorage)) {
+                    message.write(ACTION_ENVELOPE);
+                }
+            }
+            messageStorage.flush();
+
+            assertEquals(1, messageStorage.getStoredEntityCount(CertificateEntity.class));
+            assertEquals(5, messageStorage.getStoredEntityCount(HTTPHeaderFieldEntity.class));
+            assertEquals(messageCount * 4L, messageStorage.getStoredEntityCount(HTTPHeaderEntity.class));
+            assertEquals(1, messageStorage.getStoredEntityCount(MessageBodyEntity.class));
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(messageCount, messages.size());
+                final Map<String, Integer> parities = new HashMap<>();
+                for (final MessageContent message : messages) {
+                    assertEquals(List.of(certificate), message.getCerts());
+                    final Map<String, List<String>> messageHeaders = new HashMap<>(message.getHeaders());
+                    final List<String> parity = messageHeaders.remove("X-Parity");
+                    assertEquals(1, parity.size());
+                    parities.merge(parity.get(0), 1, Integer::sum);
+                    assertEquals(
+                            Map.of(
+                                    "Content-Type",
+                                    List.of("application/soap+xml; charset=UTF-8"),
+                                    "X-Multi",
+                                    List.of("first", "second")),
+                            messageHeaders);
+                }
+                assertEquals(Map.of("0", messageCount / 2, "1", messageCount / 2), parities);
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Checks that identical bodies are stored once and shared by their messages, while uuid, timestamps and
+     * MdibVersionGroups are still stored for every message.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testIdenticalBodiesAreStoredOnce(@TempDir final File dir) throws Exception {
+        final int messageCount = 12;
+        final int distinctBodies = 3;
+        final Map<String, String> expectedBodies = new HashMap<>();
+        try (final MessageStorage messageStorage = new MessageStorage(
+                4, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            for (int i = 0; i < messageCount; i++) {
+                final String body = String.format(
+                        BASE_MESSAGE_STRING,
+                        "action",
+                        String.format(SEQUENCE_ID_METRIC_BODY_STRING, String.valueOf(i % distinctBodies), "1"));
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        this.messageContext,
+                        messageStorage)) {
+                    message.write(body.getBytes(StandardCharsets.UTF_8));
+                    expectedBodies.put(message.getID(), body);
+                }
+            }
+            messageStorage.flush();
+
+            assertEquals(distinctBodies, messageStorage.getStoredEntityCount(MessageBodyEntity.class));
+            assertEquals(messageCount, messageStorage.getStoredEntityCount(MessageContent.class));
+            assertEquals(messageCount, messageStorage.getStoredEntityCount(MdibVersionGroupEntity.class));
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(messageCount, messages.size());
+                final Set<Long> nanoTimestamps = new HashSet<>();
+                final Map<String, Set<String>> uuidsByHash = new HashMap<>();
+                for (final MessageContent message : messages) {
+                    assertEquals(expectedBodies.get(message.getUuid()), message.getBody());
+                    assertArrayEquals(message.getRawMessageHash(), message.getMessageBody().getHash());
+                    assertEquals(1, message.getMdibVersionGroups().size());
+                    nanoTimestamps.add(message.getNanoTimestamp());
+                    uuidsByHash
+                            .computeIfAbsent(message.getMessageHash(), hash -> new HashSet<>())
+                            .add(message.getUuid());
+                }
+                assertEquals(messageCount, nanoTimestamps.size());
+                assertEquals(distinctBodies, uuidsByHash.size());
+                uuidsByHash.values().forEach(uuids -> assertEquals(messageCount / distinctBodies, uuids.size()));
+            }
+        }
+
+        try (final MessageStorage reopened = new MessageStorage(
+                4,
+                false,
+                true,
+                mock(MessageFactory.class),
+                new ExistingDatabaseHibernateConfig(dir),
+                this.testRunObserver)) {
+            try (final var views = reopened.getInboundSoapMessageViews()) {
+                final var count = new AtomicInteger(0);
+                views.getStream().forEach(view -> {
+                    assertEquals(expectedBodies.get(view.getUuid()), view.getBody());
+                    count.incrementAndGet();
+                });
+                assertEquals(messageCount, count.get());
+            }
+        }
+        verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+    }
+
+    /**
+     * Checks that messages collected while the ring buffer is full are spilled to disk, stored once replayed and that
+     * the spill file is removed when the storage is closed.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testSpillWhileRingBufferIsFull(@TempDir final File dir) throws Exception {
+        final int messageCount = 200;
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1,
+                false,
+                true,
+                1L,
+                1L,
+                true,
+                dir,
+                mock(MessageFactory.class),
+                new HibernateConfigImpl(dir),
+                this.testRunObserver)) {
+            final CommunicationContext communicationContext = new CommunicationContext(
+                    new HttpApplicationInfo(ArrayListMultimap.create(), "transactionId", "requestURI"),
+                    new TransportInfo("http", "localhost", 1234, "remotehost", 4567, List.of()),
+                    null);
+
+            final Set<String> expectedIds = new HashSet<>();
+            for (int i = 0; i < messageCount; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        communicationContext,
+                        messageStorage)) {
+                    message.write(ACTION_ENVELOPE);
+                    expectedIds.add(message.getID());
+                }
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                final List<MessageContent> messages = inboundMessages.getStream().toList();
+                assertEquals(expectedIds, messages.stream().map(MessageContent::getUuid).collect(Collectors.toSet()));
+                messages.forEach(message -> {
+                    assertEquals(Set.of("action"), message.getActions());
+                    assertEquals("remotehost", message.getSender());
+                });
+            }
+            verify(this.testRunObserver, never()).invalidateTestRun(anyString());
+        }
+        assertFalse(new File(dir, MessageStorage.SPILL_FILE_NAME).exists());
+    }
+
+    /**
+     * Checks that createIndexes() creates all indexes once and that the storage can still be written to and queried
+     * afterwards.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testCreateIndexes(@TempDir final File dir) throws Exception {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.messageContext,
+                    messageStorage)) {
+                message.write("before".getBytes(StandardCharsets.UTF_8));
+            }
+            messageStorage.flush();
+
+            messageStorage.createIndexes();
+            // must not attempt to create the indexes again
+            messageStorage.createIndexes();
+
+            try (final Connection connection = DriverManager.getConnection(
+                    "jdbc:derby:" + Path.of(dir.getAbsolutePath(), "Database"))) {
+                for (final DatabaseIndex index : DatabaseIndex.values()) {
+                    final var indexNames = new HashSet<String>();
+                    try (final ResultSet indexInfo = connection
+                            .getMetaData()
+                            .getIndexInfo(null, null, index.getTableName().toUpperCase(Locale.ROOT), false, false)) {
+                        while (indexInfo.next()) {
+                            indexNames.add(indexInfo.getString("INDEX_NAME"));
+                        }
+                    }
+                    assertTrue(
+                            indexNames.contains(index.getIndexName().toUpperCase(Locale.ROOT)),
+                            "Missing index " + index.getIndexName() + ", found " + indexNames);
+                }
+            }
+
+            try (final Message message = new Message(
+                    CommunicationLog.Direction.INBOUND,
+                    CommunicationLog.MessageType.REQUEST,
+                    this.messageContext,
+                    messageStorage)) {
+                message.write("after".getBytes(StandardCharsets.UTF_8));
+            }
+            messageStorage.flush();
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertEquals(
+                        Set.of("before", "after"),
+                        new HashSet<>(inboundMessages
+                                .getStream()
+                                .map(MessageContent::getBody)
+                                .toList()));
+            }
+        }
+    }
+
+    /**
+     * Checks that a message stored a second time with the same uuid is rejected by the unique index created together
+     * with the schema, before createIndexes() has been called.
+     *
+     * @param dir - a temporary directory.
+     * @throws Exception - when something goes wrong.
+     */
+    @Test
+    public void testDuplicateUuidIsRejectedWhileCollecting(@TempDir final File dir) throws Exception {
+        try (final MessageStorage messageStorage = new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), this.testRunObserver)) {
+            final String uuid = UUID.randomUUID().toString();
+            for (final String body : List.of("first", "second")) {
+                final var message = mock(Message.class);
+                when(message.getID()).thenReturn(uuid);
+                when(message.getDirection()).thenReturn(CommunicationLog.Direction.INBOUND);
+                when(message.getMessageType()).thenReturn(CommunicationLog.MessageType.REQUEST);
+                when(message.getCommunicationContext()).thenReturn(this.messageContext);
+                when(message.getNanoTimestamp()).thenReturn(System.nanoTime());
+                when(message.getFinalMemory()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+                messageStorage.addMessage(message);
+                messageStorage.flush();
+            }
+            verify(this.testRunObserver, atLeastOnce()).invalidateTestRun(any(Throwable.class));
+
+            try (final MessageStorage.GetterResult<MessageContent> inboundMessages =
+                    messageStorage.getInboundMessages()) {
+                assertEquals(
+                        List.of("first"),
+                        inboundMessages.getStream().map(MessageContent::getBody).toList());
+            }
         }
     }
 
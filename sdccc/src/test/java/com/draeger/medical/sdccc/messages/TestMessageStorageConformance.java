@@ -0,0 +1,27 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.mockito.Mockito.mock;
+
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs the {@linkplain MessageStoreConformanceTest} against the Derby backed {@linkplain MessageStorage}.
+ */
+public class TestMessageStorageConformance extends MessageStoreConformanceTest {
+
+    @Override
+    protected MessageStore createStore(final File dir, final TestRunObserver testRunObserver) throws IOException {
+        return new MessageStorage(
+                1, false, true, mock(MessageFactory.class), new HibernateConfigImpl(dir), testRunObserver);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.draeger.medical.sdccc.messages.guice.MessageFactory;
+import com.draeger.medical.sdccc.messages.mapping.ManipulationData;
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import com.draeger.medical.sdccc.tests.util.ManipulationParameterUtil;
+import com.draeger.medical.sdccc.util.Constants;
+import com.draeger.medical.sdccc.util.TestRunObserver;
+import com.draeger.medical.t2iapi.ResponseTypes;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.somda.sdc.dpws.CommunicationLog;
+import org.somda.sdc.dpws.soap.ApplicationInfo;
+import org.somda.sdc.dpws.soap.CommunicationContext;
+import org.somda.sdc.dpws.soap.TransportInfo;
+
+/**
+ * Runs the {@linkplain MessageStoreConformanceTest} against the {@linkplain SegmentLogStore}.
+ */
+public class TestSegmentLogStoreConformance extends MessageStoreConformanceTest {
+    // small enough for the tests to roll over into new segments
+    private static final long SEGMENT_SIZE = 4096;
+
+    @Override
+    protected MessageStore createStore(final File dir, final TestRunObserver testRunObserver) throws IOException {
+        return new SegmentLogStore(
+                dir.toPath(), SEGMENT_SIZE, 1, false, true, 0, mock(MessageFactory.class), testRunObserver);
+    }
+
+    /**
+     * Tests whether messages spread over several segments can be read back by their uuid.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testReadAcrossSegments(@TempDir final File dir) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        try (final SegmentLogStore store = (SegmentLogStore) createStore(dir, mock(TestRunObserver.class))) {
+            final List<String> uuids = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                try (final Message message = new Message(
+                        CommunicationLog.Direction.INBOUND,
+                        CommunicationLog.MessageType.REQUEST,
+                        communicationContext,
+                        store)) {
+                    message.write(("message " + i + " ".repeat(500)).getBytes(StandardCharsets.UTF_8));
+                    uuids.add(message.getID());
+                }
+            }
+            store.flush();
+
+            assertTrue(store.getSegmentCount() > 1);
+            for (int i = 0; i < uuids.size(); i++) {
+                final MessageContent content = store.getMessageByUuid(uuids.get(i)).orElseThrow();
+                assertTrue(content.getBody().startsWith("message " + i + " "));
+            }
+            try (final MessageStore.GetterResult<MessageContent> inbound = store.getInboundMessages()) {
+                assertEquals(uuids.size(), inbound.getStream().count());
+            }
+        }
+    }
+
+    /**
+     * Tests whether flush returns once the messages added before it have been appended, although other messages are
+     * added continuously in the meantime.
+     *
+     * @param dir a temporary directory
+     * @throws Exception on any exception
+     */
+    @Test
+    public void testFlushDuringContinuousTraffic(@TempDir final File dir) throws Exception {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        try (final SegmentLogStore store = (SegmentLogStore) createStore(dir, mock(TestRunObserver.class))) {
+            final List<String> uuids = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                uuids.add(addMessage(store, communicationContext, "before flush " + i));
+            }
+
+            final var trafficRunning = new AtomicBoolean(true);
+            final var traffic = new Thread(() -> {
+                try {
+                    while (trafficRunning.get()) {
+                        addMessage(store, communicationContext, "during flush");
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            traffic.start();
+            try {
+                assertTimeoutPreemptively(Duration.ofSeconds(30), store::flush);
+            } finally {
+                trafficRunning.set(false);
+                traffic.join();
+            }
+
+            for (final String uuid : uuids) {
+                assertTrue(store.getMessageByUuid(uuid).isPresent());
+            }
+        }
+    }
+
+    /**
+     * Tests whether the messages and manipulations of a closed storage can be queried after reopening it, and whether
+     * the reopened storage rejects new messages.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testReopenRebuildsIndexes(@TempDir final File dir) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        final List<String> uuids = new ArrayList<>();
+        try (final MessageStore previousRun = createStore(dir, mock(TestRunObserver.class))) {
+            for (int i = 0; i < 20; i++) {
+                uuids.add(addMessage(previousRun, communicationContext, "message " + i + " ".repeat(500)));
+            }
+            previousRun.createManipulationInfo(
+                    1000,
+                    1500,
+                    ResponseTypes.Result.RESULT_SUCCESS,
+                    "{}",
+                    "sendHello",
+                    ManipulationParameterUtil.buildEmptyManipulationParameterData());
+        }
+
+        final var testRunObserver = mock(TestRunObserver.class);
+        try (final SegmentLogStore reevaluation =
+                SegmentLogStore.reopen(dir.toPath(), mock(MessageFactory.class), testRunObserver)) {
+            assertTrue(reevaluation.getSegmentCount() > 1);
+            for (int i = 0; i < uuids.size(); i++) {
+                final MessageContent content = reevaluation.getMessageByUuid(uuids.get(i)).orElseThrow();
+                assertTrue(content.getBody().startsWith("message " + i + " "));
+            }
+            try (final MessageStore.GetterResult<MessageContent> inbound = reevaluation.getInboundMessages()) {
+                assertEquals(uuids.size(), inbound.getStream().count());
+            }
+            try (final MessageStore.GetterResult<ManipulationData> manipulations =
+                    reevaluation.getManipulationDataByManipulation("sendHello")) {
+                assertEquals(1, manipulations.getStream().count());
+            }
+
+            addMessage(reevaluation, communicationContext, "other body");
+            verify(testRunObserver, atLeastOnce()).invalidateTestRun(anyString());
+        }
+    }
+
+    /**
+     * Tests whether a record which has only been written partially before a crash is skipped when reopening.
+     *
+     * @param dir a temporary directory
+     * @throws IOException on io exceptions
+     */
+    @Test
+    public void testReopenSkipsPartiallyWrittenRecord(@TempDir final File dir) throws IOException {
+        final var communicationContext = new CommunicationContext(
+                new ApplicationInfo(),
+                new TransportInfo(Constants.HTTP_SCHEME, null, null, null, null, List.of()),
+                null);
+        final String uuid;
+        try (final MessageStore previousRun = createStore(dir, mock(TestRunObserver.class))) {
+            uuid = addMessage(previousRun, communicationContext, "complete");
+            addMessage(previousRun, communicationContext, "partial");
+        }
+        final Path segment =
+                dir.toPath().resolve(SegmentLog.SEGMENT_FILE_PREFIX + "00000" + SegmentLog.SEGMENT_FILE_SUFFIX);
+        try (final FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (final SegmentLogStore reevaluation =
+                SegmentLogStore.reopen(dir.toPath(), mock(MessageFactory.class), mock(TestRunObserver.class))) {
+            try (final MessageStore.GetterResult<MessageContent> inbound = reevaluation.getInboundMessages()) {
+                final List<MessageContent> messages = inbound.getStream().toList();
+                assertEquals(1, messages.size());
+                assertEquals(uuid, messages.get(0).getUuid());
+            }
+        }
+    }
+
+    private static String addMessage(
+            final MessageStore store, final CommunicationContext communicationContext, final String body)
+            throws IOException {
+        try (final Message message = new Message(
+                CommunicationLog.Direction.INBOUND, CommunicationLog.MessageType.REQUEST, communicationContext, store)) {
+            message.write(body.getBytes(StandardCharsets.UTF_8));
+            return message.getID();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@linkplain XmlDeclarationScanner}.
+ */
+public class TestXmlDeclarationScanner {
+
+    // the patterns used to determine the declared encoding before the scanner was introduced
+    private static final Pattern REFERENCE_PATTERN_DOUBLE_QUOTES =
+            Pattern.compile(".*<\\?.*encoding\\s*=\\s*\"([^\"]*)\".*\\?>.*", Pattern.DOTALL);
+    private static final Pattern REFERENCE_PATTERN_SINGLE_QUOTES =
+            Pattern.compile(".*<\\?.*encoding\\s*=\\s*'([^']*)'.*\\?>.*", Pattern.DOTALL);
+
+    private static final String LARGE_BODY_ELEMENT = "<pm:Value Samples=\"1 2 3 4 5 6 7 8 9 10\"/>\n";
+    private static final int LARGE_BODY_SIZE = 1024 * 1024;
+
+    /**
+     * Tests whether the declared encoding is found for double and single quoted pseudo attributes.
+     */
+    @Test
+    public void testFindEncoding() {
+        assertEquals(
+                "ISO-8859-1",
+                XmlDeclarationScanner.findEncoding(
+                        "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<sometag></sometag>"
+                                .getBytes(StandardCharsets.ISO_8859_1),
+                        StandardCharsets.US_ASCII));
+        assertEquals(
+                "ISO-8859-1",
+                XmlDeclarationScanner.findEncoding(
+                        "<?xml version='1.0' encoding = 'ISO-8859-1' standalone='yes'?>\n<sometag></sometag>"
+                                .getBytes(StandardCharsets.ISO_8859_1),
+                        StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Tests whether the declared encoding is found in declarations preceded by a byte order mark and in declarations
+     * using multiple bytes or EBCDIC bit patterns per character.
+     */
+    @Test
+    public void testFindEncodingInNonAsciiDeclarations() {
+        for (final Charset charset : List.of(
+                StandardCharsets.UTF_16BE,
+                StandardCharsets.UTF_16LE,
+                Charset.forName("UTF-32BE"),
+                Charset.forName("UTF-32LE"),
+                Charset.forName("ebcdic-gb-285+euro"))) {
+            final var content = String.format(
+                    "<?xml version=\"1.0\" encoding=\"%s\"?>%n<sometag></sometag>", charset.name());
+            assertEquals(charset.name(), XmlDeclarationScanner.findEncoding(content.getBytes(charset), charset));
+        }
+
+        final var withByteOrderMark = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<sometag></sometag>";
+        assertEquals(
+                "UTF-8",
+                XmlDeclarationScanner.findEncoding(
+                        withByteOrderMark.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests whether no encoding is found for messages without an XML declaration or without an encoding declaration.
+     */
+    @Test
+    public void testNoEncodingDeclared() {
+        assertNull(XmlDeclarationScanner.findEncoding(new byte[0], StandardCharsets.UTF_8));
+        assertNull(XmlDeclarationScanner.findEncoding(
+                "<sometag encoding=\"UTF-16\"></sometag>".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+        assertNull(XmlDeclarationScanner.findEncoding(
+                "<?xml version=\"1.0\"?>\n<sometag></sometag>".getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+        assertNull(XmlDeclarationScanner.findEncoding(
+                "<?xml version=\"1.0\" encoding=\"UTF-8".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests whether encoding attributes after the XML declaration are ignored.
+     */
+    @Test
+    public void testEncodingOutsideOfDeclarationIsIgnored() {
+        final var content = "<?xml version=\"1.0\"?>\n<?pi encoding=\"UTF-16\"?><sometag encoding=\"UTF-16\"/>";
+        assertNull(XmlDeclarationScanner.findEncoding(
+                content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests whether the scanner determines the same encoding as the previously used patterns for large messages,
+     * which are only scanned up to the end of their XML declaration.
+     */
+    @Test
+    public void testLargeMessagesMatchReferencePatterns() {
+        final var body = new StringBuilder("<sometag>");
+        while (body.length() < LARGE_BODY_SIZE) {
+            body.append(LARGE_BODY_ELEMENT);
+        }
+        body.append("</sometag>");
+
+        for (final String declaration : List.of(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n",
+                "<?xml version='1.0' encoding='ISO-8859-1'?>\n",
+                "<?xml version=\"1.0\"?>\n")) {
+            final var content = (declaration + body).getBytes(StandardCharsets.UTF_8);
+            assertEquals(
+                    findEncodingWithReferencePatterns(content),
+                    XmlDeclarationScanner.findEncoding(content, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String findEncodingWithReferencePatterns(final byte[] content) {
+        final var decoded = new String(content, StandardCharsets.UTF_8);
+        final var doubleQuotes = REFERENCE_PATTERN_DOUBLE_QUOTES.matcher(decoded);
+        if (doubleQuotes.matches()) {
+            return doubleQuotes.group(1);
+        }
+        final var singleQuotes = REFERENCE_PATTERN_SINGLE_QUOTES.matcher(decoded);
+        if (singleQuotes.matches()) {
+            return singleQuotes.group(1);
+        }
+        return null;
+    }
+}
@@ -66,6 +66,17 @@ public final class InjectorUtil {
                             @Override
                             protected void configureCommlogSettings() {
                                 bind(TestSuiteConfig.COMMLOG_MESSAGE_BUFFER_SIZE, int.class, 1);
+                                bind(TestSuiteConfig.COMMLOG_CONVERSION_THREADS, long.class, 0L);
+                                bind(TestSuiteConfig.COMMLOG_INSERT_THREADS, long.class, 0L);
+                                bind(TestSuiteConfig.COMMLOG_INSERT_BATCH_SIZE, long.class, 20L);
+                                bind(TestSuiteConfig.COMMLOG_SPILL_TO_DISK, boolean.class, false);
+                                bind(
+                                        TestSuiteConfig.COMMLOG_STORAGE_ENGINE,
+                                        String.class,
+                                        TestSuiteConfig.COMMLOG_STORAGE_ENGINE_DATABASE);
+                                bind(TestSuiteConfig.COMMLOG_COMPRESS_BODIES, boolean.class, false);
+                                bind(TestSuiteConfig.COMMLOG_COMPRESSION_TRAINING_SAMPLES, long.class, 100L);
+                                bind(TestSuiteConfig.COMMLOG_EXPORT_ARCHIVE, boolean.class, false);
                             }
                         },
                         new DefaultEnabledTestConfig(),
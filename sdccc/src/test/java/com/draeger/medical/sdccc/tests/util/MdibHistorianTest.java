@@ -16,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +63,7 @@ import org.somda.sdc.biceps.consumer.access.RemoteMdibAccess;
 import org.somda.sdc.biceps.model.message.AbstractReport;
 import org.somda.sdc.biceps.model.message.OperationInvokedReport;
 import org.somda.sdc.biceps.model.message.SystemErrorReport;
+import org.somda.sdc.biceps.model.participant.AbstractMetricState;
 import org.somda.sdc.biceps.model.participant.CodedValue;
 import org.somda.sdc.biceps.model.participant.LocalizedText;
 import org.somda.sdc.biceps.model.participant.LocalizedTextWidth;
@@ -93,11 +95,13 @@ public class MdibHistorianTest {
     private MdibBuilder mdibBuilder;
     private SoapMarshalling soapMarshalling;
     private JaxbMarshalling jaxbMarshalling;
+    private UnmarshalledMessageCache unmarshalledMessageCache;
 
     @BeforeEach
     void setUp() throws IOException {
         final Injector historianInjector = TestClientUtil.createClientInjector();
         historianFactory = historianInjector.getInstance(MdibHistorianFactory.class);
+        unmarshalledMessageCache = historianInjector.getInstance(UnmarshalledMessageCache.class);
 
         final Injector marshallingInjector = MarshallingUtil.createMarshallingTestInjector(true);
         messageStorageUtil = marshallingInjector.getInstance(MessageStorageUtil.class);
@@ -1144,6 +1148,286 @@ public class MdibHistorianTest {
         assertEquals(2, processedMdibVersionsBySequence.get(sequenceIds.get(1)).size());
     }
 
+    /**
+     * Tests whether the replay engine hands every revision and every consecutive pair to all registered visitors
+     * and isolates a failing visitor from the others.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testReplayAllMultipleVisitors() throws Exception {
+        final var sequenceIds = List.of("seq-1", "seq-2");
+
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceIds.get(0), BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(sequenceIds.get(0), BigInteger.TWO, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(sequenceIds.get(0), BigInteger.valueOf(3), BigInteger.TWO));
+
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceIds.get(1), BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicAlertReport(sequenceIds.get(1), BigInteger.TWO, BigInteger.ONE));
+
+        final var mockObserver = mock(TestRunObserver.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mockObserver);
+
+        final Map<String, List<BigInteger>> revisions = new HashMap<>();
+        final List<List<BigInteger>> pairs = new ArrayList<>();
+        final var failingVisitorCalls = new AtomicInteger();
+
+        final var revisionVisitor = MdibReplayVisitor.ofRevisions((mdibAccess, sequenceId) -> revisions
+                .computeIfAbsent(sequenceId, id -> new ArrayList<>())
+                .add(mdibAccess.getMdibVersion().getVersion()));
+        final var pairVisitor = MdibReplayVisitor.ofConsecutivePairs((previous, current) -> pairs.add(List.of(
+                previous.getMdibVersion().getVersion(),
+                current.getMdibVersion().getVersion())));
+        final var failingVisitor = MdibReplayVisitor.ofRevisions((mdibAccess, sequenceId) -> {
+            failingVisitorCalls.incrementAndGet();
+            fail("expected failure");
+        });
+
+        final var engine = historian.replayAll(List.of(revisionVisitor, pairVisitor, failingVisitor));
+
+        assertEquals(List.of(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3)), revisions.get(sequenceIds.get(0)));
+        assertEquals(List.of(BigInteger.ONE, BigInteger.TWO), revisions.get(sequenceIds.get(1)));
+        assertEquals(
+                List.of(
+                        List.of(BigInteger.ONE, BigInteger.TWO),
+                        List.of(BigInteger.TWO, BigInteger.valueOf(3)),
+                        List.of(BigInteger.ONE, BigInteger.TWO)),
+                pairs);
+
+        assertEquals(1, failingVisitorCalls.get());
+        assertTrue(engine.getFailure(failingVisitor).isPresent());
+        assertTrue(engine.getFailure(revisionVisitor).isEmpty());
+        assertTrue(engine.getFailure(pairVisitor).isEmpty());
+        assertThrows(AssertionError.class, () -> engine.throwIfFailed(failingVisitor));
+        assertDoesNotThrow(() -> engine.throwIfFailed(revisionVisitor));
+    }
+
+    /**
+     * Tests whether the registered checks of all test cases are evaluated during a single shared replay, while an
+     * unregistered check is replayed on its own.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testSharedMdibReplay() throws Exception {
+        final var sequenceId = MdibBuilder.DEFAULT_SEQUENCE_ID;
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+        messageStorageUtil.addInboundSecureHttpMessage(
+                storage, buildEpisodicMetricReport(sequenceId, BigInteger.TWO, BigInteger.ONE));
+
+        final var mockClient = mock(TestClient.class);
+        when(mockClient.getInjector()).thenReturn(InjectorTestBase.getInjector());
+        final var sharedReplay = new SharedMdibReplay(storage, mock(TestRunObserver.class), mockClient);
+
+        final var firstRevisions = new AtomicInteger();
+        final var secondRevisions = new AtomicInteger();
+        final var failingVerifications = new AtomicInteger();
+        sharedReplay.register(
+                "first",
+                new MdibReplayCheck(
+                        MdibReplayVisitor.ofRevisions(mdibAccess -> firstRevisions.incrementAndGet()), () -> {}));
+        sharedReplay.register(
+                "second",
+                new MdibReplayCheck(
+                        MdibReplayVisitor.ofRevisions(mdibAccess -> secondRevisions.incrementAndGet()), () -> {}));
+        sharedReplay.register(
+                "failing",
+                new MdibReplayCheck(
+                        MdibReplayVisitor.ofRevisions(mdibAccess -> fail("expected failure")),
+                        failingVerifications::incrementAndGet));
+
+        sharedReplay.verify("first", () -> fail("check is registered"));
+        // the first verification has replayed the history for all registered checks
+        assertEquals(2, firstRevisions.get());
+        assertEquals(2, secondRevisions.get());
+
+        sharedReplay.verify("second", () -> fail("check is registered"));
+        assertEquals(2, firstRevisions.get());
+        assertEquals(2, secondRevisions.get());
+
+        assertThrows(AssertionError.class, () -> sharedReplay.verify("failing", () -> fail("check is registered")));
+        assertEquals(0, failingVerifications.get());
+
+        // checks which have not been registered are replayed on their own
+        final var unregisteredRevisions = new AtomicInteger();
+        sharedReplay.verify(
+                "unregistered",
+                () -> new MdibReplayCheck(
+                        MdibReplayVisitor.ofRevisions(mdibAccess -> unregisteredRevisions.incrementAndGet()),
+                        () -> {}));
+        assertEquals(2, unregisteredRevisions.get());
+        assertEquals(2, firstRevisions.get());
+    }
+
+    /**
+     * Tests whether uniqueEpisodicReportBasedMdibUntilTimestamp() yields the same mdib as replaying the history from
+     * the initial mdib, regardless of the checkpoint it starts from.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testUniqueEpisodicReportBasedMdibUntilTimestampCheckpoints() throws Exception {
+        final var sequenceId = MdibBuilder.DEFAULT_SEQUENCE_ID;
+        final var timestamps = new ArrayList<Long>();
+
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+        timestamps.add(System.nanoTime());
+        for (int i = 1; i <= 4; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(sequenceId, BigInteger.valueOf(i + 1), BigInteger.valueOf(i)));
+            timestamps.add(System.nanoTime());
+        }
+
+        final var mockObserver = mock(TestRunObserver.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mockObserver);
+
+        // the first call creates a checkpoint after every report, later calls start from earlier checkpoints
+        for (int i = timestamps.size() - 1; i >= 0; i--) {
+            final var replayedMdib =
+                    historian.uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, timestamps.get(i), 1);
+            assertEquals(i, replayedMdib.appliedReportCount());
+            assertEquals(BigInteger.valueOf(i + 1), replayedMdib.mdibAccess().getMdibVersion().getVersion());
+
+            try (final var history = historianFactory
+                    .createMdibHistorian(storage, mockObserver)
+                    .uniqueEpisodicReportBasedHistoryUntilTimestamp(sequenceId, timestamps.get(i))) {
+                RemoteMdibAccess expected = history.next();
+                for (var next = history.next(); next != null; next = history.next()) {
+                    expected = next;
+                }
+                assertEquals(
+                        expected.getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                                .map(AbstractMetricState::getStateVersion),
+                        replayedMdib
+                                .mdibAccess()
+                                .getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                                .map(AbstractMetricState::getStateVersion));
+            }
+        }
+        verify(mockObserver, times(0)).invalidateTestRun(anyString());
+    }
+
+    /**
+     * Tests whether uniqueEpisodicReportBasedMdibUntilTimestamp() yields the same mdib as replaying the history from
+     * the initial mdib when later calls request later timestamps and the checkpoints are extended lazily.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testUniqueEpisodicReportBasedMdibUntilTimestampLazyCheckpoints() throws Exception {
+        final var sequenceId = MdibBuilder.DEFAULT_SEQUENCE_ID;
+        final var timestamps = new ArrayList<Long>();
+
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+        timestamps.add(System.nanoTime());
+        for (int i = 1; i <= 4; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(sequenceId, BigInteger.valueOf(i + 1), BigInteger.valueOf(i)));
+            timestamps.add(System.nanoTime());
+        }
+
+        final var mockObserver = mock(TestRunObserver.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mockObserver);
+
+        // every call only records checkpoints up to its timestamp and continues from the ones recorded before
+        for (int i = 0; i < timestamps.size(); i++) {
+            final var replayedMdib =
+                    historian.uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, timestamps.get(i), 1);
+            assertEquals(i, replayedMdib.appliedReportCount());
+            assertEquals(BigInteger.valueOf(i + 1), replayedMdib.mdibAccess().getMdibVersion().getVersion());
+        }
+        // earlier timestamps are still answered from the checkpoints recorded so far
+        final var replayedMdib =
+                historian.uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, timestamps.get(2), 1);
+        assertEquals(2, replayedMdib.appliedReportCount());
+        assertEquals(BigInteger.valueOf(3), replayedMdib.mdibAccess().getMdibVersion().getVersion());
+        verify(mockObserver, times(0)).invalidateTestRun(anyString());
+    }
+
+    /**
+     * Tests whether uniqueEpisodicReportBasedMdibUntilTimestamp() still yields the correct mdib for a sequence whose
+     * checkpoints have been dropped because more recently used sequences have been replayed.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testUniqueEpisodicReportBasedMdibUntilTimestampEvictsCheckpoints() throws Exception {
+        final var sequenceIds = new ArrayList<String>();
+        for (int i = 0; i <= MdibHistorian.MAXIMUM_CHECKPOINTED_SEQUENCES; i++) {
+            final var sequenceId = "sequence" + i;
+            sequenceIds.add(sequenceId);
+            messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage, buildEpisodicMetricReport(sequenceId, BigInteger.TWO, BigInteger.ONE));
+        }
+        final var timestamp = System.nanoTime();
+
+        final var mockObserver = mock(TestRunObserver.class);
+        final var historian = historianFactory.createMdibHistorian(storage, mockObserver);
+
+        // the first sequence is replayed again after its checkpoints have been dropped
+        for (final var sequenceId : sequenceIds) {
+            assertEquals(
+                    1,
+                    historian
+                            .uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceId, timestamp, 1)
+                            .appliedReportCount());
+        }
+        final var replayedMdib =
+                historian.uniqueEpisodicReportBasedMdibUntilTimestamp(sequenceIds.get(0), timestamp, 1);
+        assertEquals(1, replayedMdib.appliedReportCount());
+        assertEquals(BigInteger.TWO, replayedMdib.mdibAccess().getMdibVersion().getVersion());
+        verify(mockObserver, times(0)).invalidateTestRun(anyString());
+    }
+
+    /**
+     * Tests whether replaying a history leaves the cached reports and mdibs unmodified, which are shared by every
+     * consumer of the {@linkplain UnmarshalledMessageCache}. A second replay served from the cache has to yield the
+     * same mdibs as the first one.
+     *
+     * @throws Exception on any exception
+     */
+    @Test
+    void testReplayDoesNotModifyCachedBodies() throws Exception {
+        final var sequenceId = MdibBuilder.DEFAULT_SEQUENCE_ID;
+        messageStorageUtil.addInboundSecureHttpMessage(storage, buildMdibEnvelope(sequenceId, BigInteger.ONE));
+        for (int i = 1; i <= 4; i++) {
+            messageStorageUtil.addInboundSecureHttpMessage(
+                    storage,
+                    buildEpisodicMetricReport(sequenceId, BigInteger.valueOf(i + 1), BigInteger.valueOf(i)));
+        }
+        final var mockObserver = mock(TestRunObserver.class);
+
+        final var firstReplay = replayMetricStateVersions(sequenceId, mockObserver);
+        assertEquals(5, firstReplay.size());
+        final var hitCount = unmarshalledMessageCache.getHitCount();
+
+        final var secondReplay = replayMetricStateVersions(sequenceId, mockObserver);
+        assertTrue(unmarshalledMessageCache.getHitCount() > hitCount);
+        assertEquals(firstReplay, secondReplay);
+        verify(mockObserver, times(0)).invalidateTestRun(anyString());
+    }
+
+    private List<List<Object>> replayMetricStateVersions(final String sequenceId, final TestRunObserver observer)
+            throws PreprocessingException, ReportProcessingException {
+        final var result = new ArrayList<List<Object>>();
+        try (final var history =
+                historianFactory.createMdibHistorian(storage, observer).episodicReportBasedHistory(sequenceId)) {
+            for (var mdib = history.next(); mdib != null; mdib = history.next()) {
+                result.add(List.of(
+                        mdib.getMdibVersion().getVersion(),
+                        mdib.getState(STRING_METRIC_HANDLE, AbstractMetricState.class)
+                                .map(AbstractMetricState::getStateVersion)));
+            }
+        }
+        return result;
+    }
+
     /**
      * Tests if episodicReportBasedHistory() gracefully ignores a given report.
      * @param report - the report to ignore
@@ -0,0 +1,130 @@
+/*
+ * This Source Code Form is subject to the terms of the MIT License.
+ * Copyright (c) 2026 Draegerwerk AG & Co. KGaA.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.draeger.medical.sdccc.tests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.draeger.medical.sdccc.messages.mapping.MessageContent;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.somda.sdc.biceps.model.message.AbstractReport;
+import org.somda.sdc.biceps.model.message.GetMdibResponse;
+import org.somda.sdc.dpws.soap.MarshallingService;
+import org.somda.sdc.dpws.soap.SoapMessage;
+import org.somda.sdc.dpws.soap.SoapUtil;
+import org.somda.sdc.dpws.soap.exception.MarshallingException;
+
+/**
+ * Unit tests for the {@linkplain UnmarshalledMessageCache}.
+ */
+public class UnmarshalledMessageCacheTest {
+
+    private MarshallingService marshalling;
+    private SoapUtil soapUtil;
+    private AbstractReport report;
+
+    @BeforeEach
+    void setUp() throws MarshallingException {
+        marshalling = mock(MarshallingService.class);
+        soapUtil = mock(SoapUtil.class);
+        report = mock(AbstractReport.class);
+
+        final var soapMessage = mock(SoapMessage.class);
+        when(marshalling.unmarshal(any(InputStream.class))).thenReturn(soapMessage);
+        when(soapUtil.getBody(any(), eq(AbstractReport.class))).thenReturn(Optional.of(report));
+        when(soapUtil.getBody(any(), eq(GetMdibResponse.class))).thenReturn(Optional.empty());
+    }
+
+    /**
+     * Tests whether a message is only unmarshalled once while it is cached.
+     *
+     * @throws MarshallingException on marshalling exceptions
+     */
+    @Test
+    @DisplayName("Cached bodies are not unmarshalled again")
+    public void testCacheHit() throws MarshallingException {
+        final var cache = new UnmarshalledMessageCache(marshalling, soapUtil);
+        final var messageContent = mockMessageContent(10);
+
+        assertSame(report, cache.getBody(messageContent, AbstractReport.class).orElseThrow());
+        assertSame(report, cache.getBody(messageContent, AbstractReport.class).orElseThrow());
+
+        verify(marshalling, times(1)).unmarshal(any(InputStream.class));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests whether the least recently used bodies are evicted once the summed length of the serialized bodies exceeds the maximum.
+     *
+     * @throws MarshallingException on marshalling exceptions
+     */
+    @Test
+    @DisplayName("Least recently used bodies are evicted when the cache is full")
+    public void testEviction() throws MarshallingException {
+        final var cache = new UnmarshalledMessageCache(marshalling, soapUtil, 20);
+        final var first = mockMessageContent(10);
+        final var second = mockMessageContent(10);
+        final var third = mockMessageContent(10);
+
+        cache.getBody(first, AbstractReport.class);
+        cache.getBody(second, AbstractReport.class);
+        // first is now the most recently used body
+        cache.getBody(first, AbstractReport.class);
+        cache.getBody(third, AbstractReport.class);
+        assertEquals(1, cache.getEvictionCount());
+
+        // second has been evicted, first is still present
+        cache.getBody(first, AbstractReport.class);
+        assertEquals(2, cache.getHitCount());
+        cache.getBody(second, AbstractReport.class);
+        assertEquals(4, cache.getMissCount());
+
+        verify(marshalling, times(4)).unmarshal(any(InputStream.class));
+    }
+
+    /**
+     * Tests whether bodies of an unexpected type are neither returned nor cached.
+     *
+     * @throws MarshallingException on marshalling exceptions
+     */
+    @Test
+    @DisplayName("Bodies of an unexpected type are not cached")
+    public void testUnexpectedBodyType() throws MarshallingException {
+        final var cache = new UnmarshalledMessageCache(marshalling, soapUtil);
+        final var messageContent = mockMessageContent(10);
+
+        assertTrue(cache.getBody(messageContent, GetMdibResponse.class).isEmpty());
+        assertTrue(cache.getBody(messageContent, GetMdibResponse.class).isEmpty());
+
+        verify(marshalling, times(2)).unmarshal(any(InputStream.class));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private static MessageContent mockMessageContent(final int bodyLength) {
+        final var messageContent = mock(MessageContent.class);
+        when(messageContent.getUuid()).thenReturn(UUID.randomUUID().toString());
+        when(messageContent.getBodyLength()).thenReturn(bodyLength);
+        when(messageContent.getBodyStream()).thenAnswer(invocation -> new ByteArrayInputStream(new byte[bodyLength]));
+        return messageContent;
+    }
+}